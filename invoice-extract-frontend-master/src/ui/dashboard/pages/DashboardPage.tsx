@@ -18,6 +18,9 @@ type InvoiceRow = {
   receiverTaxId?: string;
 };
 
+// Tope de tamaño de página del backend (spring.data.web.pageable.max-page-size)
+const PAGE_SIZE = 100;
+
 export default function DashboardPage() {
   const [searchParams, setSearchParams] = useSearchParams();
   // Filtros
@@ -31,6 +34,11 @@ export default function DashboardPage() {
   const [rows, setRows] = useState<InvoiceRow[]>([]);
   const [loadingInvoices, setLoadingInvoices] = useState(false);
   const [errorInvoices, setErrorInvoices] = useState<string>("");
+  // Paginación: páginas ya cargadas, si el backend tiene más y el total que reporta
+  const pagesLoadedRef = useRef(1);
+  const [hasMore, setHasMore] = useState(false);
+  const [totalElements, setTotalElements] = useState<number | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   // Auto refresh controls
   const [autoRefreshEnabled, setAutoRefreshEnabled] = useState<boolean>(true);
   const [refreshIntervalSec, setRefreshIntervalSec] = useState<number>(30);
@@ -67,30 +75,79 @@ export default function DashboardPage() {
     const receiverTaxId = inv?.receiverTaxId || inv?.receiverNIT || inv?.receiverNit || inv?.customerTaxId || inv?.customerTaxID || inv?.buyerTaxId || undefined;
     return { id: String(id), date, provider: String(provider), amount: isNaN(amountNum) ? 0 : amountNum, status: mapStatus(inv?.status), erp, customer, pdfUrl, senderTaxId, receiverTaxId };
   };
-  const loadInvoices = async () => {
+  const fetchPage = async (page: number) => {
+    // Use backend GET /api/invoices/filter as defined in InvoiceController
+    const qs = new URLSearchParams();
+    // Nota: userOrEmail no mapea a ningún parámetro del backend; si se requiere, definimos qué campo usar.
+    // Soportados: id, senderTaxId, receiverTaxId, status, startDate, endDate
+    if (statusFilter) qs.set('status', statusFilter);
+    if (senderTaxId.trim()) qs.set('senderTaxId', senderTaxId.trim());
+    if (receiverTaxId.trim()) qs.set('receiverTaxId', receiverTaxId.trim());
+    if (from) qs.set('startDate', `${from}T00:00:00`);
+    if (to) qs.set('endDate', `${to}T23:59:59`);
+    // El backend pagina en base de datos (más recientes primero)
+    qs.set('page', String(page));
+    qs.set('size', String(PAGE_SIZE));
+    qs.set('sort', 'createdDate,desc');
+    // ERP no está soportado en el endpoint actual; filtro retirado del Dashboard.
+    const url = `${backendBase()}/api/invoices/filter?${qs}`;
+    const res = await fetch(url, { headers: { ...authHeader() } });
+    if (!res.ok) throw new Error(`HTTP ${res.status}`);
+    const data = await res.json();
+    const list = Array.isArray(data) ? data : (Array.isArray(data?.content) ? data.content : (Array.isArray(data?.items) ? data.items : []));
+    return {
+      rows: list.map(toRow) as InvoiceRow[],
+      number: typeof data?.number === 'number' ? data.number : page,
+      last: Array.isArray(data) || data?.last !== false,
+      total: typeof data?.totalElements === 'number' ? data.totalElements : null,
+    };
+  };
+  // Facturas nuevas desplazan las páginas por offset; se descartan filas repetidas
+  const mergeRows = (pages: InvoiceRow[][]) => {
+    const seen = new Set<string>();
+    return pages.flat().filter(r => {
+      if (seen.has(r.id)) return false;
+      seen.add(r.id);
+      return true;
+    });
+  };
+  // Recarga las páginas ya visibles; con resetPages (cambio de filtros) vuelve a la primera
+  const loadInvoices = async (resetPages = false) => {
+    if (resetPages) pagesLoadedRef.current = 1;
     setLoadingInvoices(true); setErrorInvoices("");
     try {
-      // Use backend GET /api/invoices/filter as defined in InvoiceController
-      const qs = new URLSearchParams();
-      // Nota: userOrEmail no mapea a ningún parámetro del backend; si se requiere, definimos qué campo usar.
-      // Soportados: id, senderTaxId, receiverTaxId, status, startDate, endDate
-      if (statusFilter) qs.set('status', statusFilter);
-      if (senderTaxId.trim()) qs.set('senderTaxId', senderTaxId.trim());
-      if (receiverTaxId.trim()) qs.set('receiverTaxId', receiverTaxId.trim());
-      if (from) qs.set('startDate', `${from}T00:00:00`);
-      if (to) qs.set('endDate', `${to}T23:59:59`);
-      // ERP no está soportado en el endpoint actual; filtro retirado del Dashboard.
-      const url = `${backendBase()}/api/invoices/filter${qs.toString() ? `?${qs}` : ''}`;
-      const res = await fetch(url, { headers: { ...authHeader() } });
-      if (!res.ok) throw new Error(`HTTP ${res.status}`);
-      const data = await res.json();
-      const list = Array.isArray(data) ? data : (Array.isArray(data?.items) ? data.items : []);
-      setRows(list.map(toRow));
+      const pages: InvoiceRow[][] = [];
+      let last = true;
+      let total: number | null = null;
+      for (let p = 0; p < pagesLoadedRef.current; p++) {
+        const page = await fetchPage(p);
+        pages.push(page.rows);
+        last = page.last;
+        total = page.total;
+        if (page.last) { pagesLoadedRef.current = p + 1; break; }
+      }
+      setRows(mergeRows(pages));
+      setHasMore(!last);
+      setTotalElements(total);
     } catch (e: any) {
       setErrorInvoices(e?.message || 'No se pudieron cargar las facturas');
       setRows([]);
+      setHasMore(false);
+      setTotalElements(null);
     } finally { setLoadingInvoices(false); }
   };
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const page = await fetchPage(pagesLoadedRef.current);
+      pagesLoadedRef.current = page.number + 1;
+      setRows(prev => mergeRows([prev, page.rows]));
+      setHasMore(!page.last);
+      setTotalElements(page.total);
+    } catch (e: any) {
+      setErrorInvoices(e?.message || 'No se pudieron cargar más facturas');
+    } finally { setLoadingMore(false); }
+  };
 
   // Initialize filters from URL params once
   useEffect(() => {
@@ -109,7 +166,7 @@ export default function DashboardPage() {
       }
     } catch {}
     // then load
-    loadInvoices();
+    loadInvoices(true);
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, []);
 
@@ -123,7 +180,7 @@ export default function DashboardPage() {
     if (senderTaxId) params.set('senderTaxId', senderTaxId);
     if (receiverTaxId) params.set('receiverTaxId', receiverTaxId);
     setSearchParams(params);
-    const id = window.setTimeout(() => { loadInvoices(); }, 350);
+    const id = window.setTimeout(() => { loadInvoices(true); }, 350);
     return () => window.clearTimeout(id);
   }, [from, to, statusFilter, senderTaxId, receiverTaxId]);
 
@@ -169,7 +226,7 @@ export default function DashboardPage() {
     if (senderTaxId) params.set('senderTaxId', senderTaxId);
     if (receiverTaxId) params.set('receiverTaxId', receiverTaxId);
     setSearchParams(params);
-    loadInvoices();
+    loadInvoices(true);
   };
   const onClearFilters = () => {
     setFrom("");
@@ -178,7 +235,7 @@ export default function DashboardPage() {
     setSenderTaxId("");
     setReceiverTaxId("");
     setSearchParams(new URLSearchParams());
-    loadInvoices();
+    loadInvoices(true);
   };
 
   const mappingsBase = () => (import.meta.env.VITE_MAPPINGS_BASE_URL || "http://localhost:8082/invoice-mapping");
@@ -405,6 +462,21 @@ export default function DashboardPage() {
             </tbody>
           </table>
         </div>
+        {!loadingInvoices && !errorInvoices && rows.length > 0 && (
+          <div style={{ display: 'flex', justifyContent: 'space-between', alignItems: 'center', gap: 8, marginTop: 12 }}>
+            <span style={{ color: 'var(--muted)', fontSize: 13 }}>
+              {`Mostrando ${rows.length}${totalElements != null ? ` de ${totalElements}` : ''} facturas`}
+            </span>
+            {hasMore && (
+              <button
+                type="button"
+                disabled={loadingMore}
+                onClick={loadMore}
+                style={{ opacity: loadingMore ? 0.7 : 1, background: 'var(--brand)', color: '#fff', border: 0, borderRadius: 8, padding: '8px 14px' }}
+              >{loadingMore ? 'Cargando…' : 'Cargar más'}</button>
+            )}
+          </div>
+        )}
       </section>
 
       <Modal open={showExport} onClose={() => setShowExport(false)}>
@@ -22,10 +22,34 @@ async function request(path: string, options: RequestInit = {}) {
     return body;
 }
 
+export type RecentInvoice = {
+    id: number;
+    documentNumber: string;
+    senderBusinessName?: string;
+    amount?: number;
+    issueDate?: string;
+    createdDate: string;
+};
+
+// One page of GET /api/invoices/recent; nextCursor is absent on the last page
+async function recent(limit = 20, before?: string): Promise<{ items: RecentInvoice[]; nextCursor?: string }> {
+    const qs = new URLSearchParams({ limit: String(limit) });
+    if (before) qs.set("before", before);
+    const res = await fetch(`${BASE_URL}/api/invoices/recent?${qs}`, {
+        headers: { Accept: "application/json", ...authHeader() } as any,
+    });
+    const body: any = parseBody(await res.text());
+    if (!res.ok) {
+        throw toUserError(res, body);
+    }
+    return { items: body || [], nextCursor: res.headers.get("X-Next-Cursor") || undefined };
+}
+
 export const invoicesApi = {
     changeStatus: (id: number | string, status: "PENDING" | "APPROVED" | "REJECTED") =>
         request(`/api/invoices/${id}/status?status=${encodeURIComponent(status)}`, {
             method: "PUT",
         }),
     getById: (id: number | string) => request(`/api/invoices/${id}`),
+    recent,
 };
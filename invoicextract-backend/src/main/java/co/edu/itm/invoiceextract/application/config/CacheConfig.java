@@ -0,0 +1,27 @@
+package co.edu.itm.invoiceextract.application.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DASHBOARD_STATS = "dashboardStats";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${invoices.dashboard.stats-ttl-ms:5000}") long statsTtlMs) {
+        CaffeineCacheManager manager = new CaffeineCacheManager(DASHBOARD_STATS);
+        manager.setCaffeine(Caffeine.newBuilder().expireAfterWrite(Duration.ofMillis(statsTtlMs)));
+        // Evictions from @Transactional writers run after commit, so readers never re-cache pre-commit data
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+}
@@ -1,5 +1,6 @@
 package co.edu.itm.invoiceextract.application.config;
 
+import co.edu.itm.invoiceextract.application.controller.InvoiceController;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -43,6 +44,9 @@ public class SecurityConfig {
                         new AntPathRequestMatcher("/actuator/health")
                 ).permitAll()
 
+                // Prometheus scrape: metrics expose topic, partition and volume details
+                .requestMatchers(new AntPathRequestMatcher("/actuator/prometheus")).hasRole("ADMIN")
+
                 // Public config endpoint (frontend uses it)
                 .requestMatchers("/config").permitAll()
 
@@ -72,6 +76,7 @@ public class SecurityConfig {
         ));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept"));
+        config.setExposedHeaders(List.of(InvoiceController.NEXT_CURSOR_HEADER));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
@@ -2,14 +2,21 @@ package co.edu.itm.invoiceextract.application.controller;
 
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
 import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
-import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.InvoiceAsyncIngestService;
+import co.edu.itm.invoiceextract.application.usecase.invoice.DuplicateInvoiceException;
 import co.edu.itm.invoiceextract.application.usecase.invoice.FetchInvoicesUseCase;
+import co.edu.itm.invoiceextract.application.usecase.invoice.ImportInvoicesUseCase;
+import co.edu.itm.invoiceextract.application.usecase.invoice.InvoiceCriteria;
 import co.edu.itm.invoiceextract.application.usecase.invoice.ManageInvoiceUseCase;
 import co.edu.itm.invoiceextract.application.mapper.invoice.InvoiceMapper;
 import co.edu.itm.invoiceextract.application.dto.invoice.DashboardStatsDTO;
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceDetailDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceCursor;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceImportResultDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceIngestStatusDTO;
 import co.edu.itm.invoiceextract.application.dto.invoice.RecentInvoiceDTO;
 import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,18 +24,32 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/invoices")
@@ -36,42 +57,105 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class InvoiceController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String LIST_PAGING_DOC = "Paged with page/size (size capped at spring.data.web.pageable.max-page-size) " +
+            "and sort, default createdDate,desc then id,desc. For deep pages pass the " + NEXT_CURSOR_HEADER +
+            " header value as 'before' to read the next slice by keyset (always newest first, no totals).";
+    private static final String STREAM_DOC = "Streams the rows from the database without materialising the whole result.";
+
+    private static final Set<String> SORTABLE_FIELDS =
+            Set.of("id", "documentNumber", "amount", "issueDate", "dueDate", "status", "createdDate", "modifiedDate");
+
     private final FetchInvoicesUseCase fetchInvoicesUseCase;
     private final ManageInvoiceUseCase manageInvoiceUseCase;
     private final InvoiceMapper mapper;
-    private final KafkaTemplate<String, InvoiceMessage> kafkaTemplate;
-    private final co.edu.itm.invoiceextract.infrastructure.messaging.mapper.InvoiceMessageMapper invoiceMessageMapper;
+    private final InvoiceAsyncIngestService asyncIngestService;
+    private final ImportInvoicesUseCase importInvoicesUseCase;
+    private final ObjectMapper objectMapper;
 
     public InvoiceController(FetchInvoicesUseCase fetchInvoicesUseCase,
                              ManageInvoiceUseCase manageInvoiceUseCase,
                              InvoiceMapper mapper,
-                             KafkaTemplate<String, InvoiceMessage> kafkaTemplate,
-                             co.edu.itm.invoiceextract.infrastructure.messaging.mapper.InvoiceMessageMapper invoiceMessageMapper) {
+                             InvoiceAsyncIngestService asyncIngestService,
+                             ImportInvoicesUseCase importInvoicesUseCase,
+                             ObjectMapper objectMapper) {
         this.fetchInvoicesUseCase = fetchInvoicesUseCase;
         this.manageInvoiceUseCase = manageInvoiceUseCase;
         this.mapper = mapper;
-        this.kafkaTemplate = kafkaTemplate;
-        this.invoiceMessageMapper = invoiceMessageMapper;
+        this.asyncIngestService = asyncIngestService;
+        this.importInvoicesUseCase = importInvoicesUseCase;
+        this.objectMapper = objectMapper;
     }
 
-    @Operation(summary = "Create invoice (v2)", description = "Creates an invoice from the new v2 payload.")
+    @Operation(summary = "Create invoice asynchronously",
+            description = "Queues the invoice on the invoices topic and answers once the broker acknowledged it, " +
+                    "without holding a request thread meanwhile. Poll the returned Location for the outcome.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Created",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Invoice.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid input")
+            @ApiResponse(responseCode = "202", description = "Queued",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = InvoiceIngestStatusDTO.class))),
+            @ApiResponse(responseCode = "503", description = "The broker could not store the invoice")
     })
     @PostMapping("/async")
-    public ResponseEntity<String> createInvoiceAsync(@RequestBody InvoiceRequestDTO invoiceDto) {
-        InvoiceMessage message = invoiceMessageMapper.toMessage(invoiceDto);
-        kafkaTemplate.send("invoices", message);
-        return ResponseEntity.ok("Request received and is being processed.");
+    public CompletableFuture<ResponseEntity<InvoiceIngestStatusDTO>> createInvoiceAsync(@RequestBody InvoiceRequestDTO invoiceDto) {
+        // Built here: the future completes on the producer thread, outside the request
+        UriComponentsBuilder location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{trackingId}");
+        return asyncIngestService.submit(invoiceDto)
+                .thenApply(status -> ResponseEntity
+                        .accepted()
+                        .location(location.buildAndExpand(status.getTrackingId()).toUri())
+                        .body(status))
+                .exceptionally(e -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    @Operation(summary = "Get asynchronous invoice status",
+            description = "QUEUED until the invoice is consumed, then PERSISTED with its id or REJECTED with the reason.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = InvoiceIngestStatusDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Unknown tracking id")
+    })
+    @GetMapping("/async/{trackingId}")
+    public ResponseEntity<InvoiceIngestStatusDTO> getAsyncStatus(@PathVariable String trackingId) {
+        try {
+            return ResponseEntity.ok(asyncIngestService.status(trackingId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Runs on the request thread rather than as a {@link StreamingResponseBody}: a large upload
+     * takes minutes, longer than an async request may stay open.
+     */
+    @Operation(summary = "Create invoices in bulk",
+            description = "Reads one invoice request per line (NDJSON) as the body arrives and stores them in batches, " +
+                    "one transaction per batch. Answers with one NDJSON result per non-blank line, in line order, written " +
+                    "as each batch commits, so clients should read the response while still sending.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per-line results",
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = InvoiceImportResultDTO.class)))
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createInvoicesInBulk(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        importInvoicesUseCase.importNdjson(body, results -> {
+            try {
+                results.forEach(result -> writeLine(out, result));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        });
     }
 
     @Operation(summary = "Create invoice (v2)", description = "Creates an invoice from the new v2 payload.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Created",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Invoice.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid input")
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "409", description = "An invoice with this document number already exists")
     })
     @PostMapping
     public ResponseEntity<InvoiceDetailDTO> create(@Valid @RequestBody InvoiceRequestDTO request) {
@@ -79,6 +163,8 @@ public class InvoiceController {
             Invoice created = manageInvoiceUseCase.createInvoice(request);
             InvoiceDetailDTO dto = mapper.toDetailDTO(created);
             return ResponseEntity.status(HttpStatus.CREATED).body(dto);
+        } catch (DuplicateInvoiceException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
@@ -120,19 +206,27 @@ public class InvoiceController {
 
     // Parity with v1 reads and actions
 
-    @Operation(summary = "Get all invoices (v2)", description = "Retrieve a list of all invoices with items.")
+    @Operation(summary = "Get all invoices (v2)", description = "Retrieve a page of invoices with items. " + LIST_PAGING_DOC)
     @GetMapping
-    public ResponseEntity<List<InvoiceDetailDTO>> getAllInvoices() {
-        List<Invoice> invoices = fetchInvoicesUseCase.findAll();
-        List<InvoiceDetailDTO> dtos = invoices.stream()
-                .map(mapper::toDetailDTO)
-                .toList();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<Slice<InvoiceDetailDTO>> getAllInvoices(
+            @Parameter(description = "Cursor from the previous slice", example = "2024-08-03T10:15:30.5_42")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Pagination and sort parameters")
+            @PageableDefault(size = 20, sort = {"createdDate", "id"}, direction = Sort.Direction.DESC) Pageable pageable) {
+        return list(InvoiceCriteria.all(), pageable, before);
     }
 
-    @Operation(summary = "Filter invoices (v2)", description = "Filter by optional criteria: id, senderTaxId, receiverTaxId, status, createdDate range")
+    @Operation(summary = "Stream all invoices (v2)", description = "Every invoice with items as NDJSON, newest first. " + STREAM_DOC)
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllInvoices() {
+        return stream(InvoiceCriteria.all());
+    }
+
+    @Operation(summary = "Filter invoices (v2)", description = "Filter by optional criteria: id, senderTaxId, receiverTaxId, status, createdDate range. " +
+            "Filtering, sorting and pagination run in the database; default sort is createdDate,desc. " +
+            "Sortable fields: id, documentNumber, amount, issueDate, dueDate, status, createdDate, modifiedDate.")
     @GetMapping("/filter")
-    public ResponseEntity<List<InvoiceDetailDTO>> filterInvoices(
+    public ResponseEntity<Page<InvoiceDetailDTO>> filterInvoices(
             @Parameter(description = "Invoice ID", example = "1")
             @RequestParam(required = false) Long id,
             @Parameter(description = "Sender tax ID", example = "987654321")
@@ -144,34 +238,30 @@ public class InvoiceController {
             @Parameter(description = "Start created date", example = "2024-01-01T00:00:00")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @Parameter(description = "End created date", example = "2024-12-31T23:59:59")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Pagination and sort parameters")
+            @PageableDefault(size = 20, sort = "createdDate", direction = Sort.Direction.DESC) Pageable pageable
     ) {
         // If ID provided, short-circuit
         if (id != null) {
-            return manageInvoiceUseCase.findInvoiceByIdWithItems(id)
+            List<InvoiceDetailDTO> found = manageInvoiceUseCase.findInvoiceByIdWithItems(id)
                     .map(mapper::toDetailDTO)
-                    .map(dto -> ResponseEntity.ok(List.of(dto)))
-                    .orElse(ResponseEntity.ok(List.of()));
+                    .map(List::of)
+                    .orElse(List.of());
+            return ResponseEntity.ok(new PageImpl<>(found, pageable, found.size()));
         }
 
-        // Fetch all and filter in-memory according to optional params
-        List<Invoice> all = fetchInvoicesUseCase.findAll();
-        List<InvoiceDetailDTO> filtered = all.stream()
-                .filter(inv -> senderTaxId == null || senderTaxId.equals(inv.getSenderTaxId()))
-                .filter(inv -> receiverTaxId == null || receiverTaxId.equals(inv.getReceiverTaxId()))
-                .filter(inv -> status == null || status == inv.getStatus())
-                .filter(inv -> {
-                    if (startDate == null && endDate == null) return true;
-                    LocalDateTime created = inv.getCreatedDate();
-                    if (created == null) return false;
-                    boolean after = startDate == null || !created.isBefore(startDate);
-                    boolean before = endDate == null || !created.isAfter(endDate);
-                    return after && before;
-                })
-                .map(mapper::toDetailDTO)
-                .collect(Collectors.toList());
+        // Unknown sort fields would otherwise fail inside the query
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_FIELDS.contains(order.getProperty())) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
 
-        return ResponseEntity.ok(filtered);
+        Page<InvoiceDetailDTO> page = fetchInvoicesUseCase
+                .filter(senderTaxId, receiverTaxId, status, startDate, endDate, pageable)
+                .map(mapper::toDetailDTO);
+        return ResponseEntity.ok(page);
     }
 
     @Operation(summary = "Get invoices with pagination (v2)", description = "Retrieve a paginated list of invoices")
@@ -182,58 +272,107 @@ public class InvoiceController {
         return ResponseEntity.ok(dtos);
     }
 
-    @Operation(summary = "Get invoices by sender tax ID (v2)", description = "Retrieve all invoices from a specific sender")
+    @Operation(summary = "Get invoices by sender tax ID (v2)", description = "Retrieve a page of invoices from a specific sender. " + LIST_PAGING_DOC)
     @GetMapping("/sender/{senderTaxId}")
-    public ResponseEntity<List<InvoiceDetailDTO>> getInvoicesBySender(
+    public ResponseEntity<Slice<InvoiceDetailDTO>> getInvoicesBySender(
+            @Parameter(description = "Sender tax ID to search for", example = "987654321")
+            @PathVariable String senderTaxId,
+            @Parameter(description = "Cursor from the previous slice", example = "2024-08-03T10:15:30.5_42")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Pagination and sort parameters")
+            @PageableDefault(size = 20, sort = {"createdDate", "id"}, direction = Sort.Direction.DESC) Pageable pageable) {
+        return list(InvoiceCriteria.bySenderTaxId(senderTaxId), pageable, before);
+    }
+
+    @Operation(summary = "Stream invoices by sender tax ID (v2)", description = "Every invoice from a specific sender as NDJSON. " + STREAM_DOC)
+    @GetMapping("/sender/{senderTaxId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamInvoicesBySender(
             @Parameter(description = "Sender tax ID to search for", example = "987654321")
             @PathVariable String senderTaxId) {
-        List<Invoice> invoices = fetchInvoicesUseCase.findBySenderTaxId(senderTaxId);
-        List<InvoiceDetailDTO> dtos = invoices.stream()
-                .map(mapper::toDetailDTO)
-                .toList();
-        return ResponseEntity.ok(dtos);
+        return stream(InvoiceCriteria.bySenderTaxId(senderTaxId));
     }
 
-    @Operation(summary = "Get invoices by document type (v2)", description = "Retrieve all invoices with a specific document type")
+    @Operation(summary = "Get invoices by document type (v2)", description = "Retrieve a page of invoices with a specific document type. " + LIST_PAGING_DOC)
     @GetMapping("/type/{documentType}")
-    public ResponseEntity<List<InvoiceDetailDTO>> getInvoicesByType(
+    public ResponseEntity<Slice<InvoiceDetailDTO>> getInvoicesByType(
+            @Parameter(description = "Document type to filter by", example = "FACTURA")
+            @PathVariable String documentType,
+            @Parameter(description = "Cursor from the previous slice", example = "2024-08-03T10:15:30.5_42")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Pagination and sort parameters")
+            @PageableDefault(size = 20, sort = {"createdDate", "id"}, direction = Sort.Direction.DESC) Pageable pageable) {
+        return list(InvoiceCriteria.byDocumentType(documentType), pageable, before);
+    }
+
+    @Operation(summary = "Stream invoices by document type (v2)", description = "Every invoice with a specific document type as NDJSON. " + STREAM_DOC)
+    @GetMapping("/type/{documentType}/stream")
+    public ResponseEntity<StreamingResponseBody> streamInvoicesByType(
             @Parameter(description = "Document type to filter by", example = "FACTURA")
             @PathVariable String documentType) {
-        List<Invoice> invoices = fetchInvoicesUseCase.findByDocumentType(documentType);
-        List<InvoiceDetailDTO> dtos = invoices.stream()
-                .map(mapper::toDetailDTO)
-                .toList();
-        return ResponseEntity.ok(dtos);
+        return stream(InvoiceCriteria.byDocumentType(documentType));
     }
 
-    @Operation(summary = "Get invoices by status (v2)", description = "Retrieve all invoices with a specific status")
+    @Operation(summary = "Get invoices by status (v2)", description = "Retrieve a page of invoices with a specific status. " + LIST_PAGING_DOC)
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<InvoiceDetailDTO>> getInvoicesByStatus(
+    public ResponseEntity<Slice<InvoiceDetailDTO>> getInvoicesByStatus(
+            @Parameter(description = "Status to filter by", example = "PENDING")
+            @PathVariable InvoiceStatus status,
+            @Parameter(description = "Cursor from the previous slice", example = "2024-08-03T10:15:30.5_42")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Pagination and sort parameters")
+            @PageableDefault(size = 20, sort = {"createdDate", "id"}, direction = Sort.Direction.DESC) Pageable pageable) {
+        return list(InvoiceCriteria.byStatus(status), pageable, before);
+    }
+
+    @Operation(summary = "Stream invoices by status (v2)", description = "Every invoice with a specific status as NDJSON. " + STREAM_DOC)
+    @GetMapping("/status/{status}/stream")
+    public ResponseEntity<StreamingResponseBody> streamInvoicesByStatus(
             @Parameter(description = "Status to filter by", example = "PENDING")
             @PathVariable InvoiceStatus status) {
-        List<Invoice> invoices = fetchInvoicesUseCase.findByStatus(status);
-        List<InvoiceDetailDTO> dtos = invoices.stream()
-                .map(mapper::toDetailDTO)
-                .toList();
-        return ResponseEntity.ok(dtos);
+        return stream(InvoiceCriteria.byStatus(status));
     }
 
     // Dashboard and summary endpoints
     
-    @Operation(summary = "Get recent invoices (v2)", description = "Get recent invoices for dashboard")
+    @Operation(summary = "Get recent invoices (v2)", description = "Get recent invoices for dashboard, newest first. " +
+            "When a full page is returned, the " + NEXT_CURSOR_HEADER + " header holds the cursor to pass as 'before' for the next one.")
     @GetMapping("/recent")
     public ResponseEntity<List<RecentInvoiceDTO>> getRecentInvoices(
-            @Parameter(description = "Number of recent invoices to retrieve", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
-        List<RecentInvoiceDTO> recentInvoices = fetchInvoicesUseCase.getRecentInvoices(limit);
-        return ResponseEntity.ok(recentInvoices);
+            @Parameter(description = "Number of recent invoices to retrieve (max " + FetchInvoicesUseCase.MAX_RECENT_LIMIT + ")", example = "10")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Cursor from the previous page", example = "2024-08-03T10:15:30.5_42")
+            @RequestParam(required = false) String before) {
+        InvoiceCursor cursor;
+        try {
+            cursor = before == null ? null : InvoiceCursor.parse(before);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<RecentInvoiceDTO> recentInvoices = fetchInvoicesUseCase.getRecentInvoices(limit, cursor);
+        if (recentInvoices.isEmpty() || recentInvoices.size() < Math.min(limit, FetchInvoicesUseCase.MAX_RECENT_LIMIT)) {
+            return ResponseEntity.ok(recentInvoices);
+        }
+        InvoiceCursor next = InvoiceCursor.of(recentInvoices.get(recentInvoices.size() - 1));
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, next.toString())
+                .body(recentInvoices);
     }
 
-    @Operation(summary = "Get dashboard statistics (v2)", description = "Get dashboard statistics")
+    @Operation(summary = "Get dashboard statistics (v2)", description = "Get dashboard statistics. " +
+            "With from/to (both required) the figures cover invoices created in that day range, inclusive.")
     @GetMapping("/dashboard/stats")
-    public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
-        DashboardStatsDTO stats = fetchInvoicesUseCase.getDashboardStats();
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<DashboardStatsDTO> getDashboardStats(
+            @Parameter(description = "First created day", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last created day", example = "2024-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from == null && to == null) {
+            return ResponseEntity.ok(fetchInvoicesUseCase.getDashboardStats());
+        }
+        if (from == null || to == null || from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(fetchInvoicesUseCase.getDashboardStats(from, to));
     }
 
     @Operation(summary = "Get invoice details (v2)", description = "Get detailed invoice information")
@@ -354,17 +493,87 @@ public class InvoiceController {
         }
     }
 
-    @Operation(summary = "Get invoices by date range (v2)", description = "Retrieve invoices within a specific date range")
+    @Operation(summary = "Get invoices by date range (v2)", description = "Retrieve a page of invoices created within a specific date range. " + LIST_PAGING_DOC)
     @GetMapping("/date-range")
-    public ResponseEntity<List<InvoiceDetailDTO>> getInvoicesByDateRange(
+    public ResponseEntity<Slice<InvoiceDetailDTO>> getInvoicesByDateRange(
+            @Parameter(description = "Start date", example = "2024-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date", example = "2024-12-31T23:59:59")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Cursor from the previous slice", example = "2024-08-03T10:15:30.5_42")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Pagination and sort parameters")
+            @PageableDefault(size = 20, sort = {"createdDate", "id"}, direction = Sort.Direction.DESC) Pageable pageable) {
+        return list(InvoiceCriteria.byCreatedDate(startDate, endDate), pageable, before);
+    }
+
+    @Operation(summary = "Stream invoices by date range (v2)", description = "Every invoice created within a specific date range as NDJSON. " + STREAM_DOC)
+    @GetMapping("/date-range/stream")
+    public ResponseEntity<StreamingResponseBody> streamInvoicesByDateRange(
             @Parameter(description = "Start date", example = "2024-01-01T00:00:00")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @Parameter(description = "End date", example = "2024-12-31T23:59:59")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Invoice> invoices = fetchInvoicesUseCase.findByDateBetween(startDate, endDate);
-        List<InvoiceDetailDTO> dtos = invoices.stream()
-                .map(mapper::toDetailDTO)
-                .toList();
-        return ResponseEntity.ok(dtos);
+        return stream(InvoiceCriteria.byCreatedDate(startDate, endDate));
+    }
+
+    /**
+     * Offset page, or keyset slice when a cursor is given. The next cursor is returned whenever
+     * there is more to read in keyset order, so clients can switch to it for deep pages.
+     */
+    private ResponseEntity<Slice<InvoiceDetailDTO>> list(InvoiceCriteria criteria, Pageable pageable, String before) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_FIELDS.contains(order.getProperty())) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        Slice<Invoice> invoices;
+        if (before == null) {
+            invoices = fetchInvoicesUseCase.find(criteria, pageable);
+        } else {
+            InvoiceCursor cursor;
+            try {
+                cursor = InvoiceCursor.parse(before);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            invoices = fetchInvoicesUseCase.findBefore(criteria, cursor, pageable.getPageSize());
+        }
+        Slice<InvoiceDetailDTO> dtos = invoices.map(mapper::toDetailDTO);
+        if (!dtos.hasNext() || !dtos.getSort().equals(FetchInvoicesUseCase.KEYSET_SORT)) {
+            return ResponseEntity.ok(dtos);
+        }
+        InvoiceDetailDTO last = dtos.getContent().get(dtos.getNumberOfElements() - 1);
+        // Undated invoices sort last and have no keyset position; only offset pages reach them
+        if (last.getCreatedDate() == null) {
+            return ResponseEntity.ok(dtos);
+        }
+        InvoiceCursor next = InvoiceCursor.of(last);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, next.toString())
+                .body(dtos);
+    }
+
+    // The body runs after this method returns, so the use case opens its own read transaction
+    private ResponseEntity<StreamingResponseBody> stream(InvoiceCriteria criteria) {
+        StreamingResponseBody body = out -> {
+            try {
+                fetchInvoicesUseCase.forEach(criteria, invoice -> writeLine(out, mapper.toDetailDTO(invoice)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(OutputStream out, Object dto) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(dto));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,52 @@
+package co.edu.itm.invoiceextract.application.dto.invoice;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset position in an invoice list ordered by created date and id, newest first: the created
+ * date and id of the last invoice already shown. Written as {@code <createdDate>_<id>},
+ * e.g. {@code 2024-08-03T10:15:30.5_42}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class InvoiceCursor {
+
+    private static final char SEPARATOR = '_';
+
+    private final LocalDateTime createdDate;
+    private final Long id;
+
+    public static InvoiceCursor of(RecentInvoiceDTO invoice) {
+        return new InvoiceCursor(invoice.getCreatedDate(), invoice.getId());
+    }
+
+    public static InvoiceCursor of(InvoiceDetailDTO invoice) {
+        return new InvoiceCursor(invoice.getCreatedDate(), invoice.getId());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a cursor produced by {@link #toString()}
+     */
+    public static InvoiceCursor parse(String value) {
+        int separator = value.lastIndexOf(SEPARATOR);
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new InvoiceCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return createdDate.toString() + SEPARATOR + id;
+    }
+}
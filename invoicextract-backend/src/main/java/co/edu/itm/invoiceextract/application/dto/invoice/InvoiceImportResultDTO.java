@@ -0,0 +1,41 @@
+package co.edu.itm.invoiceextract.application.dto.invoice;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one line of a POST /api/invoices/bulk upload")
+public class InvoiceImportResultDTO {
+
+    public enum Status {
+        /** Stored; invoiceId holds the new id */
+        CREATED,
+        /** An invoice with this document number already exists */
+        DUPLICATE,
+        /** Not valid JSON or rejected by the invoice validation rules */
+        INVALID,
+        /** Could not be stored for another reason */
+        ERROR
+    }
+
+    @Schema(description = "Line number in the uploaded body, starting at 1", example = "1")
+    private long line;
+
+    @Schema(description = "Document number", example = "INV-2024-001")
+    private String documentNumber;
+
+    @Schema(description = "Outcome", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "Invoice ID when created", example = "1")
+    private Long invoiceId;
+
+    @Schema(description = "Reason when not created")
+    private String error;
+}
@@ -0,0 +1,56 @@
+package co.edu.itm.invoiceextract.application.dto.invoice;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Processing state of an invoice submitted to POST /api/invoices/async")
+public class InvoiceIngestStatusDTO {
+
+    public enum Status {
+        /** Stored by the broker, not yet consumed */
+        QUEUED,
+        /** Consumed and committed to the database */
+        PERSISTED,
+        /** Consumed and rejected; see errorType and errorMessage */
+        REJECTED
+    }
+
+    @Schema(description = "Id to poll GET /api/invoices/async/{trackingId} with")
+    private String trackingId;
+
+    @Schema(description = "Document number", example = "INV-2024-001")
+    private String documentNumber;
+
+    @Schema(description = "Processing state", example = "QUEUED")
+    private Status status;
+
+    @Schema(description = "Kafka partition the invoice was written to", example = "0")
+    private Integer partition;
+
+    @Schema(description = "Kafka offset the invoice was written to", example = "1234")
+    private Long offset;
+
+    @Schema(description = "Invoice ID once persisted", example = "1")
+    private Long invoiceId;
+
+    @Schema(description = "Error type when rejected", example = "DuplicateInvoiceException")
+    private String errorType;
+
+    @Schema(description = "Error message when rejected")
+    private String errorMessage;
+
+    public static InvoiceIngestStatusDTO of(InvoiceTrackingId trackingId, Status status) {
+        InvoiceIngestStatusDTO dto = new InvoiceIngestStatusDTO();
+        dto.setTrackingId(trackingId.toString());
+        dto.setDocumentNumber(trackingId.getDocumentNumber());
+        dto.setStatus(status);
+        dto.setPartition(trackingId.getPartition());
+        dto.setOffset(trackingId.getOffset());
+        return dto;
+    }
+}
@@ -0,0 +1,54 @@
+package co.edu.itm.invoiceextract.application.dto.invoice;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Identifies an invoice submitted through the asynchronous API by where the broker stored it:
+ * partition, offset and record timestamp, plus the document number. Any instance can resolve it
+ * without shared state. Written as an opaque URL-safe token.
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class InvoiceTrackingId {
+
+    private static final String SEPARATOR = ":";
+
+    private final int partition;
+    private final long offset;
+    private final long timestamp;
+    private final String documentNumber;
+
+    /**
+     * @throws IllegalArgumentException if the value is not a tracking id produced by {@link #toString()}
+     */
+    public static InvoiceTrackingId parse(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            // The document number goes last so it may itself contain the separator
+            String[] parts = decoded.split(SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid tracking id: " + value);
+            }
+            return new InvoiceTrackingId(
+                    Integer.parseInt(parts[0]),
+                    Long.parseLong(parts[1]),
+                    Long.parseLong(parts[2]),
+                    parts[3].isEmpty() ? null : parts[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid tracking id: " + value, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        String raw = partition + SEPARATOR + offset + SEPARATOR + timestamp + SEPARATOR
+                + (documentNumber == null ? "" : documentNumber);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,11 +1,14 @@
 package co.edu.itm.invoiceextract.application.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
@@ -13,12 +16,30 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.UUID;
 
+/**
+ * AES encryption of configuration secrets with the per-configuration key stored next to them.
+ * <p>
+ * {@link Cipher} instances are not thread-safe and expensive to look up, so each thread keeps
+ * one per mode and only re-initialises it when the key changes. Keys built from configuration
+ * keys are kept in a bounded cache, and a single {@link SecureRandom} generates new keys.
+ */
 @Service
 public class EncryptionService {
 
     private static final String ALGORITHM = "AES";
+    private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
     private static final String HASH_ALGORITHM = "SHA-256";
     private static final int KEY_LENGTH = 32; // 256 bits for AES-256
+    private static final int MAX_CACHED_KEYS = 1_000;
+    private static final String KEY_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Cache<String, SecretKeySpec> keys = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_KEYS)
+            .build();
+    private final ThreadLocal<CipherSlot> encryptors = ThreadLocal.withInitial(() -> new CipherSlot(Cipher.ENCRYPT_MODE));
+    private final ThreadLocal<CipherSlot> decryptors = ThreadLocal.withInitial(() -> new CipherSlot(Cipher.DECRYPT_MODE));
 
     @Value("${encryption.secret-key}")
     private String secretKey;
@@ -30,17 +51,7 @@ public class EncryptionService {
      * @return Encrypted string in Base64 format
      */
     public String encrypt(String valueToEnc, String configEncryptionKey) throws Exception {
-        // Use the configEncryptionKey raw UTF-8 bytes as AES key (must be 16/24/32 bytes)
-        byte[] rawKey = configEncryptionKey.getBytes(StandardCharsets.UTF_8);
-        if (rawKey.length != 16 && rawKey.length != 24 && rawKey.length != 32) {
-            throw new IllegalArgumentException("encryptionKey must be 16, 24, or 32 bytes; got: " + rawKey.length);
-        }
-        SecretKeySpec key = new SecretKeySpec(rawKey, ALGORITHM);
-
-        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
-        cipher.init(Cipher.ENCRYPT_MODE, key);
-        
-        byte[] encryptedByteValue = cipher.doFinal(valueToEnc.getBytes(StandardCharsets.UTF_8));
+        byte[] encryptedByteValue = encryptors.get().doFinal(key(configEncryptionKey), valueToEnc.getBytes(StandardCharsets.UTF_8));
         return Base64.getEncoder().encodeToString(encryptedByteValue);
     }
 
@@ -51,35 +62,70 @@ public class EncryptionService {
      * @return Decrypted string
      */
     public String decrypt(String encryptedValue, String configEncryptionKey) throws Exception {
-        // Use the configEncryptionKey raw UTF-8 bytes as AES key (must be 16/24/32 bytes)
-        byte[] rawKey = configEncryptionKey.getBytes(StandardCharsets.UTF_8);
-        if (rawKey.length != 16 && rawKey.length != 24 && rawKey.length != 32) {
-            throw new IllegalArgumentException("encryptionKey must be 16, 24, or 32 bytes; got: " + rawKey.length);
-        }
-        SecretKeySpec key = new SecretKeySpec(rawKey, ALGORITHM);
-
-        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
-        cipher.init(Cipher.DECRYPT_MODE, key);
-        
-        byte[] decryptedByteValue = cipher.doFinal(Base64.getDecoder().decode(encryptedValue));
+        byte[] decryptedByteValue = decryptors.get().doFinal(key(configEncryptionKey), Base64.getDecoder().decode(encryptedValue));
         return new String(decryptedByteValue, StandardCharsets.UTF_8);
     }
     
     /**
      * Generates a new random encryption key
-     * @return A new random UUID-based key
+     * @return A new random 32-character alphanumeric key
      */
     public String generateEncryptionKey() {
         // 32 ASCII chars so UTF-8 bytes are exactly 32 (AES-256 compatible)
-        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-        SecureRandom rnd = new SecureRandom();
-        StringBuilder sb = new StringBuilder(32);
-        for (int i = 0; i < 32; i++) {
-            sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+        StringBuilder sb = new StringBuilder(KEY_LENGTH);
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            sb.append(KEY_ALPHABET.charAt(RANDOM.nextInt(KEY_ALPHABET.length())));
         }
         return sb.toString();
     }
-    
+
+    /**
+     * The AES key for a configuration key: its raw UTF-8 bytes, which must be 16/24/32 bytes long.
+     * Invalid keys are rejected every time and never cached.
+     */
+    private SecretKeySpec key(String configEncryptionKey) {
+        SecretKeySpec cached = keys.getIfPresent(configEncryptionKey);
+        if (cached != null) return cached;
+        byte[] rawKey = configEncryptionKey.getBytes(StandardCharsets.UTF_8);
+        if (rawKey.length != 16 && rawKey.length != 24 && rawKey.length != 32) {
+            throw new IllegalArgumentException("encryptionKey must be 16, 24, or 32 bytes; got: " + rawKey.length);
+        }
+        return keys.get(configEncryptionKey, k -> new SecretKeySpec(rawKey, ALGORITHM));
+    }
+
+    /**
+     * A thread's cipher for one mode and the key it was last initialised with.
+     */
+    private static final class CipherSlot {
+        private final int mode;
+        private final Cipher cipher;
+        private SecretKeySpec key;
+
+        private CipherSlot(int mode) {
+            this.mode = mode;
+            try {
+                this.cipher = Cipher.getInstance(TRANSFORMATION);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cipher " + TRANSFORMATION + " is not available", e);
+            }
+        }
+
+        byte[] doFinal(SecretKeySpec key, byte[] input) throws GeneralSecurityException {
+            if (this.key != key) {
+                this.key = null;
+                cipher.init(mode, key);
+                this.key = key;
+            }
+            try {
+                // doFinal leaves the cipher initialised with the same key, ready for the next call
+                return cipher.doFinal(input);
+            } catch (GeneralSecurityException | RuntimeException e) {
+                this.key = null;
+                throw e;
+            }
+        }
+    }
+
     private static String bytesToHex(byte[] bytes) {
         StringBuilder result = new StringBuilder();
         for (byte b : bytes) {
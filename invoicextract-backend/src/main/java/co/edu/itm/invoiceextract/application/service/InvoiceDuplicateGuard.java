@@ -0,0 +1,118 @@
+package co.edu.itm.invoiceextract.application.service;
+
+import co.edu.itm.invoiceextract.application.usecase.invoice.DuplicateInvoiceException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the document numbers of recently stored invoices so replayed messages and retried
+ * requests are answered as duplicates without touching the database. A miss proves nothing:
+ * the insert itself, checked by the unique constraint, stays the source of truth.
+ * <p>
+ * Numbers are only remembered once they are known to be committed, and are forgotten when an
+ * invoice is deleted or renumbered here. Entries expire after a while so changes made by other
+ * instances cannot keep a number blocked.
+ */
+@Component
+public class InvoiceDuplicateGuard {
+
+    public static final String DUPLICATES_METRIC = "invoices.ingest.duplicates";
+
+    /**
+     * How a duplicate was recognised.
+     */
+    public enum Detection {
+        /** Document number found among the recently stored ones */
+        CACHE,
+        /** Existing document number returned by the lookup of a batch */
+        LOOKUP,
+        /** Repeated within the same batch; the first occurrence is the one stored */
+        BATCH,
+        /** Insert rejected by the unique constraint on document_number */
+        CONSTRAINT
+    }
+
+    private final Cache<String, Boolean> recent;
+    private final Map<Detection, Counter> duplicates = new EnumMap<>(Detection.class);
+
+    public InvoiceDuplicateGuard(MeterRegistry meterRegistry,
+                                 @Value("${invoices.ingest.dedup.max-size:100000}") long maxSize,
+                                 @Value("${invoices.ingest.dedup.ttl-ms:600000}") long ttlMs) {
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+        for (Detection detection : Detection.values()) {
+            duplicates.put(detection, Counter.builder(DUPLICATES_METRIC)
+                    .description("Invoices rejected because their document number is already stored")
+                    .tag("detected_by", detection.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return true if an invoice with this document number was stored recently
+     */
+    public boolean isKnown(String documentNumber) {
+        return documentNumber != null && recent.getIfPresent(documentNumber) != null;
+    }
+
+    /**
+     * Counts the duplicate and returns the exception to report it with. Numbers found stored are
+     * remembered; a repeat within a batch is remembered with the batch, after it commits.
+     */
+    public DuplicateInvoiceException duplicate(String documentNumber, Detection detection) {
+        duplicates.get(detection).increment();
+        if (detection != Detection.BATCH && documentNumber != null) {
+            recent.put(documentNumber, Boolean.TRUE);
+        }
+        return new DuplicateInvoiceException(documentNumber);
+    }
+
+    /**
+     * Remembers the numbers once the current transaction commits (right away without one).
+     */
+    public void rememberAfterCommit(Collection<String> documentNumbers) {
+        if (documentNumbers.isEmpty()) return;
+        List<String> numbers = List.copyOf(documentNumbers);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            numbers.forEach(number -> recent.put(number, Boolean.TRUE));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                numbers.forEach(number -> recent.put(number, Boolean.TRUE));
+            }
+        });
+    }
+
+    /**
+     * Forgets the number now and again after commit, in case a concurrent insert attempt saw the
+     * row before it was gone and remembered it meanwhile.
+     */
+    public void forget(String documentNumber) {
+        if (documentNumber == null) return;
+        recent.invalidate(documentNumber);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recent.invalidate(documentNumber);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package co.edu.itm.invoiceextract.application.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timers and gauges for the ingestion hot path: Kafka listener, messaging adapter and invoice
+ * creation. Meters are registered up front (lag gauges on first sight of a partition) so
+ * recording a value never goes through the registry lookup.
+ */
+@Component
+public class InvoiceIngestMetrics {
+
+    public static final String PREFIX = "invoices.ingest";
+
+    /**
+     * Whether invoices are handled one per call or a whole poll at a time.
+     */
+    public enum Mode {
+        SINGLE,
+        BATCH
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Timer deserialize;
+    private final Timer validation;
+    private final Timer latency;
+    private final DistributionSummary items;
+    private final Map<Mode, Timer> listen = new EnumMap<>(Mode.class);
+    private final Map<Mode, Timer> process = new EnumMap<>(Mode.class);
+    private final Map<Mode, Timer> db = new EnumMap<>(Mode.class);
+    private final Map<String, Timer> errorLogWrites = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lag = new ConcurrentHashMap<>();
+
+    public InvoiceIngestMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.deserialize = timer("deserialize", "Time to parse a Kafka record into an invoice message").register(meterRegistry);
+        this.validation = timer("validation", "Time to validate one invoice request").register(meterRegistry);
+        this.latency = timer("latency", "Time from the Kafka record timestamp until the invoice is committed").register(meterRegistry);
+        this.items = DistributionSummary.builder(PREFIX + ".items")
+                .description("Items per created invoice")
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        for (Mode mode : Mode.values()) {
+            String tag = mode.name().toLowerCase();
+            listen.put(mode, timer("listen", "Time spent in the Kafka listener per call")
+                    .tag("mode", tag).register(meterRegistry));
+            process.put(mode, timer("process", "Time to map and store the invoices of a listener call")
+                    .tag("mode", tag).register(meterRegistry));
+            db.put(mode, timer("db", "Time spent in database statements while creating invoices")
+                    .tag("mode", tag).register(meterRegistry));
+        }
+    }
+
+    public void recordDeserialize(long nanos) {
+        deserialize.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordValidation(long nanos) {
+        validation.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordListen(Mode mode, long nanos) {
+        listen.get(mode).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordProcess(Mode mode, long nanos) {
+        process.get(mode).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDb(Mode mode, long nanos) {
+        db.get(mode).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordItems(int count) {
+        items.record(count);
+    }
+
+    /**
+     * Records the end-to-end latency of a record whose invoice was just committed. Records
+     * without a timestamp (negative) are ignored.
+     */
+    public void recordCommitted(long recordTimestampMs) {
+        if (recordTimestampMs < 0) return;
+        latency.record(Math.max(0, System.currentTimeMillis() - recordTimestampMs), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Times a write to the processing error log, tagged with the simple name of the error.
+     */
+    public void recordErrorLogWrite(String errorType, long nanos) {
+        errorLogWrites.computeIfAbsent(errorType, type -> timer("error_log", "Time to store a rejected record in the error log")
+                        .tag("error_type", type)
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Updates the consumer lag gauge of a partition, registering it the first time it is seen.
+     */
+    public void updateLag(String topic, int partition, long value) {
+        lag.computeIfAbsent(topic + "-" + partition, key -> {
+            AtomicLong holder = new AtomicLong();
+            Gauge.builder(PREFIX + ".lag", holder, AtomicLong::get)
+                    .description("Records in the partition not yet consumed by this instance")
+                    .tag("topic", topic)
+                    .tag("partition", String.valueOf(partition))
+                    .baseUnit("records")
+                    .strongReference(true)
+                    .register(meterRegistry);
+            return holder;
+        }).set(value);
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(PREFIX + "." + name)
+                .description(description)
+                .publishPercentileHistogram();
+    }
+}
@@ -0,0 +1,134 @@
+package co.edu.itm.invoiceextract.application.service;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.entity.invoice.InvoiceStatsDaily;
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceStatsDailyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps {@code invoice_stats_daily} in step with invoice writes. The {@code record*} methods
+ * join the caller's transaction, so the buckets commit or roll back together with the invoice
+ * rows. Invoices without a created date have no bucket (the rebuild skips them as well).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InvoiceStatsService {
+
+    private final InvoiceStatsDailyRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public void recordCreated(Invoice invoice) {
+        add(Snapshot.of(invoice), 1);
+    }
+
+    /**
+     * Records many new invoices with one upsert per distinct bucket.
+     */
+    @Transactional
+    public void recordCreated(Collection<Invoice> invoices) {
+        Map<InvoiceStatsDaily.Key, BigDecimal> amounts = new LinkedHashMap<>();
+        Map<InvoiceStatsDaily.Key, Long> counts = new LinkedHashMap<>();
+        for (Invoice invoice : invoices) {
+            Snapshot s = Snapshot.of(invoice);
+            if (s.key == null) continue;
+            counts.merge(s.key, 1L, Long::sum);
+            amounts.merge(s.key, s.amount, BigDecimal::add);
+        }
+        counts.forEach((key, count) -> upsert(key, count, amounts.get(key)));
+    }
+
+    @Transactional
+    public void recordRemoved(Invoice invoice) {
+        add(Snapshot.of(invoice), -1);
+    }
+
+    /**
+     * Moves an invoice's contribution from the bucket it had before a change to its current one.
+     */
+    @Transactional
+    public void recordChanged(Snapshot before, Invoice after) {
+        Snapshot now = Snapshot.of(after);
+        if (before.equals(now)) return;
+        add(before, -1);
+        add(now, 1);
+    }
+
+    /**
+     * Recomputes every bucket from {@code invoices}, one day per transaction, so only that
+     * day's buckets are locked while concurrent invoice writes keep upserting the others.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        SortedSet<LocalDate> days = new TreeSet<>(statsRepository.findBucketDays());
+        days.addAll(statsRepository.findInvoiceDays());
+        int removed = 0;
+        int inserted = 0;
+        for (LocalDate day : days) {
+            int[] counts = transactionTemplate.execute(status -> new int[]{
+                    statsRepository.deleteBucketsOn(day),
+                    statsRepository.insertBucketsFromInvoices(day, day.atStartOfDay(), day.plusDays(1).atStartOfDay())});
+            removed += counts[0];
+            inserted += counts[1];
+        }
+        log.info("Invoice stats rebuilt over {} days: {} buckets replaced by {} ({} ms)",
+                days.size(), removed, inserted, System.currentTimeMillis() - start);
+    }
+
+    private void add(Snapshot s, int sign) {
+        if (s.key == null) return;
+        upsert(s.key, sign, sign < 0 ? s.amount.negate() : s.amount);
+    }
+
+    private void upsert(InvoiceStatsDaily.Key key, long count, BigDecimal amount) {
+        statsRepository.addToBucket(key.getStatsDate(), key.getDocumentType(), key.getStatus().name(), count, amount);
+    }
+
+    /**
+     * The bucket and amount an invoice contributes; take it before mutating the invoice.
+     */
+    public static final class Snapshot {
+        private final InvoiceStatsDaily.Key key;
+        private final BigDecimal amount;
+
+        private Snapshot(InvoiceStatsDaily.Key key, BigDecimal amount) {
+            this.key = key;
+            this.amount = amount;
+        }
+
+        public static Snapshot of(Invoice invoice) {
+            if (invoice.getCreatedDate() == null) return new Snapshot(null, BigDecimal.ZERO);
+            LocalDate day = invoice.getCreatedDate().toLocalDate();
+            InvoiceStatus status = invoice.getStatus() != null ? invoice.getStatus() : InvoiceStatus.PENDING;
+            BigDecimal amount = invoice.getAmount() != null ? invoice.getAmount() : BigDecimal.ZERO;
+            return new Snapshot(new InvoiceStatsDaily.Key(day, invoice.getDocumentType(), status), amount);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Snapshot other)) return false;
+            return Objects.equals(key, other.key) && amount.compareTo(other.amount) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, amount.stripTrailingZeros());
+        }
+    }
+}
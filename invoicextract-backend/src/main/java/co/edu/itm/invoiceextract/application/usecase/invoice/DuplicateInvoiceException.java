@@ -0,0 +1,18 @@
+package co.edu.itm.invoiceextract.application.usecase.invoice;
+
+import lombok.Getter;
+
+/**
+ * An invoice with the same document number is already stored. Ingesting it again is a no-op,
+ * so callers can treat this outcome as an acknowledged replay rather than a failure.
+ */
+@Getter
+public class DuplicateInvoiceException extends IllegalArgumentException {
+
+    private final String documentNumber;
+
+    public DuplicateInvoiceException(String documentNumber) {
+        super("Invoice with document number " + documentNumber + " already exists");
+        this.documentNumber = documentNumber;
+    }
+}
@@ -1,39 +1,139 @@
 package co.edu.itm.invoiceextract.application.usecase.invoice;
 
+import co.edu.itm.invoiceextract.application.config.CacheConfig;
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceDetailDTO;
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceItemDTO;
 import co.edu.itm.invoiceextract.application.dto.invoice.DashboardStatsDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceCursor;
 import co.edu.itm.invoiceextract.application.dto.invoice.RecentInvoiceDTO;
 import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceAggregate;
 import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceSpecifications;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceStatsDailyRepository;
+import co.edu.itm.invoiceextract.domain.repository.invoices.RecentInvoiceRow;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 public class FetchInvoicesUseCase {
 
+    public static final int MAX_RECENT_LIMIT = 100;
+    /** Order of keyset slices and streams: newest first, id breaking ties. */
+    public static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdDate", "id");
+    static final int STREAM_CHUNK_SIZE = 100;
+
     private final InvoiceRepository invoiceRepository;
+    private final InvoiceStatsDailyRepository invoiceStatsDailyRepository;
+    private final EntityManager entityManager;
 
-    public FetchInvoicesUseCase(InvoiceRepository invoiceRepository) {
+    public FetchInvoicesUseCase(InvoiceRepository invoiceRepository,
+                                InvoiceStatsDailyRepository invoiceStatsDailyRepository,
+                                EntityManager entityManager) {
         this.invoiceRepository = invoiceRepository;
+        this.invoiceStatsDailyRepository = invoiceStatsDailyRepository;
+        this.entityManager = entityManager;
     }
 
     public List<Invoice> findAll() {
-        return invoiceRepository.findAll();
+        return invoiceRepository.findAllWithItems();
     }
 
     public Page<Invoice> findAll(Pageable pageable) {
-        return invoiceRepository.findAll(pageable);
+        return withItems(invoiceRepository.findAll(pageable));
+    }
+
+    /**
+     * Filters invoices in the database; null criteria are ignored and the created date range is inclusive.
+     */
+    public Page<Invoice> filter(String senderTaxId, String receiverTaxId, InvoiceStatus status,
+                                LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        return find(InvoiceCriteria.of(senderTaxId, receiverTaxId, status, startDate, endDate), pageable);
+    }
+
+    public Page<Invoice> find(InvoiceCriteria criteria, Pageable pageable) {
+        return withItems(invoiceRepository.findAll(criteria.toSpecification(), pageable));
+    }
+
+    /**
+     * The {@code size} invoices that follow the cursor in {@link #KEYSET_SORT} order. Unlike an
+     * offset page this costs the same at any depth and runs no count query. Invoices without a
+     * created date have no keyset position and are left out.
+     */
+    public Slice<Invoice> findBefore(InvoiceCriteria criteria, InvoiceCursor before, int size) {
+        Specification<Invoice> after = keyset(criteria)
+                .and(InvoiceSpecifications.createdBefore(before.getCreatedDate(), before.getId()));
+        // One extra row tells whether there is a next slice
+        List<Invoice> rows = invoiceRepository.findBy(after, query -> query.sortBy(KEYSET_SORT).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<Invoice> content = hasNext ? rows.subList(0, size) : rows;
+        loadItems(content);
+        return new SliceImpl<>(content, PageRequest.of(0, size, KEYSET_SORT), hasNext);
+    }
+
+    /**
+     * Hands every matching invoice, with its items, to {@code action} in {@link #KEYSET_SORT} order
+     * while holding only {@value #STREAM_CHUNK_SIZE} of them in memory at a time. Reads keyset
+     * slices rather than one open result set, so no driver-level cursor is needed. Invoices without
+     * a created date are skipped: a chunk ending on one would leave no position to continue from.
+     */
+    public void forEach(InvoiceCriteria criteria, Consumer<Invoice> action) {
+        Specification<Invoice> matching = keyset(criteria);
+        Specification<Invoice> remaining = matching;
+        List<Invoice> chunk;
+        do {
+            chunk = invoiceRepository.findBy(remaining, query -> query.sortBy(KEYSET_SORT).limit(STREAM_CHUNK_SIZE).all());
+            if (chunk.isEmpty()) return;
+            Invoice last = chunk.get(chunk.size() - 1);
+            remaining = matching.and(InvoiceSpecifications.createdBefore(last.getCreatedDate(), last.getId()));
+            flush(chunk, action);
+        } while (chunk.size() == STREAM_CHUNK_SIZE);
+    }
+
+    private static Specification<Invoice> keyset(InvoiceCriteria criteria) {
+        return criteria.toSpecification().and(InvoiceSpecifications.createdDateKnown());
+    }
+
+    private void flush(List<Invoice> chunk, Consumer<Invoice> action) {
+        loadItems(chunk);
+        chunk.forEach(action);
+        // Detach what was written so the persistence context does not grow with the stream
+        entityManager.clear();
+    }
+
+    private Page<Invoice> withItems(Page<Invoice> page) {
+        loadItems(page.getContent());
+        return page;
+    }
+
+    /**
+     * Initializes the items of the given invoices with one extra query. The invoices are
+     * already managed in this transaction, so the fetch fills their collections in place.
+     */
+    private void loadItems(List<Invoice> invoices) {
+        if (!invoices.isEmpty()) {
+            invoiceRepository.findByIdIn(invoices.stream().map(Invoice::getId).toList());
+        }
     }
 
     public Optional<Invoice> findById(Long id) {
@@ -72,31 +172,69 @@ public class FetchInvoicesUseCase {
         return invoiceRepository.findByCreatedDateBetween(startDate, endDate);
     }
 
-    public List<RecentInvoiceDTO> findRecentInvoices(int limit) {
-        return invoiceRepository.findTop10ByOrderByCreatedDateDesc()
-                .stream()
-                .limit(limit)
-                .map(invoice -> new RecentInvoiceDTO(
-                        invoice.getId(),
-                        invoice.getDocumentNumber(),
-                        invoice.getSenderBusinessName(),
-                        invoice.getAmount(),
-                        invoice.getIssueDate(),
-                        invoice.getCreatedDate()
+    /**
+     * The newest {@code limit} invoices (at most {@value #MAX_RECENT_LIMIT}), limited in the database.
+     * With a cursor, continues after the invoice it points to.
+     */
+    public List<RecentInvoiceDTO> findRecentInvoices(int limit, InvoiceCursor before) {
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_RECENT_LIMIT)));
+        List<RecentInvoiceRow> rows = before == null
+                ? invoiceRepository.findRecent(page)
+                : invoiceRepository.findRecentBefore(before.getCreatedDate(), before.getId(), page);
+        return rows.stream()
+                .map(row -> new RecentInvoiceDTO(
+                        row.getId(),
+                        row.getDocumentNumber(),
+                        row.getSenderBusinessName(),
+                        row.getAmount(),
+                        row.getIssueDate(),
+                        row.getCreatedDate()
                 ))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Dashboard figures summed from {@code invoice_stats_daily} (per document type and status).
+     * Cached for a few seconds and evicted by {@link ManageInvoiceUseCase} on writes.
+     */
+    @Cacheable(cacheNames = CacheConfig.DASHBOARD_STATS, key = "'all'", sync = true)
     public DashboardStatsDTO getDashboardStats() {
+        return toDashboardStats(invoiceStatsDailyRepository.summarize());
+    }
+
+    /**
+     * Dashboard figures for invoices created between the given days (inclusive).
+     */
+    public DashboardStatsDTO getDashboardStats(LocalDate from, LocalDate to) {
+        return toDashboardStats(invoiceStatsDailyRepository.summarizeBetween(from, to));
+    }
+
+    private DashboardStatsDTO toDashboardStats(List<InvoiceAggregate> groups) {
         DashboardStatsDTO stats = new DashboardStatsDTO();
-        
-        stats.setTotalCount(invoiceRepository.count());
-        stats.setFacturaCount(invoiceRepository.countByDocumentType("FACTURA"));
-        stats.setNotaCreditoCount(invoiceRepository.countByDocumentType("NOTA_CREDITO"));
-        stats.setNotaDebitoCount(invoiceRepository.countByDocumentType("NOTA_DEBITO"));
-        
-        BigDecimal totalAmount = invoiceRepository.sumAllAmounts();
-        stats.setTotalAmount(totalAmount != null ? totalAmount : BigDecimal.ZERO);
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        for (InvoiceAggregate group : groups) {
+            long count = group.getCount();
+            stats.setTotalCount(stats.getTotalCount() + count);
+            totalAmount = totalAmount.add(group.getTotalAmount());
+            if (group.getDocumentType() != null) {
+                switch (group.getDocumentType()) {
+                    case "FACTURA" -> stats.setFacturaCount(stats.getFacturaCount() + count);
+                    case "NOTA_CREDITO" -> stats.setNotaCreditoCount(stats.getNotaCreditoCount() + count);
+                    case "NOTA_DEBITO" -> stats.setNotaDebitoCount(stats.getNotaDebitoCount() + count);
+                    default -> { }
+                }
+            }
+            if (group.getStatus() != null) {
+                switch (group.getStatus()) {
+                    case PENDING -> stats.setPendingCount(stats.getPendingCount() + count);
+                    case APPROVED -> stats.setApprovedCount(stats.getApprovedCount() + count);
+                    case REJECTED -> stats.setRejectedCount(stats.getRejectedCount() + count);
+                    case PAID -> stats.setPaidCount(stats.getPaidCount() + count);
+                }
+            }
+        }
+        stats.setTotalAmount(totalAmount);
         
         if (stats.getTotalCount() > 0) {
             stats.setAverageAmount(stats.getTotalAmount().divide(
@@ -121,7 +259,11 @@ public class FetchInvoicesUseCase {
     }
 
     public List<RecentInvoiceDTO> getRecentInvoices(int limit) {
-        return findRecentInvoices(limit);
+        return findRecentInvoices(limit, null);
+    }
+
+    public List<RecentInvoiceDTO> getRecentInvoices(int limit, InvoiceCursor before) {
+        return findRecentInvoices(limit, before);
     }
 
     public InvoiceDetailDTO getInvoiceDetails(Long id) {
@@ -0,0 +1,154 @@
+package co.edu.itm.invoiceextract.application.usecase.invoice;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceImportResultDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceImportResultDTO.Status;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports invoices from an NDJSON stream (one invoice request per line) without holding the
+ * whole upload in memory. Lines are parsed as they arrive and saved through
+ * {@link ManageInvoiceUseCase#createInvoices} in batches, one transaction per batch, so the
+ * same validation and duplicate rules apply as for single invoices.
+ */
+@Slf4j
+@Service
+public class ImportInvoicesUseCase {
+
+    private final ManageInvoiceUseCase manageInvoiceUseCase;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+
+    public ImportInvoicesUseCase(ManageInvoiceUseCase manageInvoiceUseCase,
+                                 ObjectMapper objectMapper,
+                                 @Value("${invoices.ingest.bulk-batch-size:500}") int batchSize) {
+        this.manageInvoiceUseCase = manageInvoiceUseCase;
+        this.requestReader = objectMapper.readerFor(InvoiceRequestDTO.class);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads the stream to the end and hands over the results of each batch, in line order, once
+     * the batch is committed. Blank lines are skipped; a line that is not valid JSON is reported
+     * as invalid without affecting the others. If a batch cannot be committed its lines are
+     * retried one by one so a single bad line cannot reject the rest.
+     *
+     * @throws IOException if reading the stream or handing over results fails
+     */
+    public void importNdjson(InputStream in, BatchResultHandler results) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<InvoiceImportResultDTO> parseFailures = new ArrayList<>();
+        List<Long> lines = new ArrayList<>(batchSize);
+        List<InvoiceRequestDTO> requests = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        long created = 0;
+        long reported = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            try {
+                requests.add(requestReader.readValue(line));
+                lines.add(lineNumber);
+            } catch (JsonProcessingException e) {
+                parseFailures.add(new InvoiceImportResultDTO(lineNumber, null, Status.INVALID, null,
+                        "Malformed JSON: " + e.getOriginalMessage()));
+            }
+            if (requests.size() + parseFailures.size() < batchSize) continue;
+
+            List<InvoiceImportResultDTO> batch = flush(lines, requests, parseFailures, results);
+            created += countCreated(batch);
+            reported += batch.size();
+        }
+        if (!requests.isEmpty() || !parseFailures.isEmpty()) {
+            List<InvoiceImportResultDTO> batch = flush(lines, requests, parseFailures, results);
+            created += countCreated(batch);
+            reported += batch.size();
+        }
+        log.info("Bulk import finished: {} lines, {} invoices created, {} rejected", lineNumber, created, reported - created);
+    }
+
+    private List<InvoiceImportResultDTO> flush(List<Long> lines, List<InvoiceRequestDTO> requests,
+                                               List<InvoiceImportResultDTO> parseFailures,
+                                               BatchResultHandler results) throws IOException {
+        List<InvoiceImportResultDTO> batch = save(lines, requests, parseFailures);
+        lines.clear();
+        requests.clear();
+        parseFailures.clear();
+        results.accept(batch);
+        return batch;
+    }
+
+    private List<InvoiceImportResultDTO> save(List<Long> lines, List<InvoiceRequestDTO> requests,
+                                              List<InvoiceImportResultDTO> parseFailures) {
+        List<InvoiceImportResultDTO> results = new ArrayList<>(requests.size() + parseFailures.size());
+        results.addAll(parseFailures);
+        if (!requests.isEmpty()) {
+            try {
+                InvoiceBatchResult batch = manageInvoiceUseCase.createInvoices(requests);
+                Map<Integer, RuntimeException> failures = batch.getFailures();
+                // Created invoices come back in request order, skipping the rejected ones
+                int next = 0;
+                for (int i = 0; i < requests.size(); i++) {
+                    RuntimeException failure = failures.get(i);
+                    results.add(failure == null
+                            ? created(lines.get(i), batch.getCreated().get(next++))
+                            : rejected(lines.get(i), requests.get(i), failure));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Bulk batch of {} invoices failed ({}). Retrying one by one.", requests.size(), e.getMessage());
+                for (int i = 0; i < requests.size(); i++) {
+                    results.add(saveOne(lines.get(i), requests.get(i)));
+                }
+            }
+        }
+        results.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+        return results;
+    }
+
+    private InvoiceImportResultDTO saveOne(long line, InvoiceRequestDTO request) {
+        try {
+            return created(line, manageInvoiceUseCase.createInvoice(request));
+        } catch (RuntimeException e) {
+            return rejected(line, request, e);
+        }
+    }
+
+    private static InvoiceImportResultDTO created(long line, Invoice invoice) {
+        return new InvoiceImportResultDTO(line, invoice.getDocumentNumber(), Status.CREATED, invoice.getId(), null);
+    }
+
+    private static InvoiceImportResultDTO rejected(long line, InvoiceRequestDTO request, RuntimeException e) {
+        Status status = e instanceof DuplicateInvoiceException ? Status.DUPLICATE
+                : e instanceof IllegalArgumentException ? Status.INVALID
+                : Status.ERROR;
+        return new InvoiceImportResultDTO(line, request.getDocumentNumber(), status, null, e.getMessage());
+    }
+
+    private static long countCreated(List<InvoiceImportResultDTO> results) {
+        return results.stream().filter(result -> result.getStatus() == Status.CREATED).count();
+    }
+
+    /**
+     * Receives the results of one committed batch; may write them out and throw on I/O errors.
+     */
+    @FunctionalInterface
+    public interface BatchResultHandler {
+        void accept(List<InvoiceImportResultDTO> results) throws IOException;
+    }
+}
@@ -0,0 +1,20 @@
+package co.edu.itm.invoiceextract.application.usecase.invoice;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a batch create: the invoices persisted and, keyed by their position in the
+ * request list, the requests that were rejected.
+ */
+@Getter
+@RequiredArgsConstructor
+public class InvoiceBatchResult {
+
+    private final List<Invoice> created;
+    private final Map<Integer, RuntimeException> failures;
+}
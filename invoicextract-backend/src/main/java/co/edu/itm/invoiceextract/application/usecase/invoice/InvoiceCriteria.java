@@ -0,0 +1,60 @@
+package co.edu.itm.invoiceextract.application.usecase.invoice;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceSpecifications;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * What an invoice list endpoint selects; null fields do not restrict. The same criteria back the
+ * paged, keyset and streamed reads in {@link FetchInvoicesUseCase}.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class InvoiceCriteria {
+
+    private final String senderTaxId;
+    private final String receiverTaxId;
+    private final String documentType;
+    private final InvoiceStatus status;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdTo;
+
+    public static InvoiceCriteria all() {
+        return new InvoiceCriteria(null, null, null, null, null, null);
+    }
+
+    public static InvoiceCriteria bySenderTaxId(String senderTaxId) {
+        return new InvoiceCriteria(senderTaxId, null, null, null, null, null);
+    }
+
+    public static InvoiceCriteria byDocumentType(String documentType) {
+        return new InvoiceCriteria(null, null, documentType, null, null, null);
+    }
+
+    public static InvoiceCriteria byStatus(InvoiceStatus status) {
+        return new InvoiceCriteria(null, null, null, status, null, null);
+    }
+
+    public static InvoiceCriteria byCreatedDate(LocalDateTime from, LocalDateTime to) {
+        return new InvoiceCriteria(null, null, null, null, from, to);
+    }
+
+    public static InvoiceCriteria of(String senderTaxId, String receiverTaxId, InvoiceStatus status,
+                                     LocalDateTime createdFrom, LocalDateTime createdTo) {
+        return new InvoiceCriteria(senderTaxId, receiverTaxId, null, status, createdFrom, createdTo);
+    }
+
+    Specification<Invoice> toSpecification() {
+        return InvoiceSpecifications.filter(senderTaxId, receiverTaxId, documentType, status, createdFrom, createdTo);
+    }
+}
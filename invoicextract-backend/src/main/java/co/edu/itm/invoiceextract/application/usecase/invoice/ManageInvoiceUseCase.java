@@ -1,7 +1,13 @@
 package co.edu.itm.invoiceextract.application.usecase.invoice;
 
+import co.edu.itm.invoiceextract.application.config.CacheConfig;
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
 import co.edu.itm.invoiceextract.application.mapper.invoice.InvoiceMapper;
+import co.edu.itm.invoiceextract.application.service.InvoiceDuplicateGuard;
+import co.edu.itm.invoiceextract.application.service.InvoiceDuplicateGuard.Detection;
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics;
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics.Mode;
+import co.edu.itm.invoiceextract.application.service.InvoiceStatsService;
 import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
 import co.edu.itm.invoiceextract.domain.entity.invoice.InvoiceItem;
 import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
@@ -9,10 +15,18 @@ import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
 import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceItemRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Slf4j
 @Service
@@ -22,50 +36,116 @@ public class ManageInvoiceUseCase {
     private final InvoiceRepository invoiceRepository;
     private final InvoiceItemRepository invoiceItemRepository;
     private final InvoiceMapper invoiceMapper;
+    private final InvoiceStatsService invoiceStatsService;
+    private final InvoiceDuplicateGuard duplicateGuard;
+    private final InvoiceIngestMetrics ingestMetrics;
 
     /**
-     * Creates a new invoice with its items
+     * Creates a new invoice with its items. The invoice and its items are written with
+     * JDBC batch inserts (IDENTITY ids keep Hibernate from batching them), so the returned
+     * invoice carries its generated id but is not attached to the persistence context.
+     * <p>
+     * Idempotent on the document number: the insert runs first and a unique constraint
+     * violation is reported as {@link DuplicateInvoiceException}, so concurrent consumers and
+     * REST calls cannot both store the same invoice. Recently stored numbers are rejected
+     * before reaching the database.
      */
+    @CacheEvict(cacheNames = CacheConfig.DASHBOARD_STATS, allEntries = true)
     @Transactional
     public Invoice createInvoice(InvoiceRequestDTO request) {
         log.debug("Creating invoice with document number: {}", request.getDocumentNumber());
         
         // Validate input data
+        long start = System.nanoTime();
         validateInvoiceData(request);
+        ingestMetrics.recordValidation(System.nanoTime() - start);
         
-        // Validate if invoice already exists
-        if (invoiceRepository.findByDocumentNumber(request.getDocumentNumber()).isPresent()) {
-            throw new IllegalArgumentException("Invoice with document number " + request.getDocumentNumber() + " already exists");
+        String documentNumber = request.getDocumentNumber();
+        if (duplicateGuard.isKnown(documentNumber)) {
+            throw duplicateGuard.duplicate(documentNumber, Detection.CACHE);
         }
 
-        // Map DTO to entity using MapStruct
-        Invoice invoice = invoiceMapper.toEntity(request);
-        Invoice savedInvoice = invoiceRepository.save(invoice);
+        // Map DTO to entity (list and/or single item) and insert invoice and items in two batches
+        Invoice invoice = toEntityWithItems(request);
+        long dbStart = System.nanoTime();
+        try {
+            invoiceRepository.batchInsert(List.of(invoice));
+        } catch (DuplicateKeyException e) {
+            throw duplicateGuard.duplicate(documentNumber, Detection.CONSTRAINT);
+        }
+        invoiceItemRepository.batchInsert(invoice.getItems());
+        invoiceStatsService.recordCreated(invoice);
+        ingestMetrics.recordDb(Mode.SINGLE, System.nanoTime() - dbStart);
+        ingestMetrics.recordItems(invoice.getItems().size());
+        duplicateGuard.rememberAfterCommit(List.of(documentNumber));
 
-        // Create and associate invoice items if present (list and/or single)
-        if (request.getInvoiceItems() != null && !request.getInvoiceItems().isEmpty()) {
-            for (var itemDto : request.getInvoiceItems()) {
-                if (itemDto == null) continue;
-                InvoiceItem item = invoiceMapper.toItemEntity(itemDto);
-                item.setInvoice(savedInvoice);
-                invoiceItemRepository.save(item);
-                savedInvoice.addItem(item);
+        log.info("Invoice created successfully with ID: {} ({} items)", invoice.getId(), invoice.getItems().size());
+        return invoice;
+    }
+
+    /**
+     * Creates many invoices in a single transaction using JDBC batch inserts.
+     * Requests that fail validation or whose document number already exists (in the
+     * database or earlier in the same batch) are skipped and reported in the result;
+     * a database error rolls back the whole batch. Existing numbers are found with one
+     * lookup for the numbers not already known to be stored.
+     */
+    @CacheEvict(cacheNames = CacheConfig.DASHBOARD_STATS, allEntries = true)
+    @Transactional
+    public InvoiceBatchResult createInvoices(List<InvoiceRequestDTO> requests) {
+        log.debug("Creating batch of {} invoices", requests.size());
+        Map<Integer, RuntimeException> failures = new TreeMap<>();
+        Map<String, Integer> indexByDocumentNumber = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            InvoiceRequestDTO request = requests.get(i);
+            long start = System.nanoTime();
+            try {
+                validateInvoiceData(request);
+            } catch (IllegalArgumentException e) {
+                failures.put(i, e);
+                continue;
+            } finally {
+                ingestMetrics.recordValidation(System.nanoTime() - start);
+            }
+            String documentNumber = request.getDocumentNumber();
+            if (duplicateGuard.isKnown(documentNumber)) {
+                failures.put(i, duplicateGuard.duplicate(documentNumber, Detection.CACHE));
+            } else if (indexByDocumentNumber.putIfAbsent(documentNumber, i) != null) {
+                failures.put(i, duplicateGuard.duplicate(documentNumber, Detection.BATCH));
             }
         }
-        if (request.getInvoiceItem() != null) {
-            InvoiceItem item = invoiceMapper.toItemEntity(request.getInvoiceItem());
-            item.setInvoice(savedInvoice);
-            invoiceItemRepository.save(item);
-            savedInvoice.addItem(item);
+        long dbStart = System.nanoTime();
+        if (!indexByDocumentNumber.isEmpty()) {
+            for (String existing : invoiceRepository.findExistingDocumentNumbers(indexByDocumentNumber.keySet())) {
+                Integer index = indexByDocumentNumber.remove(existing);
+                if (index != null) failures.put(index, duplicateGuard.duplicate(existing, Detection.LOOKUP));
+            }
+        }
+        long lookupNanos = System.nanoTime() - dbStart;
+
+        List<Invoice> invoices = new ArrayList<>(indexByDocumentNumber.size());
+        List<InvoiceItem> items = new ArrayList<>();
+        for (int index : indexByDocumentNumber.values()) {
+            Invoice invoice = toEntityWithItems(requests.get(index));
+            invoices.add(invoice);
+            items.addAll(invoice.getItems());
         }
+        long insertStart = System.nanoTime();
+        invoiceRepository.batchInsert(invoices);
+        invoiceItemRepository.batchInsert(items);
+        invoiceStatsService.recordCreated(invoices);
+        ingestMetrics.recordDb(Mode.BATCH, lookupNanos + System.nanoTime() - insertStart);
+        invoices.forEach(invoice -> ingestMetrics.recordItems(invoice.getItems().size()));
+        duplicateGuard.rememberAfterCommit(indexByDocumentNumber.keySet());
 
-        log.info("Invoice created successfully with ID: {}", savedInvoice.getId());
-        return savedInvoice;
+        log.info("Invoice batch created: {} invoices, {} items, {} rejected", invoices.size(), items.size(), failures.size());
+        return new InvoiceBatchResult(invoices, failures);
     }
 
     /**
      * Updates an existing invoice
      */
+    @CacheEvict(cacheNames = CacheConfig.DASHBOARD_STATS, allEntries = true)
     @Transactional
     public Invoice updateInvoice(Long invoiceId, InvoiceRequestDTO request) {
         log.debug("Updating invoice with ID: {}", invoiceId);
@@ -73,8 +153,15 @@ public class ManageInvoiceUseCase {
         Invoice existingInvoice = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new IllegalArgumentException("Invoice not found with ID: " + invoiceId));
 
+        InvoiceStatsService.Snapshot before = InvoiceStatsService.Snapshot.of(existingInvoice);
+        String previousNumber = existingInvoice.getDocumentNumber();
+
         // Update invoice fields
         updateInvoiceFields(existingInvoice, request);
+        if (!Objects.equals(previousNumber, existingInvoice.getDocumentNumber())) {
+            duplicateGuard.forget(previousNumber);
+            duplicateGuard.rememberAfterCommit(List.of(existingInvoice.getDocumentNumber()));
+        }
         
         // Update items if present
         if (request.getInvoiceItem() != null) {
@@ -82,6 +169,7 @@ public class ManageInvoiceUseCase {
         }
 
         Invoice updatedInvoice = invoiceRepository.save(existingInvoice);
+        invoiceStatsService.recordChanged(before, updatedInvoice);
         log.info("Invoice updated successfully with ID: {}", updatedInvoice.getId());
         return updatedInvoice;
     }
@@ -89,6 +177,7 @@ public class ManageInvoiceUseCase {
     /**
      * Deletes an invoice and its items
      */
+    @CacheEvict(cacheNames = CacheConfig.DASHBOARD_STATS, allEntries = true)
     @Transactional
     public void deleteInvoice(Long invoiceId) {
         log.debug("Deleting invoice with ID: {}", invoiceId);
@@ -101,6 +190,8 @@ public class ManageInvoiceUseCase {
         
         // Delete the invoice
         invoiceRepository.delete(invoice);
+        invoiceStatsService.recordRemoved(invoice);
+        duplicateGuard.forget(invoice.getDocumentNumber());
         
         log.info("Invoice deleted successfully with ID: {}", invoiceId);
     }
@@ -135,6 +226,7 @@ public class ManageInvoiceUseCase {
     /**
      * Approves an invoice
      */
+    @CacheEvict(cacheNames = CacheConfig.DASHBOARD_STATS, allEntries = true)
     @Transactional
     public Invoice approveInvoice(Long invoiceId) {
         log.debug("Approving invoice with ID: {}", invoiceId);
@@ -146,8 +238,10 @@ public class ManageInvoiceUseCase {
             throw new IllegalStateException("Invoice is already approved");
         }
 
+        InvoiceStatsService.Snapshot before = InvoiceStatsService.Snapshot.of(invoice);
         invoice.setStatus(InvoiceStatus.APPROVED);
         Invoice approvedInvoice = invoiceRepository.save(invoice);
+        invoiceStatsService.recordChanged(before, approvedInvoice);
         
         log.info("Invoice approved successfully with ID: {}", approvedInvoice.getId());
         return approvedInvoice;
@@ -156,6 +250,7 @@ public class ManageInvoiceUseCase {
     /**
      * Rejects an invoice
      */
+    @CacheEvict(cacheNames = CacheConfig.DASHBOARD_STATS, allEntries = true)
     @Transactional
     public Invoice rejectInvoice(Long invoiceId) {
         log.debug("Rejecting invoice with ID: {}", invoiceId);
@@ -167,8 +262,10 @@ public class ManageInvoiceUseCase {
             throw new IllegalStateException("Invoice is already rejected");
         }
 
+        InvoiceStatsService.Snapshot before = InvoiceStatsService.Snapshot.of(invoice);
         invoice.setStatus(InvoiceStatus.REJECTED);
         Invoice rejectedInvoice = invoiceRepository.save(invoice);
+        invoiceStatsService.recordChanged(before, rejectedInvoice);
         
         log.info("Invoice rejected successfully with ID: {}", rejectedInvoice.getId());
         return rejectedInvoice;
@@ -177,6 +274,7 @@ public class ManageInvoiceUseCase {
     /**
      * Changes invoice status
      */
+    @CacheEvict(cacheNames = CacheConfig.DASHBOARD_STATS, allEntries = true)
     @Transactional
     public Invoice changeInvoiceStatus(Long invoiceId, InvoiceStatus newStatus) {
         log.debug("Changing invoice status to {} for ID: {}", newStatus, invoiceId);
@@ -184,8 +282,10 @@ public class ManageInvoiceUseCase {
         Invoice invoice = invoiceRepository.findById(invoiceId)
                 .orElseThrow(() -> new IllegalArgumentException("Invoice not found with ID: " + invoiceId));
 
+        InvoiceStatsService.Snapshot before = InvoiceStatsService.Snapshot.of(invoice);
         invoice.setStatus(newStatus);
         Invoice updatedInvoice = invoiceRepository.save(invoice);
+        invoiceStatsService.recordChanged(before, updatedInvoice);
         
         log.info("Invoice status changed to {} for ID: {}", newStatus, updatedInvoice.getId());
         return updatedInvoice;
@@ -218,23 +318,37 @@ public class ManageInvoiceUseCase {
         invoiceItemRepository.deleteAll(existingInvoice.getItems());
         existingInvoice.getItems().clear();
 
-        boolean addedAny = false;
-        if (request.getInvoiceItems() != null && !request.getInvoiceItems().isEmpty()) {
+        List<InvoiceItem> newItems = new ArrayList<>();
+        if (request.getInvoiceItems() != null) {
             for (var itemDto : request.getInvoiceItems()) {
                 if (itemDto == null) continue;
-                InvoiceItem newItem = invoiceMapper.toItemEntity(itemDto);
-                newItem.setInvoice(existingInvoice);
-                invoiceItemRepository.save(newItem);
-                existingInvoice.addItem(newItem);
-                addedAny = true;
+                newItems.add(invoiceMapper.toItemEntity(itemDto));
             }
         }
-        if (!addedAny && request.getInvoiceItem() != null) {
-            InvoiceItem newItem = invoiceMapper.toItemEntity(request.getInvoiceItem());
-            newItem.setInvoice(existingInvoice);
-            invoiceItemRepository.save(newItem);
-            existingInvoice.addItem(newItem);
+        if (newItems.isEmpty() && request.getInvoiceItem() != null) {
+            newItems.add(invoiceMapper.toItemEntity(request.getInvoiceItem()));
+        }
+        if (newItems.isEmpty()) return;
+
+        newItems.forEach(item -> item.setInvoice(existingInvoice));
+        invoiceItemRepository.batchInsert(newItems);
+        // Reload the new rows as managed entities; adding the detached ones would make the cascade insert them again
+        existingInvoice.getItems().addAll(invoiceItemRepository.findByInvoiceIdOrderByIdAsc(existingInvoice.getId()));
+    }
+
+    // Maps the request and its items (list and/or single); nothing is persisted
+    private Invoice toEntityWithItems(InvoiceRequestDTO request) {
+        Invoice invoice = invoiceMapper.toEntity(request);
+        if (request.getInvoiceItems() != null) {
+            for (var itemDto : request.getInvoiceItems()) {
+                if (itemDto == null) continue;
+                invoice.addItem(invoiceMapper.toItemEntity(itemDto));
+            }
+        }
+        if (request.getInvoiceItem() != null) {
+            invoice.addItem(invoiceMapper.toItemEntity(request.getInvoiceItem()));
         }
+        return invoice;
     }
 
     /**
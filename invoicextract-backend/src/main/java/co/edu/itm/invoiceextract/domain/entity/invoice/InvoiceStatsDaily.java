@@ -0,0 +1,55 @@
+package co.edu.itm.invoiceextract.domain.entity.invoice;
+
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Invoice count and amount total per creation day, document type and status. Kept in step
+ * with {@code invoices} by the write paths and recomputed by the nightly rebuild.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "invoice_stats_daily")
+@IdClass(InvoiceStatsDaily.Key.class)
+public class InvoiceStatsDaily {
+
+    @Id
+    @Column(name = "stats_date", nullable = false)
+    private LocalDate statsDate;
+
+    @Id
+    @Column(name = "document_type", nullable = false, length = 50)
+    private String documentType;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private InvoiceStatus status;
+
+    @Column(name = "invoice_count", nullable = false)
+    private long invoiceCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate statsDate;
+        private String documentType;
+        private InvoiceStatus status;
+    }
+}
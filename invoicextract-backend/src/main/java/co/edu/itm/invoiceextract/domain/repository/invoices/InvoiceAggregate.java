@@ -0,0 +1,20 @@
+package co.edu.itm.invoiceextract.domain.repository.invoices;
+
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Count and amount total of the invoices sharing a document type and status.
+ */
+@Getter
+@RequiredArgsConstructor
+public class InvoiceAggregate {
+
+    private final String documentType;
+    private final InvoiceStatus status;
+    private final Long count;
+    private final BigDecimal totalAmount;
+}
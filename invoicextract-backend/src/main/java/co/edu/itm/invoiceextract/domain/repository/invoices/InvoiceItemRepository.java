@@ -3,5 +3,9 @@ package co.edu.itm.invoiceextract.domain.repository.invoices;
 import co.edu.itm.invoiceextract.domain.entity.invoice.InvoiceItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface InvoiceItemRepository extends JpaRepository<InvoiceItem, Long> {
+import java.util.List;
+
+public interface InvoiceItemRepository extends JpaRepository<InvoiceItem, Long>, InvoiceItemRepositoryCustom {
+
+    List<InvoiceItem> findByInvoiceIdOrderByIdAsc(Long invoiceId);
 }
@@ -0,0 +1,14 @@
+package co.edu.itm.invoiceextract.domain.repository.invoices;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.InvoiceItem;
+
+import java.util.List;
+
+public interface InvoiceItemRepositoryCustom {
+
+    /**
+     * Inserts new items using JDBC batch statements. Each item's invoice must already
+     * have an id. Generated item ids are not read back.
+     */
+    void batchInsert(List<InvoiceItem> items);
+}
@@ -0,0 +1,59 @@
+package co.edu.itm.invoiceextract.domain.repository.invoices;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.InvoiceItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class InvoiceItemRepositoryCustomImpl implements InvoiceItemRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO invoice_items (invoice_id, item_code, description, quantity, unit, " +
+            "unit_price, subtotal, tax_amount, total, created_date, modified_date, created_by, modified_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorProvider;
+    private final int batchSize;
+
+    public InvoiceItemRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                           AuditorAware<String> auditorProvider,
+                                           @Value("${invoices.ingest.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditorProvider = auditorProvider;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void batchInsert(List<InvoiceItem> items) {
+        if (items.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        String auditor = auditorProvider.getCurrentAuditor().orElse(null);
+        for (InvoiceItem item : items) {
+            item.setCreatedDate(now);
+            item.setModifiedDate(now);
+            item.setCreatedBy(auditor);
+            item.setModifiedBy(auditor);
+        }
+        Timestamp ts = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_SQL, items, batchSize, (ps, item) -> {
+            ps.setLong(1, item.getInvoice().getId());
+            ps.setString(2, item.getItemCode());
+            ps.setString(3, item.getDescription());
+            if (item.getQuantity() == null) ps.setNull(4, Types.INTEGER); else ps.setInt(4, item.getQuantity());
+            ps.setString(5, item.getUnit());
+            ps.setBigDecimal(6, item.getUnitPrice());
+            ps.setBigDecimal(7, item.getSubtotal());
+            ps.setBigDecimal(8, item.getTaxAmount());
+            ps.setBigDecimal(9, item.getTotal());
+            ps.setTimestamp(10, ts);
+            ps.setTimestamp(11, ts);
+            ps.setString(12, auditor);
+            ps.setString(13, auditor);
+        });
+    }
+}
@@ -2,39 +2,82 @@ package co.edu.itm.invoiceextract.domain.repository.invoices;
 
 import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
 import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+public interface InvoiceRepository extends JpaRepository<Invoice, Long>, JpaSpecificationExecutor<Invoice>, InvoiceRepositoryCustom {
     
     Optional<Invoice> findByDocumentNumber(String documentNumber);
+
+    @Query("SELECT i.documentNumber FROM Invoice i WHERE i.documentNumber IN :documentNumbers")
+    List<String> findExistingDocumentNumbers(@Param("documentNumbers") Collection<String> documentNumbers);
     
     @Query("SELECT i FROM Invoice i LEFT JOIN FETCH i.items WHERE i.id = :id")
     Optional<Invoice> findByIdWithItems(@Param("id") Long id);
     
+    // The list finders below feed responses that include the items, so they fetch them in the same query
+
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT i FROM Invoice i")
+    List<Invoice> findAllWithItems();
+
+    /**
+     * Loads the items of already fetched invoices in one query, e.g. for the content of a page
+     * (fetching a collection in the paged query itself would make Hibernate page in memory).
+     */
+    @EntityGraph(attributePaths = "items")
+    List<Invoice> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "items")
     List<Invoice> findBySenderTaxId(String senderTaxId);
     
+    @EntityGraph(attributePaths = "items")
     List<Invoice> findByReceiverTaxId(String receiverTaxId);
     
+    @EntityGraph(attributePaths = "items")
     List<Invoice> findByDocumentType(String documentType);
     
+    @EntityGraph(attributePaths = "items")
     List<Invoice> findByStatus(InvoiceStatus status);
     
+    @EntityGraph(attributePaths = "items")
     List<Invoice> findByAmountBetween(BigDecimal minAmount, BigDecimal maxAmount);
     
+    @EntityGraph(attributePaths = "items")
     List<Invoice> findByIssueDateBetween(LocalDate startDate, LocalDate endDate);
     
+    @EntityGraph(attributePaths = "items")
     List<Invoice> findByCreatedDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
-    @Query("SELECT i FROM Invoice i ORDER BY i.createdDate DESC")
-    List<Invoice> findTop10ByOrderByCreatedDateDesc();
+    /**
+     * Newest invoices first; the page size is applied as the query limit.
+     * Ties on created date are broken by id so the order is stable for keyset paging.
+     */
+    @Query("SELECT new co.edu.itm.invoiceextract.domain.repository.invoices.RecentInvoiceRow(" +
+            "i.id, i.documentNumber, i.senderBusinessName, i.amount, i.issueDate, i.createdDate) " +
+            "FROM Invoice i WHERE i.createdDate IS NOT NULL ORDER BY i.createdDate DESC, i.id DESC")
+    List<RecentInvoiceRow> findRecent(Pageable page);
+
+    /**
+     * Continues {@link #findRecent(Pageable)} after the invoice with the given created date and id.
+     */
+    @Query("SELECT new co.edu.itm.invoiceextract.domain.repository.invoices.RecentInvoiceRow(" +
+            "i.id, i.documentNumber, i.senderBusinessName, i.amount, i.issueDate, i.createdDate) " +
+            "FROM Invoice i WHERE i.createdDate < :createdDate OR (i.createdDate = :createdDate AND i.id < :id) " +
+            "ORDER BY i.createdDate DESC, i.id DESC")
+    List<RecentInvoiceRow> findRecentBefore(@Param("createdDate") LocalDateTime createdDate,
+                                            @Param("id") Long id, Pageable page);
     
     long countByDocumentType(String documentType);
     
@@ -0,0 +1,14 @@
+package co.edu.itm.invoiceextract.domain.repository.invoices;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+
+import java.util.List;
+
+public interface InvoiceRepositoryCustom {
+
+    /**
+     * Inserts new invoices (without their items) using JDBC batch statements and sets the
+     * generated ids on the given entities. Hibernate cannot batch inserts for IDENTITY ids.
+     */
+    void batchInsert(List<Invoice> invoices);
+}
@@ -0,0 +1,99 @@
+package co.edu.itm.invoiceextract.domain.repository.invoices;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class InvoiceRepositoryCustomImpl implements InvoiceRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO invoices (document_type, document_number, receiver_tax_id, " +
+            "receiver_tax_id_without_check_digit, receiver_business_name, sender_tax_id, sender_tax_id_without_check_digit, " +
+            "sender_business_name, invoice_path_pdf, invoice_path_xml, related_document_number, amount, issue_date, due_date, " +
+            "status, created_date, modified_date, created_by, modified_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorProvider;
+    private final int batchSize;
+
+    public InvoiceRepositoryCustomImpl(JdbcTemplate jdbcTemplate,
+                                       AuditorAware<String> auditorProvider,
+                                       @Value("${invoices.ingest.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditorProvider = auditorProvider;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void batchInsert(List<Invoice> invoices) {
+        if (invoices.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        String auditor = auditorProvider.getCurrentAuditor().orElse(null);
+        for (Invoice invoice : invoices) {
+            invoice.setCreatedDate(now);
+            invoice.setModifiedDate(now);
+            invoice.setCreatedBy(auditor);
+            invoice.setModifiedBy(auditor);
+        }
+        Timestamp ts = Timestamp.valueOf(now);
+        for (int from = 0; from < invoices.size(); from += batchSize) {
+            insertChunk(invoices.subList(from, Math.min(from + batchSize, invoices.size())), ts, auditor);
+        }
+    }
+
+    // Ids come back from the batch itself, in insert order
+    private void insertChunk(List<Invoice> chunk, Timestamp ts, String auditor) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Invoice invoice = chunk.get(i);
+                        ps.setString(1, invoice.getDocumentType());
+                        ps.setString(2, invoice.getDocumentNumber());
+                        ps.setString(3, invoice.getReceiverTaxId());
+                        ps.setString(4, invoice.getReceiverTaxIdWithoutCheckDigit());
+                        ps.setString(5, invoice.getReceiverBusinessName());
+                        ps.setString(6, invoice.getSenderTaxId());
+                        ps.setString(7, invoice.getSenderTaxIdWithoutCheckDigit());
+                        ps.setString(8, invoice.getSenderBusinessName());
+                        ps.setString(9, invoice.getInvoicePathPDF());
+                        ps.setString(10, invoice.getInvoicePathXML());
+                        ps.setString(11, invoice.getRelatedDocumentNumber());
+                        ps.setBigDecimal(12, invoice.getAmount());
+                        ps.setDate(13, invoice.getIssueDate() == null ? null : Date.valueOf(invoice.getIssueDate()));
+                        ps.setDate(14, invoice.getDueDate() == null ? null : Date.valueOf(invoice.getDueDate()));
+                        ps.setString(15, invoice.getStatus().name());
+                        ps.setTimestamp(16, ts);
+                        ps.setTimestamp(17, ts);
+                        ps.setString(18, auditor);
+                        ps.setString(19, auditor);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> rows = keys.getKeyList();
+        if (rows.size() != chunk.size()) {
+            throw new IllegalStateException("Expected " + chunk.size() + " generated invoice ids, got " + rows.size());
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            // MySQL names the key GENERATED_KEY, H2 names it after the column
+            chunk.get(i).setId(((Number) rows.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
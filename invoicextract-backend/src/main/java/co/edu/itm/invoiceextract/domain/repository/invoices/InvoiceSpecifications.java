@@ -0,0 +1,68 @@
+package co.edu.itm.invoiceextract.domain.repository.invoices;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query criteria for {@link Invoice}. A null argument means "no restriction", so the
+ * specifications can be combined straight from optional request parameters.
+ */
+public final class InvoiceSpecifications {
+
+    private InvoiceSpecifications() {
+    }
+
+    public static Specification<Invoice> filter(String senderTaxId, String receiverTaxId, String documentType,
+                                                InvoiceStatus status, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        return Specification.where(senderTaxIdEquals(senderTaxId))
+                .and(receiverTaxIdEquals(receiverTaxId))
+                .and(documentTypeEquals(documentType))
+                .and(statusEquals(status))
+                .and(createdBetween(createdFrom, createdTo));
+    }
+
+    public static Specification<Invoice> senderTaxIdEquals(String senderTaxId) {
+        return (root, query, cb) -> senderTaxId == null ? null : cb.equal(root.get("senderTaxId"), senderTaxId);
+    }
+
+    public static Specification<Invoice> receiverTaxIdEquals(String receiverTaxId) {
+        return (root, query, cb) -> receiverTaxId == null ? null : cb.equal(root.get("receiverTaxId"), receiverTaxId);
+    }
+
+    public static Specification<Invoice> documentTypeEquals(String documentType) {
+        return (root, query, cb) -> documentType == null ? null : cb.equal(root.get("documentType"), documentType);
+    }
+
+    public static Specification<Invoice> statusEquals(InvoiceStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    // Inclusive on both ends, as the previous in-memory filter
+    public static Specification<Invoice> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) return cb.between(root.get("createdDate"), from, to);
+            if (from != null) return cb.greaterThanOrEqualTo(root.get("createdDate"), from);
+            if (to != null) return cb.lessThanOrEqualTo(root.get("createdDate"), to);
+            return null;
+        };
+    }
+
+    // Keyset paging only covers dated invoices, as the recent invoices query
+    public static Specification<Invoice> createdDateKnown() {
+        return (root, query, cb) -> cb.isNotNull(root.get("createdDate"));
+    }
+
+    /**
+     * Invoices after the given one in created date descending, id descending order (keyset paging).
+     * Never matches invoices without a created date; combine with {@link #createdDateKnown()}
+     * from the first slice on so they are not returned there either.
+     */
+    public static Specification<Invoice> createdBefore(LocalDateTime createdDate, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdDate"), createdDate),
+                cb.and(cb.equal(root.get("createdDate"), createdDate), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,57 @@
+package co.edu.itm.invoiceextract.domain.repository.invoices;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.InvoiceStatsDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InvoiceStatsDailyRepository extends JpaRepository<InvoiceStatsDaily, InvoiceStatsDaily.Key> {
+
+    // Atomic upsert: concurrent writers on the same bucket serialize on its row
+    @Modifying
+    @Query(value = "INSERT INTO invoice_stats_daily (stats_date, document_type, status, invoice_count, total_amount) " +
+            "VALUES (:statsDate, :documentType, :status, :count, :amount) " +
+            "ON DUPLICATE KEY UPDATE invoice_count = invoice_count + VALUES(invoice_count), " +
+            "total_amount = total_amount + VALUES(total_amount)", nativeQuery = true)
+    int addToBucket(@Param("statsDate") LocalDate statsDate,
+                    @Param("documentType") String documentType,
+                    @Param("status") String status,
+                    @Param("count") long count,
+                    @Param("amount") BigDecimal amount);
+
+    @Query("SELECT DISTINCT s.statsDate FROM InvoiceStatsDaily s")
+    List<LocalDate> findBucketDays();
+
+    @Query("SELECT DISTINCT CAST(i.createdDate AS LocalDate) FROM Invoice i WHERE i.createdDate IS NOT NULL")
+    List<LocalDate> findInvoiceDays();
+
+    @Modifying
+    @Query(value = "DELETE FROM invoice_stats_daily WHERE stats_date = :day", nativeQuery = true)
+    int deleteBucketsOn(@Param("day") LocalDate day);
+
+    // Range on created_date rather than CAST(...) = :day so idx_invoices_created_date_id applies
+    @Modifying
+    @Query(value = "INSERT INTO invoice_stats_daily (stats_date, document_type, status, invoice_count, total_amount) " +
+            "SELECT :day, document_type, status, COUNT(*), COALESCE(SUM(amount), 0) " +
+            "FROM invoices WHERE created_date >= :from AND created_date < :until " +
+            "GROUP BY document_type, status", nativeQuery = true)
+    int insertBucketsFromInvoices(@Param("day") LocalDate day,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("until") LocalDateTime until);
+
+    @Query("SELECT new co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceAggregate(" +
+            "s.documentType, s.status, SUM(s.invoiceCount), SUM(s.totalAmount)) " +
+            "FROM InvoiceStatsDaily s GROUP BY s.documentType, s.status")
+    List<InvoiceAggregate> summarize();
+
+    @Query("SELECT new co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceAggregate(" +
+            "s.documentType, s.status, SUM(s.invoiceCount), SUM(s.totalAmount)) " +
+            "FROM InvoiceStatsDaily s WHERE s.statsDate BETWEEN :from AND :to GROUP BY s.documentType, s.status")
+    List<InvoiceAggregate> summarizeBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,23 @@
+package co.edu.itm.invoiceextract.domain.repository.invoices;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The columns of an invoice shown in the recent invoices list, selected without loading the entity.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RecentInvoiceRow {
+
+    private final Long id;
+    private final String documentNumber;
+    private final String senderBusinessName;
+    private final BigDecimal amount;
+    private final LocalDate issueDate;
+    private final LocalDateTime createdDate;
+}
@@ -3,6 +3,10 @@ package co.edu.itm.invoiceextract.infrastructure.errors;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ProcessingErrorLogRepository extends JpaRepository<ProcessingErrorLog, Long> {
+
+    Optional<ProcessingErrorLog> findFirstByTopicAndKafkaPartitionAndKafkaOffset(String topic, int kafkaPartition, long kafkaOffset);
 }
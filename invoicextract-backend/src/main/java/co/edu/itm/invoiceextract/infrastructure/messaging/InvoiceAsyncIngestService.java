@@ -0,0 +1,87 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceIngestStatusDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceIngestStatusDTO.Status;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceTrackingId;
+import co.edu.itm.invoiceextract.infrastructure.errors.ProcessingErrorLog;
+import co.edu.itm.invoiceextract.infrastructure.errors.ProcessingErrorLogRepository;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.mapper.InvoiceMessageMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes invoices to the "invoices" topic for the listener to store, and reports how far a
+ * published invoice got. The status is derived from what the consumer leaves behind at the
+ * record's offset (an ingest record or an error log row), so it can be polled on any instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InvoiceAsyncIngestService {
+
+    public static final String TOPIC = "invoices";
+
+    private final KafkaTemplate<String, InvoiceMessage> kafkaTemplate;
+    private final InvoiceMessageMapper invoiceMessageMapper;
+    private final InvoiceIngestRecordRepository ingestRecordRepository;
+    private final ProcessingErrorLogRepository errorLogRepository;
+
+    /**
+     * Sends the invoice keyed by its document number, so every version of an invoice lands on
+     * the same partition and is consumed in order. Completes once the broker acknowledged the
+     * record, or exceptionally if it could not be written.
+     */
+    public CompletableFuture<InvoiceIngestStatusDTO> submit(InvoiceRequestDTO request) {
+        InvoiceMessage message = invoiceMessageMapper.toMessage(request);
+        return kafkaTemplate.send(TOPIC, message.getDocumentNumber(), message)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Failed to publish invoice {}: {}", message.getDocumentNumber(), e.getMessage());
+                    }
+                })
+                .thenApply(result -> {
+                    RecordMetadata metadata = result.getRecordMetadata();
+                    InvoiceTrackingId trackingId = new InvoiceTrackingId(
+                            metadata.partition(), metadata.offset(), metadata.timestamp(), message.getDocumentNumber());
+                    return InvoiceIngestStatusDTO.of(trackingId, Status.QUEUED);
+                });
+    }
+
+    /**
+     * Resolves a tracking id by its record's partition and offset: persisted if the listener
+     * stored an invoice from it, rejected if it logged an error for it, queued otherwise. A
+     * redelivered record whose invoice was already stored stays persisted.
+     *
+     * @throws IllegalArgumentException if the tracking id is malformed
+     */
+    @Transactional(readOnly = true)
+    public InvoiceIngestStatusDTO status(String value) {
+        InvoiceTrackingId trackingId = InvoiceTrackingId.parse(value);
+        InvoiceIngestStatusDTO status = InvoiceIngestStatusDTO.of(trackingId, Status.QUEUED);
+
+        Optional<InvoiceIngestRecord> stored = ingestRecordRepository.findFirstByTopicAndKafkaPartitionAndKafkaOffset(
+                TOPIC, trackingId.getPartition(), trackingId.getOffset());
+        if (stored.isPresent()) {
+            status.setStatus(Status.PERSISTED);
+            status.setInvoiceId(stored.get().getInvoiceId());
+            return status;
+        }
+        Optional<ProcessingErrorLog> rejection = errorLogRepository.findFirstByTopicAndKafkaPartitionAndKafkaOffset(
+                TOPIC, trackingId.getPartition(), trackingId.getOffset());
+        if (rejection.isPresent()) {
+            status.setStatus(Status.REJECTED);
+            status.setErrorType(rejection.get().getErrorType());
+            status.setErrorMessage(rejection.get().getErrorMessage());
+        }
+        return status;
+    }
+}
@@ -0,0 +1,44 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * The topic record an invoice was consumed from. Written in the same transaction as the
+ * invoice, so its presence means the record's invoice is stored.
+ */
+@Data
+@Entity
+@Table(name = "invoice_ingest_records")
+public class InvoiceIngestRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(name = "kafka_partition", nullable = false)
+    private int kafkaPartition;
+
+    @Column(name = "kafka_offset", nullable = false)
+    private long kafkaOffset;
+
+    @Column(name = "invoice_id", nullable = false)
+    private Long invoiceId;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    public static InvoiceIngestRecord of(String topic, int partition, long offset) {
+        InvoiceIngestRecord record = new InvoiceIngestRecord();
+        record.setTopic(topic);
+        record.setKafkaPartition(partition);
+        record.setKafkaOffset(offset);
+        return record;
+    }
+}
@@ -0,0 +1,12 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface InvoiceIngestRecordRepository extends JpaRepository<InvoiceIngestRecord, Long> {
+
+    Optional<InvoiceIngestRecord> findFirstByTopicAndKafkaPartitionAndKafkaOffset(String topic, int kafkaPartition, long kafkaOffset);
+}
@@ -1,17 +1,29 @@
 package co.edu.itm.invoiceextract.infrastructure.messaging;
 
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics;
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics.Mode;
 import co.edu.itm.invoiceextract.infrastructure.errors.ProcessingErrorLog;
 import co.edu.itm.invoiceextract.infrastructure.errors.ProcessingErrorLogRepository;
 import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.serde.InvoiceMessageAvroCodec;
+import co.edu.itm.invoiceextract.infrastructure.messaging.serde.InvoiceMessageFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -20,25 +32,131 @@ public class InvoiceListener {
     private final InvoiceMessagingAdapter invoiceMessagingAdapter;
     private final ObjectMapper objectMapper;
     private final ProcessingErrorLogRepository errorLogRepository;
+    private final InvoiceIngestMetrics ingestMetrics;
+    private final InvoiceMessageAvroCodec avroCodec;
 
-    @KafkaListener(topics = "invoices", groupId = "invoice-group")
-    public void listen(
-            @Payload String message,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+    @KafkaListener(topics = "invoices", groupId = "invoice-group",
+            autoStartup = "#{!${invoices.consumer.batch-enabled:true}}")
+    public void listen(ConsumerRecord<String, byte[]> record, Consumer<?, ?> consumer) {
+        long start = System.nanoTime();
         try {
-            log.info("Received message from topic {}-{} at offset {}: {}", topic, partition, offset, message);
-            InvoiceMessage invoiceMessage = objectMapper.readValue(message, InvoiceMessage.class);
-            invoiceMessagingAdapter.processInvoice(invoiceMessage);
+            log.info("Received {} message from topic {}-{} at offset {} ({} bytes)", InvoiceMessageFormat.of(record.headers()),
+                    record.topic(), record.partition(), record.offset(), record.value() == null ? 0 : record.value().length);
+            InvoiceMessage invoiceMessage = deserialize(record);
+            invoiceMessagingAdapter.processInvoice(invoiceMessage, source(record));
+            ingestMetrics.recordCommitted(record.timestamp());
             log.info("Successfully processed invoice message for email: {}", invoiceMessage.getEmail());
         } catch (Exception e) {
-            log.error("Failed to process message from topic {}-{} at offset {}. Reason: {}. Storing to error log.",
-                    topic, partition, offset, e.getMessage());
-            saveErrorLog(message, topic, partition, offset, e);
+            handleFailure(record, e);
+        } finally {
+            ingestMetrics.recordListen(Mode.SINGLE, System.nanoTime() - start);
+            updateLag(consumer, Set.of(new TopicPartition(record.topic(), record.partition())));
+        }
+    }
+
+    /**
+     * Batch mode: receives a whole poll, saves the valid invoices in one transaction and
+     * logs every rejected record to the error log. If the batch transaction itself fails,
+     * the records are retried one by one so a single bad record cannot block the rest.
+     */
+    @KafkaListener(id = "invoice-batch-listener", topics = "invoices", groupId = "invoice-group",
+            containerFactory = KafkaConsumerConfig.BATCH_LISTENER_FACTORY,
+            autoStartup = "${invoices.consumer.batch-enabled:true}")
+    public void listenBatch(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer) {
+        long start = System.nanoTime();
+        try {
+            processBatch(records);
+        } finally {
+            ingestMetrics.recordListen(Mode.BATCH, System.nanoTime() - start);
+            Set<TopicPartition> partitions = new LinkedHashSet<>();
+            records.forEach(record -> partitions.add(new TopicPartition(record.topic(), record.partition())));
+            updateLag(consumer, partitions);
+        }
+    }
+
+    private void processBatch(List<ConsumerRecord<String, byte[]>> records) {
+        log.info("Received batch of {} messages", records.size());
+        List<ConsumerRecord<String, byte[]>> accepted = new ArrayList<>(records.size());
+        List<InvoiceMessage> messages = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                messages.add(deserialize(record));
+                accepted.add(record);
+            } catch (Exception e) {
+                handleFailure(record, e);
+            }
+        }
+        if (messages.isEmpty()) return;
+
+        List<InvoiceIngestRecord> sources = new ArrayList<>(accepted.size());
+        accepted.forEach(record -> sources.add(source(record)));
+        Map<Integer, RuntimeException> failures;
+        try {
+            failures = invoiceMessagingAdapter.processInvoices(messages, sources);
+        } catch (Exception e) {
+            log.warn("Batch of {} invoices failed ({}). Retrying one by one.", messages.size(), e.getMessage());
+            for (int i = 0; i < messages.size(); i++) {
+                processSingle(accepted.get(i), messages.get(i));
+            }
+            return;
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            RuntimeException failure = failures.get(i);
+            if (failure == null) {
+                ingestMetrics.recordCommitted(accepted.get(i).timestamp());
+            } else {
+                handleFailure(accepted.get(i), failure);
+            }
         }
     }
 
+    private void processSingle(ConsumerRecord<String, byte[]> record, InvoiceMessage message) {
+        try {
+            invoiceMessagingAdapter.processInvoice(message, source(record));
+            ingestMetrics.recordCommitted(record.timestamp());
+        } catch (Exception e) {
+            handleFailure(record, e);
+        }
+    }
+
+    private static InvoiceIngestRecord source(ConsumerRecord<?, ?> record) {
+        return InvoiceIngestRecord.of(record.topic(), record.partition(), record.offset());
+    }
+
+    /**
+     * Decodes a record in the format named by its contentType header; records without one are
+     * JSON, as written by producers that predate the header.
+     */
+    private InvoiceMessage deserialize(ConsumerRecord<String, byte[]> record) throws IOException {
+        long start = System.nanoTime();
+        InvoiceMessage invoiceMessage = InvoiceMessageFormat.of(record.headers()) == InvoiceMessageFormat.AVRO
+                ? avroCodec.decode(record.value())
+                : objectMapper.readValue(record.value(), InvoiceMessage.class);
+        ingestMetrics.recordDeserialize(System.nanoTime() - start);
+        return invoiceMessage;
+    }
+
+    /**
+     * Publishes the lag the consumer last saw for the partitions it just handled. Runs on the
+     * consumer thread, the only one allowed to touch the consumer.
+     */
+    private void updateLag(Consumer<?, ?> consumer, Set<TopicPartition> partitions) {
+        if (consumer == null) return;
+        for (TopicPartition partition : partitions) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isPresent()) {
+                ingestMetrics.updateLag(partition.topic(), partition.partition(), lag.getAsLong());
+            }
+        }
+    }
+
+    private void handleFailure(ConsumerRecord<String, byte[]> record, Exception e) {
+        log.error("Failed to process message from topic {}-{} at offset {}. Reason: {}. Storing to error log.",
+                record.topic(), record.partition(), record.offset(), e.getMessage());
+        saveErrorLog(InvoiceMessageFormat.of(record.headers()).toText(record.value()),
+                record.topic(), record.partition(), record.offset(), e);
+    }
+
     private void saveErrorLog(String message, String topic, int partition, long offset, Exception e) {
         ProcessingErrorLog errorLog = new ProcessingErrorLog();
         errorLog.setTopic(topic);
@@ -47,6 +165,8 @@ public class InvoiceListener {
         errorLog.setRawMessage(message);
         errorLog.setErrorType(e.getClass().getSimpleName());
         errorLog.setErrorMessage(e.getMessage());
+        long start = System.nanoTime();
         errorLogRepository.save(errorLog);
+        ingestMetrics.recordErrorLogWrite(errorLog.getErrorType(), System.nanoTime() - start);
     }
 }
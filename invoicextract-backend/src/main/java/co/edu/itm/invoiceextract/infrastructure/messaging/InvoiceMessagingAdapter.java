@@ -1,6 +1,9 @@
 package co.edu.itm.invoiceextract.infrastructure.messaging;
 
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics;
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics.Mode;
+import co.edu.itm.invoiceextract.application.usecase.invoice.InvoiceBatchResult;
 import co.edu.itm.invoiceextract.application.usecase.invoice.ManageInvoiceUseCase;
 import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
 import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
@@ -9,6 +12,11 @@ import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @AllArgsConstructor
@@ -17,12 +25,58 @@ public class InvoiceMessagingAdapter {
     private static final Logger logger = LoggerFactory.getLogger(InvoiceMessagingAdapter.class);
     private final ManageInvoiceUseCase manageInvoiceUseCase;
     private final InvoiceMessageMapper invoiceMessageMapper;
+    private final InvoiceIngestMetrics ingestMetrics;
+    private final InvoiceIngestRecordRepository ingestRecordRepository;
 
-    public void processInvoice(InvoiceMessage message) {
+    /**
+     * Maps and saves one invoice together with the record it came from. Returns once its
+     * transaction has committed.
+     */
+    @Transactional
+    public void processInvoice(InvoiceMessage message, InvoiceIngestRecord source) {
         logger.info("Mapping and saving invoice from message for sender: {}", message.getSenderTaxId());
-        InvoiceRequestDTO invoice = invoiceMessageMapper.toDto(message);
-        Invoice savedInvoice = manageInvoiceUseCase.createInvoice(invoice);
+        long start = System.nanoTime();
+        try {
+            InvoiceRequestDTO invoice = invoiceMessageMapper.toDto(message);
+            Invoice savedInvoice = manageInvoiceUseCase.createInvoice(invoice);
+            source.setInvoiceId(savedInvoice.getId());
+            ingestRecordRepository.save(source);
+
+            logger.info("Invoice with ID {} saved successfully.", savedInvoice.getId());
+        } finally {
+            ingestMetrics.recordProcess(Mode.SINGLE, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Maps and saves a whole poll in one transaction, with the record each stored invoice came
+     * from ({@code sources} in the same order as {@code messages}). Returns the rejected
+     * messages keyed by their position in the given list.
+     */
+    @Transactional
+    public Map<Integer, RuntimeException> processInvoices(List<InvoiceMessage> messages, List<InvoiceIngestRecord> sources) {
+        long start = System.nanoTime();
+        try {
+            List<InvoiceRequestDTO> invoices = new ArrayList<>(messages.size());
+            for (InvoiceMessage message : messages) {
+                invoices.add(invoiceMessageMapper.toDto(message));
+            }
+            InvoiceBatchResult result = manageInvoiceUseCase.createInvoices(invoices);
+            // Created invoices come back in request order, skipping the rejected positions
+            List<InvoiceIngestRecord> stored = new ArrayList<>(result.getCreated().size());
+            int created = 0;
+            for (int i = 0; i < messages.size(); i++) {
+                if (result.getFailures().containsKey(i)) continue;
+                InvoiceIngestRecord source = sources.get(i);
+                source.setInvoiceId(result.getCreated().get(created++).getId());
+                stored.add(source);
+            }
+            ingestRecordRepository.saveAll(stored);
 
-        logger.info("Invoice with ID {} saved successfully.", savedInvoice.getId());
+            logger.info("Invoice batch saved: {} created, {} rejected.", result.getCreated().size(), result.getFailures().size());
+            return result.getFailures();
+        } finally {
+            ingestMetrics.recordProcess(Mode.BATCH, System.nanoTime() - start);
+        }
     }
 }
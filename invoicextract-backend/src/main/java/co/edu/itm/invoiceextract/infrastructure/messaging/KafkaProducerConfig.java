@@ -1,6 +1,9 @@
 package co.edu.itm.invoiceextract.infrastructure.messaging;
 
 import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.serde.InvoiceMessageAvroCodec;
+import co.edu.itm.invoiceextract.infrastructure.messaging.serde.InvoiceMessageFormat;
+import co.edu.itm.invoiceextract.infrastructure.messaging.serde.InvoiceMessageSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,7 +12,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,17 +22,43 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // How long the producer waits to fill a batch before sending it
+    @Value("${invoices.producer.linger-ms:20}")
+    private int lingerMs;
+
+    // Max bytes per partition batch
+    @Value("${invoices.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${invoices.producer.compression-type:lz4}")
+    private String compressionType;
+
+    // How long send() may block the request thread when the buffer is full or metadata is missing
+    @Value("${invoices.producer.max-block-ms:5000}")
+    private long maxBlockMs;
+
+    // Value encoding: json, or avro once every consumer reads the contentType header
+    @Value("${invoices.producer.format:json}")
+    private String format;
+
     @Bean
-    public ProducerFactory<String, InvoiceMessage> producerFactory() {
+    public ProducerFactory<String, InvoiceMessage> producerFactory(InvoiceMessageAvroCodec avroCodec) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        // Idempotent writes: retries cannot duplicate or reorder records within a partition
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(),
+                new InvoiceMessageSerializer(InvoiceMessageFormat.fromConfig(format), avroCodec));
     }
 
     @Bean
-    public KafkaTemplate<String, InvoiceMessage> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, InvoiceMessage> kafkaTemplate(ProducerFactory<String, InvoiceMessage> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 }
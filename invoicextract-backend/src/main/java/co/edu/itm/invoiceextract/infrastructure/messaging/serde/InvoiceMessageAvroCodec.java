@@ -0,0 +1,202 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging.serde;
+
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceItemMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Avro binary form of {@link InvoiceMessage}, using the schema in {@value #SCHEMA_PATH}. Uses
+ * single-object encoding, so records identify their schema by fingerprint and no schema
+ * registry is needed. Thread-safe.
+ */
+@Component
+public class InvoiceMessageAvroCodec {
+
+    public static final String SCHEMA_PATH = "avro/invoice-message.avsc";
+
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    private final Schema schema;
+    private final Schema itemSchema;
+    private final Schema statusSchema;
+    private final BinaryMessageEncoder<GenericRecord> encoder;
+    private final BinaryMessageDecoder<GenericRecord> decoder;
+
+    public InvoiceMessageAvroCodec() {
+        this(loadSchema());
+    }
+
+    InvoiceMessageAvroCodec(Schema schema) {
+        this.schema = schema;
+        this.itemSchema = nonNull(schema.getField("invoiceItem").schema());
+        this.statusSchema = nonNull(schema.getField("status").schema());
+        this.encoder = new BinaryMessageEncoder<>(GenericData.get(), schema);
+        this.decoder = new BinaryMessageDecoder<>(GenericData.get(), schema);
+    }
+
+    private static Schema loadSchema() {
+        try (InputStream in = InvoiceMessageAvroCodec.class.getClassLoader().getResourceAsStream(SCHEMA_PATH)) {
+            if (in == null) throw new IllegalStateException("Avro schema not found on classpath: " + SCHEMA_PATH);
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read Avro schema " + SCHEMA_PATH, e);
+        }
+    }
+
+    // The non-null branch of a ["null", T] union
+    private static Schema nonNull(Schema union) {
+        return union.getTypes().get(1);
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public byte[] encode(InvoiceMessage message) {
+        if (message == null) return null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try {
+            encoder.encode(toRecord(message), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot encode invoice " + message.getDocumentNumber(), e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IOException if the payload is truncated
+     * @throws org.apache.avro.AvroRuntimeException if the payload is not single-object encoded
+     *                                              or was written with an unknown schema
+     */
+    public InvoiceMessage decode(byte[] payload) throws IOException {
+        return fromRecord(decoder.decode(payload));
+    }
+
+    private GenericRecord toRecord(InvoiceMessage message) {
+        GenericData.Record record = new GenericData.Record(schema);
+        record.put("email", message.getEmail());
+        record.put("date", message.getDate() == null ? null : ChronoUnit.MICROS.between(EPOCH, message.getDate()));
+        record.put("status", message.getStatus() == null ? null
+                : new GenericData.EnumSymbol(statusSchema, message.getStatus().name()));
+        record.put("invoicePathPDF", message.getInvoicePathPDF());
+        record.put("invoicePathXML", message.getInvoicePathXML());
+        record.put("documentType", message.getDocumentType());
+        record.put("documentNumber", message.getDocumentNumber());
+        record.put("receiverTaxId", message.getReceiverTaxId());
+        record.put("receiverTaxIdWithoutCheckDigit", message.getReceiverTaxIdWithoutCheckDigit());
+        record.put("receiverBusinessName", message.getReceiverBusinessName());
+        record.put("senderTaxId", message.getSenderTaxId());
+        record.put("senderTaxIdWithoutCheckDigit", message.getSenderTaxIdWithoutCheckDigit());
+        record.put("senderBusinessName", message.getSenderBusinessName());
+        record.put("relatedDocumentNumber", message.getRelatedDocumentNumber());
+        record.put("amount", message.getAmount());
+        record.put("issueDate", toEpochDay(message.getIssueDate()));
+        record.put("dueDate", toEpochDay(message.getDueDate()));
+        record.put("invoiceItem", toRecord(message.getInvoiceItem()));
+        if (message.getInvoiceItems() != null) {
+            List<GenericRecord> items = new ArrayList<>(message.getInvoiceItems().size());
+            message.getInvoiceItems().forEach(item -> items.add(toRecord(item)));
+            record.put("invoiceItems", items);
+        }
+        return record;
+    }
+
+    private GenericRecord toRecord(InvoiceItemMessage item) {
+        if (item == null) return null;
+        GenericData.Record record = new GenericData.Record(itemSchema);
+        record.put("itemCode", item.getItemCode());
+        record.put("description", item.getDescription());
+        record.put("quantity", item.getQuantity());
+        record.put("unit", item.getUnit());
+        record.put("unitPrice", toText(item.getUnitPrice()));
+        record.put("subtotal", toText(item.getSubtotal()));
+        record.put("taxAmount", toText(item.getTaxAmount()));
+        record.put("total", toText(item.getTotal()));
+        return record;
+    }
+
+    private static InvoiceMessage fromRecord(GenericRecord record) {
+        InvoiceMessage message = new InvoiceMessage();
+        message.setEmail(text(record.get("email")));
+        Object date = record.get("date");
+        message.setDate(date == null ? null : EPOCH.plus((Long) date, ChronoUnit.MICROS));
+        Object status = record.get("status");
+        message.setStatus(status == null ? null : InvoiceStatus.valueOf(status.toString()));
+        message.setInvoicePathPDF(text(record.get("invoicePathPDF")));
+        message.setInvoicePathXML(text(record.get("invoicePathXML")));
+        message.setDocumentType(text(record.get("documentType")));
+        message.setDocumentNumber(text(record.get("documentNumber")));
+        message.setReceiverTaxId(text(record.get("receiverTaxId")));
+        message.setReceiverTaxIdWithoutCheckDigit(text(record.get("receiverTaxIdWithoutCheckDigit")));
+        message.setReceiverBusinessName(text(record.get("receiverBusinessName")));
+        message.setSenderTaxId(text(record.get("senderTaxId")));
+        message.setSenderTaxIdWithoutCheckDigit(text(record.get("senderTaxIdWithoutCheckDigit")));
+        message.setSenderBusinessName(text(record.get("senderBusinessName")));
+        message.setRelatedDocumentNumber(text(record.get("relatedDocumentNumber")));
+        message.setAmount(text(record.get("amount")));
+        message.setIssueDate(fromEpochDay(record.get("issueDate")));
+        message.setDueDate(fromEpochDay(record.get("dueDate")));
+        message.setInvoiceItem(fromItemRecord((GenericRecord) record.get("invoiceItem")));
+        Object items = record.get("invoiceItems");
+        if (items != null) {
+            List<?> records = (List<?>) items;
+            List<InvoiceItemMessage> invoiceItems = new ArrayList<>(records.size());
+            records.forEach(item -> invoiceItems.add(fromItemRecord((GenericRecord) item)));
+            message.setInvoiceItems(invoiceItems);
+        }
+        return message;
+    }
+
+    private static InvoiceItemMessage fromItemRecord(GenericRecord record) {
+        if (record == null) return null;
+        InvoiceItemMessage item = new InvoiceItemMessage();
+        item.setItemCode(text(record.get("itemCode")));
+        item.setDescription(text(record.get("description")));
+        item.setQuantity((Integer) record.get("quantity"));
+        item.setUnit(text(record.get("unit")));
+        item.setUnitPrice(decimal(record.get("unitPrice")));
+        item.setSubtotal(decimal(record.get("subtotal")));
+        item.setTaxAmount(decimal(record.get("taxAmount")));
+        item.setTotal(decimal(record.get("total")));
+        return item;
+    }
+
+    // Avro reads strings as Utf8
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static String toText(BigDecimal value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static BigDecimal decimal(Object value) {
+        return value == null ? null : new BigDecimal(value.toString());
+    }
+
+    private static Integer toEpochDay(LocalDate date) {
+        return date == null ? null : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static LocalDate fromEpochDay(Object value) {
+        return value == null ? null : LocalDate.ofEpochDay((Integer) value);
+    }
+}
@@ -0,0 +1,64 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging.serde;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Encoding of an invoices topic record, announced in its {@value #HEADER} header. Records
+ * without the header come from producers that predate it and are JSON.
+ */
+public enum InvoiceMessageFormat {
+    JSON("application/json"),
+    AVRO("application/avro");
+
+    public static final String HEADER = "contentType";
+
+    private final String contentType;
+    private final byte[] headerValue;
+
+    InvoiceMessageFormat(String contentType) {
+        this.contentType = contentType;
+        this.headerValue = contentType.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Parses the {@code invoices.producer.format} setting, e.g. "json" or "avro".
+     *
+     * @throws IllegalArgumentException if the value names no format
+     */
+    public static InvoiceMessageFormat fromConfig(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public static InvoiceMessageFormat of(Headers headers) {
+        Header header = headers == null ? null : headers.lastHeader(HEADER);
+        if (header != null && header.value() != null) {
+            String value = new String(header.value(), StandardCharsets.UTF_8);
+            if (AVRO.contentType.equalsIgnoreCase(value)) return AVRO;
+        }
+        return JSON;
+    }
+
+    public void writeTo(Headers headers) {
+        headers.remove(HEADER);
+        headers.add(HEADER, headerValue);
+    }
+
+    /**
+     * Printable form of a payload for the error log: JSON as is, binary formats in base64.
+     */
+    public String toText(byte[] payload) {
+        if (payload == null) return null;
+        return this == JSON
+                ? new String(payload, StandardCharsets.UTF_8)
+                : Base64.getEncoder().encodeToString(payload);
+    }
+}
@@ -0,0 +1,46 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging.serde;
+
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes invoices in the configured {@link InvoiceMessageFormat} and announces it in the
+ * record headers. JSON output is the same as Spring's {@link JsonSerializer}, which the topic
+ * used before the header existed.
+ */
+public class InvoiceMessageSerializer implements Serializer<InvoiceMessage> {
+
+    private final InvoiceMessageFormat format;
+    private final InvoiceMessageAvroCodec avroCodec;
+    private final JsonSerializer<InvoiceMessage> jsonSerializer = new JsonSerializer<>();
+
+    public InvoiceMessageSerializer(InvoiceMessageFormat format, InvoiceMessageAvroCodec avroCodec) {
+        this.format = format;
+        this.avroCodec = avroCodec;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, InvoiceMessage data) {
+        return format == InvoiceMessageFormat.AVRO ? avroCodec.encode(data) : jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, InvoiceMessage data) {
+        format.writeTo(headers);
+        return format == InvoiceMessageFormat.AVRO ? avroCodec.encode(data) : jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
@@ -0,0 +1,28 @@
+package co.edu.itm.invoiceextract.infrastructure.scheduling;
+
+import co.edu.itm.invoiceextract.application.service.InvoiceStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes {@code invoice_stats_daily} from the invoices table, correcting any drift
+ * (e.g. rows changed outside the application).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InvoiceStatsRebuildJob {
+
+    private final InvoiceStatsService invoiceStatsService;
+
+    @Scheduled(cron = "${invoices.stats.rebuild-cron:0 30 2 * * *}")
+    public void rebuild() {
+        try {
+            invoiceStatsService.rebuild();
+        } catch (Exception e) {
+            log.error("Invoice stats rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+}
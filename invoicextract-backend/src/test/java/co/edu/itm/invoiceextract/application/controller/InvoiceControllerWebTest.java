@@ -1,32 +1,46 @@
 package co.edu.itm.invoiceextract.application.controller;
 
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceCursor;
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceDetailDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceImportResultDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceIngestStatusDTO;
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceTrackingId;
 import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import co.edu.itm.invoiceextract.application.usecase.invoice.DuplicateInvoiceException;
 import co.edu.itm.invoiceextract.application.usecase.invoice.FetchInvoicesUseCase;
+import co.edu.itm.invoiceextract.application.usecase.invoice.ImportInvoicesUseCase;
+import co.edu.itm.invoiceextract.application.usecase.invoice.InvoiceCriteria;
 import co.edu.itm.invoiceextract.application.usecase.invoice.ManageInvoiceUseCase;
 import co.edu.itm.invoiceextract.application.mapper.invoice.InvoiceMapper;
 import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
 import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
-import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.InvoiceAsyncIngestService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
@@ -53,10 +67,10 @@ class InvoiceControllerWebTest {
     private InvoiceMapper mapper;
 
     @MockBean
-    private KafkaTemplate<String, InvoiceMessage> kafkaTemplate;
+    private InvoiceAsyncIngestService asyncIngestService;
 
     @MockBean
-    private co.edu.itm.invoiceextract.infrastructure.messaging.mapper.InvoiceMessageMapper invoiceMessageMapper;
+    private ImportInvoicesUseCase importInvoicesUseCase;
 
     private static final String BASE = "/api/invoices";
 
@@ -84,6 +98,17 @@ class InvoiceControllerWebTest {
                     .andExpect(jsonPath("$.status", is("PENDING")));
         }
 
+        @Test
+        void should_return_conflict_when_document_number_already_exists() throws Exception {
+            given(manageInvoiceUseCase.createInvoice(org.mockito.ArgumentMatchers.any(InvoiceRequestDTO.class)))
+                    .willThrow(new DuplicateInvoiceException("INV-001"));
+
+            mockMvc.perform(post(BASE)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(InvoiceTestData.sampleRequest())))
+                    .andExpect(status().isConflict());
+        }
+
     @Nested
     @DisplayName("GET /api/invoices/filter")
     class FilterEndpoint {
@@ -96,8 +121,8 @@ class InvoiceControllerWebTest {
 
             mockMvc.perform(get(BASE + "/filter").param("id", "51").accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].id", is(51)));
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.content[0].id", is(51)));
         }
 
         @Test
@@ -106,7 +131,7 @@ class InvoiceControllerWebTest {
 
             mockMvc.perform(get(BASE + "/filter").param("id", "404").accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(0)));
+                    .andExpect(jsonPath("$.content", hasSize(0)));
         }
 
         @Test
@@ -114,19 +139,15 @@ class InvoiceControllerWebTest {
             Invoice e1 = InvoiceTestData.sampleEntity(61L);
             e1.setSenderTaxId("800987654");
             e1.setStatus(InvoiceStatus.APPROVED);
-            e1.setCreatedDate(java.time.LocalDateTime.now().minusDays(1));
-            Invoice e2 = InvoiceTestData.sampleEntity(62L);
-            e2.setSenderTaxId("111111111");
-            e2.setStatus(InvoiceStatus.REJECTED);
-            e2.setCreatedDate(java.time.LocalDateTime.now().minusDays(10));
-
-            given(fetchInvoicesUseCase.findAll()).willReturn(List.of(e1, e2));
-
             InvoiceDetailDTO d1 = InvoiceTestData.sampleDetailDTO(61L);
             given(mapper.toDetailDTO(e1)).willReturn(d1);
 
-            java.time.LocalDateTime start = java.time.LocalDateTime.now().minusDays(2);
-            java.time.LocalDateTime end = java.time.LocalDateTime.now();
+            LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+            LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+            org.springframework.data.domain.PageRequest pr = org.springframework.data.domain.PageRequest.of(0, 20,
+                    org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.DESC, "createdDate"));
+            given(fetchInvoicesUseCase.filter("800987654", null, InvoiceStatus.APPROVED, start, end, pr))
+                    .willReturn(new org.springframework.data.domain.PageImpl<>(List.of(e1), pr, 1));
 
             mockMvc.perform(get(BASE + "/filter")
                             .param("senderTaxId", "800987654")
@@ -135,8 +156,33 @@ class InvoiceControllerWebTest {
                             .param("endDate", end.toString())
                             .accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].id", is(61)));
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.content[0].id", is(61)))
+                    .andExpect(jsonPath("$.totalElements", is(1)));
+        }
+
+        @Test
+        void should_pass_page_and_sort_to_use_case() throws Exception {
+            org.springframework.data.domain.PageRequest pr = org.springframework.data.domain.PageRequest.of(2, 5,
+                    org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.ASC, "amount"));
+            given(fetchInvoicesUseCase.filter(null, "123456789", null, null, null, pr))
+                    .willReturn(new org.springframework.data.domain.PageImpl<>(List.of(), pr, 10));
+
+            mockMvc.perform(get(BASE + "/filter")
+                            .param("receiverTaxId", "123456789")
+                            .param("page", "2")
+                            .param("size", "5")
+                            .param("sort", "amount,asc")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements", is(10)));
+        }
+
+        @Test
+        void should_return_400_when_sorting_by_unknown_field() throws Exception {
+            mockMvc.perform(get(BASE + "/filter").param("sort", "invoicePathPDF").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+            Mockito.verifyNoInteractions(fetchInvoicesUseCase);
         }
     }
 
@@ -187,26 +233,28 @@ class InvoiceControllerWebTest {
         void should_filter_by_sender_tax_id() throws Exception {
             Invoice e1 = InvoiceTestData.sampleEntity(31L);
             InvoiceDetailDTO d1 = InvoiceTestData.sampleDetailDTO(31L);
-            given(fetchInvoicesUseCase.findBySenderTaxId("123456789")).willReturn(List.of(e1));
+            given(fetchInvoicesUseCase.find(eq(InvoiceCriteria.bySenderTaxId("123456789")), org.mockito.ArgumentMatchers.any(Pageable.class)))
+                    .willReturn(new PageImpl<>(List.of(e1), PageRequest.of(0, 20), 1));
             given(mapper.toDetailDTO(e1)).willReturn(d1);
 
             mockMvc.perform(get(BASE + "/sender/{senderTaxId}", "123456789").accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].id", is(31)));
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.content[0].id", is(31)));
         }
 
         @Test
         void should_filter_by_document_type() throws Exception {
             Invoice e1 = InvoiceTestData.sampleEntity(32L);
             InvoiceDetailDTO d1 = InvoiceTestData.sampleDetailDTO(32L);
-            given(fetchInvoicesUseCase.findByDocumentType("FACTURA")).willReturn(List.of(e1));
+            given(fetchInvoicesUseCase.find(eq(InvoiceCriteria.byDocumentType("FACTURA")), org.mockito.ArgumentMatchers.any(Pageable.class)))
+                    .willReturn(new PageImpl<>(List.of(e1), PageRequest.of(0, 20), 1));
             given(mapper.toDetailDTO(e1)).willReturn(d1);
 
             mockMvc.perform(get(BASE + "/type/{documentType}", "FACTURA").accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].documentType", is("FACTURA")));
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.content[0].documentType", is("FACTURA")));
         }
     }
 
@@ -219,12 +267,39 @@ class InvoiceControllerWebTest {
             var recent = List.of(
                     new co.edu.itm.invoiceextract.application.dto.invoice.RecentInvoiceDTO(1L, "INV-1", "SUP1", new java.math.BigDecimal("10.00"), java.time.LocalDate.now(), java.time.LocalDateTime.now())
             );
-            given(fetchInvoicesUseCase.getRecentInvoices(1)).willReturn(recent);
+            given(fetchInvoicesUseCase.getRecentInvoices(1, null)).willReturn(recent);
 
             mockMvc.perform(get(BASE + "/recent").param("limit", "1").accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].documentNumber", is("INV-1")));
+                    .andExpect(jsonPath("$[0].documentNumber", is("INV-1")))
+                    .andExpect(header().string(InvoiceController.NEXT_CURSOR_HEADER,
+                            recent.get(0).getCreatedDate() + "_1"));
+        }
+
+        @Test
+        void should_page_recent_invoices_with_before_cursor() throws Exception {
+            var createdDate = java.time.LocalDateTime.of(2024, 8, 3, 10, 15, 30, 500_000_000);
+            var recent = List.of(
+                    new co.edu.itm.invoiceextract.application.dto.invoice.RecentInvoiceDTO(41L, "INV-41", "SUP1", new java.math.BigDecimal("10.00"), java.time.LocalDate.now(), createdDate)
+            );
+            given(fetchInvoicesUseCase.getRecentInvoices(eq(5), org.mockito.ArgumentMatchers.any(co.edu.itm.invoiceextract.application.dto.invoice.InvoiceCursor.class)))
+                    .willReturn(recent);
+
+            mockMvc.perform(get(BASE + "/recent").param("limit", "5").param("before", "2024-08-03T10:15:30.5_42")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id", is(41)))
+                    .andExpect(header().doesNotExist(InvoiceController.NEXT_CURSOR_HEADER));
+
+            Mockito.verify(fetchInvoicesUseCase).getRecentInvoices(eq(5), argThat(c ->
+                    c.getId() == 42L && c.getCreatedDate().equals(createdDate)));
+        }
+
+        @Test
+        void should_reject_malformed_recent_cursor() throws Exception {
+            mockMvc.perform(get(BASE + "/recent").param("before", "yesterday").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
         }
 
         @Test
@@ -431,29 +506,134 @@ class InvoiceControllerWebTest {
             Invoice e2 = InvoiceTestData.sampleEntity(2L);
             InvoiceDetailDTO d1 = InvoiceTestData.sampleDetailDTO(1L);
             InvoiceDetailDTO d2 = InvoiceTestData.sampleDetailDTO(2L);
-            given(fetchInvoicesUseCase.findAll()).willReturn(List.of(e1, e2));
+            given(fetchInvoicesUseCase.find(eq(InvoiceCriteria.all()), org.mockito.ArgumentMatchers.any(Pageable.class)))
+                    .willReturn(new PageImpl<>(List.of(e1, e2), PageRequest.of(0, 20), 2));
             given(mapper.toDetailDTO(e1)).willReturn(d1);
             given(mapper.toDetailDTO(e2)).willReturn(d2);
 
             mockMvc.perform(get(BASE).accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$", hasSize(2)))
-                    .andExpect(jsonPath("$[0].id", is(1)))
-                    .andExpect(jsonPath("$[1].id", is(2)));
+                    .andExpect(jsonPath("$.content", hasSize(2)))
+                    .andExpect(jsonPath("$.content[0].id", is(1)))
+                    .andExpect(jsonPath("$.content[1].id", is(2)));
+        }
+
+        @Test
+        void should_default_list_paging_and_cap_page_size() throws Exception {
+            given(fetchInvoicesUseCase.find(eq(InvoiceCriteria.all()), org.mockito.ArgumentMatchers.any(Pageable.class)))
+                    .willReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+            mockMvc.perform(get(BASE).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+            mockMvc.perform(get(BASE).param("size", "100000").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+
+            ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+            Mockito.verify(fetchInvoicesUseCase, Mockito.times(2)).find(eq(InvoiceCriteria.all()), pageable.capture());
+            assertThat(pageable.getAllValues().get(0).getPageSize()).isEqualTo(20);
+            assertThat(pageable.getAllValues().get(0).getSort()).isEqualTo(FetchInvoicesUseCase.KEYSET_SORT);
+            assertThat(pageable.getAllValues().get(1).getPageSize()).isEqualTo(100);
+        }
+
+        @Test
+        void should_return_next_cursor_for_full_page_in_keyset_order() throws Exception {
+            Invoice e1 = InvoiceTestData.sampleEntity(5L);
+            InvoiceDetailDTO d1 = InvoiceTestData.sampleDetailDTO(5L);
+            d1.setCreatedDate(LocalDateTime.of(2024, 8, 3, 10, 15, 30));
+            PageRequest pr = PageRequest.of(0, 1, FetchInvoicesUseCase.KEYSET_SORT);
+            given(fetchInvoicesUseCase.find(eq(InvoiceCriteria.byStatus(InvoiceStatus.PENDING)), org.mockito.ArgumentMatchers.any(Pageable.class)))
+                    .willReturn(new PageImpl<>(List.of(e1), pr, 3));
+            given(mapper.toDetailDTO(e1)).willReturn(d1);
+
+            mockMvc.perform(get(BASE + "/status/{status}", "PENDING").param("size", "1").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(InvoiceController.NEXT_CURSOR_HEADER, "2024-08-03T10:15:30_5"))
+                    .andExpect(jsonPath("$.totalElements", is(3)));
+        }
+
+        @Test
+        void should_omit_next_cursor_when_page_ends_on_undated_invoice() throws Exception {
+            Invoice e1 = InvoiceTestData.sampleEntity(5L);
+            InvoiceDetailDTO d1 = InvoiceTestData.sampleDetailDTO(5L);
+            d1.setCreatedDate(null);
+            PageRequest pr = PageRequest.of(0, 1, FetchInvoicesUseCase.KEYSET_SORT);
+            given(fetchInvoicesUseCase.find(eq(InvoiceCriteria.byStatus(InvoiceStatus.PENDING)), org.mockito.ArgumentMatchers.any(Pageable.class)))
+                    .willReturn(new PageImpl<>(List.of(e1), pr, 3));
+            given(mapper.toDetailDTO(e1)).willReturn(d1);
+
+            mockMvc.perform(get(BASE + "/status/{status}", "PENDING").param("size", "1").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(InvoiceController.NEXT_CURSOR_HEADER))
+                    .andExpect(jsonPath("$.content[0].id", is(5)));
+        }
+
+        @Test
+        void should_read_keyset_slice_after_before_cursor() throws Exception {
+            Invoice e1 = InvoiceTestData.sampleEntity(4L);
+            InvoiceDetailDTO d1 = InvoiceTestData.sampleDetailDTO(4L);
+            given(fetchInvoicesUseCase.findBefore(eq(InvoiceCriteria.bySenderTaxId("900")), org.mockito.ArgumentMatchers.any(InvoiceCursor.class), eq(10)))
+                    .willReturn(new SliceImpl<>(List.of(e1), PageRequest.of(0, 10, FetchInvoicesUseCase.KEYSET_SORT), false));
+            given(mapper.toDetailDTO(e1)).willReturn(d1);
+
+            mockMvc.perform(get(BASE + "/sender/{senderTaxId}", "900")
+                            .param("before", "2024-08-03T10:15:30_5").param("size", "10")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id", is(4)))
+                    .andExpect(jsonPath("$.last", is(true)))
+                    .andExpect(header().doesNotExist(InvoiceController.NEXT_CURSOR_HEADER));
+
+            Mockito.verify(fetchInvoicesUseCase).findBefore(eq(InvoiceCriteria.bySenderTaxId("900")),
+                    argThat(c -> c.getId() == 5L && c.getCreatedDate().equals(LocalDateTime.of(2024, 8, 3, 10, 15, 30))), eq(10));
+        }
+
+        @Test
+        void should_reject_unknown_sort_and_malformed_cursor_on_lists() throws Exception {
+            mockMvc.perform(get(BASE + "/type/{documentType}", "FACTURA").param("sort", "senderTaxId"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get(BASE + "/type/{documentType}", "FACTURA").param("before", "5"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void should_stream_invoices_as_ndjson() throws Exception {
+            Invoice e1 = InvoiceTestData.sampleEntity(1L);
+            Invoice e2 = InvoiceTestData.sampleEntity(2L);
+            given(mapper.toDetailDTO(e1)).willReturn(InvoiceTestData.sampleDetailDTO(1L));
+            given(mapper.toDetailDTO(e2)).willReturn(InvoiceTestData.sampleDetailDTO(2L));
+            Mockito.doAnswer(inv -> {
+                java.util.function.Consumer<Invoice> action = inv.getArgument(1);
+                action.accept(e1);
+                action.accept(e2);
+                return null;
+            }).when(fetchInvoicesUseCase).forEach(eq(InvoiceCriteria.byStatus(InvoiceStatus.APPROVED)), org.mockito.ArgumentMatchers.any(java.util.function.Consumer.class));
+
+            MvcResult started = mockMvc.perform(get(BASE + "/status/{status}/stream", "APPROVED"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String body = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(objectMapper.readTree(lines[0]).get("id").asLong()).isEqualTo(1L);
+            assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
         }
 
         @Test
         void should_filter_by_status() throws Exception {
             Invoice e1 = InvoiceTestData.sampleEntity(10L);
             InvoiceDetailDTO d1 = InvoiceTestData.sampleDetailDTO(10L);
-            given(fetchInvoicesUseCase.findByStatus(InvoiceStatus.PENDING)).willReturn(List.of(e1));
+            given(fetchInvoicesUseCase.find(eq(InvoiceCriteria.byStatus(InvoiceStatus.PENDING)), org.mockito.ArgumentMatchers.any(Pageable.class)))
+                    .willReturn(new PageImpl<>(List.of(e1), PageRequest.of(0, 20), 1));
             given(mapper.toDetailDTO(e1)).willReturn(d1);
 
             mockMvc.perform(get(BASE + "/status/{status}", "PENDING").accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].status", is("PENDING")));
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.content[0].status", is("PENDING")));
         }
 
         @Test
@@ -462,7 +642,8 @@ class InvoiceControllerWebTest {
             InvoiceDetailDTO d1 = InvoiceTestData.sampleDetailDTO(11L);
             LocalDateTime start = LocalDateTime.now().minusDays(5);
             LocalDateTime end = LocalDateTime.now();
-            given(fetchInvoicesUseCase.findByDateBetween(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any())).willReturn(List.of(e1));
+            given(fetchInvoicesUseCase.find(eq(InvoiceCriteria.byCreatedDate(start, end)), org.mockito.ArgumentMatchers.any(Pageable.class)))
+                    .willReturn(new PageImpl<>(List.of(e1), PageRequest.of(0, 20), 1));
             given(mapper.toDetailDTO(e1)).willReturn(d1);
 
             mockMvc.perform(get(BASE + "/date-range")
@@ -470,7 +651,7 @@ class InvoiceControllerWebTest {
                             .param("endDate", end.toString())
                             .accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)));
+                    .andExpect(jsonPath("$.content", hasSize(1)));
         }
     }
 
@@ -505,17 +686,94 @@ class InvoiceControllerWebTest {
     @DisplayName("POST /api/invoices/async")
     class AsyncCreation {
         @Test
-        void should_enqueue_message_and_return_200() throws Exception {
+        void should_return_202_with_tracking_id_once_broker_acknowledged() throws Exception {
             InvoiceRequestDTO request = InvoiceTestData.sampleRequest();
-            given(invoiceMessageMapper.toMessage(org.mockito.ArgumentMatchers.any())).willReturn(new InvoiceMessage());
+            InvoiceTrackingId trackingId = new InvoiceTrackingId(2, 41L, 1_700_000_000_000L, "INV-001");
+            given(asyncIngestService.submit(org.mockito.ArgumentMatchers.any(InvoiceRequestDTO.class)))
+                    .willReturn(CompletableFuture.completedFuture(
+                            InvoiceIngestStatusDTO.of(trackingId, InvoiceIngestStatusDTO.Status.QUEUED)));
 
-            mockMvc.perform(post(BASE + "/async")
+            MvcResult started = mockMvc.perform(post(BASE + "/async")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", org.hamcrest.Matchers.endsWith(BASE + "/async/" + trackingId)))
+                    .andExpect(jsonPath("$.trackingId", is(trackingId.toString())))
+                    .andExpect(jsonPath("$.status", is("QUEUED")))
+                    .andExpect(jsonPath("$.partition", is(2)))
+                    .andExpect(jsonPath("$.offset", is(41)));
+        }
+
+        @Test
+        void should_return_503_when_broker_did_not_store_the_invoice() throws Exception {
+            given(asyncIngestService.submit(org.mockito.ArgumentMatchers.any(InvoiceRequestDTO.class)))
+                    .willReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+            MvcResult started = mockMvc.perform(post(BASE + "/async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(InvoiceTestData.sampleRequest())))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isServiceUnavailable());
+        }
+
+        @Test
+        void should_return_status_for_tracking_id() throws Exception {
+            InvoiceTrackingId trackingId = new InvoiceTrackingId(0, 7L, 1_700_000_000_000L, "INV-001");
+            InvoiceIngestStatusDTO persisted = InvoiceIngestStatusDTO.of(trackingId, InvoiceIngestStatusDTO.Status.PERSISTED);
+            persisted.setInvoiceId(15L);
+            given(asyncIngestService.status(trackingId.toString())).willReturn(persisted);
+
+            mockMvc.perform(get(BASE + "/async/{trackingId}", trackingId.toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status", is("PERSISTED")))
+                    .andExpect(jsonPath("$.invoiceId", is(15)))
+                    .andExpect(jsonPath("$.errorType").doesNotExist());
+        }
+
+        @Test
+        void should_return_404_for_malformed_tracking_id() throws Exception {
+            given(asyncIngestService.status("nope")).willThrow(new IllegalArgumentException("Invalid tracking id: nope"));
+
+            mockMvc.perform(get(BASE + "/async/{trackingId}", "nope"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/invoices/bulk")
+    class BulkCreation {
+        @Test
+        void should_stream_one_result_per_line() throws Exception {
+            String body = "{\"documentNumber\":\"A\"}\n{\"documentNumber\":\"B\"}\n";
+            Mockito.doAnswer(invocation -> {
+                java.io.InputStream in = invocation.getArgument(0);
+                assertThat(new String(in.readAllBytes())).isEqualTo(body);
+                ImportInvoicesUseCase.BatchResultHandler handler = invocation.getArgument(1);
+                handler.accept(List.of(
+                        new InvoiceImportResultDTO(1, "A", InvoiceImportResultDTO.Status.CREATED, 10L, null),
+                        new InvoiceImportResultDTO(2, "B", InvoiceImportResultDTO.Status.DUPLICATE, null,
+                                "Invoice with document number B already exists")));
+                return null;
+            }).when(importInvoicesUseCase).importNdjson(org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.any());
+
+            String response = mockMvc.perform(post(BASE + "/bulk")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(body))
                     .andExpect(status().isOk())
-                    .andExpect(content().string(containsString("processed")));
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
 
-            Mockito.verify(kafkaTemplate).send(eq("invoices"), org.mockito.ArgumentMatchers.any(InvoiceMessage.class));
+            String[] lines = response.split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).contains("\"line\":1", "\"status\":\"CREATED\"", "\"invoiceId\":10").doesNotContain("error");
+            assertThat(lines[1]).contains("\"line\":2", "\"status\":\"DUPLICATE\"");
         }
     }
 }
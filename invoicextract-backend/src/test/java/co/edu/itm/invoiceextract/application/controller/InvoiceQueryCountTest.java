@@ -0,0 +1,148 @@
+package co.edu.itm.invoiceextract.application.controller;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceIntegrationTest;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import co.edu.itm.invoiceextract.application.usecase.invoice.ManageInvoiceUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements Hibernate prepares per read endpoint. The bound holds for any
+ * number of invoices, so a lazy load per invoice (N+1) fails the test.
+ */
+@InvoiceIntegrationTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "invoices.dashboard.stats-ttl-ms=0"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InvoiceQueryCountTest {
+
+    private static final int INVOICES = 25;
+    private static final int LINES = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ManageInvoiceUseCase manageInvoiceUseCase;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void createInvoices() {
+        List<InvoiceRequestDTO> requests = new ArrayList<>();
+        for (int n = 0; n < INVOICES; n++) {
+            requests.add(InvoiceTestData.sampleRequest("QC-" + n, LINES));
+        }
+        manageInvoiceUseCase.createInvoices(requests);
+    }
+
+    @ParameterizedTest(name = "{0} -> at most {1} statements")
+    @CsvSource({
+            // page, count, items of the page
+            "/api/invoices, 3",
+            "/api/invoices/sender/123456789, 3",
+            "/api/invoices/type/FACTURA, 3",
+            "/api/invoices/status/PENDING, 3",
+            "/api/invoices/date-range?startDate=2000-01-01T00:00:00&endDate=2100-01-01T00:00:00, 3",
+            "/api/invoices/paginated?size=10, 3",
+            "/api/invoices/filter?status=PENDING&size=10, 3",
+            "/api/invoices/recent?limit=10, 1",
+            "/api/invoices/dashboard/stats?from=2000-01-01&to=2100-01-01, 1"
+    })
+    @DisplayName("should_answer_read_endpoints_with_bounded_statements")
+    void should_answer_read_endpoints_with_bounded_statements(String uri, long maxStatements) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(uri).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(maxStatements);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should_follow_keyset_cursor_with_bounded_statements")
+    void should_follow_keyset_cursor_with_bounded_statements() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        MvcResult first = mockMvc.perform(get("/api/invoices/status/PENDING").param("size", "10"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<Long> ids = idsOf(first);
+        String cursor = first.getResponse().getHeader(InvoiceController.NEXT_CURSOR_HEADER);
+
+        while (cursor != null) {
+            statistics.clear();
+            MvcResult slice = mockMvc.perform(get("/api/invoices/status/PENDING").param("size", "10").param("before", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            // slice and items of the slice, no count
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+            ids.addAll(idsOf(slice));
+            cursor = slice.getResponse().getHeader(InvoiceController.NEXT_CURSOR_HEADER);
+        }
+
+        assertThat(ids).hasSize(INVOICES).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("should_stream_ndjson_with_items_in_bounded_statements")
+    void should_stream_ndjson_with_items_in_bounded_statements() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MvcResult started = mockMvc.perform(get("/api/invoices/type/FACTURA/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(INVOICES);
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).get("items")).hasSize(LINES);
+        }
+        // the streamed query plus one item query per chunk
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    private List<Long> idsOf(MvcResult result) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(result.getResponse().getContentAsString()).get("content")
+                .forEach(invoice -> ids.add(invoice.get("id").asLong()));
+        return ids;
+    }
+}
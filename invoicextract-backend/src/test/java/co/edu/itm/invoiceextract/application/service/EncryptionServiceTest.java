@@ -5,7 +5,22 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class EncryptionServiceTest {
 
@@ -38,4 +53,87 @@ class EncryptionServiceTest {
         assertThat(key).hasSize(32);
         assertThat(key).matches("[A-Za-z0-9]{32}");
     }
+
+    @Test
+    @DisplayName("should_produce_same_ciphertext_as_plain_aes_ecb")
+    void should_produce_same_ciphertext_as_plain_aes_ecb() throws Exception {
+        // Stored passwords must stay readable: the format is plain AES/ECB/PKCS5Padding over the raw key
+        String configKey = "0123456789abcdef0123456789abcdef";
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(configKey.getBytes(StandardCharsets.UTF_8), "AES"));
+        String expected = Base64.getEncoder().encodeToString(cipher.doFinal("secret".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(service.encrypt("secret", configKey)).isEqualTo(expected);
+        assertThat(service.decrypt(expected, configKey)).isEqualTo("secret");
+    }
+
+    @Test
+    @DisplayName("should_switch_keys_between_calls_on_same_thread")
+    void should_switch_keys_between_calls_on_same_thread() throws Exception {
+        String keyA = service.generateEncryptionKey();
+        String keyB = service.generateEncryptionKey();
+
+        String encA = service.encrypt("a", keyA);
+        String encB = service.encrypt("b", keyB);
+
+        assertThat(service.decrypt(encA, keyA)).isEqualTo("a");
+        assertThat(service.decrypt(encB, keyB)).isEqualTo("b");
+        assertThat(service.decrypt(service.encrypt("a", keyA), keyA)).isEqualTo("a");
+        assertThatThrownBy(() -> service.decrypt(encA, keyB)).isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    @DisplayName("should_recover_after_failed_decrypt")
+    void should_recover_after_failed_decrypt() throws Exception {
+        String configKey = service.generateEncryptionKey();
+        String enc = service.encrypt("plain", configKey);
+
+        assertThatThrownBy(() -> service.decrypt(Base64.getEncoder().encodeToString(new byte[5]), configKey))
+                .isInstanceOf(GeneralSecurityException.class);
+
+        assertThat(service.decrypt(enc, configKey)).isEqualTo("plain");
+    }
+
+    @Test
+    @DisplayName("should_reject_key_of_invalid_length_every_time")
+    void should_reject_key_of_invalid_length_every_time() {
+        assertThatThrownBy(() -> service.decrypt("AAAA", "")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.encrypt("x", "short")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("got: 5");
+        assertThatThrownBy(() -> service.encrypt("x", "short")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should_encrypt_and_decrypt_concurrently")
+    void should_encrypt_and_decrypt_concurrently() throws Exception {
+        List<String> configKeys = List.of(service.generateEncryptionKey(), service.generateEncryptionKey(), service.generateEncryptionKey());
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String configKey = configKeys.get((thread + i) % configKeys.size());
+                        String plain = "password-" + thread + "-" + i;
+                        if (!plain.equals(service.decrypt(service.encrypt(plain, configKey), configKey))) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should_generate_distinct_keys")
+    void should_generate_distinct_keys() {
+        Set<String> generated = new HashSet<>();
+        for (int i = 0; i < 100; i++) generated.add(service.generateEncryptionKey());
+        assertThat(generated).hasSize(100);
+    }
 }
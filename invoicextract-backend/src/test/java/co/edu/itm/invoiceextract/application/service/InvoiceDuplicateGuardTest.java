@@ -0,0 +1,80 @@
+package co.edu.itm.invoiceextract.application.service;
+
+import co.edu.itm.invoiceextract.application.service.InvoiceDuplicateGuard.Detection;
+import co.edu.itm.invoiceextract.application.usecase.invoice.DuplicateInvoiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceDuplicateGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InvoiceDuplicateGuard guard = new InvoiceDuplicateGuard(meterRegistry, 100, 60_000);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private double duplicates(Detection detection) {
+        return meterRegistry.get(InvoiceDuplicateGuard.DUPLICATES_METRIC)
+                .tag("detected_by", detection.name().toLowerCase()).counter().count();
+    }
+
+    @Test
+    @DisplayName("should_remember_numbers_only_after_commit")
+    void should_remember_numbers_only_after_commit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        guard.rememberAfterCommit(List.of("INV-1"));
+        assertThat(guard.isKnown("INV-1")).isFalse();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(guard.isKnown("INV-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("should_not_remember_numbers_of_rolled_back_transaction")
+    void should_not_remember_numbers_of_rolled_back_transaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        guard.rememberAfterCommit(List.of("INV-1"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(guard.isKnown("INV-1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("should_count_duplicates_by_detection_and_remember_stored_numbers")
+    void should_count_duplicates_by_detection_and_remember_stored_numbers() {
+        DuplicateInvoiceException e = guard.duplicate("INV-1", Detection.CONSTRAINT);
+        guard.duplicate("INV-2", Detection.BATCH);
+
+        assertThat(e.getDocumentNumber()).isEqualTo("INV-1");
+        assertThat(duplicates(Detection.CONSTRAINT)).isEqualTo(1.0);
+        assertThat(duplicates(Detection.BATCH)).isEqualTo(1.0);
+        assertThat(duplicates(Detection.CACHE)).isZero();
+        assertThat(guard.isKnown("INV-1")).isTrue();
+        assertThat(guard.isKnown("INV-2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("should_forget_number")
+    void should_forget_number() {
+        guard.rememberAfterCommit(List.of("INV-1"));
+
+        guard.forget("INV-1");
+
+        assertThat(guard.isKnown("INV-1")).isFalse();
+    }
+}
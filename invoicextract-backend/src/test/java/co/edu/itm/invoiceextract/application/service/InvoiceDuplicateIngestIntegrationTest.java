@@ -0,0 +1,67 @@
+package co.edu.itm.invoiceextract.application.service;
+
+import co.edu.itm.invoiceextract.application.testutil.InvoiceIntegrationTest;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import co.edu.itm.invoiceextract.application.usecase.invoice.DuplicateInvoiceException;
+import co.edu.itm.invoiceextract.application.usecase.invoice.ManageInvoiceUseCase;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@InvoiceIntegrationTest
+class InvoiceDuplicateIngestIntegrationTest {
+
+    @Autowired
+    private ManageInvoiceUseCase manageInvoiceUseCase;
+
+    @Autowired
+    private InvoiceDuplicateGuard duplicateGuard;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double duplicates(String detectedBy) {
+        return meterRegistry.get(InvoiceDuplicateGuard.DUPLICATES_METRIC).tag("detected_by", detectedBy).counter().count();
+    }
+
+    @Test
+    @DisplayName("should_report_duplicate_from_unique_constraint_and_then_from_cache")
+    void should_report_duplicate_from_unique_constraint_and_then_from_cache() {
+        // Given a stored invoice whose number is no longer cached (e.g. stored by another instance)
+        manageInvoiceUseCase.createInvoice(InvoiceTestData.sampleRequest("DUP-1"));
+        assertThat(duplicateGuard.isKnown("DUP-1")).isTrue();
+        duplicateGuard.forget("DUP-1");
+        double constraintBefore = duplicates("constraint");
+        double cacheBefore = duplicates("cache");
+
+        // When the same invoice arrives twice more
+        DuplicateInvoiceException first = assertThrows(DuplicateInvoiceException.class,
+                () -> manageInvoiceUseCase.createInvoice(InvoiceTestData.sampleRequest("DUP-1")));
+        assertThrows(DuplicateInvoiceException.class, () -> manageInvoiceUseCase.createInvoice(InvoiceTestData.sampleRequest("DUP-1")));
+
+        // Then the insert detects the first replay, the cache the second, and one row remains
+        assertThat(first.getDocumentNumber()).isEqualTo("DUP-1");
+        assertThat(duplicates("constraint")).isEqualTo(constraintBefore + 1);
+        assertThat(duplicates("cache")).isEqualTo(cacheBefore + 1);
+        assertThat(invoiceRepository.findExistingDocumentNumbers(java.util.List.of("DUP-1"))).containsExactly("DUP-1");
+    }
+
+    @Test
+    @DisplayName("should_accept_document_number_again_after_delete")
+    void should_accept_document_number_again_after_delete() {
+        Long id = manageInvoiceUseCase.createInvoice(InvoiceTestData.sampleRequest("DUP-2")).getId();
+
+        manageInvoiceUseCase.deleteInvoice(id);
+
+        assertThat(duplicateGuard.isKnown("DUP-2")).isFalse();
+        assertThat(manageInvoiceUseCase.createInvoice(InvoiceTestData.sampleRequest("DUP-2")).getId()).isNotNull();
+    }
+}
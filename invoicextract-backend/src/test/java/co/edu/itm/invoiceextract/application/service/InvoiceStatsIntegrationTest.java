@@ -0,0 +1,82 @@
+package co.edu.itm.invoiceextract.application.service;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.DashboardStatsDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceIntegrationTest;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import co.edu.itm.invoiceextract.application.usecase.invoice.FetchInvoicesUseCase;
+import co.edu.itm.invoiceextract.application.usecase.invoice.ManageInvoiceUseCase;
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceStatsDailyRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@InvoiceIntegrationTest
+@TestPropertySource(properties = "invoices.dashboard.stats-ttl-ms=0")
+class InvoiceStatsIntegrationTest {
+
+    @Autowired
+    private ManageInvoiceUseCase manageInvoiceUseCase;
+
+    @Autowired
+    private FetchInvoicesUseCase fetchInvoicesUseCase;
+
+    @Autowired
+    private InvoiceStatsService invoiceStatsService;
+
+    @Autowired
+    private InvoiceStatsDailyRepository statsRepository;
+
+    private static InvoiceRequestDTO request(String documentNumber, String type, String amount) {
+        InvoiceRequestDTO dto = InvoiceTestData.sampleRequest(documentNumber);
+        dto.setDocumentType(type);
+        dto.setAmount(amount);
+        return dto;
+    }
+
+    @Test
+    @DisplayName("should_keep_daily_stats_equal_to_a_full_rebuild")
+    void should_keep_daily_stats_equal_to_a_full_rebuild() {
+        // Given invoices written through every maintained path
+        Invoice a = manageInvoiceUseCase.createInvoice(request("ST-1", "FACTURA", "100.00"));
+        Invoice b = manageInvoiceUseCase.createInvoice(request("ST-2", "FACTURA", "50.00"));
+        manageInvoiceUseCase.createInvoices(List.of(
+                request("ST-3", "NOTA_CREDITO", "10.00"),
+                request("ST-4", "NOTA_CREDITO", "5.00"),
+                request("ST-5", "NOTA_DEBITO", "1.00")));
+        manageInvoiceUseCase.approveInvoice(a.getId());
+        manageInvoiceUseCase.changeInvoiceStatus(a.getId(), InvoiceStatus.PAID);
+        manageInvoiceUseCase.updateInvoice(b.getId(), request("ST-2", "FACTURA", "70.00"));
+        manageInvoiceUseCase.rejectInvoice(b.getId());
+        manageInvoiceUseCase.deleteInvoice(manageInvoiceUseCase.findInvoiceByDocumentNumber("ST-5").orElseThrow().getId());
+
+        // When reading the maintained buckets and the recomputed ones
+        DashboardStatsDTO maintained = fetchInvoicesUseCase.getDashboardStats();
+        invoiceStatsService.rebuild();
+        DashboardStatsDTO rebuilt = fetchInvoicesUseCase.getDashboardStats();
+
+        // Then both agree
+        assertThat(maintained.getTotalCount()).isEqualTo(4);
+        assertThat(maintained.getTotalAmount()).isEqualByComparingTo("185.00");
+        assertThat(maintained.getFacturaCount()).isEqualTo(2);
+        assertThat(maintained.getNotaCreditoCount()).isEqualTo(2);
+        assertThat(maintained.getNotaDebitoCount()).isZero();
+        assertThat(maintained.getPaidCount()).isEqualTo(1);
+        assertThat(maintained.getRejectedCount()).isEqualTo(1);
+        assertThat(maintained.getPendingCount()).isEqualTo(2);
+        assertThat(maintained).isEqualTo(rebuilt);
+
+        LocalDate today = LocalDate.now();
+        assertThat(fetchInvoicesUseCase.getDashboardStats(today, today)).isEqualTo(rebuilt);
+        assertThat(fetchInvoicesUseCase.getDashboardStats(today.minusDays(10), today.minusDays(1)).getTotalCount()).isZero();
+        assertThat(statsRepository.count()).isPositive();
+    }
+}
@@ -0,0 +1,137 @@
+package co.edu.itm.invoiceextract.application.service;
+
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceStatsDailyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceStatsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 31);
+
+    @Mock
+    private InvoiceStatsDailyRepository statsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InvoiceStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new InvoiceStatsService(statsRepository, new TransactionTemplate(transactionManager));
+    }
+
+    private Invoice invoice(String type, InvoiceStatus status, String amount) {
+        Invoice inv = new Invoice();
+        inv.setDocumentType(type);
+        inv.setStatus(status);
+        inv.setAmount(new BigDecimal(amount));
+        inv.setCreatedDate(DAY.atTime(10, 15));
+        return inv;
+    }
+
+    @Test
+    @DisplayName("should_add_created_invoice_to_its_bucket")
+    void should_add_created_invoice_to_its_bucket() {
+        service.recordCreated(invoice("FACTURA", InvoiceStatus.PENDING, "100.00"));
+
+        verify(statsRepository).addToBucket(DAY, "FACTURA", "PENDING", 1L, new BigDecimal("100.00"));
+    }
+
+    @Test
+    @DisplayName("should_upsert_once_per_bucket_for_a_batch")
+    void should_upsert_once_per_bucket_for_a_batch() {
+        service.recordCreated(List.of(
+                invoice("FACTURA", InvoiceStatus.PENDING, "10.00"),
+                invoice("FACTURA", InvoiceStatus.PENDING, "5.50"),
+                invoice("NOTA_CREDITO", InvoiceStatus.PENDING, "1.00")));
+
+        verify(statsRepository).addToBucket(DAY, "FACTURA", "PENDING", 2L, new BigDecimal("15.50"));
+        verify(statsRepository).addToBucket(DAY, "NOTA_CREDITO", "PENDING", 1L, new BigDecimal("1.00"));
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    @DisplayName("should_move_invoice_between_buckets_on_status_change")
+    void should_move_invoice_between_buckets_on_status_change() {
+        Invoice inv = invoice("FACTURA", InvoiceStatus.PENDING, "20.00");
+        InvoiceStatsService.Snapshot before = InvoiceStatsService.Snapshot.of(inv);
+        inv.setStatus(InvoiceStatus.APPROVED);
+
+        service.recordChanged(before, inv);
+
+        verify(statsRepository).addToBucket(DAY, "FACTURA", "PENDING", -1L, new BigDecimal("-20.00"));
+        verify(statsRepository).addToBucket(DAY, "FACTURA", "APPROVED", 1L, new BigDecimal("20.00"));
+    }
+
+    @Test
+    @DisplayName("should_skip_unchanged_invoice")
+    void should_skip_unchanged_invoice() {
+        Invoice inv = invoice("FACTURA", InvoiceStatus.PENDING, "20.00");
+        InvoiceStatsService.Snapshot before = InvoiceStatsService.Snapshot.of(inv);
+        inv.setAmount(new BigDecimal("20.0"));
+
+        service.recordChanged(before, inv);
+
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    @DisplayName("should_subtract_deleted_invoice")
+    void should_subtract_deleted_invoice() {
+        service.recordRemoved(invoice("NOTA_DEBITO", InvoiceStatus.REJECTED, "7.00"));
+
+        verify(statsRepository).addToBucket(DAY, "NOTA_DEBITO", "REJECTED", -1L, new BigDecimal("-7.00"));
+    }
+
+    @Test
+    @DisplayName("should_ignore_invoice_without_created_date")
+    void should_ignore_invoice_without_created_date() {
+        Invoice inv = invoice("FACTURA", InvoiceStatus.PENDING, "1.00");
+        inv.setCreatedDate(null);
+
+        service.recordCreated(inv);
+        service.recordCreated(List.of(inv));
+
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    @DisplayName("should_rebuild_each_day_in_its_own_transaction")
+    void should_rebuild_each_day_in_its_own_transaction() {
+        // Given a day with only stale buckets and a day with invoices
+        LocalDate next = DAY.plusDays(1);
+        when(statsRepository.findBucketDays()).thenReturn(List.of(DAY));
+        when(statsRepository.findInvoiceDays()).thenReturn(List.of(next, DAY));
+
+        // When
+        service.rebuild();
+
+        // Then every day is deleted and refilled once, in order, each in a transaction
+        var order = inOrder(transactionManager, statsRepository);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(statsRepository).deleteBucketsOn(DAY);
+        order.verify(statsRepository).insertBucketsFromInvoices(DAY, DAY.atStartOfDay(), next.atStartOfDay());
+        order.verify(transactionManager).commit(any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(statsRepository).deleteBucketsOn(next);
+        order.verify(statsRepository).insertBucketsFromInvoices(next, next.atStartOfDay(), next.plusDays(1).atStartOfDay());
+        order.verify(transactionManager).commit(any());
+        verify(statsRepository, times(2)).deleteBucketsOn(any());
+    }
+}
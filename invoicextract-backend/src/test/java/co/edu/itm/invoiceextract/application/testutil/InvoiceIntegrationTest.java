@@ -0,0 +1,38 @@
+package co.edu.itm.invoiceextract.application.testutil;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Full application context on an in-memory H2 database in MySQL mode and an embedded Kafka
+ * broker with the invoices topic. Every test class gets its own database and broker; add
+ * class-specific settings with {@code @TestPropertySource(properties = ...)}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@EmbeddedKafka(topics = "invoices")
+@DirtiesContext
+public @interface InvoiceIntegrationTest {
+
+    @AliasFor(annotation = EmbeddedKafka.class, attribute = "partitions")
+    int partitions() default 1;
+}
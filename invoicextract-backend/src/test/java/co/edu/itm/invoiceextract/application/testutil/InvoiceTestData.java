@@ -9,6 +9,8 @@ import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class InvoiceTestData {
 
@@ -31,6 +33,32 @@ public final class InvoiceTestData {
         return dto;
     }
 
+    public static InvoiceRequestDTO sampleRequest(String documentNumber) {
+        InvoiceRequestDTO dto = sampleRequest();
+        dto.setDocumentNumber(documentNumber);
+        return dto;
+    }
+
+    /**
+     * A request carrying {@code lines} items in {@code invoiceItems} instead of the single sample item.
+     */
+    public static InvoiceRequestDTO sampleRequest(String documentNumber, int lines) {
+        InvoiceRequestDTO dto = sampleRequest(documentNumber);
+        dto.setInvoiceItem(null);
+        List<InvoiceItemDTO> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            InvoiceItemDTO item = new InvoiceItemDTO();
+            item.setItemCode("IT-" + i);
+            item.setDescription("Line " + i);
+            item.setQuantity(1);
+            item.setUnitPrice(new BigDecimal("10.00"));
+            item.setTotal(new BigDecimal("11.90"));
+            items.add(item);
+        }
+        dto.setInvoiceItems(items);
+        return dto;
+    }
+
     public static Invoice sampleEntity(Long id) {
         Invoice inv = new Invoice();
         inv.setId(id);
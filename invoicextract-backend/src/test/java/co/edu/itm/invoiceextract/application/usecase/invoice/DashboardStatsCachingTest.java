@@ -0,0 +1,113 @@
+package co.edu.itm.invoiceextract.application.usecase.invoice;
+
+import co.edu.itm.invoiceextract.application.config.CacheConfig;
+import co.edu.itm.invoiceextract.application.mapper.invoice.InvoiceMapper;
+import co.edu.itm.invoiceextract.application.service.InvoiceDuplicateGuard;
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics;
+import co.edu.itm.invoiceextract.application.service.InvoiceStatsService;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceItemRepository;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceStatsDailyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringJUnitConfig({CacheConfig.class, FetchInvoicesUseCase.class, ManageInvoiceUseCase.class, InvoiceStatsService.class})
+class DashboardStatsCachingTest {
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private InvoiceRepository invoiceRepository;
+
+    @MockBean
+    private InvoiceItemRepository invoiceItemRepository;
+
+    @MockBean
+    private InvoiceMapper invoiceMapper;
+
+    @MockBean
+    private InvoiceStatsDailyRepository invoiceStatsDailyRepository;
+
+    @MockBean
+    private InvoiceDuplicateGuard invoiceDuplicateGuard;
+
+    @MockBean
+    private InvoiceIngestMetrics invoiceIngestMetrics;
+
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FetchInvoicesUseCase fetchInvoicesUseCase;
+
+    @Autowired
+    private ManageInvoiceUseCase manageInvoiceUseCase;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.DASHBOARD_STATS).clear();
+        given(invoiceStatsDailyRepository.summarize()).willReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("should_serve_repeated_dashboard_polls_from_cache")
+    void should_serve_repeated_dashboard_polls_from_cache() {
+        fetchInvoicesUseCase.getDashboardStats();
+        fetchInvoicesUseCase.getDashboardStats();
+        fetchInvoicesUseCase.getDashboardStats();
+
+        verify(invoiceStatsDailyRepository, times(1)).summarize();
+    }
+
+    @Test
+    @DisplayName("should_recompute_stats_after_invoice_is_approved")
+    void should_recompute_stats_after_invoice_is_approved() {
+        Invoice invoice = InvoiceTestData.sampleEntity(3L);
+        given(invoiceRepository.findById(3L)).willReturn(Optional.of(invoice));
+        given(invoiceRepository.save(invoice)).willReturn(invoice);
+
+        fetchInvoicesUseCase.getDashboardStats();
+        manageInvoiceUseCase.approveInvoice(3L);
+        fetchInvoicesUseCase.getDashboardStats();
+
+        verify(invoiceStatsDailyRepository, times(2)).summarize();
+    }
+
+    @Test
+    @DisplayName("should_keep_cache_when_write_fails")
+    void should_keep_cache_when_write_fails() {
+        given(invoiceRepository.findById(4L)).willReturn(Optional.empty());
+
+        fetchInvoicesUseCase.getDashboardStats();
+        try {
+            manageInvoiceUseCase.deleteInvoice(4L);
+        } catch (IllegalArgumentException expected) {
+            // not found, nothing changed
+        }
+        fetchInvoicesUseCase.getDashboardStats();
+
+        verify(invoiceStatsDailyRepository, times(1)).summarize();
+        assertThat(cacheManager.getCache(CacheConfig.DASHBOARD_STATS).get("all")).isNotNull();
+    }
+}
@@ -1,10 +1,15 @@
 package co.edu.itm.invoiceextract.application.usecase.invoice;
 
 import co.edu.itm.invoiceextract.application.dto.invoice.DashboardStatsDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceCursor;
 import co.edu.itm.invoiceextract.application.dto.invoice.RecentInvoiceDTO;
 import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
 import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceAggregate;
 import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceStatsDailyRepository;
+import co.edu.itm.invoiceextract.domain.repository.invoices.RecentInvoiceRow;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,16 +19,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +45,12 @@ class FetchInvoicesUseCaseTest {
     @Mock
     private InvoiceRepository invoiceRepository;
 
+    @Mock
+    private InvoiceStatsDailyRepository invoiceStatsDailyRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private FetchInvoicesUseCase useCase;
 
@@ -50,7 +69,7 @@ class FetchInvoicesUseCaseTest {
     @Test
     @DisplayName("should_find_all_and_paginated")
     void should_find_all_and_paginated() {
-        given(invoiceRepository.findAll()).willReturn(List.of(invoice(1L), invoice(2L)));
+        given(invoiceRepository.findAllWithItems()).willReturn(List.of(invoice(1L), invoice(2L)));
         List<Invoice> all = useCase.findAll();
         assertThat(all).hasSize(2);
 
@@ -58,6 +77,75 @@ class FetchInvoicesUseCaseTest {
         given(invoiceRepository.findAll(page)).willReturn(new PageImpl<>(List.of(invoice(3L))));
         Page<Invoice> paged = useCase.findAll(page);
         assertThat(paged.getContent()).hasSize(1);
+        verify(invoiceRepository).findByIdIn(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("should_filter_with_specification_and_page")
+    @SuppressWarnings("unchecked")
+    void should_filter_with_specification_and_page() {
+        PageRequest page = PageRequest.of(1, 5);
+        given(invoiceRepository.findAll(any(Specification.class), eq(page)))
+                .willReturn(new PageImpl<>(List.of(invoice(7L)), page, 6));
+
+        Page<Invoice> result = useCase.filter("900", null, InvoiceStatus.APPROVED,
+                LocalDateTime.now().minusDays(1), null, page);
+
+        assertThat(result.getContent()).extracting(Invoice::getId).containsExactly(7L);
+        assertThat(result.getTotalElements()).isEqualTo(6);
+        verify(invoiceRepository).findAll(any(Specification.class), eq(page));
+        verify(invoiceRepository).findByIdIn(List.of(7L));
+    }
+
+    @Test
+    @DisplayName("should_find_page_by_criteria_with_items")
+    @SuppressWarnings("unchecked")
+    void should_find_page_by_criteria_with_items() {
+        PageRequest page = PageRequest.of(0, 20, FetchInvoicesUseCase.KEYSET_SORT);
+        given(invoiceRepository.findAll(any(Specification.class), eq(page)))
+                .willReturn(new PageImpl<>(List.of(invoice(1L), invoice(2L)), page, 2));
+
+        Page<Invoice> result = useCase.find(InvoiceCriteria.byDocumentType("FACTURA"), page);
+
+        assertThat(result.getContent()).extracting(Invoice::getId).containsExactly(1L, 2L);
+        verify(invoiceRepository).findByIdIn(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("should_read_keyset_slice_with_one_extra_row")
+    @SuppressWarnings("unchecked")
+    void should_read_keyset_slice_with_one_extra_row() {
+        given(invoiceRepository.findBy(any(Specification.class), any(Function.class)))
+                .willReturn(List.of(invoice(9L), invoice(8L), invoice(7L)));
+
+        Slice<Invoice> slice = useCase.findBefore(InvoiceCriteria.all(),
+                new InvoiceCursor(LocalDateTime.now(), 10L), 2);
+
+        assertThat(slice.getContent()).extracting(Invoice::getId).containsExactly(9L, 8L);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.getSort()).isEqualTo(FetchInvoicesUseCase.KEYSET_SORT);
+        verify(invoiceRepository).findByIdIn(List.of(9L, 8L));
+    }
+
+    @Test
+    @DisplayName("should_stream_in_keyset_chunks_and_clear_persistence_context")
+    @SuppressWarnings("unchecked")
+    void should_stream_in_keyset_chunks_and_clear_persistence_context() {
+        int chunk = FetchInvoicesUseCase.STREAM_CHUNK_SIZE;
+        int total = chunk * 2 + 5;
+        given(invoiceRepository.findBy(any(Specification.class), any(Function.class))).willReturn(
+                LongStream.rangeClosed(1, chunk).mapToObj(this::invoice).toList(),
+                LongStream.rangeClosed(chunk + 1, chunk * 2L).mapToObj(this::invoice).toList(),
+                LongStream.rangeClosed(chunk * 2L + 1, total).mapToObj(this::invoice).toList());
+        List<Long> seen = new ArrayList<>();
+
+        useCase.forEach(InvoiceCriteria.byStatus(InvoiceStatus.PENDING), invoice -> seen.add(invoice.getId()));
+
+        assertThat(seen).hasSize(total).startsWith(1L, 2L).endsWith((long) total);
+        // the short third slice is the last one
+        verify(invoiceRepository, times(3)).findBy(any(Specification.class), any(Function.class));
+        verify(invoiceRepository, times(3)).findByIdIn(any());
+        verify(entityManager, times(3)).clear();
     }
 
     @Test
@@ -106,11 +194,11 @@ class FetchInvoicesUseCaseTest {
     @Test
     @DisplayName("should_build_dashboard_stats")
     void should_build_dashboard_stats() {
-        given(invoiceRepository.count()).willReturn(10L);
-        given(invoiceRepository.countByDocumentType("FACTURA")).willReturn(6L);
-        given(invoiceRepository.countByDocumentType("NOTA_CREDITO")).willReturn(3L);
-        given(invoiceRepository.countByDocumentType("NOTA_DEBITO")).willReturn(1L);
-        given(invoiceRepository.sumAllAmounts()).willReturn(new BigDecimal("123.45"));
+        given(invoiceStatsDailyRepository.summarize()).willReturn(List.of(
+                new InvoiceAggregate("FACTURA", InvoiceStatus.PENDING, 4L, new BigDecimal("100.00")),
+                new InvoiceAggregate("FACTURA", InvoiceStatus.APPROVED, 2L, new BigDecimal("20.00")),
+                new InvoiceAggregate("NOTA_CREDITO", InvoiceStatus.REJECTED, 3L, new BigDecimal("3.00")),
+                new InvoiceAggregate("NOTA_DEBITO", InvoiceStatus.PAID, 1L, new BigDecimal("0.45"))));
 
         DashboardStatsDTO stats = useCase.getDashboardStats();
         assertThat(stats.getTotalCount()).isEqualTo(10);
@@ -119,15 +207,81 @@ class FetchInvoicesUseCaseTest {
         assertThat(stats.getNotaCreditoCount()).isEqualTo(3);
         assertThat(stats.getNotaDebitoCount()).isEqualTo(1);
         assertThat(stats.getAverageAmount()).isEqualByComparingTo(new BigDecimal("12.35"));
+        assertThat(stats.getPendingCount()).isEqualTo(4);
+        assertThat(stats.getApprovedCount()).isEqualTo(2);
+        assertThat(stats.getRejectedCount()).isEqualTo(3);
+        assertThat(stats.getPaidCount()).isEqualTo(1);
+        verify(invoiceRepository, never()).count();
     }
 
     @Test
-    @DisplayName("should_find_recent_invoices")
-    void should_find_recent_invoices() {
-        given(invoiceRepository.findTop10ByOrderByCreatedDateDesc()).willReturn(List.of(invoice(1L), invoice(2L), invoice(3L)));
+    @DisplayName("should_build_stats_for_created_day_range")
+    void should_build_stats_for_created_day_range() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        given(invoiceStatsDailyRepository.summarizeBetween(from, to)).willReturn(List.of(
+                new InvoiceAggregate("FACTURA", InvoiceStatus.APPROVED, 2L, new BigDecimal("50.00"))));
+
+        DashboardStatsDTO stats = useCase.getDashboardStats(from, to);
+
+        assertThat(stats.getTotalCount()).isEqualTo(2);
+        assertThat(stats.getApprovedCount()).isEqualTo(2);
+        assertThat(stats.getAverageAmount()).isEqualByComparingTo("25.00");
+        verify(invoiceStatsDailyRepository, never()).summarize();
+    }
+
+    @Test
+    @DisplayName("should_return_zero_stats_when_no_invoices")
+    void should_return_zero_stats_when_no_invoices() {
+        given(invoiceStatsDailyRepository.summarize()).willReturn(List.of());
+
+        DashboardStatsDTO stats = useCase.getDashboardStats();
+
+        assertThat(stats.getTotalCount()).isZero();
+        assertThat(stats.getTotalAmount()).isEqualByComparingTo("0");
+        assertThat(stats.getAverageAmount()).isEqualByComparingTo("0");
+    }
+
+    private RecentInvoiceRow row(Long id, LocalDateTime createdDate) {
+        return new RecentInvoiceRow(id, "INV-" + id, "Supplier", new BigDecimal("10.00"), LocalDate.now(), createdDate);
+    }
+
+    @Test
+    @DisplayName("should_find_recent_invoices_with_limit_in_query")
+    void should_find_recent_invoices_with_limit_in_query() {
+        LocalDateTime now = LocalDateTime.now();
+        given(invoiceRepository.findRecent(PageRequest.of(0, 2))).willReturn(List.of(row(1L, now), row(2L, now.minusMinutes(1))));
+
         List<RecentInvoiceDTO> recent = useCase.getRecentInvoices(2);
-        assertThat(recent).hasSize(2);
-        assertThat(recent.get(0).getId()).isEqualTo(1L);
+
+        assertThat(recent).extracting(RecentInvoiceDTO::getId).containsExactly(1L, 2L);
+        assertThat(recent.get(0).getDocumentNumber()).isEqualTo("INV-1");
+        assertThat(recent.get(0).getCreatedDate()).isEqualTo(now);
+    }
+
+    @Test
+    @DisplayName("should_cap_recent_limit")
+    void should_cap_recent_limit() {
+        given(invoiceRepository.findRecent(any(Pageable.class))).willReturn(List.of());
+
+        useCase.getRecentInvoices(10_000);
+        useCase.getRecentInvoices(0);
+
+        verify(invoiceRepository).findRecent(PageRequest.of(0, FetchInvoicesUseCase.MAX_RECENT_LIMIT));
+        verify(invoiceRepository).findRecent(PageRequest.of(0, 1));
+    }
+
+    @Test
+    @DisplayName("should_continue_recent_invoices_after_cursor")
+    void should_continue_recent_invoices_after_cursor() {
+        LocalDateTime createdDate = LocalDateTime.of(2024, 8, 3, 10, 15, 30);
+        given(invoiceRepository.findRecentBefore(createdDate, 42L, PageRequest.of(0, 10)))
+                .willReturn(List.of(row(41L, createdDate)));
+
+        List<RecentInvoiceDTO> recent = useCase.getRecentInvoices(10, new InvoiceCursor(createdDate, 42L));
+
+        assertThat(recent).extracting(RecentInvoiceDTO::getId).containsExactly(41L);
+        verify(invoiceRepository, never()).findRecent(any());
     }
 
     @Test
@@ -0,0 +1,125 @@
+package co.edu.itm.invoiceextract.application.usecase.invoice;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceImportResultDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceImportResultDTO.Status;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ImportInvoicesUseCaseTest {
+
+    @Mock
+    private ManageInvoiceUseCase manageInvoiceUseCase;
+
+    private ImportInvoicesUseCase useCase;
+
+    private final List<List<InvoiceImportResultDTO>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ImportInvoicesUseCase(manageInvoiceUseCase, new ObjectMapper().findAndRegisterModules(), 2);
+    }
+
+    private void importLines(String... lines) throws IOException {
+        byte[] body = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        useCase.importNdjson(new ByteArrayInputStream(body), batches::add);
+    }
+
+    private static String line(String documentNumber) {
+        return "{\"DocumentNumber\":\"" + documentNumber + "\",\"SenderTaxId\":\"900123456\",\"Amount\":\"10.00\"}";
+    }
+
+    private static Invoice invoice(Long id, String documentNumber) {
+        Invoice invoice = new Invoice();
+        invoice.setId(id);
+        invoice.setDocumentNumber(documentNumber);
+        return invoice;
+    }
+
+    @Test
+    @DisplayName("should_save_lines_in_batches_and_report_every_line_in_order")
+    void should_save_lines_in_batches_and_report_every_line_in_order() throws Exception {
+        // Given
+        given(manageInvoiceUseCase.createInvoices(argThat(list -> list != null && list.size() == 1)))
+                .willReturn(new InvoiceBatchResult(List.of(invoice(1L, "A")), Map.of()));
+        given(manageInvoiceUseCase.createInvoices(argThat(list -> list != null && list.size() == 2)))
+                .willReturn(new InvoiceBatchResult(List.of(invoice(2L, "B"), invoice(3L, "C")), Map.of()));
+
+        // When line 2 is blank and line 3 is not JSON
+        importLines(line("A"), "", "{oops", line("B"), line("C"));
+
+        // Then
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).extracting(InvoiceImportResultDTO::getLine).containsExactly(1L, 3L);
+        assertThat(batches.get(0)).extracting(InvoiceImportResultDTO::getStatus).containsExactly(Status.CREATED, Status.INVALID);
+        assertThat(batches.get(0).get(1).getError()).startsWith("Malformed JSON");
+        assertThat(batches.get(1)).extracting(InvoiceImportResultDTO::getInvoiceId).containsExactly(2L, 3L);
+        assertThat(batches.get(1)).extracting(InvoiceImportResultDTO::getLine).containsExactly(4L, 5L);
+    }
+
+    @Test
+    @DisplayName("should_report_batch_rejections_on_their_lines")
+    void should_report_batch_rejections_on_their_lines() throws Exception {
+        // Given the first request is a duplicate and the second is created
+        given(manageInvoiceUseCase.createInvoices(anyList())).willReturn(new InvoiceBatchResult(
+                List.of(invoice(8L, "B")), Map.of(0, new DuplicateInvoiceException("A"))));
+
+        // When
+        importLines(line("A"), line("B"));
+
+        // Then
+        List<InvoiceImportResultDTO> results = batches.get(0);
+        assertThat(results).extracting(InvoiceImportResultDTO::getStatus).containsExactly(Status.DUPLICATE, Status.CREATED);
+        assertThat(results.get(0).getDocumentNumber()).isEqualTo("A");
+        assertThat(results.get(1).getInvoiceId()).isEqualTo(8L);
+    }
+
+    @Test
+    @DisplayName("should_retry_one_by_one_when_batch_transaction_fails")
+    void should_retry_one_by_one_when_batch_transaction_fails() throws Exception {
+        // Given
+        given(manageInvoiceUseCase.createInvoices(anyList())).willThrow(new IllegalStateException("deadlock"));
+        given(manageInvoiceUseCase.createInvoice(argThat(request -> request != null && "A".equals(request.getDocumentNumber()))))
+                .willReturn(invoice(1L, "A"));
+        given(manageInvoiceUseCase.createInvoice(argThat(request -> request != null && "B".equals(request.getDocumentNumber()))))
+                .willThrow(new IllegalArgumentException("Amount is required"));
+
+        // When
+        importLines(line("A"), line("B"));
+
+        // Then
+        assertThat(batches.get(0)).extracting(InvoiceImportResultDTO::getStatus).containsExactly(Status.CREATED, Status.INVALID);
+        verify(manageInvoiceUseCase, times(2)).createInvoice(argThat((InvoiceRequestDTO request) -> request != null));
+    }
+
+    @Test
+    @DisplayName("should_not_touch_database_for_empty_body")
+    void should_not_touch_database_for_empty_body() throws Exception {
+        useCase.importNdjson(new ByteArrayInputStream(new byte[0]), batches::add);
+
+        assertThat(batches).isEmpty();
+        verify(manageInvoiceUseCase, never()).createInvoices(anyList());
+    }
+}
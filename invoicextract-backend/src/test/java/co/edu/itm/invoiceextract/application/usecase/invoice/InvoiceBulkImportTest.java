@@ -0,0 +1,65 @@
+package co.edu.itm.invoiceextract.application.usecase.invoice;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceImportResultDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceImportResultDTO.Status;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceIntegrationTest;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * NDJSON upload through {@link ImportInvoicesUseCase} against the real database: every line
+ * gets its result in order, including batch boundaries. The comparison with one transaction
+ * per invoice is in {@code bench/InvoiceBulkImportBenchmark}.
+ */
+@InvoiceIntegrationTest
+@TestPropertySource(properties = "invoices.ingest.bulk-batch-size=2")
+class InvoiceBulkImportTest {
+
+    @Autowired
+    private ImportInvoicesUseCase importInvoicesUseCase;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String line(String documentNumber) throws Exception {
+        return objectMapper.writeValueAsString(InvoiceTestData.sampleRequest(documentNumber)) + "\n";
+    }
+
+    @Test
+    @DisplayName("should_report_every_line_in_order_with_its_status")
+    void should_report_every_line_in_order_with_its_status() throws Exception {
+        // Given a backfill with a malformed line and repeated document numbers, in and across batches
+        String body = line("BULK-1")
+                + "{not-json\n"
+                + line("BULK-2")
+                + line("BULK-2")
+                + line("BULK-3")
+                + line("BULK-1");
+
+        // When
+        List<InvoiceImportResultDTO> results = new ArrayList<>();
+        importInvoicesUseCase.importNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), results::addAll);
+
+        // Then every line has a result, in order, and each invoice is stored once
+        assertThat(results).extracting(InvoiceImportResultDTO::getLine).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(results).extracting(InvoiceImportResultDTO::getStatus).containsExactly(
+                Status.CREATED, Status.INVALID, Status.CREATED, Status.DUPLICATE, Status.CREATED, Status.DUPLICATE);
+        assertThat(invoiceRepository.count()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,71 @@
+package co.edu.itm.invoiceextract.application.usecase.invoice;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceIntegrationTest;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.entity.invoice.InvoiceItem;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceItemRepository;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ManageInvoiceUseCase#createInvoice} writes the invoice and its items with JDBC batch
+ * inserts; the comparison with per-item saves is in {@code bench/InvoiceItemBatchInsertBenchmark}.
+ */
+@InvoiceIntegrationTest
+class InvoiceItemBatchInsertTest {
+
+    @Autowired
+    private ManageInvoiceUseCase manageInvoiceUseCase;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceItemRepository invoiceItemRepository;
+
+    @Test
+    @DisplayName("should_store_every_invoice_with_its_items_and_return_generated_ids")
+    void should_store_every_invoice_with_its_items_and_return_generated_ids() {
+        // Given invoices with one, a few and many lines
+        List<Integer> lines = List.of(1, 3, 50);
+
+        // When
+        List<Invoice> created = new ArrayList<>();
+        for (int n = 0; n < lines.size(); n++) {
+            created.add(manageInvoiceUseCase.createInvoice(InvoiceTestData.sampleRequest("BATCH-" + n, lines.get(n))));
+        }
+
+        // Then the returned invoices carry their generated ids and every item row is stored
+        assertThat(created).extracting(Invoice::getId).doesNotContainNull().doesNotHaveDuplicates();
+        for (int n = 0; n < lines.size(); n++) {
+            Long id = created.get(n).getId();
+            assertThat(invoiceRepository.findById(id)).get().extracting(Invoice::getDocumentNumber).isEqualTo("BATCH-" + n);
+            assertThat(invoiceItemRepository.findByInvoiceIdOrderByIdAsc(id))
+                    .hasSize(lines.get(n))
+                    .extracting(InvoiceItem::getItemCode)
+                    .containsExactlyElementsOf(created.get(n).getItems().stream().map(InvoiceItem::getItemCode).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("should_replace_items_on_update_without_duplicating_rows")
+    void should_replace_items_on_update_without_duplicating_rows() {
+        Invoice created = manageInvoiceUseCase.createInvoice(InvoiceTestData.sampleRequest("UPD-1", 3));
+        InvoiceRequestDTO update = InvoiceTestData.sampleRequest("UPD-1", 2);
+        update.setInvoiceItem(update.getInvoiceItems().get(0));
+
+        Invoice updated = manageInvoiceUseCase.updateInvoice(created.getId(), update);
+
+        assertThat(updated.getItems()).hasSize(2).allSatisfy(item -> assertThat(item.getId()).isNotNull());
+        assertThat(invoiceItemRepository.findByInvoiceIdOrderByIdAsc(created.getId())).hasSize(2);
+    }
+}
@@ -3,20 +3,28 @@ package co.edu.itm.invoiceextract.application.usecase.invoice;
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceItemDTO;
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
 import co.edu.itm.invoiceextract.application.mapper.invoice.InvoiceMapper;
+import co.edu.itm.invoiceextract.application.service.InvoiceDuplicateGuard;
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics;
+import co.edu.itm.invoiceextract.application.service.InvoiceStatsService;
 import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
 import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
 import co.edu.itm.invoiceextract.domain.entity.invoice.InvoiceItem;
 import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
 import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceItemRepository;
 import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -42,6 +50,20 @@ class ManageInvoiceUseCaseTest {
     @Mock
     private InvoiceMapper invoiceMapper;
 
+    @Mock
+    private InvoiceStatsService invoiceStatsService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private InvoiceDuplicateGuard duplicateGuard = new InvoiceDuplicateGuard(meterRegistry, 100, 60_000);
+
+    @Spy
+    private InvoiceIngestMetrics ingestMetrics = new InvoiceIngestMetrics(meterRegistry);
+
+    @Captor
+    private ArgumentCaptor<List<InvoiceItem>> itemsCaptor;
+
     @InjectMocks
     private ManageInvoiceUseCase useCase;
 
@@ -56,38 +78,71 @@ class ManageInvoiceUseCaseTest {
     @DisplayName("should_create_invoice_with_item_when_request_valid")
     void should_create_invoice_with_item_when_request_valid() {
         // Given
-        given(invoiceRepository.findByDocumentNumber("INV-001")).willReturn(Optional.empty());
         Invoice toSave = new Invoice();
         toSave.setDocumentNumber("INV-001");
         toSave.setAmount(new BigDecimal("1000.50"));
         toSave.setIssueDate(LocalDate.now().minusDays(1));
         toSave.setDueDate(LocalDate.now().plusDays(29));
-        Invoice saved = InvoiceTestData.sampleEntity(1L);
         given(invoiceMapper.toEntity(any(InvoiceRequestDTO.class))).willReturn(toSave);
-        given(invoiceRepository.save(toSave)).willReturn(saved);
+        doAnswer(inv -> {
+            List<Invoice> invoices = inv.getArgument(0);
+            invoices.get(0).setId(1L);
+            return null;
+        }).when(invoiceRepository).batchInsert(anyList());
 
         InvoiceItem mappedItem = new InvoiceItem();
         mappedItem.setDescription("Service");
         mappedItem.setQuantity(1);
         mappedItem.setUnitPrice(new BigDecimal("1000.50"));
         given(invoiceMapper.toItemEntity(any(InvoiceItemDTO.class))).willReturn(mappedItem);
-        given(invoiceItemRepository.save(any(InvoiceItem.class))).willAnswer(inv -> inv.getArgument(0));
 
         // When
         Invoice result = useCase.createInvoice(request);
 
         // Then
         assertThat(result.getId()).isEqualTo(1L);
-        assertThat(result.getItems()).hasSize(2);
-        verify(invoiceRepository).save(toSave);
-        verify(invoiceItemRepository).save(any(InvoiceItem.class));
+        assertThat(result.getItems()).containsExactly(mappedItem);
+        assertThat(mappedItem.getInvoice()).isSameAs(result);
+        verify(invoiceRepository).batchInsert(List.of(toSave));
+        verify(invoiceItemRepository).batchInsert(List.of(mappedItem));
+        verify(invoiceStatsService).recordCreated(result);
+        verify(invoiceRepository, never()).save(any());
+        verify(invoiceItemRepository, never()).save(any());
+        verify(invoiceRepository, never()).findByDocumentNumber(any());
+        assertThat(duplicateGuard.isKnown("INV-001")).isTrue();
+        assertThat(meterRegistry.get("invoices.ingest.validation").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("invoices.ingest.db").tag("mode", "single").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("invoices.ingest.items").summary().totalAmount()).isEqualTo(1);
     }
 
     @Test
     @DisplayName("should_throw_when_duplicate_document_number")
     void should_throw_when_duplicate_document_number() {
-        given(invoiceRepository.findByDocumentNumber("INV-001")).willReturn(Optional.of(new Invoice()));
-        assertThrows(IllegalArgumentException.class, () -> useCase.createInvoice(request));
+        given(invoiceMapper.toEntity(any(InvoiceRequestDTO.class))).willReturn(new Invoice());
+        given(invoiceMapper.toItemEntity(any(InvoiceItemDTO.class))).willReturn(new InvoiceItem());
+        doThrow(new DuplicateKeyException("uq_invoices_document_number")).when(invoiceRepository).batchInsert(anyList());
+
+        DuplicateInvoiceException e = assertThrows(DuplicateInvoiceException.class, () -> useCase.createInvoice(request));
+
+        assertThat(e.getDocumentNumber()).isEqualTo("INV-001");
+        verifyNoInteractions(invoiceItemRepository, invoiceStatsService);
+        assertThat(duplicates("constraint")).isEqualTo(1.0);
+        assertThat(duplicateGuard.isKnown("INV-001")).isTrue();
+    }
+
+    @Test
+    @DisplayName("should_reject_recently_stored_document_number_without_database")
+    void should_reject_recently_stored_document_number_without_database() {
+        duplicateGuard.rememberAfterCommit(List.of("INV-001"));
+
+        assertThrows(DuplicateInvoiceException.class, () -> useCase.createInvoice(request));
+
+        verifyNoInteractions(invoiceRepository, invoiceItemRepository, invoiceMapper, invoiceStatsService);
+        assertThat(duplicates("cache")).isEqualTo(1.0);
+    }
+
+    private double duplicates(String detectedBy) {
+        return meterRegistry.get(InvoiceDuplicateGuard.DUPLICATES_METRIC).tag("detected_by", detectedBy).counter().count();
     }
 
     @Test
@@ -120,6 +175,7 @@ class ManageInvoiceUseCaseTest {
         newItem.setUnitPrice(new BigDecimal("2000.00"));
         given(invoiceMapper.toItemEntity(any(InvoiceItemDTO.class))).willReturn(newItem);
 
+        given(invoiceItemRepository.findByInvoiceIdOrderByIdAsc(5L)).willReturn(List.of(newItem));
         given(invoiceRepository.save(existing)).willReturn(existing);
 
         // When
@@ -128,8 +184,11 @@ class ManageInvoiceUseCaseTest {
         // Then
         assertEquals("INV-001-U", updated.getDocumentNumber());
         assertThat(updated.getAmount()).isEqualByComparingTo("2000.00");
+        assertThat(updated.getItems()).containsExactly(newItem);
+        assertThat(newItem.getInvoice()).isSameAs(existing);
         verify(invoiceItemRepository).deleteAll(anyList());
-        verify(invoiceItemRepository).save(any(InvoiceItem.class));
+        verify(invoiceItemRepository).batchInsert(List.of(newItem));
+        verify(invoiceItemRepository, never()).save(any());
     }
 
     @Test
@@ -142,6 +201,80 @@ class ManageInvoiceUseCaseTest {
         // Then
         verify(invoiceItemRepository).deleteAll(existing.getItems());
         verify(invoiceRepository).delete(existing);
+        verify(invoiceStatsService).recordRemoved(existing);
+        verify(duplicateGuard).forget(existing.getDocumentNumber());
+    }
+
+    @Nested
+    class BatchCreate {
+
+        private InvoiceRequestDTO requestFor(String documentNumber) {
+            InvoiceRequestDTO dto = InvoiceTestData.sampleRequest();
+            dto.setDocumentNumber(documentNumber);
+            return dto;
+        }
+
+        @Test
+        @DisplayName("should_batch_insert_valid_invoices_with_their_items")
+        void should_batch_insert_valid_invoices_with_their_items() {
+            given(invoiceRepository.findExistingDocumentNumbers(anyCollection())).willReturn(List.of());
+            given(invoiceMapper.toEntity(any(InvoiceRequestDTO.class))).willAnswer(inv -> {
+                Invoice entity = new Invoice();
+                entity.setDocumentNumber(((InvoiceRequestDTO) inv.getArgument(0)).getDocumentNumber());
+                return entity;
+            });
+            given(invoiceMapper.toItemEntity(any(InvoiceItemDTO.class))).willAnswer(inv -> new InvoiceItem());
+
+            InvoiceBatchResult result = useCase.createInvoices(List.of(requestFor("INV-1"), requestFor("INV-2")));
+
+            assertThat(result.getFailures()).isEmpty();
+            assertThat(result.getCreated()).extracting(Invoice::getDocumentNumber).containsExactly("INV-1", "INV-2");
+            verify(invoiceRepository).batchInsert(result.getCreated());
+            verify(invoiceItemRepository).batchInsert(itemsCaptor.capture());
+            assertThat(itemsCaptor.getValue()).hasSize(2).allSatisfy(item -> assertThat(item.getInvoice()).isNotNull());
+            verify(invoiceStatsService).recordCreated(result.getCreated());
+            verify(invoiceRepository, never()).save(any());
+            verify(invoiceItemRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should_report_invalid_and_duplicate_requests_by_index")
+        void should_report_invalid_and_duplicate_requests_by_index() {
+            InvoiceRequestDTO invalid = requestFor("INV-3");
+            invalid.setAmount(" ");
+            given(invoiceRepository.findExistingDocumentNumbers(anyCollection())).willReturn(List.of("INV-2"));
+            given(invoiceMapper.toEntity(any(InvoiceRequestDTO.class))).willAnswer(inv -> new Invoice());
+            given(invoiceMapper.toItemEntity(any(InvoiceItemDTO.class))).willAnswer(inv -> new InvoiceItem());
+
+            InvoiceBatchResult result = useCase.createInvoices(List.of(
+                    requestFor("INV-1"), requestFor("INV-2"), invalid, requestFor("INV-1")));
+
+            assertThat(result.getCreated()).hasSize(1);
+            assertThat(result.getFailures()).containsOnlyKeys(1, 2, 3);
+            assertThat(result.getFailures().get(1).getMessage()).contains("INV-2 already exists");
+            assertThat(result.getFailures().get(2).getMessage()).isEqualTo("Amount is required");
+            assertThat(result.getFailures().get(3).getMessage()).contains("INV-1 already exists");
+            assertThat(result.getFailures().get(1)).isInstanceOf(DuplicateInvoiceException.class);
+            assertThat(duplicates("lookup")).isEqualTo(1.0);
+            assertThat(duplicates("batch")).isEqualTo(1.0);
+            assertThat(duplicateGuard.isKnown("INV-1")).isTrue();
+        }
+
+        @Test
+        @DisplayName("should_skip_lookup_for_recently_stored_document_numbers")
+        void should_skip_lookup_for_recently_stored_document_numbers() {
+            duplicateGuard.rememberAfterCommit(List.of("INV-1"));
+            given(invoiceRepository.findExistingDocumentNumbers(anyCollection())).willReturn(List.of());
+            given(invoiceMapper.toEntity(any(InvoiceRequestDTO.class))).willAnswer(inv -> new Invoice());
+            given(invoiceMapper.toItemEntity(any(InvoiceItemDTO.class))).willAnswer(inv -> new InvoiceItem());
+
+            InvoiceBatchResult result = useCase.createInvoices(List.of(requestFor("INV-1"), requestFor("INV-2")));
+
+            assertThat(result.getFailures()).containsOnlyKeys(0);
+            assertThat(result.getCreated()).hasSize(1);
+            verify(invoiceRepository).findExistingDocumentNumbers(argThat(numbers -> numbers.equals(java.util.Set.of("INV-2"))));
+            assertThat(duplicates("cache")).isEqualTo(1.0);
+        }
     }
 
     @Nested
@@ -156,6 +289,7 @@ class ManageInvoiceUseCaseTest {
 
             Invoice result = useCase.approveInvoice(2L);
             assertThat(result.getStatus()).isEqualTo(InvoiceStatus.APPROVED);
+            verify(invoiceStatsService).recordChanged(any(InvoiceStatsService.Snapshot.class), eq(existing));
         }
 
         @Test
@@ -0,0 +1,124 @@
+package co.edu.itm.invoiceextract.application.usecase.invoice;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceCursor;
+import co.edu.itm.invoiceextract.application.dto.invoice.RecentInvoiceDTO;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceIntegrationTest;
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the recent invoices and keyset queries against the in-memory database, with created
+ * dates that tie so the id tie-break of the keyset cursor is exercised.
+ */
+@InvoiceIntegrationTest
+class RecentInvoicesQueryTest {
+
+    @Autowired
+    private FetchInvoicesUseCase fetchInvoicesUseCase;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Both tests read every invoice, so each starts from an empty table
+    @BeforeEach
+    void clearInvoices() {
+        jdbcTemplate.update("DELETE FROM invoices");
+    }
+
+    @Test
+    @DisplayName("should_page_recent_invoices_by_keyset_without_gaps_or_repeats")
+    void should_page_recent_invoices_by_keyset_without_gaps_or_repeats() {
+        // Given 7 invoices over 3 distinct created timestamps
+        LocalDateTime base = LocalDateTime.of(2024, 8, 3, 10, 0);
+        List<Invoice> invoices = new ArrayList<>();
+        for (int n = 0; n < 7; n++) {
+            Invoice invoice = new Invoice();
+            invoice.setDocumentType("FACTURA");
+            invoice.setDocumentNumber("REC-" + n);
+            invoice.setAmount(BigDecimal.TEN);
+            invoices.add(invoice);
+        }
+        invoiceRepository.batchInsert(invoices);
+        // ids are read from the batch's generated keys, in insert order
+        for (Invoice invoice : invoices) {
+            assertThat(jdbcTemplate.queryForObject("SELECT document_number FROM invoices WHERE id = ?", String.class,
+                    invoice.getId())).isEqualTo(invoice.getDocumentNumber());
+        }
+        for (int n = 0; n < invoices.size(); n++) {
+            jdbcTemplate.update("UPDATE invoices SET created_date = ? WHERE id = ?",
+                    Timestamp.valueOf(base.plusMinutes(n / 3)), invoices.get(n).getId());
+        }
+
+        // When reading pages of 3 following the cursor
+        List<Long> seen = new ArrayList<>();
+        InvoiceCursor cursor = null;
+        List<RecentInvoiceDTO> page;
+        do {
+            page = fetchInvoicesUseCase.getRecentInvoices(3, cursor);
+            page.forEach(invoice -> seen.add(invoice.getId()));
+            cursor = page.isEmpty() ? null : InvoiceCursor.parse(InvoiceCursor.of(page.get(page.size() - 1)).toString());
+        } while (page.size() == 3);
+
+        // Then every invoice appears once, newest first and by id within a timestamp
+        List<Long> expected = invoices.stream()
+                .sorted((a, b) -> {
+                    int byTime = Integer.compare(invoices.indexOf(b) / 3, invoices.indexOf(a) / 3);
+                    return byTime != 0 ? byTime : b.getId().compareTo(a.getId());
+                })
+                .map(Invoice::getId)
+                .toList();
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("should_stream_dated_invoices_when_an_undated_one_ends_a_chunk")
+    void should_stream_dated_invoices_when_an_undated_one_ends_a_chunk() {
+        // Given one chunk of dated invoices minus one, then undated ones, which sort last
+        int dated = FetchInvoicesUseCase.STREAM_CHUNK_SIZE - 1;
+        LocalDateTime base = LocalDateTime.of(2024, 8, 3, 10, 0);
+        List<Invoice> invoices = new ArrayList<>();
+        for (int n = 0; n < dated + 3; n++) {
+            Invoice invoice = new Invoice();
+            invoice.setDocumentType("FACTURA");
+            invoice.setDocumentNumber("STR-" + n);
+            invoice.setAmount(BigDecimal.TEN);
+            invoices.add(invoice);
+        }
+        invoiceRepository.batchInsert(invoices);
+        for (int n = 0; n < invoices.size(); n++) {
+            jdbcTemplate.update("UPDATE invoices SET created_date = ? WHERE id = ?",
+                    n < dated ? Timestamp.valueOf(base.plusSeconds(n)) : null, invoices.get(n).getId());
+        }
+
+        // When streaming everything
+        List<Long> seen = new ArrayList<>();
+        fetchInvoicesUseCase.forEach(InvoiceCriteria.all(), invoice -> seen.add(invoice.getId()));
+
+        // Then every dated invoice is streamed once, newest first, and the undated ones are left out
+        List<Long> expected = new ArrayList<>(invoices.subList(0, dated).stream().map(Invoice::getId).toList());
+        Collections.reverse(expected);
+        assertThat(seen).containsExactlyElementsOf(expected);
+
+        // And keyset slices after the oldest dated invoice are empty rather than undated rows
+        Invoice oldest = invoices.get(0);
+        assertThat(fetchInvoicesUseCase.findBefore(InvoiceCriteria.all(),
+                new InvoiceCursor(base, oldest.getId()), 10).getContent()).isEmpty();
+    }
+}
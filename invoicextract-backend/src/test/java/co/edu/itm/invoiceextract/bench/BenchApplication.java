@@ -0,0 +1,51 @@
+package co.edu.itm.invoiceextract.bench;
+
+import co.edu.itm.invoiceextract.InvoiceExtractBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+
+/**
+ * Full application on an in-memory H2 database in MySQL mode and an embedded Kafka broker,
+ * configured like {@code @InvoiceIntegrationTest}, for benchmarks that go through the use cases
+ * and repositories. Against H2 the database round trips are a lower bound of a networked MySQL.
+ */
+final class BenchApplication implements AutoCloseable {
+
+    private final EmbeddedKafkaBroker kafka;
+    private final ConfigurableApplicationContext context;
+
+    private BenchApplication(EmbeddedKafkaBroker kafka, ConfigurableApplicationContext context) {
+        this.kafka = kafka;
+        this.context = context;
+    }
+
+    static BenchApplication start() {
+        EmbeddedKafkaBroker kafka = new EmbeddedKafkaZKBroker(1, true, "invoices");
+        kafka.afterPropertiesSet();
+        String brokers = kafka.getBrokersAsString();
+        // Passed as arguments so they take precedence over application.yml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InvoiceExtractBackendApplication.class).run(
+                "--spring.kafka.bootstrap-servers=" + brokers,
+                "--spring.kafka.consumer.bootstrap-servers=" + brokers,
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0");
+        return new BenchApplication(kafka, context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        kafka.destroy();
+    }
+}
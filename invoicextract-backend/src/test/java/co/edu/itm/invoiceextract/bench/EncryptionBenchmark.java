@@ -0,0 +1,92 @@
+package co.edu.itm.invoiceextract.bench;
+
+import co.edu.itm.invoiceextract.application.service.EncryptionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link EncryptionService} for e-mail passwords, cycling through a number of
+ * configuration keys as a listing of configurations does. The {@code perCall*} benchmarks
+ * look up the cipher and build the key on every call, as the service used to, for comparison.
+ * Run with: mvn -Pbench test -Djmh.args="EncryptionBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class EncryptionBenchmark {
+
+    @Param({"1", "50"})
+    public int configKeys;
+
+    private EncryptionService service;
+    private String[] keys;
+    private String[] encrypted;
+    private final String plain = "bfnx ygve bpep mjac";
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        service = new EncryptionService();
+        keys = new String[configKeys];
+        encrypted = new String[configKeys];
+        for (int i = 0; i < configKeys; i++) {
+            keys[i] = service.generateEncryptionKey();
+            encrypted[i] = service.encrypt(plain, keys[i]);
+        }
+    }
+
+    private int nextIndex(Cursor cursor) {
+        int i = cursor.next;
+        cursor.next = (i + 1) % configKeys;
+        return i;
+    }
+
+    @Benchmark
+    public String encrypt(Cursor cursor) throws Exception {
+        return service.encrypt(plain, keys[nextIndex(cursor)]);
+    }
+
+    @Benchmark
+    public String decrypt(Cursor cursor) throws Exception {
+        int i = nextIndex(cursor);
+        return service.decrypt(encrypted[i], keys[i]);
+    }
+
+    @Benchmark
+    public String perCallEncrypt(Cursor cursor) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(keys[nextIndex(cursor)].getBytes(StandardCharsets.UTF_8), "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(plain.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public String perCallDecrypt(Cursor cursor) throws Exception {
+        int i = nextIndex(cursor);
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(keys[i].getBytes(StandardCharsets.UTF_8), "AES"));
+        return new String(cipher.doFinal(Base64.getDecoder().decode(encrypted[i])), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String generateKey() {
+        return service.generateEncryptionKey();
+    }
+}
@@ -0,0 +1,95 @@
+package co.edu.itm.invoiceextract.bench;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import co.edu.itm.invoiceextract.application.usecase.invoice.ImportInvoicesUseCase;
+import co.edu.itm.invoiceextract.application.usecase.invoice.ManageInvoiceUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to store a backfill of {@code invoices} invoices as one NDJSON upload through
+ * {@link ImportInvoicesUseCase} against creating them one transaction at a time, as the RPA
+ * robot does through POST /api/invoices. HTTP, TLS and token validation per request come on
+ * top of the single-invoice figure in production. Each fork starts the application once, see
+ * {@link BenchApplication}.
+ * Run with: mvn -Pbench test -Djmh.args="InvoiceBulkImportBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class InvoiceBulkImportBenchmark {
+
+    @Param({"500"})
+    public int invoices;
+
+    private BenchApplication app;
+    private ImportInvoicesUseCase importInvoicesUseCase;
+    private ManageInvoiceUseCase manageInvoiceUseCase;
+    private ObjectMapper objectMapper;
+    private List<InvoiceRequestDTO> requests;
+    private byte[] ndjson;
+    private long round;
+
+    @Setup(Level.Trial)
+    public void start() {
+        app = BenchApplication.start();
+        importInvoicesUseCase = app.bean(ImportInvoicesUseCase.class);
+        manageInvoiceUseCase = app.bean(ManageInvoiceUseCase.class);
+        objectMapper = app.bean(ObjectMapper.class);
+    }
+
+    // Document numbers are unique, so every call gets fresh invoices outside the measurement
+    @Setup(Level.Invocation)
+    public void nextBackfill() throws IOException {
+        String prefix = "BENCH-" + round++ + "-";
+        requests = new ArrayList<>(invoices);
+        StringBuilder body = new StringBuilder();
+        for (int n = 0; n < invoices; n++) {
+            InvoiceRequestDTO request = InvoiceTestData.sampleRequest(prefix + n);
+            requests.add(request);
+            body.append(objectMapper.writeValueAsString(request)).append('\n');
+        }
+        ndjson = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        app.close();
+    }
+
+    @Benchmark
+    public void bulkNdjson(Blackhole results) throws IOException {
+        importInvoicesUseCase.importNdjson(new ByteArrayInputStream(ndjson), results::consume);
+    }
+
+    @Benchmark
+    public void oneTransactionEach(Blackhole created) {
+        for (InvoiceRequestDTO request : requests) {
+            created.consume(manageInvoiceUseCase.createInvoice(request));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package co.edu.itm.invoiceextract.bench;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceItemDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.mapper.invoice.InvoiceMapper;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import co.edu.itm.invoiceextract.application.usecase.invoice.ManageInvoiceUseCase;
+import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
+import co.edu.itm.invoiceextract.domain.entity.invoice.InvoiceItem;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceItemRepository;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to store one invoice with {@link ManageInvoiceUseCase#createInvoice} (JDBC batch inserts)
+ * against the previous path that saved the invoice and then each item through JPA, one INSERT
+ * per item. Each fork starts the application once, see {@link BenchApplication}.
+ * Run with: mvn -Pbench test -Djmh.args="InvoiceItemBatchInsertBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class InvoiceItemBatchInsertBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int lines;
+
+    private BenchApplication app;
+    private ManageInvoiceUseCase manageInvoiceUseCase;
+    private InvoiceRepository invoiceRepository;
+    private InvoiceItemRepository invoiceItemRepository;
+    private InvoiceMapper invoiceMapper;
+    private TransactionTemplate transactionTemplate;
+    private InvoiceRequestDTO request;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        app = BenchApplication.start();
+        manageInvoiceUseCase = app.bean(ManageInvoiceUseCase.class);
+        invoiceRepository = app.bean(InvoiceRepository.class);
+        invoiceItemRepository = app.bean(InvoiceItemRepository.class);
+        invoiceMapper = app.bean(InvoiceMapper.class);
+        transactionTemplate = app.bean(TransactionTemplate.class);
+    }
+
+    // Document numbers are unique, so every call gets a fresh request outside the measurement
+    @Setup(Level.Invocation)
+    public void nextRequest() {
+        request = InvoiceTestData.sampleRequest("BENCH-" + lines + "-" + next++, lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        app.close();
+    }
+
+    @Benchmark
+    public Invoice batchInsert() {
+        return manageInvoiceUseCase.createInvoice(request);
+    }
+
+    // Previous createInvoice: invoice through JPA, then one save per item
+    @Benchmark
+    public Invoice perItemSave() {
+        return transactionTemplate.execute(status -> {
+            Invoice saved = invoiceRepository.save(invoiceMapper.toEntity(request));
+            for (InvoiceItemDTO itemDto : request.getInvoiceItems()) {
+                InvoiceItem item = invoiceMapper.toItemEntity(itemDto);
+                item.setInvoice(saved);
+                invoiceItemRepository.save(item);
+                saved.addItem(item);
+            }
+            return saved;
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package co.edu.itm.invoiceextract.bench;
+
+import co.edu.itm.invoiceextract.application.config.JsonConfig;
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceItemMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.serde.InvoiceMessageAvroCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing an invoice to the topic and reading it back in the listener, JSON (Spring's
+ * {@link JsonSerializer} and the application's {@link ObjectMapper}) against Avro
+ * ({@link InvoiceMessageAvroCodec}). Payload sizes are printed during setup.
+ * Run with: mvn -Pbench test -Djmh.args="InvoiceMessageSerdeBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InvoiceMessageSerdeBenchmark {
+
+    @Param({"1", "20"})
+    public int items;
+
+    private InvoiceMessage message;
+    private JsonSerializer<InvoiceMessage> jsonSerializer;
+    private ObjectMapper objectMapper;
+    private InvoiceMessageAvroCodec avroCodec;
+    private byte[] json;
+    private byte[] avro;
+
+    @Setup
+    public void setup() {
+        message = new InvoiceMessage();
+        message.setDate(LocalDateTime.of(2024, 3, 31, 23, 59, 58));
+        message.setStatus(InvoiceStatus.PENDING);
+        message.setDocumentType("FACTURA");
+        message.setDocumentNumber("FE-10293");
+        message.setReceiverTaxId("800765432-1");
+        message.setReceiverTaxIdWithoutCheckDigit("800765432");
+        message.setReceiverBusinessName("Cliente Ejemplo S.A.S.");
+        message.setSenderTaxId("900123456-7");
+        message.setSenderTaxIdWithoutCheckDigit("900123456");
+        message.setSenderBusinessName("Proveedor Ejemplo S.A.");
+        message.setAmount("1190000.00");
+        message.setIssueDate(LocalDate.of(2024, 3, 31));
+        message.setDueDate(LocalDate.of(2024, 4, 30));
+        List<InvoiceItemMessage> lines = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            InvoiceItemMessage item = new InvoiceItemMessage();
+            item.setItemCode("SRV-" + i);
+            item.setDescription("Servicio de soporte mensual " + i);
+            item.setQuantity(1);
+            item.setUnit("UND");
+            item.setUnitPrice(new BigDecimal("100000.00"));
+            item.setSubtotal(new BigDecimal("100000.00"));
+            item.setTaxAmount(new BigDecimal("19000.00"));
+            item.setTotal(new BigDecimal("119000.00"));
+            lines.add(item);
+        }
+        message.setInvoiceItems(lines);
+
+        jsonSerializer = new JsonSerializer<>();
+        objectMapper = new JsonConfig().objectMapper();
+        avroCodec = new InvoiceMessageAvroCodec();
+        json = jsonSerializer.serialize("invoices", message);
+        avro = avroCodec.encode(message);
+        System.out.printf("%n%d items: JSON %d bytes, Avro %d bytes (%.0f%%)%n",
+                items, json.length, avro.length, 100.0 * avro.length / json.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonSerializer.close();
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize("invoices", message);
+    }
+
+    @Benchmark
+    public InvoiceMessage jsonDeserialize() throws Exception {
+        return objectMapper.readValue(json, InvoiceMessage.class);
+    }
+
+    @Benchmark
+    public byte[] avroSerialize() {
+        return avroCodec.encode(message);
+    }
+
+    @Benchmark
+    public InvoiceMessage avroDeserialize() throws Exception {
+        return avroCodec.decode(avro);
+    }
+}
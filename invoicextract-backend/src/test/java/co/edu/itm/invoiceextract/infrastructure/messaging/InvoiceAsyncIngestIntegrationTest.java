@@ -0,0 +1,60 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceIngestStatusDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceIngestStatusDTO.Status;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceIntegrationTest;
+import co.edu.itm.invoiceextract.application.testutil.InvoiceTestData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@InvoiceIntegrationTest(partitions = 3)
+@TestPropertySource(properties = {
+        "invoices.consumer.batch-enabled=true",
+        "invoices.consumer.linger-ms=50",
+        "invoices.producer.format=avro"
+})
+class InvoiceAsyncIngestIntegrationTest {
+
+    @Autowired
+    private InvoiceAsyncIngestService asyncIngestService;
+
+    private InvoiceIngestStatusDTO awaitOutcome(String trackingId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        InvoiceIngestStatusDTO status = asyncIngestService.status(trackingId);
+        while (status.getStatus() == Status.QUEUED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            status = asyncIngestService.status(trackingId);
+        }
+        return status;
+    }
+
+    @Test
+    @DisplayName("should_track_async_invoice_until_persisted_and_duplicate_until_rejected")
+    void should_track_async_invoice_until_persisted_and_duplicate_until_rejected() throws Exception {
+        // Given
+        InvoiceRequestDTO request = InvoiceTestData.sampleRequest();
+        request.setDocumentNumber("ASYNC-001");
+
+        // When the same invoice is submitted twice
+        InvoiceIngestStatusDTO first = asyncIngestService.submit(request).get(10, TimeUnit.SECONDS);
+        InvoiceIngestStatusDTO persisted = awaitOutcome(first.getTrackingId());
+        InvoiceIngestStatusDTO second = asyncIngestService.submit(request).get(10, TimeUnit.SECONDS);
+        InvoiceIngestStatusDTO rejected = awaitOutcome(second.getTrackingId());
+
+        // Then both records share the document number's partition; the first is stored, the second rejected
+        assertThat(first.getStatus()).isEqualTo(Status.QUEUED);
+        assertThat(second.getPartition()).isEqualTo(first.getPartition());
+        assertThat(second.getOffset()).isGreaterThan(first.getOffset());
+        assertThat(persisted.getStatus()).isEqualTo(Status.PERSISTED);
+        assertThat(persisted.getInvoiceId()).isNotNull();
+        assertThat(rejected.getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(rejected.getErrorType()).isEqualTo("DuplicateInvoiceException");
+    }
+}
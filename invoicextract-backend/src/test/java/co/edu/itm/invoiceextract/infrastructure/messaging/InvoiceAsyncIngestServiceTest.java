@@ -0,0 +1,152 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging;
+
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceIngestStatusDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceIngestStatusDTO.Status;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceTrackingId;
+import co.edu.itm.invoiceextract.infrastructure.errors.ProcessingErrorLog;
+import co.edu.itm.invoiceextract.infrastructure.errors.ProcessingErrorLogRepository;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.mapper.InvoiceMessageMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceAsyncIngestServiceTest {
+
+    private static final long WRITTEN_AT = 1_700_000_000_000L;
+
+    @Mock
+    private KafkaTemplate<String, InvoiceMessage> kafkaTemplate;
+
+    @Mock
+    private InvoiceMessageMapper invoiceMessageMapper;
+
+    @Mock
+    private InvoiceIngestRecordRepository ingestRecordRepository;
+
+    @Mock
+    private ProcessingErrorLogRepository errorLogRepository;
+
+    @InjectMocks
+    private InvoiceAsyncIngestService service;
+
+    @Test
+    @DisplayName("should_key_record_by_document_number_and_track_it_by_offset")
+    void should_key_record_by_document_number_and_track_it_by_offset() {
+        // Given
+        InvoiceMessage message = new InvoiceMessage();
+        message.setDocumentNumber("INV-001");
+        given(invoiceMessageMapper.toMessage(any(InvoiceRequestDTO.class))).willReturn(message);
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("invoices", 2), 41L, 0, WRITTEN_AT, 0, 0);
+        given(kafkaTemplate.send("invoices", "INV-001", message)).willReturn(CompletableFuture.completedFuture(
+                new SendResult<>(new ProducerRecord<>("invoices", "INV-001", message), metadata)));
+
+        // When
+        InvoiceIngestStatusDTO status = service.submit(new InvoiceRequestDTO()).join();
+
+        // Then
+        assertThat(status.getStatus()).isEqualTo(Status.QUEUED);
+        assertThat(status.getPartition()).isEqualTo(2);
+        assertThat(status.getOffset()).isEqualTo(41L);
+        assertThat(InvoiceTrackingId.parse(status.getTrackingId()))
+                .isEqualTo(new InvoiceTrackingId(2, 41L, WRITTEN_AT, "INV-001"));
+    }
+
+    @Test
+    @DisplayName("should_fail_when_broker_does_not_acknowledge")
+    void should_fail_when_broker_does_not_acknowledge() {
+        // Given
+        InvoiceMessage message = new InvoiceMessage();
+        message.setDocumentNumber("INV-001");
+        given(invoiceMessageMapper.toMessage(any(InvoiceRequestDTO.class))).willReturn(message);
+        given(kafkaTemplate.send("invoices", "INV-001", message))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        // When / Then
+        assertThat(service.submit(new InvoiceRequestDTO())).isCompletedExceptionally();
+    }
+
+    @Test
+    @DisplayName("should_report_rejection_logged_at_record_offset")
+    void should_report_rejection_logged_at_record_offset() {
+        // Given
+        given(ingestRecordRepository.findFirstByTopicAndKafkaPartitionAndKafkaOffset("invoices", 0, 7L)).willReturn(Optional.empty());
+        ProcessingErrorLog errorLog = new ProcessingErrorLog();
+        errorLog.setErrorType("DuplicateInvoiceException");
+        errorLog.setErrorMessage("Invoice with document number INV-001 already exists");
+        given(errorLogRepository.findFirstByTopicAndKafkaPartitionAndKafkaOffset("invoices", 0, 7L))
+                .willReturn(Optional.of(errorLog));
+
+        // When
+        InvoiceIngestStatusDTO status = service.status(new InvoiceTrackingId(0, 7L, WRITTEN_AT, "INV-001").toString());
+
+        // Then
+        assertThat(status.getStatus()).isEqualTo(Status.REJECTED);
+        assertThat(status.getErrorType()).isEqualTo("DuplicateInvoiceException");
+    }
+
+    @Test
+    @DisplayName("should_report_persisted_from_the_record_stored_at_its_offset")
+    void should_report_persisted_from_the_record_stored_at_its_offset() {
+        // Given the invoice was stored from this record, whatever its created date
+        InvoiceIngestRecord stored = InvoiceIngestRecord.of("invoices", 0, 7L);
+        stored.setInvoiceId(15L);
+        given(ingestRecordRepository.findFirstByTopicAndKafkaPartitionAndKafkaOffset("invoices", 0, 7L)).willReturn(Optional.of(stored));
+
+        // When
+        InvoiceIngestStatusDTO status = service.status(new InvoiceTrackingId(0, 7L, WRITTEN_AT, "INV-001").toString());
+
+        // Then a duplicate logged on redelivery of the same record does not matter
+        assertThat(status.getStatus()).isEqualTo(Status.PERSISTED);
+        assertThat(status.getInvoiceId()).isEqualTo(15L);
+        verify(errorLogRepository, never()).findFirstByTopicAndKafkaPartitionAndKafkaOffset(any(), anyInt(), anyLong());
+    }
+
+    @Test
+    @DisplayName("should_stay_queued_until_the_record_is_stored_or_rejected")
+    void should_stay_queued_until_the_record_is_stored_or_rejected() {
+        // Given
+        given(ingestRecordRepository.findFirstByTopicAndKafkaPartitionAndKafkaOffset("invoices", 0, 7L)).willReturn(Optional.empty());
+        given(errorLogRepository.findFirstByTopicAndKafkaPartitionAndKafkaOffset("invoices", 0, 7L)).willReturn(Optional.empty());
+
+        // When
+        InvoiceIngestStatusDTO status = service.status(new InvoiceTrackingId(0, 7L, WRITTEN_AT, "INV-001").toString());
+
+        // Then
+        assertThat(status.getStatus()).isEqualTo(Status.QUEUED);
+        assertThat(status.getInvoiceId()).isNull();
+    }
+
+    @Test
+    @DisplayName("should_round_trip_tracking_id_and_reject_malformed_ones")
+    void should_round_trip_tracking_id_and_reject_malformed_ones() {
+        InvoiceTrackingId trackingId = new InvoiceTrackingId(1, 99L, WRITTEN_AT, "FE:2024/001");
+
+        assertThat(InvoiceTrackingId.parse(trackingId.toString())).isEqualTo(trackingId);
+        assertThat(trackingId.toString()).matches("[A-Za-z0-9_-]+");
+        assertThatThrownBy(() -> service.status("not a tracking id")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> InvoiceTrackingId.parse("bm9wZQ")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
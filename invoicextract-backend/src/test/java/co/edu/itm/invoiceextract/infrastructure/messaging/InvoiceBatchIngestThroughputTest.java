@@ -0,0 +1,118 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging;
+
+import co.edu.itm.invoiceextract.application.testutil.InvoiceIntegrationTest;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceItemRepository;
+import co.edu.itm.invoiceextract.domain.repository.invoices.InvoiceRepository;
+import co.edu.itm.invoiceextract.infrastructure.errors.ProcessingErrorLogRepository;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceItemMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockingDetails;
+
+@Slf4j
+@InvoiceIntegrationTest(partitions = 3)
+@TestPropertySource(properties = {
+        "invoices.consumer.batch-enabled=true",
+        "invoices.consumer.batch-size=500",
+        "invoices.consumer.linger-ms=100"
+})
+class InvoiceBatchIngestThroughputTest {
+
+    private static final int INVOICES = 3000;
+    private static final int MALFORMED = 10;
+    private static final int DUPLICATES = 10;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceItemRepository invoiceItemRepository;
+
+    @Autowired
+    private ProcessingErrorLogRepository errorLogRepository;
+
+    @SpyBean
+    private InvoiceMessagingAdapter invoiceMessagingAdapter;
+
+    private InvoiceMessage message(int n) {
+        InvoiceItemMessage item = new InvoiceItemMessage();
+        item.setItemCode("IT-" + n);
+        item.setDescription("Service " + n);
+        item.setQuantity(1);
+        item.setUnitPrice(new BigDecimal("100.00"));
+        item.setTotal(new BigDecimal("119.00"));
+        InvoiceMessage msg = new InvoiceMessage();
+        msg.setDocumentType("FACTURA");
+        msg.setDocumentNumber("BURST-" + n);
+        msg.setSenderTaxId("900123456");
+        msg.setReceiverTaxId("800765432");
+        msg.setAmount("238.00");
+        msg.setIssueDate(LocalDate.of(2024, 3, 31));
+        msg.setInvoiceItems(List.of(item, item));
+        return msg;
+    }
+
+    @Test
+    @DisplayName("should_ingest_month_end_burst_in_batches")
+    void should_ingest_month_end_burst_in_batches() throws Exception {
+        // Given a burst of valid invoices plus malformed and duplicate records
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        long start;
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(props, new StringSerializer(), new StringSerializer())) {
+            start = System.nanoTime();
+            for (int n = 0; n < INVOICES; n++) {
+                producer.send(new ProducerRecord<>("invoices", "BURST-" + n, objectMapper.writeValueAsString(message(n))));
+            }
+            for (int n = 0; n < MALFORMED; n++) {
+                producer.send(new ProducerRecord<>("invoices", "bad-" + n, "{not-json"));
+            }
+            for (int n = 0; n < DUPLICATES; n++) {
+                producer.send(new ProducerRecord<>("invoices", "BURST-" + n, objectMapper.writeValueAsString(message(n))));
+            }
+            producer.flush();
+        }
+
+        // When the listener drains the topic
+        long deadline = System.currentTimeMillis() + 60_000;
+        while ((invoiceRepository.count() < INVOICES || errorLogRepository.count() < MALFORMED + DUPLICATES)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // Then every invoice is stored once, failures are logged and polls were handled as batches
+        assertThat(invoiceRepository.count()).isEqualTo(INVOICES);
+        assertThat(invoiceItemRepository.count()).isEqualTo(INVOICES * 2L);
+        assertThat(errorLogRepository.count()).isEqualTo(MALFORMED + DUPLICATES);
+        long batchCalls = mockingDetails(invoiceMessagingAdapter).getInvocations().stream()
+                .filter(i -> i.getMethod().getName().equals("processInvoices"))
+                .count();
+        assertThat(batchCalls).isLessThan(INVOICES / 10);
+        log.info("Ingested {} invoices in {} batches: {} s, {} invoices/s",
+                INVOICES, batchCalls, String.format("%.2f", seconds), String.format("%.0f", INVOICES / seconds));
+    }
+}
@@ -1,19 +1,41 @@
 package co.edu.itm.invoiceextract.infrastructure.messaging;
 
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics;
 import co.edu.itm.invoiceextract.infrastructure.errors.ProcessingErrorLog;
 import co.edu.itm.invoiceextract.infrastructure.errors.ProcessingErrorLogRepository;
 import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.serde.InvoiceMessageAvroCodec;
+import co.edu.itm.invoiceextract.infrastructure.messaging.serde.InvoiceMessageFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
@@ -30,9 +52,34 @@ class InvoiceListenerTest {
     @Mock
     private ProcessingErrorLogRepository errorLogRepository;
 
+    @Mock
+    private Consumer<?, ?> consumer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private InvoiceIngestMetrics ingestMetrics = new InvoiceIngestMetrics(meterRegistry);
+
+    @Spy
+    private InvoiceMessageAvroCodec avroCodec = new InvoiceMessageAvroCodec();
+
     @InjectMocks
     private InvoiceListener listener;
 
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ConsumerRecord<String, byte[]> record(int partition, long offset, long timestamp, byte[] value,
+                                                         Headers headers) {
+        return new ConsumerRecord<>("invoices", partition, offset, timestamp, TimestampType.CREATE_TIME,
+                0, value.length, null, value, headers, Optional.empty());
+    }
+
+    private static ConsumerRecord<String, byte[]> record(int partition, long offset, long timestamp, String json) {
+        return record(partition, offset, timestamp, bytes(json), new RecordHeaders());
+    }
+
     @Test
     @DisplayName("should_process_message_successfully")
     void should_process_message_successfully() throws Exception {
@@ -40,13 +87,14 @@ class InvoiceListenerTest {
         String json = "{\"email\":\"john@example.com\"}";
         InvoiceMessage msg = new InvoiceMessage();
         msg.setEmail("john@example.com");
-        given(objectMapper.readValue(json, InvoiceMessage.class)).willReturn(msg);
+        given(objectMapper.readValue(aryEq(bytes(json)), eq(InvoiceMessage.class))).willReturn(msg);
 
         // When
-        listener.listen(json, "invoices", 0, 123L);
+        listener.listen(record(0, 123L, 1_000L, json), consumer);
 
-        // Then
-        verify(invoiceMessagingAdapter).processInvoice(any(InvoiceMessage.class));
+        // Then the invoice is stored with the record it came from
+        verify(invoiceMessagingAdapter).processInvoice(any(InvoiceMessage.class), argThat(source ->
+                "invoices".equals(source.getTopic()) && source.getKafkaPartition() == 0 && source.getKafkaOffset() == 123L));
         verify(errorLogRepository, never()).save(any());
     }
 
@@ -57,11 +105,11 @@ class InvoiceListenerTest {
         String json = "{\"email\":\"bad@example.com\"}";
         InvoiceMessage msg = new InvoiceMessage();
         msg.setEmail("bad@example.com");
-        given(objectMapper.readValue(json, InvoiceMessage.class)).willReturn(msg);
-        doThrow(new RuntimeException("boom")).when(invoiceMessagingAdapter).processInvoice(any(InvoiceMessage.class));
+        given(objectMapper.readValue(aryEq(bytes(json)), eq(InvoiceMessage.class))).willReturn(msg);
+        doThrow(new RuntimeException("boom")).when(invoiceMessagingAdapter).processInvoice(any(InvoiceMessage.class), any());
 
         // When
-        listener.listen(json, "invoices", 1, 456L);
+        listener.listen(record(1, 456L, 1_000L, json), consumer);
 
         // Then
         ArgumentCaptor<ProcessingErrorLog> captor = ArgumentCaptor.forClass(ProcessingErrorLog.class);
@@ -80,10 +128,10 @@ class InvoiceListenerTest {
     void should_save_error_log_when_deserialization_fails() throws Exception {
         // Given ObjectMapper throws
         String json = "{not-json}";
-        given(objectMapper.readValue(json, InvoiceMessage.class)).willThrow(new RuntimeException("json error"));
+        given(objectMapper.readValue(aryEq(bytes(json)), eq(InvoiceMessage.class))).willThrow(new RuntimeException("json error"));
 
         // When
-        listener.listen(json, "invoices", 2, 789L);
+        listener.listen(record(2, 789L, 1_000L, json), consumer);
 
         // Then
         ArgumentCaptor<ProcessingErrorLog> captor = ArgumentCaptor.forClass(ProcessingErrorLog.class);
@@ -96,4 +144,155 @@ class InvoiceListenerTest {
         assertThat(saved.getErrorType()).isEqualTo("RuntimeException");
         assertThat(saved.getErrorMessage()).contains("json error");
     }
+
+    private static ConsumerRecord<String, byte[]> record(long offset, String value) {
+        return new ConsumerRecord<>("invoices", 0, offset, null, bytes(value));
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset, long timestamp, String value) {
+        return record(0, offset, timestamp, value);
+    }
+
+    @Test
+    @DisplayName("should_process_whole_batch_in_one_call")
+    void should_process_whole_batch_in_one_call() throws Exception {
+        // Given
+        given(objectMapper.readValue(any(byte[].class), eq(InvoiceMessage.class))).willReturn(new InvoiceMessage());
+        given(invoiceMessagingAdapter.processInvoices(anyList(), anyList())).willReturn(Map.of());
+
+        // When
+        listener.listenBatch(List.of(record(1, "{\"a\":1}"), record(2, "{\"a\":2}")), consumer);
+
+        // Then
+        verify(invoiceMessagingAdapter).processInvoices(argThat(list -> list.size() == 2),
+                argThat(sources -> sources.stream().map(InvoiceIngestRecord::getKafkaOffset).toList().equals(List.of(1L, 2L))));
+        verify(invoiceMessagingAdapter, never()).processInvoice(any(), any());
+        verify(errorLogRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("should_log_deserialization_and_batch_failures_per_record")
+    void should_log_deserialization_and_batch_failures_per_record() throws Exception {
+        // Given offset 2 is not JSON and the batch rejects the message from offset 3
+        given(objectMapper.readValue(any(byte[].class), eq(InvoiceMessage.class))).willAnswer(inv -> {
+            if ("{bad}".equals(new String(inv.<byte[]>getArgument(0), StandardCharsets.UTF_8))) throw new RuntimeException("json error");
+            return new InvoiceMessage();
+        });
+        given(invoiceMessagingAdapter.processInvoices(anyList(), anyList()))
+                .willReturn(Map.of(1, new IllegalArgumentException("duplicate")));
+
+        // When
+        listener.listenBatch(List.of(record(1, "{\"a\":1}"), record(2, "{bad}"), record(3, "{\"a\":3}")), consumer);
+
+        // Then
+        ArgumentCaptor<ProcessingErrorLog> captor = ArgumentCaptor.forClass(ProcessingErrorLog.class);
+        verify(errorLogRepository, times(2)).save(captor.capture());
+        assertThat(captor.getAllValues()).extracting(ProcessingErrorLog::getKafkaOffset).containsExactly(2L, 3L);
+        assertThat(captor.getAllValues()).extracting(ProcessingErrorLog::getErrorType)
+                .containsExactly("RuntimeException", "IllegalArgumentException");
+    }
+
+    @Test
+    @DisplayName("should_retry_one_by_one_when_batch_transaction_fails")
+    void should_retry_one_by_one_when_batch_transaction_fails() throws Exception {
+        // Given
+        InvoiceMessage good = new InvoiceMessage();
+        good.setEmail("good@example.com");
+        InvoiceMessage bad = new InvoiceMessage();
+        bad.setEmail("bad@example.com");
+        given(objectMapper.readValue(aryEq(bytes("good")), eq(InvoiceMessage.class))).willReturn(good);
+        given(objectMapper.readValue(aryEq(bytes("bad")), eq(InvoiceMessage.class))).willReturn(bad);
+        given(invoiceMessagingAdapter.processInvoices(anyList(), anyList())).willThrow(new RuntimeException("constraint violation"));
+        lenient().doThrow(new RuntimeException("boom")).when(invoiceMessagingAdapter).processInvoice(eq(bad), any());
+
+        // When
+        listener.listenBatch(List.of(record(7, "good"), record(8, "bad")), consumer);
+
+        // Then
+        verify(invoiceMessagingAdapter).processInvoice(eq(good), argThat(source -> source.getKafkaOffset() == 7L));
+        ArgumentCaptor<ProcessingErrorLog> captor = ArgumentCaptor.forClass(ProcessingErrorLog.class);
+        verify(errorLogRepository).save(captor.capture());
+        assertThat(captor.getValue().getKafkaOffset()).isEqualTo(8L);
+        assertThat(captor.getValue().getErrorMessage()).isEqualTo("boom");
+    }
+
+    @Test
+    @DisplayName("should_record_ingest_metrics_for_batch")
+    void should_record_ingest_metrics_for_batch() throws Exception {
+        // Given the second record is rejected and the consumer is 42 records behind
+        given(objectMapper.readValue(any(byte[].class), eq(InvoiceMessage.class))).willReturn(new InvoiceMessage());
+        given(invoiceMessagingAdapter.processInvoices(anyList(), anyList()))
+                .willReturn(Map.of(1, new IllegalArgumentException("duplicate")));
+        given(consumer.currentLag(new TopicPartition("invoices", 0))).willReturn(OptionalLong.of(42));
+        long timestamp = System.currentTimeMillis() - 5_000;
+
+        // When
+        listener.listenBatch(List.of(record(1, timestamp, "{\"a\":1}"), record(2, timestamp, "{\"a\":2}")), consumer);
+
+        // Then
+        assertThat(meterRegistry.get("invoices.ingest.deserialize").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("invoices.ingest.listen").tag("mode", "batch").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("invoices.ingest.latency").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("invoices.ingest.latency").timer().max(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(5_000);
+        assertThat(meterRegistry.get("invoices.ingest.error_log").tag("error_type", "IllegalArgumentException")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("invoices.ingest.lag").tag("partition", "0").gauge().value()).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("should_not_record_latency_when_single_message_fails")
+    void should_not_record_latency_when_single_message_fails() throws Exception {
+        // Given
+        String json = "{\"email\":\"bad@example.com\"}";
+        given(objectMapper.readValue(aryEq(bytes(json)), eq(InvoiceMessage.class))).willReturn(new InvoiceMessage());
+        doThrow(new RuntimeException("boom")).when(invoiceMessagingAdapter).processInvoice(any(InvoiceMessage.class), any());
+
+        // When
+        listener.listen(record(0, 1L, System.currentTimeMillis(), json), consumer);
+
+        // Then
+        assertThat(meterRegistry.get("invoices.ingest.latency").timer().count()).isZero();
+        assertThat(meterRegistry.get("invoices.ingest.listen").tag("mode", "single").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("invoices.ingest.error_log").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should_decode_avro_records_by_content_type_header")
+    void should_decode_avro_records_by_content_type_header() throws Exception {
+        // Given an Avro record next to a JSON record from an older producer without the header
+        InvoiceMessage avroMessage = new InvoiceMessage();
+        avroMessage.setDocumentNumber("AVRO-1");
+        Headers avroHeaders = new RecordHeaders();
+        InvoiceMessageFormat.AVRO.writeTo(avroHeaders);
+        given(objectMapper.readValue(any(byte[].class), eq(InvoiceMessage.class))).willReturn(new InvoiceMessage());
+        given(invoiceMessagingAdapter.processInvoices(anyList(), anyList())).willReturn(Map.of());
+
+        // When
+        listener.listenBatch(List.of(record(0, 1L, 1_000L, avroCodec.encode(avroMessage), avroHeaders),
+                record(2L, "{\"documentNumber\":\"JSON-1\"}")), consumer);
+
+        // Then only the JSON record goes through Jackson
+        verify(objectMapper, times(1)).readValue(any(byte[].class), eq(InvoiceMessage.class));
+        verify(invoiceMessagingAdapter).processInvoices(argThat(list ->
+                list.size() == 2 && "AVRO-1".equals(list.get(0).getDocumentNumber())), anyList());
+    }
+
+    @Test
+    @DisplayName("should_store_undecodable_avro_payload_as_base64")
+    void should_store_undecodable_avro_payload_as_base64() {
+        // Given a record announced as Avro that is not
+        Headers headers = new RecordHeaders();
+        InvoiceMessageFormat.AVRO.writeTo(headers);
+        byte[] payload = {1, 2, 3};
+
+        // When
+        listener.listen(record(0, 5L, 1_000L, payload, headers), consumer);
+
+        // Then
+        ArgumentCaptor<ProcessingErrorLog> captor = ArgumentCaptor.forClass(ProcessingErrorLog.class);
+        verify(errorLogRepository).save(captor.capture());
+        assertThat(captor.getValue().getRawMessage()).isEqualTo(Base64.getEncoder().encodeToString(payload));
+        verify(invoiceMessagingAdapter, never()).processInvoice(any(), any());
+    }
 }
@@ -1,19 +1,30 @@
 package co.edu.itm.invoiceextract.infrastructure.messaging;
 
 import co.edu.itm.invoiceextract.application.dto.invoice.InvoiceRequestDTO;
+import co.edu.itm.invoiceextract.application.service.InvoiceIngestMetrics;
+import co.edu.itm.invoiceextract.application.usecase.invoice.InvoiceBatchResult;
 import co.edu.itm.invoiceextract.application.usecase.invoice.ManageInvoiceUseCase;
 import co.edu.itm.invoiceextract.domain.entity.invoice.Invoice;
 import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
 import co.edu.itm.invoiceextract.infrastructure.messaging.mapper.InvoiceMessageMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,25 +36,66 @@ class InvoiceMessagingAdapterTest {
     @Mock
     private InvoiceMessageMapper invoiceMessageMapper;
 
+    @Mock
+    private InvoiceIngestRecordRepository ingestRecordRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private InvoiceIngestMetrics ingestMetrics = new InvoiceIngestMetrics(meterRegistry);
+
     @InjectMocks
     private InvoiceMessagingAdapter adapter;
 
+    private static Invoice invoice(Long id) {
+        Invoice invoice = new Invoice();
+        invoice.setId(id);
+        return invoice;
+    }
+
     @Test
-    @DisplayName("should_map_message_and_create_invoice")
-    void should_map_message_and_create_invoice() {
+    @DisplayName("should_map_message_and_create_invoice_with_its_source_record")
+    void should_map_message_and_create_invoice_with_its_source_record() {
         // Given
         InvoiceMessage message = new InvoiceMessage();
         message.setSenderTaxId("123");
         InvoiceRequestDTO dto = new InvoiceRequestDTO();
         dto.setDocumentNumber("INV-001");
         given(invoiceMessageMapper.toDto(any(InvoiceMessage.class))).willReturn(dto);
-        given(manageInvoiceUseCase.createInvoice(any(InvoiceRequestDTO.class))).willReturn(new Invoice());
+        given(manageInvoiceUseCase.createInvoice(any(InvoiceRequestDTO.class))).willReturn(invoice(15L));
 
         // When
-        adapter.processInvoice(message);
+        adapter.processInvoice(message, InvoiceIngestRecord.of("invoices", 1, 7L));
 
         // Then
         verify(invoiceMessageMapper).toDto(any(InvoiceMessage.class));
         verify(manageInvoiceUseCase).createInvoice(any(InvoiceRequestDTO.class));
+        verify(ingestRecordRepository).save(argThat(source -> source.getKafkaOffset() == 7L && source.getInvoiceId() == 15L));
+        assertThat(meterRegistry.get("invoices.ingest.process").tag("mode", "single").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should_map_all_messages_and_return_batch_failures")
+    void should_map_all_messages_and_return_batch_failures() {
+        // Given
+        given(invoiceMessageMapper.toDto(any(InvoiceMessage.class))).willReturn(new InvoiceRequestDTO());
+        IllegalArgumentException rejected = new IllegalArgumentException("Document number is required");
+        given(manageInvoiceUseCase.createInvoices(anyList()))
+                .willReturn(new InvoiceBatchResult(List.of(invoice(20L), invoice(21L)), Map.of(1, rejected)));
+
+        // When
+        Map<Integer, RuntimeException> failures = adapter.processInvoices(
+                List.of(new InvoiceMessage(), new InvoiceMessage(), new InvoiceMessage()),
+                List.of(InvoiceIngestRecord.of("invoices", 0, 10L), InvoiceIngestRecord.of("invoices", 0, 11L),
+                        InvoiceIngestRecord.of("invoices", 0, 12L)));
+
+        // Then only the stored invoices get a source record, matched past the rejected position
+        assertThat(failures).containsEntry(1, rejected);
+        verify(invoiceMessageMapper, times(3)).toDto(any(InvoiceMessage.class));
+        verify(manageInvoiceUseCase).createInvoices(argThat(list -> list.size() == 3));
+        verify(ingestRecordRepository).saveAll(argThat((List<InvoiceIngestRecord> sources) ->
+                sources.size() == 2
+                        && sources.get(0).getKafkaOffset() == 10L && sources.get(0).getInvoiceId() == 20L
+                        && sources.get(1).getKafkaOffset() == 12L && sources.get(1).getInvoiceId() == 21L));
     }
 }
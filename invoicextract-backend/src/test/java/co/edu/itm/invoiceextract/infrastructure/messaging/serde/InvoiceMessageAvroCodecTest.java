@@ -0,0 +1,122 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging.serde;
+
+import co.edu.itm.invoiceextract.domain.enums.InvoiceStatus;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceItemMessage;
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InvoiceMessageAvroCodecTest {
+
+    private final InvoiceMessageAvroCodec codec = new InvoiceMessageAvroCodec();
+
+    static InvoiceMessage sampleMessage(int items) {
+        InvoiceMessage message = new InvoiceMessage();
+        message.setEmail("facturas@proveedor.com");
+        message.setDate(LocalDateTime.of(2024, 3, 31, 23, 59, 58, 123_456_000));
+        message.setStatus(InvoiceStatus.PENDING);
+        message.setInvoicePathPDF("invoices/2024/03/FE-10293.pdf");
+        message.setDocumentType("FACTURA");
+        message.setDocumentNumber("FE-10293");
+        message.setReceiverTaxId("800765432-1");
+        message.setReceiverTaxIdWithoutCheckDigit("800765432");
+        message.setReceiverBusinessName("Cliente Ejemplo S.A.S.");
+        message.setSenderTaxId("900123456-7");
+        message.setSenderTaxIdWithoutCheckDigit("900123456");
+        message.setSenderBusinessName("Proveedor Ejemplo S.A.");
+        message.setAmount("1190000.00");
+        message.setIssueDate(LocalDate.of(2024, 3, 31));
+        message.setDueDate(LocalDate.of(2024, 4, 30));
+        InvoiceItemMessage[] lines = new InvoiceItemMessage[items];
+        for (int i = 0; i < items; i++) {
+            InvoiceItemMessage item = new InvoiceItemMessage();
+            item.setItemCode("SRV-" + i);
+            item.setDescription("Servicio de soporte mensual " + i);
+            item.setQuantity(i + 1);
+            item.setUnit("UND");
+            item.setUnitPrice(new BigDecimal("100000.00"));
+            item.setSubtotal(new BigDecimal("100000.00"));
+            item.setTaxAmount(new BigDecimal("19000.00"));
+            item.setTotal(new BigDecimal("119000.00"));
+            lines[i] = item;
+        }
+        message.setInvoiceItems(Arrays.asList(lines));
+        return message;
+    }
+
+    @Test
+    @DisplayName("should_round_trip_every_field")
+    void should_round_trip_every_field() throws Exception {
+        // Given
+        InvoiceMessage message = sampleMessage(3);
+        message.setInvoiceItem(message.getInvoiceItems().get(0));
+        message.getInvoiceItems().get(1).setTaxAmount(new BigDecimal("0.000"));
+
+        // When
+        InvoiceMessage decoded = codec.decode(codec.encode(message));
+
+        // Then decimals keep their scale and timestamps their microseconds
+        assertThat(decoded).isEqualTo(message);
+        assertThat(decoded.getInvoiceItems().get(1).getTaxAmount().scale()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should_round_trip_empty_message")
+    void should_round_trip_empty_message() throws Exception {
+        InvoiceMessage decoded = codec.decode(codec.encode(new InvoiceMessage()));
+
+        assertThat(decoded).isEqualTo(new InvoiceMessage());
+    }
+
+    @Test
+    @DisplayName("should_declare_every_invoice_status")
+    void should_declare_every_invoice_status() {
+        Schema status = codec.getSchema().getField("status").schema().getTypes().get(1);
+
+        assertThat(status.getEnumSymbols())
+                .containsExactlyElementsOf(Arrays.stream(InvoiceStatus.values()).map(Enum::name).toList());
+    }
+
+    @Test
+    @DisplayName("should_be_much_smaller_than_json")
+    void should_be_much_smaller_than_json() {
+        // Given the JSON the topic carried so far
+        InvoiceMessage message = sampleMessage(5);
+        byte[] json;
+        try (JsonSerializer<InvoiceMessage> serializer = new JsonSerializer<>()) {
+            json = serializer.serialize("invoices", message);
+        }
+
+        // When
+        byte[] avro = codec.encode(message);
+
+        // Then field names are not repeated in every record
+        assertThat(avro.length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    @DisplayName("should_reject_payload_that_is_not_avro")
+    void should_reject_payload_that_is_not_avro() {
+        byte[] json = "{\"documentNumber\":\"FE-1\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> codec.decode(json)).isInstanceOf(AvroRuntimeException.class);
+    }
+
+    @Test
+    @DisplayName("should_encode_null_as_tombstone")
+    void should_encode_null_as_tombstone() {
+        assertThat(codec.encode(null)).isNull();
+    }
+}
@@ -0,0 +1,53 @@
+package co.edu.itm.invoiceextract.infrastructure.messaging.serde;
+
+import co.edu.itm.invoiceextract.infrastructure.messaging.dto.InvoiceMessage;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceMessageSerializerTest {
+
+    private final InvoiceMessageAvroCodec codec = new InvoiceMessageAvroCodec();
+
+    @Test
+    @DisplayName("should_write_same_json_as_before_and_announce_it")
+    void should_write_same_json_as_before_and_announce_it() {
+        // Given
+        InvoiceMessage message = InvoiceMessageAvroCodecTest.sampleMessage(2);
+        Headers headers = new RecordHeaders();
+
+        // When
+        byte[] value;
+        try (InvoiceMessageSerializer serializer = new InvoiceMessageSerializer(InvoiceMessageFormat.JSON, codec);
+             JsonSerializer<InvoiceMessage> previous = new JsonSerializer<>()) {
+            value = serializer.serialize("invoices", headers, message);
+
+            // Then
+            assertThat(value).isEqualTo(previous.serialize("invoices", message));
+        }
+        assertThat(InvoiceMessageFormat.of(headers)).isEqualTo(InvoiceMessageFormat.JSON);
+    }
+
+    @Test
+    @DisplayName("should_write_avro_when_configured")
+    void should_write_avro_when_configured() throws Exception {
+        // Given
+        InvoiceMessage message = InvoiceMessageAvroCodecTest.sampleMessage(2);
+        Headers headers = new RecordHeaders();
+
+        // When
+        byte[] value;
+        try (InvoiceMessageSerializer serializer = new InvoiceMessageSerializer(InvoiceMessageFormat.fromConfig("avro"), codec)) {
+            value = serializer.serialize("invoices", headers, message);
+        }
+
+        // Then
+        assertThat(InvoiceMessageFormat.of(headers)).isEqualTo(InvoiceMessageFormat.AVRO);
+        assertThat(headers.headers(InvoiceMessageFormat.HEADER)).hasSize(1);
+        assertThat(codec.decode(value)).isEqualTo(message);
+    }
+}
@@ -1,8 +1,15 @@
 package co.edu.itm.adapters.in.rest;
 
 import co.edu.itm.application.usecase.ExportInvoicesUseCase;
+import co.edu.itm.application.usecase.ExportMode;
+import co.edu.itm.application.usecase.ExportResult;
+import co.edu.itm.domain.ports.ExportMetricsPort;
+import co.edu.itm.domain.ports.ExportMetricsPort.Recorder;
+import co.edu.itm.domain.ports.ExportMetricsPort.Stage;
 import co.edu.itm.domain.ports.ExportServicePort;
 import co.edu.itm.domain.ports.MappingRepositoryPort;
+import co.edu.itm.domain.ports.RowWriter;
+import co.edu.itm.domain.service.MappingPlan;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -17,9 +24,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/export")
@@ -29,16 +42,20 @@ public class ExportController {
     private final ExportInvoicesUseCase usecase;
     private final ExportServicePort exporter;
     private final MappingRepositoryPort mappingPort;
+    private final ExportMetricsPort metricsPort;
 
-    public ExportController(ExportInvoicesUseCase u, ExportServicePort e, MappingRepositoryPort m) {
+    public ExportController(ExportInvoicesUseCase u, ExportServicePort e, MappingRepositoryPort m, ExportMetricsPort x) {
         this.usecase = u;
         this.exporter = e;
         this.mappingPort = m;
+        this.metricsPort = x;
     }
 
     @GetMapping
     @Operation(summary = "Exportar facturas mapeadas",
-            description = "Devuelve las facturas aprobadas mapeadas para el ERP indicado en formato JSON o CSV.")
+            description = "Devuelve las facturas aprobadas mapeadas para el ERP indicado en formato JSON o CSV. " +
+                    "incremental=true solo incluye las modificadas desde la última exportación incremental; " +
+                    "resync=true exporta todo y reinicia esa marca.")
     @ApiResponse(responseCode = "200", description = "Exportación generada",
             content = {
                     @Content(mediaType = "application/json", schema = @Schema(implementation = Object.class)),
@@ -51,29 +68,165 @@ public class ExportController {
     public ResponseEntity<?> export(@RequestParam String erp,
                                   @RequestParam(defaultValue = "json") String format,
                                   @RequestParam(defaultValue = "false") boolean flatten,
-                                  @RequestParam(required = false, defaultValue = "false") boolean refresh) {
+                                  @RequestParam(required = false, defaultValue = "false") boolean refresh,
+                                  @RequestParam(required = false, defaultValue = "false") boolean incremental,
+                                  @RequestParam(required = false, defaultValue = "false") boolean resync) {
       long start = System.currentTimeMillis();
       if (refresh) {
           log.info("[export] refresh=true -> evict cache for erp={}", erp);
           mappingPort.invalidateCacheForErp(erp);
       }
-      log.info("[export] start erp={}, format={}, flatten={}", erp, format, flatten);
-      List<Map<String, Object>> rows = usecase.exportMapped(erp, flatten);
-      log.info("[export] mapped rows size={} (elapsed {} ms)", rows.size(), (System.currentTimeMillis() - start));
-      if (!rows.isEmpty()) {
-          Map<String, Object> first = rows.get(0);
-          log.debug("[export] first row keys sample={}", first.keySet());
+      ExportMode mode = modeOf(incremental, resync);
+      boolean csvFormat = "csv".equalsIgnoreCase(format);
+      log.info("[export] start erp={}, format={}, flatten={}, mode={}", erp, format, flatten, mode);
+      // Covers the export up to the encoded body; the body write itself shows up in http.server.requests
+      Recorder metrics = metricsPort.start(erp, csvFormat ? "csv" : "json");
+      try {
+          MappingPlan plan = usecase.planFor(erp, metrics);
+          List<Map<String, Object>> rows;
+          ExportResult result = null;
+          if (mode == ExportMode.FULL) {
+              rows = usecase.exportMapped(erp, plan, flatten, metrics);
+          } else {
+              rows = new ArrayList<>();
+              result = usecase.exportMapped(erp, plan, flatten, mode, rows::add, metrics);
+          }
+          log.info("[export] mapped rows size={} (elapsed {} ms)", rows.size(), (System.currentTimeMillis() - start));
+          if (!rows.isEmpty()) {
+              Map<String, Object> first = rows.get(0);
+              log.debug("[export] first row keys sample={}", first.keySet());
+          }
+          if (csvFormat) {
+              byte[] csv = timed(metrics, Stage.SERIALIZE, () -> exporter.toCsv(plan.outputKeys(), rows));
+              log.info("[export] responding CSV bytes={} (rows={})", csv.length, rows.size());
+              metrics.finish(rows.size());
+              ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                      .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=export.csv")
+                      .contentType(MediaType.TEXT_PLAIN);
+              return result == null ? ok.body(csv) : ok.body(writeThenAdvance(csv, result));
+          }
+          String json = timed(metrics, Stage.SERIALIZE, () -> exporter.toJson(rows));
+          log.info("[export] responding JSON length={} (rows={})", json.length(), rows.size());
+          metrics.finish(rows.size());
+          if (result == null) return ResponseEntity.ok(json);
+          return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                  .body(writeThenAdvance(json.getBytes(StandardCharsets.UTF_8), result));
+      } catch (RuntimeException e) {
+          metrics.fail();
+          throw e;
       }
-      if ("csv".equalsIgnoreCase(format)) {
-          byte[] csv = exporter.toCsv(rows);
-          log.info("[export] responding CSV bytes={} (rows={})", csv.length, rows.size());
-          return ResponseEntity.ok()
-                  .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=export.csv")
-                  .contentType(MediaType.TEXT_PLAIN)
-                  .body(csv);
-      }
-      String json = exporter.toJson(rows);
-      log.info("[export] responding JSON length={} (rows={})", json.length(), rows.size());
-      return ResponseEntity.ok(json);
   }
+
+    @GetMapping("/stream")
+    @Operation(summary = "Exportar facturas mapeadas en streaming",
+            description = "Escribe cada factura mapeada directamente en la respuesta (JSON o CSV) sin construir la lista completa en memoria.")
+    @ApiResponse(responseCode = "200", description = "Exportación en curso",
+            content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = Object.class)),
+                    @Content(mediaType = "text/plain")
+            })
+    @ApiResponse(responseCode = "400", description = "Solicitud inválida", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Error interno", content = @Content)
+    public ResponseEntity<StreamingResponseBody> exportStream(@RequestParam String erp,
+                                                              @RequestParam(defaultValue = "json") String format,
+                                                              @RequestParam(defaultValue = "false") boolean flatten,
+                                                              @RequestParam(required = false, defaultValue = "false") boolean refresh,
+                                                              @RequestParam(required = false, defaultValue = "false") boolean incremental,
+                                                              @RequestParam(required = false, defaultValue = "false") boolean resync) {
+        if (refresh) {
+            log.info("[export] refresh=true -> evict cache for erp={}", erp);
+            mappingPort.invalidateCacheForErp(erp);
+        }
+        boolean csv = "csv".equalsIgnoreCase(format);
+        ExportMode mode = modeOf(incremental, resync);
+        log.info("[export] stream start erp={}, format={}, flatten={}, mode={}", erp, format, flatten, mode);
+        Recorder metrics = metricsPort.start(erp, csv ? "csv" : "json");
+        StreamingResponseBody body = out -> {
+            long start = System.currentTimeMillis();
+            ExportResult result;
+            TimedRowWriter timing;
+            try {
+                MappingPlan plan = usecase.planFor(erp, metrics);
+                timing = new TimedRowWriter(csv ? exporter.csvWriter(out, plan.outputKeys()) : exporter.jsonWriter(out));
+                try (RowWriter writer = timing) {
+                    result = usecase.exportMapped(erp, plan, flatten, mode, row -> {
+                        try {
+                            writer.write(row);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, metrics);
+                }
+                // Only once the writer wrote the trailer and flushed, so a failed response is exported again
+                usecase.advanceWatermark(result);
+            } catch (UncheckedIOException e) {
+                metrics.fail();
+                throw e.getCause();
+            } catch (IOException | RuntimeException e) {
+                metrics.fail();
+                throw e;
+            }
+            metrics.record(Stage.WRITE, timing.nanos);
+            metrics.finish(result.getCount());
+            log.info("[export] stream done erp={} rows={} (elapsed {} ms)", erp, result.getCount(), (System.currentTimeMillis() - start));
+        };
+        if (csv) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=export.csv")
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(body);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Watermarked buffered exports move the watermark only after the encoded body reached the client
+    private StreamingResponseBody writeThenAdvance(byte[] body, ExportResult result) {
+        return out -> {
+            out.write(body);
+            out.flush();
+            usecase.advanceWatermark(result);
+        };
+    }
+
+    private static <T> T timed(Recorder metrics, Stage stage, Supplier<T> step) {
+        long s = System.nanoTime();
+        T result = step.get();
+        metrics.record(stage, System.nanoTime() - s);
+        return result;
+    }
+
+    private static ExportMode modeOf(boolean incremental, boolean resync) {
+        if (resync) return ExportMode.RESYNC;
+        return incremental ? ExportMode.INCREMENTAL : ExportMode.FULL;
+    }
+
+    // Adds up the time spent encoding and writing rows, including the trailer and final flush on close
+    private static final class TimedRowWriter implements RowWriter {
+        private final RowWriter delegate;
+        private long nanos;
+
+        TimedRowWriter(RowWriter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(Map<String, Object> row) throws IOException {
+            long s = System.nanoTime();
+            try {
+                delegate.write(row);
+            } finally {
+                nanos += System.nanoTime() - s;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            long s = System.nanoTime();
+            try {
+                delegate.close();
+            } finally {
+                nanos += System.nanoTime() - s;
+            }
+        }
+    }
 }
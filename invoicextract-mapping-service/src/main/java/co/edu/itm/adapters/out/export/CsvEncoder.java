@@ -0,0 +1,235 @@
+package co.edu.itm.adapters.out.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes CSV records as UTF-8 straight into a byte buffer, with RFC-4180 quoting
+ * (fields containing comma, quote or line breaks are wrapped in quotes and inner quotes
+ * doubled). Numbers, {@link BigDecimal} and {@link LocalDate} are written digit by digit
+ * instead of going through {@code toString}. Records end with {@code \n}.
+ *
+ * <p>Bound to an {@link OutputStream}, the buffer is reused and flushed whenever it fills
+ * up; without one it grows and {@link #toByteArray()} returns the encoded bytes.
+ */
+final class CsvEncoder {
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private byte[] buf;
+    private int len;
+    // Scratch space for digits, written right to left
+    private final byte[] digits = new byte[20];
+
+    CsvEncoder(OutputStream out) {
+        this.out = out;
+        this.buf = new byte[DEFAULT_BUFFER_SIZE];
+    }
+
+    CsvEncoder(int initialCapacity) {
+        this.out = null;
+        this.buf = new byte[Math.max(64, initialCapacity)];
+    }
+
+    void writeHeader(List<String> headers) throws IOException {
+        for (int i = 0; i < headers.size(); i++) {
+            if (i > 0) put((byte) ',');
+            writeText(headers.get(i));
+        }
+        put((byte) '\n');
+    }
+
+    void writeRow(List<String> headers, Map<String, Object> row) throws IOException {
+        for (int i = 0; i < headers.size(); i++) {
+            if (i > 0) put((byte) ',');
+            writeValue(row.get(headers.get(i)));
+        }
+        put((byte) '\n');
+    }
+
+    void writeValue(Object v) throws IOException {
+        if (v == null) return;
+        if (v instanceof String s) {
+            writeText(s);
+        } else if (v instanceof BigDecimal d) {
+            writeDecimal(d);
+        } else if (v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte) {
+            writeLong(((Number) v).longValue());
+        } else if (v instanceof LocalDate d) {
+            writeDate(d);
+        } else if (v instanceof Boolean b) {
+            writeAscii(b ? "true" : "false");
+        } else {
+            writeText(v.toString());
+        }
+    }
+
+    void flush() throws IOException {
+        if (out == null) return;
+        if (len > 0) {
+            out.write(buf, 0, len);
+            len = 0;
+        }
+        out.flush();
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, len);
+    }
+
+    // ---- Text ----
+
+    private void writeText(String s) throws IOException {
+        if (!needsQuotes(s)) {
+            writeUtf8(s, false);
+            return;
+        }
+        put((byte) '"');
+        writeUtf8(s, true);
+        put((byte) '"');
+    }
+
+    private static boolean needsQuotes(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    private void writeUtf8(String s, boolean doubleQuotes) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (doubleQuotes && c == '"') put((byte) '"');
+                put((byte) c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buf[len++] = (byte) (0xC0 | (c >> 6));
+                buf[len++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                ensure(4);
+                buf[len++] = (byte) (0xF0 | (cp >> 18));
+                buf[len++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[len++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[len++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, same replacement String.getBytes(UTF_8) uses
+                put((byte) '?');
+            } else {
+                ensure(3);
+                buf[len++] = (byte) (0xE0 | (c >> 12));
+                buf[len++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[len++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void writeAscii(String s) throws IOException {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) buf[len++] = (byte) s.charAt(i);
+    }
+
+    // ---- Numbers and dates ----
+
+    private void writeLong(long v) throws IOException {
+        if (v == Long.MIN_VALUE) {
+            writeAscii(Long.toString(v));
+            return;
+        }
+        if (v < 0) {
+            put((byte) '-');
+            v = -v;
+        }
+        int start = fillDigits(v);
+        ensure(digits.length - start);
+        System.arraycopy(digits, start, buf, len, digits.length - start);
+        len += digits.length - start;
+    }
+
+    // Plain notation (as toPlainString), never scientific
+    private void writeDecimal(BigDecimal d) throws IOException {
+        int scale = d.scale();
+        if (scale < 0 || scale > 18 || d.precision() > 18) {
+            writeAscii(d.toPlainString());
+            return;
+        }
+        long unscaled = scale == 0 ? d.longValue() : d.unscaledValue().longValue();
+        if (unscaled < 0) {
+            put((byte) '-');
+            unscaled = -unscaled;
+        }
+        int start = fillDigits(unscaled);
+        int count = digits.length - start;
+        int intDigits = count - scale;
+        ensure(count + 2 + Math.max(0, -intDigits));
+        if (intDigits <= 0) {
+            buf[len++] = '0';
+            buf[len++] = '.';
+            for (int i = intDigits; i < 0; i++) buf[len++] = '0';
+            System.arraycopy(digits, start, buf, len, count);
+            len += count;
+            return;
+        }
+        System.arraycopy(digits, start, buf, len, intDigits);
+        len += intDigits;
+        if (scale > 0) {
+            buf[len++] = '.';
+            System.arraycopy(digits, start + intDigits, buf, len, scale);
+            len += scale;
+        }
+    }
+
+    // ISO yyyy-MM-dd, as LocalDate.toString for four-digit years
+    private void writeDate(LocalDate d) throws IOException {
+        int year = d.getYear();
+        if (year < 0 || year > 9999) {
+            writeAscii(d.toString());
+            return;
+        }
+        ensure(10);
+        buf[len++] = (byte) ('0' + year / 1000);
+        buf[len++] = (byte) ('0' + year / 100 % 10);
+        buf[len++] = (byte) ('0' + year / 10 % 10);
+        buf[len++] = (byte) ('0' + year % 10);
+        buf[len++] = '-';
+        buf[len++] = (byte) ('0' + d.getMonthValue() / 10);
+        buf[len++] = (byte) ('0' + d.getMonthValue() % 10);
+        buf[len++] = '-';
+        buf[len++] = (byte) ('0' + d.getDayOfMonth() / 10);
+        buf[len++] = (byte) ('0' + d.getDayOfMonth() % 10);
+    }
+
+    // Writes the decimal digits of a non-negative value at the end of 'digits'; returns the first index
+    private int fillDigits(long v) {
+        int pos = digits.length;
+        do {
+            digits[--pos] = (byte) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        return pos;
+    }
+
+    // ---- Buffer ----
+
+    private void put(byte b) throws IOException {
+        ensure(1);
+        buf[len++] = b;
+    }
+
+    private void ensure(int n) throws IOException {
+        if (len + n <= buf.length) return;
+        if (out != null && n <= buf.length) {
+            out.write(buf, 0, len);
+            len = 0;
+            return;
+        }
+        buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + n));
+    }
+}
@@ -1,20 +1,24 @@
 package co.edu.itm.adapters.out.export;
 
 import co.edu.itm.domain.ports.ExportServicePort;
+import co.edu.itm.domain.ports.RowWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @Component
 public class ExportServiceAdapter implements ExportServicePort {
+    private static final long MAX_CSV_SIZE_HINT = 64L * 1024 * 1024;
     private final ObjectMapper mapper;
 
     public ExportServiceAdapter() {
@@ -25,16 +29,23 @@ public class ExportServiceAdapter implements ExportServicePort {
     }
 
     @Override
-    public byte[] toCsv(List<Map<String, Object>> rows) {
-        if (rows.isEmpty()) return new byte[0];
-        var headers = new ArrayList<>(rows.get(0).keySet());
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        out.writeBytes(String.join(",", headers).concat("\n").getBytes(StandardCharsets.UTF_8));
-        for (Map<String, Object> r : rows) {
-            List<String> vals = headers.stream().map(h -> Optional.ofNullable(r.get(h)).orElse("").toString()).toList();
-            out.writeBytes(String.join(",", vals).concat("\n").getBytes(StandardCharsets.UTF_8));
+    public byte[] toCsv(List<String> headers, List<Map<String, Object>> rows) {
+        if (headers.isEmpty()) {
+            if (rows.isEmpty()) return new byte[0];
+            headers = new ArrayList<>(rows.get(0).keySet());
         }
-        return out.toByteArray();
+        // Rough size hint to avoid most regrowth; the encoder still grows as needed
+        long estimate = Math.min(MAX_CSV_SIZE_HINT, (rows.size() + 1L) * headers.size() * 12L);
+        CsvEncoder csv = new CsvEncoder((int) estimate);
+        try {
+            csv.writeHeader(headers);
+            for (Map<String, Object> r : rows) {
+                csv.writeRow(headers, r);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return csv.toByteArray();
     }
 
     @Override
@@ -46,8 +57,77 @@ public class ExportServiceAdapter implements ExportServicePort {
         }
     }
 
+    @Override
+    public RowWriter jsonWriter(OutputStream out) {
+        return new JsonRowWriter(out);
+    }
+
+    @Override
+    public RowWriter csvWriter(OutputStream out, List<String> headers) {
+        return new CsvRowWriter(out, headers);
+    }
+
     @Override
     public void pushToErp(String erpName, List<Map<String, Object>> rows) {
         System.out.println("Pushing " + rows.size() + " rows to ERP " + erpName);
     }
+
+    // Writes a JSON array incrementally, one row object at a time
+    private final class JsonRowWriter implements RowWriter {
+        private final JsonGenerator gen;
+        private final ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        JsonRowWriter(OutputStream out) {
+            try {
+                this.gen = mapper.getFactory().createGenerator(out);
+                this.gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                this.gen.writeStartArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void write(Map<String, Object> row) throws IOException {
+            writer.writeValue(gen, row);
+        }
+
+        @Override
+        public void close() throws IOException {
+            gen.writeEndArray();
+            gen.close();
+        }
+    }
+
+    // Writes CSV incrementally through a reusable buffer; without headers they come from the first row, as in toCsv
+    private static final class CsvRowWriter implements RowWriter {
+        private final CsvEncoder csv;
+        private List<String> headers;
+        private boolean headerWritten;
+
+        CsvRowWriter(OutputStream out, List<String> headers) {
+            this.csv = new CsvEncoder(out);
+            this.headers = headers.isEmpty() ? null : headers;
+        }
+
+        @Override
+        public void write(Map<String, Object> row) throws IOException {
+            if (headers == null) headers = new ArrayList<>(row.keySet());
+            writeHeaderOnce();
+            csv.writeRow(headers, row);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Known columns still produce a header line when there are no rows
+            if (headers != null) writeHeaderOnce();
+            csv.flush();
+        }
+
+        private void writeHeaderOnce() throws IOException {
+            if (headerWritten) return;
+            csv.writeHeader(headers);
+            headerWritten = true;
+        }
+    }
 }
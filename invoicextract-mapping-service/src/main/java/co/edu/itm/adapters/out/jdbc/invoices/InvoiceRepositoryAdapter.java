@@ -3,6 +3,8 @@ package co.edu.itm.adapters.out.jdbc.invoices;
 import co.edu.itm.domain.model.Invoice;
 import co.edu.itm.domain.model.InvoiceItem;
 import co.edu.itm.domain.ports.InvoiceRepositoryPort;
+import co.edu.itm.infra.config.InvoicesDbProperties;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -13,15 +15,31 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Component
 public class InvoiceRepositoryAdapter implements InvoiceRepositoryPort {
+    static final int DEFAULT_ITEM_BATCH_SIZE = 500;
+
     private final JdbcTemplate jdbc;
+    private final int itemBatchSize;
+
+    public InvoiceRepositoryAdapter(JdbcTemplate jdbc) {
+        this(jdbc, DEFAULT_ITEM_BATCH_SIZE);
+    }
 
-    public InvoiceRepositoryAdapter(@Qualifier("invoicesJdbcTemplate") JdbcTemplate jdbc) {
+    @Autowired
+    public InvoiceRepositoryAdapter(@Qualifier("invoicesJdbcTemplate") JdbcTemplate jdbc, InvoicesDbProperties props) {
+        this(jdbc, props.getItemBatchSize());
+    }
+
+    InvoiceRepositoryAdapter(JdbcTemplate jdbc, int itemBatchSize) {
         this.jdbc = jdbc;
+        this.itemBatchSize = itemBatchSize > 0 ? itemBatchSize : DEFAULT_ITEM_BATCH_SIZE;
     }
 
     private static final RowMapper<Invoice> INVOICE_MAPPER = new RowMapper<>() {
@@ -52,10 +70,12 @@ public class InvoiceRepositoryAdapter implements InvoiceRepositoryPort {
         }
     };
 
-    private static final RowMapper<InvoiceItem> ITEM_MAPPER = new RowMapper<>() {
+    private record ItemRow(long invoiceId, InvoiceItem item) {}
+
+    private static final RowMapper<ItemRow> ITEM_MAPPER = new RowMapper<>() {
         @Override
-        public InvoiceItem mapRow(ResultSet rs, int rowNum) throws SQLException {
-            return InvoiceItem.builder()
+        public ItemRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new ItemRow(rs.getLong("invoice_id"), InvoiceItem.builder()
                     .id(rs.getLong("id"))
                     .itemCode(rs.getString("item_code"))
                     .description(rs.getString("description"))
@@ -65,27 +85,97 @@ public class InvoiceRepositoryAdapter implements InvoiceRepositoryPort {
                     .subtotal(rs.getBigDecimal("subtotal"))
                     .taxAmount(rs.getBigDecimal("tax_amount"))
                     .total(rs.getBigDecimal("total"))
-                    .build();
+                    .build());
         }
     };
 
+    private static final String INVOICE_SELECT = "SELECT id, document_type, document_number, receiver_tax_id, receiver_tax_id_without_check_digit, " +
+            "receiver_business_name, sender_tax_id, sender_tax_id_without_check_digit, sender_business_name, invoice_path_pdf, invoice_path_xml, " +
+            "related_document_number, amount, issue_date, due_date, status, created_date, modified_date, created_by, modified_by FROM invoices ";
+
+    private static final String APPROVED_SQL = INVOICE_SELECT + "WHERE status = 'APPROVED'";
+
+    // Keyset scan: resumes after the last id seen, served by idx_invoices_status_id
+    private static final String APPROVED_AFTER_SQL = INVOICE_SELECT + "WHERE status = 'APPROVED' AND id > ? ORDER BY id";
+
+    // Incremental scan after a (modified_date, id) watermark, served by idx_invoices_status_modified_id
+    private static final String APPROVED_MODIFIED_AFTER_SQL = INVOICE_SELECT + "WHERE status = 'APPROVED' AND modified_date <= ? " +
+            "AND (modified_date > ? OR (modified_date = ? AND id > ?)) ORDER BY modified_date, id";
+
     @Override
     public List<Invoice> findApproved() {
-        String sql = "SELECT id, document_type, document_number, receiver_tax_id, receiver_tax_id_without_check_digit, " +
-                "receiver_business_name, sender_tax_id, sender_tax_id_without_check_digit, sender_business_name, invoice_path_pdf, invoice_path_xml, " +
-                "related_document_number, amount, issue_date, due_date, status, created_date, modified_date, created_by, modified_by FROM invoices WHERE status = 'APPROVED'";
-        List<Invoice> invoices = jdbc.query(sql, INVOICE_MAPPER);
+        List<Invoice> invoices = jdbc.query(APPROVED_SQL, INVOICE_MAPPER);
 
         if (invoices.isEmpty()) return invoices;
 
-        // Fetch items per invoice
-        String itemsSql = "SELECT id, invoice_id, item_code, description, quantity, unit, unit_price, subtotal, tax_amount, total " +
-                "FROM invoice_items WHERE invoice_id = ?";
+        loadItems(invoices);
+        return invoices;
+    }
+
+    @Override
+    public List<Invoice> findApprovedAfter(long afterId, int limit) {
+        List<Invoice> page = jdbc.query(APPROVED_AFTER_SQL + " LIMIT ?", INVOICE_MAPPER, afterId, limit);
+        if (!page.isEmpty()) loadItems(page);
+        return page;
+    }
+
+    // Both scans read keyset pages of itemBatchSize invoices (one items query each) and hand a page
+    // to the consumer only once its statements are done, so no connection or cursor is held while
+    // the caller maps and writes rows, however slow its client is.
+    @Override
+    public void forEachApproved(long afterId, Consumer<Invoice> consumer) {
+        long last = afterId;
+        List<Invoice> page;
+        do {
+            page = findApprovedAfter(last, itemBatchSize);
+            if (page.isEmpty()) return;
+            page.forEach(consumer);
+            last = page.get(page.size() - 1).getId();
+        } while (page.size() == itemBatchSize);
+    }
+
+    @Override
+    public void forEachApprovedModifiedAfter(LocalDateTime modifiedDate, long afterId, LocalDateTime upTo, Consumer<Invoice> consumer) {
+        LocalDateTime lastModified = modifiedDate;
+        long last = afterId;
+        List<Invoice> page;
+        do {
+            page = jdbc.query(APPROVED_MODIFIED_AFTER_SQL + " LIMIT ?", INVOICE_MAPPER, upTo, lastModified, lastModified, last, itemBatchSize);
+            if (page.isEmpty()) return;
+            loadItems(page);
+            page.forEach(consumer);
+            Invoice tail = page.get(page.size() - 1);
+            lastModified = tail.getModifiedDate();
+            last = tail.getId();
+        } while (page.size() == itemBatchSize);
+    }
+
+    // Loads items for the given invoices with one "IN (...)" query per chunk of ids
+    private void loadItems(List<Invoice> invoices) {
+        Map<Long, List<InvoiceItem>> byInvoice = new HashMap<>(invoices.size() * 2);
+        for (int from = 0; from < invoices.size(); from += itemBatchSize) {
+            List<Invoice> chunk = invoices.subList(from, Math.min(from + itemBatchSize, invoices.size()));
+            Object[] ids = new Object[chunk.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = chunk.get(i).getId();
+            String itemsSql = "SELECT id, invoice_id, item_code, description, quantity, unit, unit_price, subtotal, tax_amount, total " +
+                    "FROM invoice_items WHERE invoice_id IN (" + placeholders(ids.length) + ") ORDER BY invoice_id, id";
+            for (ItemRow row : jdbc.query(itemsSql, ITEM_MAPPER, ids)) {
+                byInvoice.computeIfAbsent(row.invoiceId(), k -> new ArrayList<>()).add(row.item());
+            }
+        }
         for (Invoice inv : invoices) {
-            List<InvoiceItem> items = jdbc.query(itemsSql, ITEM_MAPPER, inv.getId());
-            inv.setItems(items);
+            List<InvoiceItem> items = byInvoice.get(inv.getId());
+            inv.setItems(items != null ? items : new ArrayList<>());
         }
-        return invoices;
+    }
+
+    private static String placeholders(int n) {
+        StringBuilder sb = new StringBuilder(n * 2);
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('?');
+        }
+        return sb.toString();
     }
 }
 
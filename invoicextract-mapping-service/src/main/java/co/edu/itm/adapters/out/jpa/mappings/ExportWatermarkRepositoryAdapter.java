@@ -0,0 +1,49 @@
+package co.edu.itm.adapters.out.jpa.mappings;
+
+import co.edu.itm.adapters.out.jpa.mappings.entity.ExportWatermarkEntity;
+import co.edu.itm.adapters.out.jpa.mappings.repo.ErpJpaRepository;
+import co.edu.itm.adapters.out.jpa.mappings.repo.ExportWatermarkJpaRepository;
+import co.edu.itm.domain.model.ExportWatermark;
+import co.edu.itm.domain.ports.ExportWatermarkPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Component
+public class ExportWatermarkRepositoryAdapter implements ExportWatermarkPort {
+    private static final Logger log = LoggerFactory.getLogger(ExportWatermarkRepositoryAdapter.class);
+    private final ErpJpaRepository erpRepo;
+    private final ExportWatermarkJpaRepository watermarkRepo;
+
+    public ExportWatermarkRepositoryAdapter(ErpJpaRepository e, ExportWatermarkJpaRepository w) {
+        this.erpRepo = e;
+        this.watermarkRepo = w;
+    }
+
+    @Override
+    public Optional<ExportWatermark> findByErpName(String erpName) {
+        Long erpId = erpRepo.findByNameIgnoreCase(erpName).orElseThrow().getId();
+        return watermarkRepo.findByErpId(erpId).map(e -> ExportWatermark.builder()
+                .erpId(e.getErpId())
+                .lastModifiedDate(e.getLastModifiedDate())
+                .lastInvoiceId(e.getLastInvoiceId())
+                .updatedAt(e.getUpdatedAt())
+                .build());
+    }
+
+    @Override
+    public void save(String erpName, LocalDateTime lastModifiedDate, long lastInvoiceId) {
+        Long erpId = erpRepo.findByNameIgnoreCase(erpName).orElseThrow().getId();
+        ExportWatermarkEntity e = watermarkRepo.findByErpId(erpId)
+                .orElseGet(() -> ExportWatermarkEntity.builder().erpId(erpId).build());
+        e.setLastModifiedDate(lastModifiedDate);
+        e.setLastInvoiceId(lastInvoiceId);
+        e.setUpdatedAt(Instant.now());
+        watermarkRepo.save(e);
+        log.info("[repo] watermark erp={} (id={}) -> modifiedDate={} invoiceId={}", erpName, erpId, lastModifiedDate, lastInvoiceId);
+    }
+}
@@ -0,0 +1,28 @@
+package co.edu.itm.adapters.out.jpa.mappings.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "export_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportWatermarkEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "erp_id", nullable = false, unique = true)
+    private Long erpId;
+    @Column(name = "last_modified_date", nullable = false)
+    private LocalDateTime lastModifiedDate;
+    @Column(name = "last_invoice_id", nullable = false)
+    private Long lastInvoiceId;
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
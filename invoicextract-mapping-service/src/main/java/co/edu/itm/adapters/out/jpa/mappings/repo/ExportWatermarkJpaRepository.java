@@ -0,0 +1,10 @@
+package co.edu.itm.adapters.out.jpa.mappings.repo;
+
+import co.edu.itm.adapters.out.jpa.mappings.entity.ExportWatermarkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ExportWatermarkJpaRepository extends JpaRepository<ExportWatermarkEntity, Long> {
+    Optional<ExportWatermarkEntity> findByErpId(Long erpId);
+}
@@ -0,0 +1,88 @@
+package co.edu.itm.adapters.out.metrics;
+
+import co.edu.itm.domain.ports.ExportMetricsPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes export timings to Micrometer (scraped from /actuator/prometheus):
+ * <ul>
+ *   <li>{@code export.stage}: one timer per stage, tags {@code erp}, {@code format}, {@code stage}</li>
+ *   <li>{@code export.duration}: whole export, tags {@code erp}, {@code format}, {@code outcome}</li>
+ *   <li>{@code export.rows}: rows exported, tags {@code erp}, {@code format}</li>
+ * </ul>
+ * Timers publish percentile histograms so quantiles can be aggregated across instances.
+ */
+@Component
+public class MicrometerExportMetricsAdapter implements ExportMetricsPort {
+    public static final String STAGE_TIMER = "export.stage";
+    public static final String DURATION_TIMER = "export.duration";
+    public static final String ROWS_COUNTER = "export.rows";
+
+    private final MeterRegistry registry;
+
+    public MicrometerExportMetricsAdapter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Recorder start(String erpName, String format) {
+        return new MicrometerRecorder(Tags.of("erp", erpName, "format", format));
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private final class MicrometerRecorder implements Recorder {
+        private final long startNanos = System.nanoTime();
+        private final Tags tags;
+        // Resolved up front: MAP is recorded once per invoice, possibly from several threads
+        private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+
+        MicrometerRecorder(Tags tags) {
+            this.tags = tags;
+            for (Stage stage : Stage.values()) {
+                stages.put(stage, timer(STAGE_TIMER, "Time spent in each stage of an export",
+                        tags.and("stage", stage.name().toLowerCase(Locale.ROOT))));
+            }
+        }
+
+        @Override
+        public void record(Stage stage, long nanos) {
+            stages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void finish(long rows) {
+            end("success");
+            Counter.builder(ROWS_COUNTER)
+                    .description("Rows exported")
+                    .tags(tags)
+                    .register(registry)
+                    .increment(rows);
+        }
+
+        @Override
+        public void fail() {
+            end("error");
+        }
+
+        private void end(String outcome) {
+            timer(DURATION_TIMER, "Total time of an export", tags.and("outcome", outcome))
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
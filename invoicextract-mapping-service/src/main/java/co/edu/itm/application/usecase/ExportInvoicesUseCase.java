@@ -1,29 +1,68 @@
 package co.edu.itm.application.usecase;
 
+import co.edu.itm.domain.model.ExportWatermark;
 import co.edu.itm.domain.model.FieldMapping;
 import co.edu.itm.domain.model.Invoice;
-import co.edu.itm.domain.model.InvoiceItem;
+import co.edu.itm.domain.ports.ExportMetricsPort.Recorder;
+import co.edu.itm.domain.ports.ExportMetricsPort.Stage;
+import co.edu.itm.domain.ports.ExportWatermarkPort;
 import co.edu.itm.domain.ports.InvoiceRepositoryPort;
 import co.edu.itm.domain.ports.MappingRepositoryPort;
 import co.edu.itm.domain.service.DynamicMappingService;
+import co.edu.itm.domain.service.InvoiceSourceView;
+import co.edu.itm.domain.service.MappingPlan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class ExportInvoicesUseCase {
     private static final Logger log = LoggerFactory.getLogger(ExportInvoicesUseCase.class);
+    static final Duration DEFAULT_SAFETY_LAG = Duration.ofMinutes(1);
     private final InvoiceRepositoryPort invoiceRepo;
     private final MappingRepositoryPort mappingRepo;
     private final DynamicMappingService mapper;
+    private final ExportWatermarkPort watermarkRepo;
+    private final ParallelMappingPipeline pipeline;
+    private final Duration safetyLag;
+    private final Clock clock;
 
-    public ExportInvoicesUseCase(InvoiceRepositoryPort i, MappingRepositoryPort m, DynamicMappingService d) {
+    public ExportInvoicesUseCase(InvoiceRepositoryPort i, MappingRepositoryPort m, DynamicMappingService d, ExportWatermarkPort w) {
+        this(i, m, d, w, ParallelMappingPipeline.sequential());
+    }
+
+    public ExportInvoicesUseCase(InvoiceRepositoryPort i, MappingRepositoryPort m, DynamicMappingService d, ExportWatermarkPort w,
+                                 ParallelMappingPipeline p) {
+        this(i, m, d, w, p, DEFAULT_SAFETY_LAG);
+    }
+
+    /**
+     * @param safetyLag how far behind the current time watermarked exports stop. modified_date is
+     *                  stamped when the invoice is written, not when its transaction commits, so a
+     *                  row can become visible with a modified_date below rows already exported.
+     */
+    public ExportInvoicesUseCase(InvoiceRepositoryPort i, MappingRepositoryPort m, DynamicMappingService d, ExportWatermarkPort w,
+                                 ParallelMappingPipeline p, Duration safetyLag) {
+        this(i, m, d, w, p, safetyLag, Clock.systemDefaultZone());
+    }
+
+    ExportInvoicesUseCase(InvoiceRepositoryPort i, MappingRepositoryPort m, DynamicMappingService d, ExportWatermarkPort w,
+                          ParallelMappingPipeline p, Duration safetyLag, Clock clock) {
         this.invoiceRepo = i;
         this.mappingRepo = m;
         this.mapper = d;
+        this.watermarkRepo = w;
+        this.pipeline = p;
+        this.safetyLag = safetyLag;
+        this.clock = clock;
     }
 
     public List<Map<String, Object>> exportMapped(String erpName) {
@@ -31,74 +70,156 @@ public class ExportInvoicesUseCase {
     }
 
     public List<Map<String, Object>> exportMapped(String erpName, boolean flatten) {
-        long t0 = System.currentTimeMillis();
-        List<Invoice> invoices = invoiceRepo.findApproved();
+        return exportMapped(erpName, flatten, Recorder.NOOP);
+    }
+
+    // CSV columns for the ERP's active rules, in rule order
+    public List<String> columnsFor(String erpName) {
+        return mapper.planFor(erpName, mappingRepo.findActiveByErpName(erpName)).outputKeys();
+    }
+
+    /**
+     * Loads the ERP's active rules and returns their compiled plan, recording RULES on
+     * {@code metrics}. Callers that also need the CSV columns pass the plan to the
+     * {@code exportMapped} overloads taking one, so the rules are only loaded once.
+     */
+    public MappingPlan planFor(String erpName, Recorder metrics) {
+        long t0 = System.nanoTime();
         List<FieldMapping> rules = mappingRepo.findActiveByErpName(erpName);
-        log.info("[usecase] exportMapped erp={} invoices={} rules={} flatten={}", erpName, invoices.size(), rules.size(), flatten);
         if (!rules.isEmpty()) {
             FieldMapping r0 = rules.get(0);
             log.debug("[usecase] first rule: sourceField={} targetField={} status={}", r0.getSourceField(), r0.getTargetField(), r0.getStatus());
         }
-        return invoices.stream().map(inv -> {
-            Map<String, Object> src = new HashMap<>();
-            // Canonical fields aligned with backend Invoice entity (top-level)
-            src.put("id", inv.getId());
-            src.put("documentType", inv.getDocumentType());
-            src.put("documentNumber", inv.getDocumentNumber());
-            src.put("receiverTaxId", inv.getReceiverTaxId());
-            src.put("receiverTaxIdWithoutCheckDigit", inv.getReceiverTaxIdWithoutCheckDigit());
-            src.put("receiverBusinessName", inv.getReceiverBusinessName());
-            src.put("senderTaxId", inv.getSenderTaxId());
-            src.put("senderTaxIdWithoutCheckDigit", inv.getSenderTaxIdWithoutCheckDigit());
-            src.put("senderBusinessName", inv.getSenderBusinessName());
-            src.put("relatedDocumentNumber", inv.getRelatedDocumentNumber());
-            src.put("amount", inv.getAmount());
-            src.put("issueDate", inv.getIssueDate());
-            src.put("dueDate", inv.getDueDate());
-            src.put("status", inv.getStatus());
-            // Audit fields
-            src.put("createdDate", inv.getCreatedDate());
-            src.put("modifiedDate", inv.getModifiedDate());
-            src.put("createdBy", inv.getCreatedBy());
-            src.put("modifiedBy", inv.getModifiedBy());
-
-            // Items: nested JSON by default; flattened if requested
-            if (flatten) {
-                List<InvoiceItem> items = inv.getItems();
-                if (items != null) {
-                    for (int i = 0; i < items.size(); i++) {
-                        InvoiceItem it = items.get(i);
-                        String p = "items[" + i + "].";
-                        src.put(p + "itemCode", it.getItemCode());
-                        src.put(p + "description", it.getDescription());
-                        src.put(p + "quantity", it.getQuantity());
-                        src.put(p + "unit", it.getUnit());
-                        src.put(p + "unitPrice", it.getUnitPrice());
-                        src.put(p + "subtotal", it.getSubtotal());
-                        src.put(p + "taxAmount", it.getTaxAmount());
-                        src.put(p + "total", it.getTotal());
-                    }
-                }
-            } else {
-                // Nested: as a list of maps for better JSON output
-                List<Map<String, Object>> itemsOut = inv.getItems() == null ? List.of() : inv.getItems().stream().map(it -> {
-                    Map<String, Object> m = new HashMap<>();
-                    m.put("itemCode", it.getItemCode());
-                    m.put("description", it.getDescription());
-                    m.put("quantity", it.getQuantity());
-                    m.put("unit", it.getUnit());
-                    m.put("unitPrice", it.getUnitPrice());
-                    m.put("subtotal", it.getSubtotal());
-                    m.put("taxAmount", it.getTaxAmount());
-                    m.put("total", it.getTotal());
-                    return m;
-                }).collect(Collectors.toList());
-                src.put("items", itemsOut);
-            }
+        MappingPlan plan = mapper.planFor(erpName, rules);
+        metrics.record(Stage.RULES, System.nanoTime() - t0);
+        return plan;
+    }
 
-            Map<String, Object> out = mapper.apply(rules, src);
-            return out;
-        }).collect(Collectors.toList());
+    /**
+     * Buffered full export recording FETCH, RULES and per-invoice MAP timings on {@code metrics}.
+     * Watermarked modes go through the streaming overloads, whose result carries the new position.
+     */
+    public List<Map<String, Object>> exportMapped(String erpName, boolean flatten, Recorder metrics) {
+        List<Invoice> invoices = fetchApproved(metrics);
+        return mapAll(erpName, invoices, planFor(erpName, metrics), flatten, metrics);
     }
-}
 
+    /**
+     * Buffered full export with a plan from {@link #planFor(String, Recorder)}; records FETCH and MAP.
+     */
+    public List<Map<String, Object>> exportMapped(String erpName, MappingPlan plan, boolean flatten, Recorder metrics) {
+        return mapAll(erpName, fetchApproved(metrics), plan, flatten, metrics);
+    }
+
+    private List<Invoice> fetchApproved(Recorder metrics) {
+        long t0 = System.nanoTime();
+        List<Invoice> invoices = invoiceRepo.findApproved();
+        metrics.record(Stage.FETCH, System.nanoTime() - t0);
+        return invoices;
+    }
+
+    private List<Map<String, Object>> mapAll(String erpName, List<Invoice> invoices, MappingPlan plan, boolean flatten, Recorder metrics) {
+        log.info("[usecase] exportMapped erp={} invoices={} rules={} flatten={}", erpName, invoices.size(), plan.size(), flatten);
+        List<Map<String, Object>> rows = new ArrayList<>(invoices.size());
+        ParallelMappingPipeline.Session<Invoice> session = pipeline.open(mapping(plan, flatten, metrics), rows::add);
+        invoices.forEach(session::accept);
+        session.finish();
+        return rows;
+    }
+
+    public long exportMapped(String erpName, boolean flatten, Consumer<Map<String, Object>> sink) {
+        return exportMapped(erpName, flatten, ExportMode.FULL, sink).getCount();
+    }
+
+    public ExportResult exportMapped(String erpName, boolean flatten, ExportMode mode, Consumer<Map<String, Object>> sink) {
+        return exportMapped(erpName, flatten, mode, sink, Recorder.NOOP);
+    }
+
+    /**
+     * Streaming variant: walks approved invoices page by page through the repository and hands
+     * each mapped row to {@code sink} as soon as it is produced.
+     * INCREMENTAL only reads invoices changed after the ERP watermark and at least the safety
+     * lag ago. For INCREMENTAL and RESYNC the result holds the last exported invoice older than
+     * the safety lag, so late commits are picked up by the next run; the watermark only moves
+     * there through {@link #advanceWatermark(ExportResult)}, after the caller delivered the rows.
+     * FETCH is the time spent reading, excluding the time rows spend in the mapping and the sink.
+     */
+    public ExportResult exportMapped(String erpName, boolean flatten, ExportMode mode, Consumer<Map<String, Object>> sink, Recorder metrics) {
+        return exportMapped(erpName, planFor(erpName, metrics), flatten, mode, sink, metrics);
+    }
+
+    /**
+     * Streaming export with a plan from {@link #planFor(String, Recorder)}; records FETCH and MAP.
+     */
+    public ExportResult exportMapped(String erpName, MappingPlan plan, boolean flatten, ExportMode mode,
+                                     Consumer<Map<String, Object>> sink, Recorder metrics) {
+        long t1 = System.nanoTime();
+        Optional<ExportWatermark> since = mode == ExportMode.INCREMENTAL ? watermarkRepo.findByErpName(erpName) : Optional.empty();
+        log.info("[usecase] exportMapped(stream) erp={} rules={} flatten={} mode={} since={}", erpName, plan.size(), flatten, mode,
+                since.map(w -> w.getLastModifiedDate() + "/" + w.getLastInvoiceId()).orElse("-"));
+
+        // Invoices are read and rows written on this thread; mapping may run on the pipeline pool
+        WatermarkTracker tracker = new WatermarkTracker(LocalDateTime.now(clock).minus(safetyLag));
+        ParallelMappingPipeline.Session<Invoice> session = pipeline.open(mapping(plan, flatten, metrics), sink);
+        Consumer<Invoice> step = inv -> {
+            long s = System.nanoTime();
+            session.accept(inv);
+            tracker.accept(inv);
+            tracker.downstreamNanos += System.nanoTime() - s;
+        };
+        if (since.isPresent()) {
+            invoiceRepo.forEachApprovedModifiedAfter(since.get().getLastModifiedDate(), since.get().getLastInvoiceId(), tracker.upTo, step);
+        } else {
+            invoiceRepo.forEachApproved(step);
+        }
+        metrics.record(Stage.FETCH, System.nanoTime() - t1 - tracker.downstreamNanos);
+        session.finish();
+
+        return mode == ExportMode.FULL
+                ? new ExportResult(erpName, tracker.count, null, 0L)
+                : new ExportResult(erpName, tracker.count, tracker.lastModifiedDate, tracker.lastInvoiceId);
+    }
+
+    // Stores the position an INCREMENTAL or RESYNC export reached; a FULL result leaves it as is
+    public void advanceWatermark(ExportResult result) {
+        if (result.movesWatermark()) {
+            watermarkRepo.save(result.getErpName(), result.getLastModifiedDate(), result.getLastInvoiceId());
+        }
+    }
+
+    private static Function<Invoice, Map<String, Object>> mapping(MappingPlan plan, boolean flatten, Recorder metrics) {
+        if (metrics == Recorder.NOOP) return inv -> plan.apply(InvoiceSourceView.of(inv, flatten));
+        return inv -> {
+            long s = System.nanoTime();
+            Map<String, Object> row = plan.apply(InvoiceSourceView.of(inv, flatten));
+            metrics.record(Stage.MAP, System.nanoTime() - s);
+            return row;
+        };
+    }
+
+    // Keeps the highest (modifiedDate, id) exported up to upTo; full scans come in id order, not
+    // modifiedDate order, and also return newer rows, which stay ahead of the watermark
+    private static final class WatermarkTracker {
+        final LocalDateTime upTo;
+        long count;
+        // Time the scan spent handing invoices to the mapping and the sink
+        long downstreamNanos;
+        LocalDateTime lastModifiedDate;
+        long lastInvoiceId;
+
+        WatermarkTracker(LocalDateTime upTo) {
+            this.upTo = upTo;
+        }
+
+        void accept(Invoice inv) {
+            count++;
+            LocalDateTime m = inv.getModifiedDate();
+            if (m == null || inv.getId() == null || m.isAfter(upTo)) return;
+            int cmp = lastModifiedDate == null ? 1 : m.compareTo(lastModifiedDate);
+            if (cmp > 0 || (cmp == 0 && inv.getId() > lastInvoiceId)) {
+                lastModifiedDate = m;
+                lastInvoiceId = inv.getId();
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package co.edu.itm.application.usecase;
+
+public enum ExportMode {
+    // All approved invoices; the ERP watermark is neither read nor moved
+    FULL,
+    // Only invoices changed after the ERP watermark; advances it on success
+    INCREMENTAL,
+    // All approved invoices, ignoring the watermark; resets it to the last exported invoice
+    RESYNC
+}
@@ -0,0 +1,44 @@
+package co.edu.itm.application.usecase;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a streaming export: the rows handed to the sink and, for INCREMENTAL and RESYNC,
+ * the position the ERP watermark moves to. The export does not store that position itself;
+ * callers pass the result to {@link ExportInvoicesUseCase#advanceWatermark(ExportResult)} once
+ * the rows have actually been delivered.
+ */
+public final class ExportResult {
+    private final String erpName;
+    private final long count;
+    // null when the export does not move the watermark
+    private final LocalDateTime lastModifiedDate;
+    private final long lastInvoiceId;
+
+    public ExportResult(String erpName, long count, LocalDateTime lastModifiedDate, long lastInvoiceId) {
+        this.erpName = erpName;
+        this.count = count;
+        this.lastModifiedDate = lastModifiedDate;
+        this.lastInvoiceId = lastInvoiceId;
+    }
+
+    public String getErpName() {
+        return erpName;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public long getLastInvoiceId() {
+        return lastInvoiceId;
+    }
+
+    public boolean movesWatermark() {
+        return lastModifiedDate != null;
+    }
+}
@@ -0,0 +1,118 @@
+package co.edu.itm.application.usecase;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Maps items on a worker pool while handing results to the sink on the caller thread,
+ * in submission order. At most {@code queueDepth} items are in flight per session, so a
+ * slow sink or a long input never queues unbounded work or results.
+ * Without an executor (parallelism 1) items are mapped inline.
+ */
+public class ParallelMappingPipeline {
+    private final ExecutorService executor;
+    private final int queueDepth;
+
+    public ParallelMappingPipeline(ExecutorService executor, int queueDepth) {
+        this.executor = executor;
+        this.queueDepth = Math.max(1, queueDepth);
+    }
+
+    public static ParallelMappingPipeline sequential() {
+        return new ParallelMappingPipeline(null, 1);
+    }
+
+    public boolean isParallel() {
+        return executor != null;
+    }
+
+    public <I, O> Session<I> open(Function<I, O> fn, Consumer<O> sink) {
+        return executor == null ? new InlineSession<>(fn, sink) : new OrderedSession<>(fn, sink);
+    }
+
+    public interface Session<I> {
+        void accept(I item);
+
+        // Waits for every pending item and hands it to the sink
+        void finish();
+    }
+
+    private static final class InlineSession<I, O> implements Session<I> {
+        private final Function<I, O> fn;
+        private final Consumer<O> sink;
+
+        InlineSession(Function<I, O> fn, Consumer<O> sink) {
+            this.fn = fn;
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(I item) {
+            sink.accept(fn.apply(item));
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    private final class OrderedSession<I, O> implements Session<I> {
+        private final Function<I, O> fn;
+        private final Consumer<O> sink;
+        private final ArrayDeque<Future<O>> pending = new ArrayDeque<>();
+
+        OrderedSession(Function<I, O> fn, Consumer<O> sink) {
+            this.fn = fn;
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(I item) {
+            if (pending.size() >= queueDepth) {
+                drainHead();
+            }
+            pending.addLast(executor.submit(() -> fn.apply(item)));
+        }
+
+        @Override
+        public void finish() {
+            while (!pending.isEmpty()) {
+                drainHead();
+            }
+        }
+
+        private void drainHead() {
+            Future<O> head = pending.pollFirst();
+            O result;
+            try {
+                result = head.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelPending();
+                throw new IllegalStateException("Mapping pipeline interrupted", e);
+            } catch (ExecutionException | CancellationException e) {
+                cancelPending();
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                if (cause instanceof RuntimeException re) throw re;
+                if (cause instanceof Error err) throw err;
+                throw new IllegalStateException(cause);
+            }
+            try {
+                sink.accept(result);
+            } catch (RuntimeException e) {
+                cancelPending();
+                throw e;
+            }
+        }
+
+        private void cancelPending() {
+            pending.forEach(f -> f.cancel(true));
+            pending.clear();
+        }
+    }
+}
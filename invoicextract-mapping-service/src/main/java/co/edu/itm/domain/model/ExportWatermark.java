@@ -0,0 +1,19 @@
+package co.edu.itm.domain.model;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExportWatermark {
+    private Long erpId;
+    // Last exported invoice position in (modified_date, id) order
+    private LocalDateTime lastModifiedDate;
+    private Long lastInvoiceId;
+    private Instant updatedAt;
+}
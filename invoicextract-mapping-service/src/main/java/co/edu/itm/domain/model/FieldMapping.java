@@ -14,7 +14,7 @@ public class FieldMapping {
     private Long erpId;
     private String sourceField;
     private String targetField;
-    private String transformFn; // TRIM, UPPER, DATE_FMT:yyyy-MM-dd
+    private String transformFn; // TRIM, UPPER, DATE_FMT:yyyy-MM-dd, or a pipeline such as TRIM|UPPER
     private String status; // ACTIVE | INACTIVE
     private Integer version;
     private Instant createdAt;
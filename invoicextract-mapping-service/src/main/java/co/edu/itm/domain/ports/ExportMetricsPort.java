@@ -0,0 +1,53 @@
+package co.edu.itm.domain.ports;
+
+/**
+ * Timings of the stages of an export, tagged by ERP and output format, to tell which stage
+ * dominates: the invoices database, the rules, the mapping or the output.
+ */
+public interface ExportMetricsPort {
+
+    enum Stage {
+        // Reading approved invoices and their items
+        FETCH,
+        // Loading the ERP's active rules and building the mapping plan
+        RULES,
+        // Mapping one invoice to its row; recorded once per invoice
+        MAP,
+        // Encoding the whole result as JSON or CSV (buffered export)
+        SERIALIZE,
+        // Writing rows to the response as they are mapped (streaming export, encoding included)
+        WRITE
+    }
+
+    ExportMetricsPort NOOP = (erpName, format) -> Recorder.NOOP;
+
+    // Starts recording one export
+    Recorder start(String erpName, String format);
+
+    /**
+     * Collects the timings of one export. {@link #record} may be called from mapping threads.
+     */
+    interface Recorder {
+        Recorder NOOP = new Recorder() {
+            @Override
+            public void record(Stage stage, long nanos) {
+            }
+
+            @Override
+            public void finish(long rows) {
+            }
+
+            @Override
+            public void fail() {
+            }
+        };
+
+        void record(Stage stage, long nanos);
+
+        // The export completed: records its total duration and counts its rows
+        void finish(long rows);
+
+        // The export failed: records its total duration as an error
+        void fail();
+    }
+}
@@ -1,12 +1,27 @@
 package co.edu.itm.domain.ports;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
 public interface ExportServicePort {
-    byte[] toCsv(List<Map<String, Object>> rows);
+    // Columns from the first row
+    default byte[] toCsv(List<Map<String, Object>> rows) {
+        return toCsv(List.of(), rows);
+    }
+
+    // Columns in the given order (e.g. MappingPlan.outputKeys()); empty means from the first row
+    byte[] toCsv(List<String> headers, List<Map<String, Object>> rows);
 
     String toJson(List<Map<String, Object>> rows);
 
+    RowWriter jsonWriter(OutputStream out);
+
+    default RowWriter csvWriter(OutputStream out) {
+        return csvWriter(out, List.of());
+    }
+
+    RowWriter csvWriter(OutputStream out, List<String> headers);
+
     void pushToErp(String erpName, List<Map<String, Object>> rows);
 }
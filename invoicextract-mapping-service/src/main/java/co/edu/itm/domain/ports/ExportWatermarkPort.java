@@ -0,0 +1,12 @@
+package co.edu.itm.domain.ports;
+
+import co.edu.itm.domain.model.ExportWatermark;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ExportWatermarkPort {
+    Optional<ExportWatermark> findByErpName(String erpName);
+
+    void save(String erpName, LocalDateTime lastModifiedDate, long lastInvoiceId);
+}
@@ -2,8 +2,25 @@ package co.edu.itm.domain.ports;
 
 import co.edu.itm.domain.model.Invoice;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface InvoiceRepositoryPort {
     List<Invoice> findApproved();
+
+    // Keyset page: up to 'limit' approved invoices with id > afterId, ordered by id
+    List<Invoice> findApprovedAfter(long afterId, int limit);
+
+    // Streams approved invoices (with items) with id > afterId in id order, without
+    // materialising the whole result; the last id seen is a valid resume checkpoint
+    void forEachApproved(long afterId, Consumer<Invoice> consumer);
+
+    // Streams approved invoices changed after the (modifiedDate, id) watermark and no later
+    // than upTo, in (modifiedDate, id) order
+    void forEachApprovedModifiedAfter(LocalDateTime modifiedDate, long afterId, LocalDateTime upTo, Consumer<Invoice> consumer);
+
+    default void forEachApproved(Consumer<Invoice> consumer) {
+        forEachApproved(0L, consumer);
+    }
 }
@@ -0,0 +1,17 @@
+package co.edu.itm.domain.ports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Incremental writer for exported rows: each row is encoded straight to the
+ * underlying stream; {@link #close()} writes any trailer and flushes without
+ * closing the stream itself.
+ */
+public interface RowWriter extends Closeable {
+    void write(Map<String, Object> row) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
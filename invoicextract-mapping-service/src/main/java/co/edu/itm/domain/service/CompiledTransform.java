@@ -0,0 +1,12 @@
+package co.edu.itm.domain.service;
+
+/**
+ * A transform spec bound to its function(s) and pre-parsed arguments, ready to apply
+ * per value. Built by {@link TransformRegistry#compile(String)}.
+ */
+@FunctionalInterface
+public interface CompiledTransform {
+    CompiledTransform IDENTITY = value -> value;
+
+    Object apply(Object value);
+}
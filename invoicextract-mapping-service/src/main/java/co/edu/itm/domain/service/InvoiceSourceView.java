@@ -0,0 +1,246 @@
+package co.edu.itm.domain.service;
+
+import co.edu.itm.domain.model.Invoice;
+import co.edu.itm.domain.model.InvoiceItem;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-only {@link Map} view of an {@link Invoice} used as mapping source. Values are
+ * read through precomputed getters on demand instead of being copied into a new map
+ * per invoice. Keys match the canonical source fields: top-level invoice fields plus
+ * either {@code items} (list of item views) or, when flattened, {@code items[i].field}.
+ */
+public final class InvoiceSourceView extends AbstractMap<String, Object> {
+    private static final String ITEMS = "items";
+    private static final String ITEMS_PREFIX = "items[";
+
+    private static final Map<String, Function<Invoice, Object>> INVOICE_FIELDS = new LinkedHashMap<>();
+    private static final Map<String, Function<InvoiceItem, Object>> ITEM_FIELDS = new LinkedHashMap<>();
+
+    static {
+        // Canonical fields aligned with backend Invoice entity (top-level)
+        INVOICE_FIELDS.put("id", Invoice::getId);
+        INVOICE_FIELDS.put("documentType", Invoice::getDocumentType);
+        INVOICE_FIELDS.put("documentNumber", Invoice::getDocumentNumber);
+        INVOICE_FIELDS.put("receiverTaxId", Invoice::getReceiverTaxId);
+        INVOICE_FIELDS.put("receiverTaxIdWithoutCheckDigit", Invoice::getReceiverTaxIdWithoutCheckDigit);
+        INVOICE_FIELDS.put("receiverBusinessName", Invoice::getReceiverBusinessName);
+        INVOICE_FIELDS.put("senderTaxId", Invoice::getSenderTaxId);
+        INVOICE_FIELDS.put("senderTaxIdWithoutCheckDigit", Invoice::getSenderTaxIdWithoutCheckDigit);
+        INVOICE_FIELDS.put("senderBusinessName", Invoice::getSenderBusinessName);
+        INVOICE_FIELDS.put("relatedDocumentNumber", Invoice::getRelatedDocumentNumber);
+        INVOICE_FIELDS.put("amount", Invoice::getAmount);
+        INVOICE_FIELDS.put("issueDate", Invoice::getIssueDate);
+        INVOICE_FIELDS.put("dueDate", Invoice::getDueDate);
+        INVOICE_FIELDS.put("status", Invoice::getStatus);
+        // Audit fields
+        INVOICE_FIELDS.put("createdDate", Invoice::getCreatedDate);
+        INVOICE_FIELDS.put("modifiedDate", Invoice::getModifiedDate);
+        INVOICE_FIELDS.put("createdBy", Invoice::getCreatedBy);
+        INVOICE_FIELDS.put("modifiedBy", Invoice::getModifiedBy);
+
+        ITEM_FIELDS.put("itemCode", InvoiceItem::getItemCode);
+        ITEM_FIELDS.put("description", InvoiceItem::getDescription);
+        ITEM_FIELDS.put("quantity", InvoiceItem::getQuantity);
+        ITEM_FIELDS.put("unit", InvoiceItem::getUnit);
+        ITEM_FIELDS.put("unitPrice", InvoiceItem::getUnitPrice);
+        ITEM_FIELDS.put("subtotal", InvoiceItem::getSubtotal);
+        ITEM_FIELDS.put("taxAmount", InvoiceItem::getTaxAmount);
+        ITEM_FIELDS.put("total", InvoiceItem::getTotal);
+    }
+
+    private final Invoice invoice;
+    private final List<InvoiceItem> items;
+    private final boolean flatten;
+
+    private InvoiceSourceView(Invoice invoice, boolean flatten) {
+        this.invoice = invoice;
+        this.items = invoice.getItems() == null ? List.of() : invoice.getItems();
+        this.flatten = flatten;
+    }
+
+    public static InvoiceSourceView of(Invoice invoice, boolean flatten) {
+        return new InvoiceSourceView(invoice, flatten);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String k)) return null;
+        Function<Invoice, Object> getter = INVOICE_FIELDS.get(k);
+        if (getter != null) return getter.apply(invoice);
+        if (!flatten) {
+            return ITEMS.equals(k) ? new ItemsView(items) : null;
+        }
+        InvoiceItem item = flattenedItem(k);
+        return item == null ? null : ITEM_FIELDS.get(flattenedField(k)).apply(item);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String k)) return false;
+        if (INVOICE_FIELDS.containsKey(k)) return true;
+        return flatten ? flattenedItem(k) != null : ITEMS.equals(k);
+    }
+
+    @Override
+    public int size() {
+        return INVOICE_FIELDS.size() + (flatten ? items.size() * ITEM_FIELDS.size() : 1);
+    }
+
+    // Resolves the item for a flattened key like items[3].quantity, or null if the key is not one
+    private InvoiceItem flattenedItem(String key) {
+        if (!key.startsWith(ITEMS_PREFIX)) return null;
+        int close = key.indexOf(']', ITEMS_PREFIX.length());
+        if (close < 0 || close + 1 >= key.length() || key.charAt(close + 1) != '.') return null;
+        if (!ITEM_FIELDS.containsKey(key.substring(close + 2))) return null;
+        int idx = parseIndex(key, ITEMS_PREFIX.length(), close);
+        return idx < 0 || idx >= items.size() ? null : items.get(idx);
+    }
+
+    private static String flattenedField(String key) {
+        return key.substring(key.indexOf(']') + 2);
+    }
+
+    private static int parseIndex(String s, int from, int to) {
+        if (from == to || to - from > 9) return -1;
+        if (to - from > 1 && s.charAt(from) == '0') return -1;
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return InvoiceSourceView.this.size();
+            }
+        };
+    }
+
+    // Top-level fields first, then "items" or the flattened item keys in item order
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+        private final Iterator<Map.Entry<String, Function<Invoice, Object>>> top = INVOICE_FIELDS.entrySet().iterator();
+        private int itemIdx = 0;
+        private Iterator<Map.Entry<String, Function<InvoiceItem, Object>>> itemFields = Collections.emptyIterator();
+        private boolean itemsDone = false;
+
+        @Override
+        public boolean hasNext() {
+            if (top.hasNext()) return true;
+            if (!flatten) return !itemsDone;
+            return itemFields.hasNext() || itemIdx < items.size();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (top.hasNext()) {
+                Map.Entry<String, Function<Invoice, Object>> e = top.next();
+                return new SimpleImmutableEntry<>(e.getKey(), e.getValue().apply(invoice));
+            }
+            if (!flatten) {
+                if (itemsDone) throw new NoSuchElementException();
+                itemsDone = true;
+                return new SimpleImmutableEntry<>(ITEMS, new ItemsView(items));
+            }
+            if (!itemFields.hasNext()) {
+                if (itemIdx >= items.size()) throw new NoSuchElementException();
+                itemFields = ITEM_FIELDS.entrySet().iterator();
+                itemIdx++;
+            }
+            Map.Entry<String, Function<InvoiceItem, Object>> f = itemFields.next();
+            int idx = itemIdx - 1;
+            return new SimpleImmutableEntry<>(ITEMS_PREFIX + idx + "]." + f.getKey(), f.getValue().apply(items.get(idx)));
+        }
+    }
+
+    private static final class ItemsView extends AbstractList<Map<String, Object>> {
+        private final List<InvoiceItem> items;
+
+        ItemsView(List<InvoiceItem> items) {
+            this.items = items;
+        }
+
+        @Override
+        public Map<String, Object> get(int index) {
+            return new ItemView(items.get(index));
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+    }
+
+    private static final class ItemView extends AbstractMap<String, Object> {
+        private final InvoiceItem item;
+
+        ItemView(InvoiceItem item) {
+            this.item = item;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Function<InvoiceItem, Object> getter = ITEM_FIELDS.get(key);
+            return getter == null ? null : getter.apply(item);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return ITEM_FIELDS.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return ITEM_FIELDS.size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<Map.Entry<String, Function<InvoiceItem, Object>>> it = ITEM_FIELDS.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            Map.Entry<String, Function<InvoiceItem, Object>> e = it.next();
+                            return new SimpleImmutableEntry<>(e.getKey(), e.getValue().apply(item));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ITEM_FIELDS.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package co.edu.itm.domain.service;
+
+import co.edu.itm.domain.model.FieldMapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, pre-compiled form of a rule set. Source paths are parsed once into
+ * segment accessors, target paths into writers and transform specs are compiled to
+ * {@link CompiledTransform}s, so applying the plan per invoice does no
+ * regex matching, string splitting or registry lookups.
+ */
+public final class MappingPlan {
+    private static final Pattern SEGMENT = Pattern.compile("([a-zA-Z0-9_\\-]+)(?:\\[(\\d+)\\])?");
+
+    private final List<Step> steps;
+    private final List<String> outputKeys;
+
+    private MappingPlan(List<Step> steps, List<String> outputKeys) {
+        this.steps = steps;
+        this.outputKeys = outputKeys;
+    }
+
+    public static MappingPlan compile(List<FieldMapping> rules, TransformRegistry registry) {
+        List<Step> steps = new ArrayList<>(rules.size());
+        Set<String> keys = new LinkedHashSet<>();
+        for (FieldMapping r : rules) {
+            steps.add(new Step(
+                    compileSource(r.getSourceField()),
+                    registry.compile(r.getTransformFn()),
+                    compileTarget(r.getTargetField())));
+            String key = outputKey(r.getTargetField());
+            if (key != null) keys.add(key);
+        }
+        return new MappingPlan(Collections.unmodifiableList(steps), List.copyOf(keys));
+    }
+
+    public Map<String, Object> apply(Map<String, Object> source) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (Step s : steps) {
+            Object val = s.source.read(source);
+            val = s.transform.apply(val);
+            s.target.write(out, val);
+        }
+        return out;
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    /**
+     * Top-level keys the plan writes, in rule order (e.g. {@code lineas} for
+     * {@code lineas[].codigo}). These are the CSV columns for the rule set.
+     */
+    public List<String> outputKeys() {
+        return outputKeys;
+    }
+
+    private record Step(SourcePath source, CompiledTransform transform, TargetWriter target) {}
+
+    // ---- Source accessors ----
+
+    interface SourcePath {
+        Object read(Map<String, Object> root);
+    }
+
+    private static final SourcePath NULL_PATH = root -> null;
+
+    static SourcePath compileSource(String path) {
+        if (path == null || path.isBlank()) return NULL_PATH;
+        String[] parts = path.split("\\.");
+        if (path.contains("[]")) {
+            return new WildcardPath(parseWildcardParts(parts));
+        }
+        IndexedSegment[] segments = new IndexedSegment[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            Matcher m = SEGMENT.matcher(parts[i]);
+            if (!m.matches()) {
+                // Unreachable by navigation; only the exact-key lookup can still resolve it
+                segments = null;
+                break;
+            }
+            int idx = -1;
+            if (m.group(2) != null) {
+                try { idx = Integer.parseInt(m.group(2)); } catch (NumberFormatException e) { segments = null; break; }
+            }
+            segments[i] = new IndexedSegment(m.group(1), idx);
+        }
+        return new DottedPath(path, segments);
+    }
+
+    private record IndexedSegment(String key, int index) {}
+
+    private record DottedPath(String path, IndexedSegment[] segments) implements SourcePath {
+        @Override
+        public Object read(Map<String, Object> root) {
+            // Fast path: exact key match (flattened keys such as items[0].quantity)
+            Object exact = root.get(path);
+            if (exact != null || root.containsKey(path)) return exact;
+            if (segments == null) return null;
+
+            Object current = root;
+            for (IndexedSegment seg : segments) {
+                if (!(current instanceof Map<?, ?> map)) return null;
+                Object next = map.get(seg.key);
+                if (seg.index >= 0) {
+                    if (!(next instanceof List<?> list)) return null;
+                    if (seg.index >= list.size()) return null;
+                    next = list.get(seg.index);
+                }
+                current = next;
+            }
+            return current;
+        }
+    }
+
+    private record WildcardPart(String key, boolean wildcard) {}
+
+    private static WildcardPart[] parseWildcardParts(String[] parts) {
+        WildcardPart[] out = new WildcardPart[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            boolean wildcard = part.endsWith("[]");
+            out[i] = new WildcardPart(wildcard ? part.substring(0, part.length() - 2) : part, wildcard);
+        }
+        return out;
+    }
+
+    // Expands paths like items[].quantity or items[].sub[].code into a flat list
+    private record WildcardPath(WildcardPart[] parts) implements SourcePath {
+        @Override
+        public Object read(Map<String, Object> root) {
+            return read(root, 0);
+        }
+
+        private Object read(Object current, int idx) {
+            if (current == null) return null;
+            if (idx >= parts.length) return current;
+            if (!(current instanceof Map<?, ?> map)) return null;
+
+            WildcardPart part = parts[idx];
+            Object next = map.get(part.key);
+            if (!part.wildcard) {
+                return read(next, idx + 1);
+            }
+
+            if (!(next instanceof List<?> list)) return null;
+            List<Object> results = new ArrayList<>(list.size());
+            for (Object elem : list) {
+                Object val = read(elem, idx + 1);
+                if (val == null) continue;
+                if (val instanceof List<?> vl) {
+                    results.addAll(vl);
+                } else {
+                    results.add(val);
+                }
+            }
+            return results;
+        }
+    }
+
+    // ---- Target writers ----
+
+    interface TargetWriter {
+        void write(Map<String, Object> out, Object value);
+    }
+
+    private static final TargetWriter NO_OP_WRITER = (out, value) -> { };
+
+    // Same key resolution as compileTarget: plain targets are put as-is, nested ones under their first part
+    static String outputKey(String targetPath) {
+        if (targetPath == null || targetPath.isBlank()) return null;
+        if (!targetPath.contains("[")) return targetPath;
+        return parseWildcardParts(targetPath.split("\\."))[0].key;
+    }
+
+    static TargetWriter compileTarget(String targetPath) {
+        if (targetPath == null || targetPath.isBlank()) return NO_OP_WRITER;
+        if (!targetPath.contains("[")) {
+            return (out, value) -> out.put(targetPath, value);
+        }
+        return new NestedWriter(parseWildcardParts(targetPath.split("\\.")));
+    }
+
+    // Builds nested maps/lists for targets like items[].cantidad
+    private record NestedWriter(WildcardPart[] parts) implements TargetWriter {
+        @Override
+        public void write(Map<String, Object> out, Object value) {
+            write(out, 0, value);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void write(Object current, int idx, Object value) {
+            if (idx >= parts.length) return;
+            if (!(current instanceof Map)) return;
+            Map map = (Map) current;
+            WildcardPart part = parts[idx];
+            Object next = map.get(part.key);
+
+            if (part.wildcard) {
+                List list;
+                if (next instanceof List) {
+                    list = (List) next;
+                } else {
+                    list = new ArrayList<>();
+                    map.put(part.key, list);
+                }
+
+                if (value instanceof List<?> values) {
+                    // Distribute list values by index
+                    for (int i = 0; i < values.size(); i++) {
+                        Object elem = (i < list.size()) ? list.get(i) : null;
+                        if (!(elem instanceof Map)) {
+                            elem = new LinkedHashMap<>();
+                            if (i < list.size()) {
+                                list.set(i, elem);
+                            } else {
+                                while (list.size() < i) list.add(new LinkedHashMap<>());
+                                list.add(elem);
+                            }
+                        }
+                        write(elem, idx + 1, values.get(i));
+                    }
+                } else {
+                    // Scalar value: set same value to first element
+                    Object elem = (list.isEmpty() || !(list.get(0) instanceof Map)) ? new LinkedHashMap<>() : list.get(0);
+                    if (list.isEmpty()) list.add(elem);
+                    write(elem, idx + 1, value);
+                }
+                return;
+            }
+
+            if (idx == parts.length - 1) {
+                map.put(part.key, value);
+                return;
+            }
+            if (!(next instanceof Map)) {
+                next = new LinkedHashMap<>();
+                map.put(part.key, next);
+            }
+            write(next, idx + 1, value);
+        }
+    }
+}
@@ -4,4 +4,12 @@ public interface TransformFunction {
     Object apply(Object value, String arg);
 
     String name();
+
+    /**
+     * Binds the argument once, so functions can pre-parse it (formatters, separators).
+     * The default just captures it.
+     */
+    default CompiledTransform bind(String arg) {
+        return value -> apply(value, arg);
+    }
 }
@@ -2,12 +2,20 @@ package co.edu.itm.domain.service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TransformRegistry {
-    private final Map<String, TransformFunction> functions = new HashMap<>();
+    // Upper bound for specs compiled by apply(spec, value); rule transforms are user-defined strings
+    static final int MAX_COMPILED_SPECS = 256;
+    private final Map<String, TransformFunction> functions = new ConcurrentHashMap<>();
+    // Specs already compiled by apply(spec, value)
+    private final Map<String, CompiledTransform> compiled = new ConcurrentHashMap<>();
+    // Bumped by register so plans compiled against older functions can be recognised
+    private final AtomicInteger version = new AtomicInteger();
 
     public TransformRegistry() {
         register(new TransformFunction() {
@@ -31,8 +39,24 @@ public class TransformRegistry {
         register(new TransformFunction() {
             public Object apply(Object v, String arg) {
                 if (v == null || arg == null) return v;
-                LocalDate d = (v instanceof LocalDate) ? (LocalDate) v : LocalDate.parse(v.toString());
-                return d.format(DateTimeFormatter.ofPattern(arg));
+                return toDate(v).format(DateTimeFormatter.ofPattern(arg));
+            }
+
+            // Builds the formatter once per rule instead of once per value
+            public CompiledTransform bind(String arg) {
+                if (arg == null) return CompiledTransform.IDENTITY;
+                DateTimeFormatter fmt;
+                try {
+                    fmt = DateTimeFormatter.ofPattern(arg);
+                } catch (IllegalArgumentException e) {
+                    // Invalid pattern: keep failing per value, as when it is applied unbound
+                    return v -> apply(v, arg);
+                }
+                return v -> v == null ? null : toDate(v).format(fmt);
+            }
+
+            private LocalDate toDate(Object v) {
+                return (v instanceof LocalDate) ? (LocalDate) v : LocalDate.parse(v.toString());
             }
 
             public String name() {
@@ -78,9 +102,17 @@ public class TransformRegistry {
         });
 
         register(new TransformFunction() {
-            @SuppressWarnings({"rawtypes","unchecked"})
             public Object apply(Object v, String arg) {
+                return join(v, arg == null ? "," : arg);
+            }
+
+            public CompiledTransform bind(String arg) {
                 String sep = arg == null ? "," : arg;
+                return v -> join(v, sep);
+            }
+
+            @SuppressWarnings("rawtypes")
+            private Object join(Object v, String sep) {
                 if (v instanceof List) {
                     List list = (List) v;
                     if (list.isEmpty()) return "";
@@ -101,17 +133,72 @@ public class TransformRegistry {
 
     public void register(TransformFunction fn) {
         functions.put(fn.name(), fn);
+        compiled.clear();
+        version.incrementAndGet();
     }
 
+    /**
+     * Changes whenever a function is registered; transforms compiled under an older version
+     * may be bound to replaced functions.
+     */
+    public int version() {
+        return version.get();
+    }
+
+    public TransformFunction find(String name) {
+        return name == null ? null : functions.get(name);
+    }
+
+    /**
+     * Applies a spec, compiling it on first use. The compiled specs are dropped as a whole once
+     * {@value #MAX_COMPILED_SPECS} are cached.
+     */
     public Object apply(String spec, Object value) {
         if (spec == null || spec.isBlank()) return value;
-        String name = spec;
-        String arg = null;
-        if (spec.contains(":")) {
-            name = spec.substring(0, spec.indexOf(":"));
-            arg = spec.substring(spec.indexOf(":") + 1);
+        CompiledTransform transform = compiled.get(spec);
+        if (transform == null) {
+            if (compiled.size() >= MAX_COMPILED_SPECS) compiled.clear();
+            transform = compiled.computeIfAbsent(spec, this::compile);
         }
-        TransformFunction fn = functions.get(name);
-        return fn == null ? value : fn.apply(value, arg);
+        return transform.apply(value);
+    }
+
+    /**
+     * Compiles a spec such as {@code DATE_FMT:dd/MM/yyyy} or a pipeline such as
+     * {@code TRIM|UPPER} into a bound transform; steps run left to right. A '|' only
+     * starts a new step when a registered function name follows it, so separators like
+     * {@code JOIN:|} or {@code JOIN: | } keep working. Unknown functions are skipped.
+     */
+    public CompiledTransform compile(String spec) {
+        if (spec == null || spec.isBlank()) return CompiledTransform.IDENTITY;
+        List<CompiledTransform> steps = new ArrayList<>(1);
+        int start = 0;
+        for (int i = 0; i <= spec.length(); i++) {
+            if (i == spec.length() || (spec.charAt(i) == '|' && startsStep(spec, i + 1))) {
+                CompiledTransform step = compileStep(spec.substring(start, i));
+                if (step != null) steps.add(step);
+                start = i + 1;
+            }
+        }
+        if (steps.isEmpty()) return CompiledTransform.IDENTITY;
+        if (steps.size() == 1) return steps.get(0);
+        CompiledTransform[] chain = steps.toArray(new CompiledTransform[0]);
+        return value -> {
+            Object v = value;
+            for (CompiledTransform t : chain) v = t.apply(v);
+            return v;
+        };
+    }
+
+    private CompiledTransform compileStep(String step) {
+        int colon = step.indexOf(':');
+        TransformFunction fn = functions.get(colon < 0 ? step : step.substring(0, colon));
+        return fn == null ? null : fn.bind(colon < 0 ? null : step.substring(colon + 1));
+    }
+
+    private boolean startsStep(String spec, int from) {
+        int end = from;
+        while (end < spec.length() && spec.charAt(end) != ':' && spec.charAt(end) != '|') end++;
+        return end > from && functions.containsKey(spec.substring(from, end));
     }
 }
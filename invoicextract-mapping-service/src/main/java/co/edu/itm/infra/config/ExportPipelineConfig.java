@@ -0,0 +1,51 @@
+package co.edu.itm.infra.config;
+
+import co.edu.itm.application.usecase.ParallelMappingPipeline;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExportPipelineConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "export.pipeline")
+    public ExportPipelineProperties exportPipelineProperties() {
+        return new ExportPipelineProperties();
+    }
+
+    // Bounded pool shared by exports; when the queue is full the submitting thread maps the item itself.
+    // Lazy: only created when parallelMappingPipeline needs it (parallelism > 1)
+    @Lazy
+    @Bean(name = "exportMappingExecutor", destroyMethod = "shutdown")
+    public ExecutorService exportMappingExecutor(@Qualifier("exportPipelineProperties") ExportPipelineProperties p) {
+        int threads = Math.max(1, p.getParallelism());
+        AtomicInteger seq = new AtomicInteger();
+        ThreadFactory tf = r -> {
+            Thread t = new Thread(r, "export-map-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, p.getQueueDepth())), tf, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean
+    public ParallelMappingPipeline parallelMappingPipeline(@Qualifier("exportPipelineProperties") ExportPipelineProperties p,
+                                                           @Qualifier("exportMappingExecutor") ObjectProvider<ExecutorService> executor) {
+        if (p.getParallelism() <= 1) {
+            return ParallelMappingPipeline.sequential();
+        }
+        return new ParallelMappingPipeline(executor.getObject(), p.getQueueDepth());
+    }
+}
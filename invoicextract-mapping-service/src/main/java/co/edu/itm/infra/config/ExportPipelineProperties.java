@@ -0,0 +1,13 @@
+package co.edu.itm.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ExportPipelineProperties {
+    // Mapping threads; 1 maps on the request thread
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    // Max invoices in flight (queued or mapped but not yet written) per export
+    private int queueDepth = 256;
+}
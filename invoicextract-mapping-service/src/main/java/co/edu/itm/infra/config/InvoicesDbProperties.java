@@ -10,4 +10,6 @@ public class InvoicesDbProperties {
     private String username;
     private String password;
     private String driverClassName;
+    // Max invoice ids per "invoice_id IN (...)" query when loading items; also the page size of scans
+    private int itemBatchSize = 500;
 }
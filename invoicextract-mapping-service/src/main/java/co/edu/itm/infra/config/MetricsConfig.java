@@ -0,0 +1,16 @@
+package co.edu.itm.infra.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // The erp tag comes from the request; cap its distinct values so unknown names cannot grow the registry
+    @Bean
+    public MeterFilter exportErpTagLimit(@Value("${export.metrics.max-erps:50}") int maxErps) {
+        return MeterFilter.maximumAllowableTags("export", "erp", maxErps, MeterFilter.deny());
+    }
+}
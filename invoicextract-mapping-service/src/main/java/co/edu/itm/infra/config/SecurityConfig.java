@@ -40,6 +40,9 @@ public class SecurityConfig {
                 ).permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
+                // Prometheus scrape: export metrics are tagged with ERP names
+                .requestMatchers(new AntPathRequestMatcher("/actuator/prometheus")).hasRole("ADMIN")
+
                 // Business routes
                 .requestMatchers("/api/configs/**").hasRole("ADMIN")
                 .requestMatchers("/api/invoices/**").hasAnyRole("FINANZAS", "ADMIN")
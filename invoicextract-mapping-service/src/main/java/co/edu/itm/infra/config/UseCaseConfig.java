@@ -1,16 +1,23 @@
 package co.edu.itm.infra.config;
 
 import co.edu.itm.application.usecase.ExportInvoicesUseCase;
+import co.edu.itm.application.usecase.ParallelMappingPipeline;
+import co.edu.itm.domain.ports.ExportWatermarkPort;
 import co.edu.itm.domain.ports.InvoiceRepositoryPort;
 import co.edu.itm.domain.ports.MappingRepositoryPort;
 import co.edu.itm.domain.service.DynamicMappingService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class UseCaseConfig {
     @Bean
-    public ExportInvoicesUseCase exportInvoicesUseCase(InvoiceRepositoryPort i, MappingRepositoryPort m, DynamicMappingService d) {
-        return new ExportInvoicesUseCase(i, m, d);
+    public ExportInvoicesUseCase exportInvoicesUseCase(InvoiceRepositoryPort i, MappingRepositoryPort m, DynamicMappingService d, ExportWatermarkPort w,
+                                                       ParallelMappingPipeline p,
+                                                       @Value("${export.watermark.safety-lag:1m}") Duration safetyLag) {
+        return new ExportInvoicesUseCase(i, m, d, w, p, safetyLag);
     }
 }
@@ -1,52 +1,280 @@
 package co.edu.itm.adapters.in.rest;
 
 import co.edu.itm.application.usecase.ExportInvoicesUseCase;
+import co.edu.itm.application.usecase.ExportMode;
+import co.edu.itm.application.usecase.ExportResult;
+import co.edu.itm.domain.model.Invoice;
+import co.edu.itm.domain.ports.ExportMetricsPort;
+import co.edu.itm.domain.ports.ExportMetricsPort.Recorder;
+import co.edu.itm.domain.ports.ExportMetricsPort.Stage;
 import co.edu.itm.domain.ports.ExportServicePort;
+import co.edu.itm.adapters.out.export.ExportServiceAdapter;
+import co.edu.itm.domain.ports.ExportWatermarkPort;
+import co.edu.itm.domain.ports.InvoiceRepositoryPort;
 import co.edu.itm.domain.ports.MappingRepositoryPort;
+import co.edu.itm.domain.ports.RowWriter;
+import co.edu.itm.domain.service.DynamicMappingService;
+import co.edu.itm.domain.service.MappingPlan;
+import co.edu.itm.domain.service.TransformRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ExportControllerTest {
 
+    private static final MappingPlan PLAN = MappingPlan.compile(List.of(), new TransformRegistry());
+
     @Test
     void export_json_returnsJsonStringBody() {
         ExportInvoicesUseCase useCase = mock(ExportInvoicesUseCase.class);
+        when(useCase.planFor(eq("SAP"), any(Recorder.class))).thenReturn(PLAN);
         ExportServicePort exporter = mock(ExportServicePort.class);
         MappingRepositoryPort mappingPort = mock(MappingRepositoryPort.class);
-        when(useCase.exportMapped("SAP", false)).thenReturn(List.of(Map.of("k", "v")));
+        when(useCase.exportMapped(eq("SAP"), same(PLAN), eq(false), any(Recorder.class))).thenReturn(List.of(Map.of("k", "v")));
         when(exporter.toJson(anyList())).thenReturn("[{\"k\":\"v\"}]");
 
-        ExportController controller = new ExportController(useCase, exporter, mappingPort);
-        ResponseEntity<?> resp = controller.export("SAP", "json", false, false);
+        ExportController controller = new ExportController(useCase, exporter, mappingPort, ExportMetricsPort.NOOP);
+        ResponseEntity<?> resp = controller.export("SAP", "json", false, false, false, false);
 
         assertEquals(200, resp.getStatusCode().value());
         assertEquals("[{\"k\":\"v\"}]", resp.getBody());
-        verify(useCase).exportMapped("SAP", false);
+        verify(useCase).exportMapped(eq("SAP"), same(PLAN), eq(false), any(Recorder.class));
         verify(exporter).toJson(anyList());
     }
 
     @Test
     void export_csv_returnsBytesWithHeader() {
         ExportInvoicesUseCase useCase = mock(ExportInvoicesUseCase.class);
+        when(useCase.planFor(eq("SAP"), any(Recorder.class))).thenReturn(PLAN);
         ExportServicePort exporter = mock(ExportServicePort.class);
         MappingRepositoryPort mappingPort = mock(MappingRepositoryPort.class);
-        when(useCase.exportMapped("SAP", true)).thenReturn(List.of(Map.of("a", 1)));
-        when(exporter.toCsv(anyList())).thenReturn("a\n1\n".getBytes(StandardCharsets.UTF_8));
+        when(useCase.exportMapped(eq("SAP"), same(PLAN), eq(true), any(Recorder.class))).thenReturn(List.of(Map.of("a", 1)));
+        when(exporter.toCsv(anyList(), anyList())).thenReturn("a\n1\n".getBytes(StandardCharsets.UTF_8));
 
-        ExportController controller = new ExportController(useCase, exporter, mappingPort);
-        ResponseEntity<?> resp = controller.export("SAP", "csv", true, false);
+        ExportController controller = new ExportController(useCase, exporter, mappingPort, ExportMetricsPort.NOOP);
+        ResponseEntity<?> resp = controller.export("SAP", "csv", true, false, false, false);
 
         assertEquals(200, resp.getStatusCode().value());
         assertTrue(resp.getHeaders().getFirst("Content-Disposition").contains("export.csv"));
         assertArrayEquals("a\n1\n".getBytes(StandardCharsets.UTF_8), (byte[]) resp.getBody());
-        verify(useCase).exportMapped("SAP", true);
-        verify(exporter).toCsv(anyList());
+        verify(useCase).exportMapped(eq("SAP"), same(PLAN), eq(true), any(Recorder.class));
+        verify(exporter).toCsv(anyList(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportStream_json_writesRowsAsTheyAreMapped() throws Exception {
+        ExportInvoicesUseCase useCase = mock(ExportInvoicesUseCase.class);
+        when(useCase.planFor(eq("SAP"), any(Recorder.class))).thenReturn(PLAN);
+        MappingRepositoryPort mappingPort = mock(MappingRepositoryPort.class);
+        when(useCase.exportMapped(eq("SAP"), same(PLAN), eq(false), eq(ExportMode.FULL), any(Consumer.class), any(Recorder.class))).thenAnswer(call -> {
+            Consumer<Map<String, Object>> sink = call.getArgument(4);
+            sink.accept(Map.of("k", "v1"));
+            sink.accept(Map.of("k", "v2"));
+            return new ExportResult("SAP", 2, null, 0L);
+        });
+
+        ExportController controller = new ExportController(useCase, new ExportServiceAdapter(), mappingPort, ExportMetricsPort.NOOP);
+        ResponseEntity<StreamingResponseBody> resp = controller.exportStream("SAP", "json", false, true, false, false);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+        assertEquals(200, resp.getStatusCode().value());
+        assertEquals("[{\"k\":\"v1\"},{\"k\":\"v2\"}]", out.toString(StandardCharsets.UTF_8));
+        verify(mappingPort).invalidateCacheForErp("SAP");
+        verify(useCase, never()).exportMapped("SAP", false);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportStream_csv_setsAttachmentHeader() throws Exception {
+        ExportInvoicesUseCase useCase = mock(ExportInvoicesUseCase.class);
+        when(useCase.planFor(eq("SAP"), any(Recorder.class))).thenReturn(PLAN);
+        MappingRepositoryPort mappingPort = mock(MappingRepositoryPort.class);
+        when(useCase.exportMapped(eq("SAP"), same(PLAN), eq(true), eq(ExportMode.FULL), any(Consumer.class), any(Recorder.class))).thenAnswer(call -> {
+            ((Consumer<Map<String, Object>>) call.getArgument(4)).accept(Map.of("a", 1));
+            return new ExportResult("SAP", 1, null, 0L);
+        });
+
+        ExportController controller = new ExportController(useCase, new ExportServiceAdapter(), mappingPort, ExportMetricsPort.NOOP);
+        ResponseEntity<StreamingResponseBody> resp = controller.exportStream("SAP", "csv", true, false, false, false);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+        assertTrue(resp.getHeaders().getFirst("Content-Disposition").contains("export.csv"));
+        assertEquals("a\n1\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_incrementalAndResync_passModeToUseCase() {
+        ExportInvoicesUseCase useCase = mock(ExportInvoicesUseCase.class);
+        when(useCase.planFor(eq("SAP"), any(Recorder.class))).thenReturn(PLAN);
+        ExportServicePort exporter = mock(ExportServicePort.class);
+        MappingRepositoryPort mappingPort = mock(MappingRepositoryPort.class);
+        when(useCase.exportMapped(eq("SAP"), same(PLAN), eq(false), any(ExportMode.class), any(Consumer.class), any(Recorder.class)))
+                .thenReturn(new ExportResult("SAP", 0, null, 0L));
+        when(exporter.toJson(anyList())).thenReturn("[]");
+
+        ExportController controller = new ExportController(useCase, exporter, mappingPort, ExportMetricsPort.NOOP);
+        controller.export("SAP", "json", false, false, true, false);
+        controller.export("SAP", "json", false, false, true, true);
+
+        verify(useCase).exportMapped(eq("SAP"), same(PLAN), eq(false), eq(ExportMode.INCREMENTAL), any(Consumer.class), any(Recorder.class));
+        verify(useCase).exportMapped(eq("SAP"), same(PLAN), eq(false), eq(ExportMode.RESYNC), any(Consumer.class), any(Recorder.class));
+        verify(useCase, never()).exportMapped(eq("SAP"), same(PLAN), eq(false), any(Recorder.class));
+    }
+
+    @Test
+    void export_incremental_advancesWatermarkOnlyAfterBodyIsWritten() throws Exception {
+        LocalDateTime modified = LocalDateTime.of(2024, 3, 20, 8, 0);
+        ExportWatermarkPort watermarkPort = mock(ExportWatermarkPort.class);
+        ExportInvoicesUseCase useCase = useCaseOver(List.of(modifiedInvoice(4L, modified)), watermarkPort);
+
+        ResponseEntity<?> resp = new ExportController(useCase, new ExportServiceAdapter(), mock(MappingRepositoryPort.class), ExportMetricsPort.NOOP)
+                .export("SAP", "json", false, false, true, false);
+
+        verify(watermarkPort, never()).save(any(), any(), anyLong());
+        StreamingResponseBody body = (StreamingResponseBody) resp.getBody();
+        assertThrows(IOException.class, () -> body.writeTo(new FailingOutputStream()));
+        verify(watermarkPort, never()).save(any(), any(), anyLong());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        assertEquals("[{}]", out.toString(StandardCharsets.UTF_8));
+        verify(watermarkPort).save("SAP", modified, 4L);
+    }
+
+    @Test
+    void exportStream_incremental_keepsWatermarkWhenWriterFailsOnClose() throws Exception {
+        ExportWatermarkPort watermarkPort = mock(ExportWatermarkPort.class);
+        ExportInvoicesUseCase useCase = useCaseOver(List.of(modifiedInvoice(4L, LocalDateTime.of(2024, 3, 20, 8, 0))), watermarkPort);
+        ExportServicePort exporter = mock(ExportServicePort.class);
+        when(exporter.jsonWriter(any())).thenReturn(new RowWriter() {
+            @Override
+            public void write(Map<String, Object> row) {
+            }
+
+            @Override
+            public void close() throws IOException {
+                throw new IOException("client went away");
+            }
+        });
+
+        ResponseEntity<StreamingResponseBody> resp = new ExportController(useCase, exporter, mock(MappingRepositoryPort.class), ExportMetricsPort.NOOP)
+                .exportStream("SAP", "json", false, false, true, false);
+
+        assertThrows(IOException.class, () -> resp.getBody().writeTo(new ByteArrayOutputStream()));
+        verify(watermarkPort, never()).save(any(), any(), anyLong());
+    }
+
+    private static ExportInvoicesUseCase useCaseOver(List<Invoice> approved, ExportWatermarkPort watermarkPort) {
+        InvoiceRepositoryPort invoiceRepo = mock(InvoiceRepositoryPort.class);
+        doAnswer(call -> {
+            approved.forEach(call.<Consumer<Invoice>>getArgument(0));
+            return null;
+        }).when(invoiceRepo).forEachApproved(any());
+        when(watermarkPort.findByErpName("SAP")).thenReturn(Optional.empty());
+        return new ExportInvoicesUseCase(invoiceRepo, mock(MappingRepositoryPort.class),
+                new DynamicMappingService(new TransformRegistry()), watermarkPort);
+    }
+
+    private static Invoice modifiedInvoice(long id, LocalDateTime modified) {
+        Invoice inv = new Invoice();
+        inv.setId(id);
+        inv.setModifiedDate(modified);
+        return inv;
+    }
+
+    private static final class FailingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("client went away");
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            throw new IOException("client went away");
+        }
+    }
+
+    @Test
+    void export_csv_recordsStagesTaggedByErpAndFormat() {
+        ExportInvoicesUseCase useCase = mock(ExportInvoicesUseCase.class);
+        when(useCase.planFor(eq("SAP"), any(Recorder.class))).thenReturn(PLAN);
+        ExportServicePort exporter = mock(ExportServicePort.class);
+        ExportMetricsPort metricsPort = mock(ExportMetricsPort.class);
+        Recorder metrics = mock(Recorder.class);
+        when(metricsPort.start("SAP", "csv")).thenReturn(metrics);
+        when(useCase.exportMapped(eq("SAP"), same(PLAN), eq(false), same(metrics))).thenReturn(List.of(Map.of("a", 1)));
+        when(exporter.toCsv(anyList(), anyList())).thenReturn(new byte[1]);
+
+        new ExportController(useCase, exporter, mock(MappingRepositoryPort.class), metricsPort)
+                .export("SAP", "CSV", false, false, false, false);
+
+        // RULES is recorded by the use case while compiling the plan; the CSV columns come from that plan
+        verify(useCase).planFor("SAP", metrics);
+        verify(metrics, never()).record(eq(Stage.RULES), anyLong());
+        verify(metrics).record(eq(Stage.SERIALIZE), anyLong());
+        verify(metrics).finish(1);
+        verify(metrics, never()).fail();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportStream_recordsWriteAndFinishesAfterLastRow() throws Exception {
+        ExportInvoicesUseCase useCase = mock(ExportInvoicesUseCase.class);
+        when(useCase.planFor(eq("SAP"), any(Recorder.class))).thenReturn(PLAN);
+        ExportMetricsPort metricsPort = mock(ExportMetricsPort.class);
+        Recorder metrics = mock(Recorder.class);
+        when(metricsPort.start("SAP", "json")).thenReturn(metrics);
+        when(useCase.exportMapped(eq("SAP"), same(PLAN), eq(false), eq(ExportMode.FULL), any(Consumer.class), same(metrics))).thenAnswer(call -> {
+            ((Consumer<Map<String, Object>>) call.getArgument(4)).accept(Map.of("k", "v"));
+            return new ExportResult("SAP", 1, null, 0L);
+        });
+
+        ResponseEntity<StreamingResponseBody> resp = new ExportController(useCase, new ExportServiceAdapter(), mock(MappingRepositoryPort.class), metricsPort)
+                .exportStream("SAP", "json", false, false, false, false);
+        verify(metrics, never()).finish(anyLong());
+        resp.getBody().writeTo(new ByteArrayOutputStream());
+
+        verify(metrics).record(eq(Stage.WRITE), anyLong());
+        verify(metrics).finish(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportStream_recordsFailureWhenExportThrows() {
+        ExportInvoicesUseCase useCase = mock(ExportInvoicesUseCase.class);
+        when(useCase.planFor(eq("SAP"), any(Recorder.class))).thenReturn(PLAN);
+        ExportMetricsPort metricsPort = mock(ExportMetricsPort.class);
+        Recorder metrics = mock(Recorder.class);
+        when(metricsPort.start("SAP", "json")).thenReturn(metrics);
+        when(useCase.exportMapped(eq("SAP"), same(PLAN), eq(false), eq(ExportMode.FULL), any(Consumer.class), same(metrics)))
+                .thenThrow(new IllegalStateException("db down"));
+
+        ResponseEntity<StreamingResponseBody> resp = new ExportController(useCase, new ExportServiceAdapter(), mock(MappingRepositoryPort.class), metricsPort)
+                .exportStream("SAP", "json", false, false, false, false);
+
+        assertThrows(IllegalStateException.class, () -> resp.getBody().writeTo(new ByteArrayOutputStream()));
+        verify(metrics).fail();
+        verify(metrics, never()).finish(anyLong());
     }
 }
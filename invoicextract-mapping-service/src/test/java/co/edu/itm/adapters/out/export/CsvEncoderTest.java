@@ -0,0 +1,63 @@
+package co.edu.itm.adapters.out.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvEncoderTest {
+
+    private static String encode(Object value) throws Exception {
+        CsvEncoder csv = new CsvEncoder(16);
+        csv.writeValue(value);
+        return new String(csv.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void writeValue_decimals_usePlainNotation() throws Exception {
+        assertEquals("1250.75", encode(new BigDecimal("1250.75")));
+        assertEquals("-0.05", encode(new BigDecimal("-0.05")));
+        assertEquals("0.0000001", encode(new BigDecimal("1E-7")));
+        assertEquals("1000", encode(new BigDecimal("1E+3")));
+        assertEquals("42", encode(new BigDecimal("42")));
+        assertEquals("12345678901234567890.12", encode(new BigDecimal("12345678901234567890.12")));
+    }
+
+    @Test
+    void writeValue_numbersDatesAndBooleans_matchToString() throws Exception {
+        assertEquals("0", encode(0));
+        assertEquals("-17", encode(-17L));
+        assertEquals(Long.toString(Long.MIN_VALUE), encode(Long.MIN_VALUE));
+        assertEquals("2024-03-05", encode(LocalDate.of(2024, 3, 5)));
+        assertEquals("0099-12-31", encode(LocalDate.of(99, 12, 31)));
+        assertEquals("2024-03-15T09:30", encode(LocalDateTime.of(2024, 3, 15, 9, 30)));
+        assertEquals("true", encode(true));
+        assertEquals("1.5", encode(1.5d));
+    }
+
+    @Test
+    void writeValue_text_encodesUtf8AndQuotesWhenNeeded() throws Exception {
+        assertEquals("Bogotá ñ € 😀", encode("Bogotá ñ € 😀"));
+        assertEquals("\"a,b\"", encode("a,b"));
+        assertEquals("\"x\"\"y\"", encode("x\"y"));
+        assertEquals("\"l1\r\nl2\"", encode("l1\r\nl2"));
+        assertEquals("\"[1, 2]\"", encode(List.of(1, 2)));
+    }
+
+    @Test
+    void streaming_flushesWhenBufferFills() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvEncoder csv = new CsvEncoder(out);
+        String longText = "é".repeat(CsvEncoder.DEFAULT_BUFFER_SIZE);
+        csv.writeValue(longText);
+        csv.writeValue(longText);
+        csv.flush();
+        assertEquals(longText + longText, out.toString(StandardCharsets.UTF_8));
+    }
+}
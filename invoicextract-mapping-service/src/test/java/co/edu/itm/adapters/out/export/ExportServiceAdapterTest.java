@@ -1,8 +1,14 @@
 package co.edu.itm.adapters.out.export;
 
+import co.edu.itm.domain.ports.RowWriter;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -42,4 +48,101 @@ class ExportServiceAdapterTest {
         assertTrue(json.contains("\"k\""));
         assertTrue(json.contains("\"v\""));
     }
+
+    @Test
+    void jsonWriter_writesArrayIncrementally() throws Exception {
+        ExportServiceAdapter adapter = new ExportServiceAdapter();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RowWriter writer = adapter.jsonWriter(out)) {
+            writer.write(Map.of("k", "v"));
+            writer.write(Map.of("d", LocalDate.of(2024, 3, 15)));
+        }
+        assertEquals("[{\"k\":\"v\"},{\"d\":\"2024-03-15\"}]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void jsonWriter_noRows_writesEmptyArray() throws Exception {
+        ExportServiceAdapter adapter = new ExportServiceAdapter();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        adapter.jsonWriter(out).close();
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csvWriter_writesHeaderFromFirstRow() throws Exception {
+        ExportServiceAdapter adapter = new ExportServiceAdapter();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Map<String, Object> r1 = new LinkedHashMap<>();
+        r1.put("a", 1);
+        r1.put("b", "x");
+        Map<String, Object> r2 = new LinkedHashMap<>();
+        r2.put("a", 2);
+        r2.put("b", null);
+        try (RowWriter writer = adapter.csvWriter(out)) {
+            writer.write(r1);
+            writer.write(r2);
+        }
+        assertEquals("a,b\n1,x\n2,\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void toCsv_quotesFieldsPerRfc4180() {
+        ExportServiceAdapter adapter = new ExportServiceAdapter();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", "ACME, S.A.");
+        row.put("note", "dice \"hola\"");
+        row.put("lines", "a\nb");
+        row.put("plain", "ok");
+
+        String csv = new String(adapter.toCsv(List.of(row)), StandardCharsets.UTF_8);
+
+        assertEquals("name,note,lines,plain\n\"ACME, S.A.\",\"dice \"\"hola\"\"\",\"a\nb\",ok\n", csv);
+    }
+
+    @Test
+    void toCsv_withHeaders_usesGivenColumnsAndOrder() {
+        ExportServiceAdapter adapter = new ExportServiceAdapter();
+        Map<String, Object> r1 = new LinkedHashMap<>();
+        r1.put("a", 1);
+        Map<String, Object> r2 = new LinkedHashMap<>();
+        r2.put("b", "y");
+        r2.put("a", 2);
+
+        String csv = new String(adapter.toCsv(List.of("b", "a"), List.of(r1, r2)), StandardCharsets.UTF_8);
+
+        assertEquals("b,a\n,1\ny,2\n", csv);
+    }
+
+    @Test
+    void toCsv_withHeadersAndNoRows_writesHeaderOnly() {
+        ExportServiceAdapter adapter = new ExportServiceAdapter();
+        assertEquals("a,b\n", new String(adapter.toCsv(List.of("a", "b"), List.of()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csvWriter_withHeaders_writesHeaderEvenWithoutRows() throws Exception {
+        ExportServiceAdapter adapter = new ExportServiceAdapter();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        adapter.csvWriter(out, List.of("a", "b")).close();
+        assertEquals("a,b\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csvWriter_matchesToCsvForLargeOutput() throws Exception {
+        ExportServiceAdapter adapter = new ExportServiceAdapter();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("id", i);
+            r.put("desc", "línea, " + i);
+            r.put("total", new BigDecimal("10.5").add(BigDecimal.valueOf(i)));
+            r.put("fecha", LocalDate.of(2024, 1, 1).plusDays(i % 300));
+            rows.add(r);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RowWriter writer = adapter.csvWriter(out)) {
+            for (Map<String, Object> r : rows) writer.write(r);
+        }
+        assertArrayEquals(adapter.toCsv(rows), out.toByteArray());
+    }
 }
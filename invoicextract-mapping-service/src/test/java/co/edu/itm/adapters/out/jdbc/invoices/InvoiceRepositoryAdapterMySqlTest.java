@@ -0,0 +1,208 @@
+package co.edu.itm.adapters.out.jdbc.invoices;
+
+import co.edu.itm.domain.model.Invoice;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures statements issued and latency of findApproved against a real MySQL,
+ * comparing one query per invoice (batch size 1) with batched IN (...) loading.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class InvoiceRepositoryAdapterMySqlTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceRepositoryAdapterMySqlTest.class);
+
+    private static final int INVOICES = 300;
+    private static final int ITEMS_PER_INVOICE = 3;
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    private static HikariDataSource dataSource;
+
+    @BeforeAll
+    static void createSchema() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(MYSQL.getJdbcUrl());
+        dataSource.setUsername(MYSQL.getUsername());
+        dataSource.setPassword(MYSQL.getPassword());
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE invoices (id BIGINT AUTO_INCREMENT PRIMARY KEY, document_type VARCHAR(50), " +
+                "document_number VARCHAR(100), receiver_tax_id VARCHAR(50), receiver_tax_id_without_check_digit VARCHAR(50), " +
+                "receiver_business_name VARCHAR(255), sender_tax_id VARCHAR(50), sender_tax_id_without_check_digit VARCHAR(50), " +
+                "sender_business_name VARCHAR(255), invoice_path_pdf VARCHAR(500), invoice_path_xml VARCHAR(500), " +
+                "related_document_number VARCHAR(100), amount DECIMAL(15,2), issue_date DATE, due_date DATE, status VARCHAR(20), " +
+                "created_date DATETIME, modified_date DATETIME, created_by VARCHAR(100), modified_by VARCHAR(100))");
+        jdbc.execute("CREATE TABLE invoice_items (id BIGINT AUTO_INCREMENT PRIMARY KEY, invoice_id BIGINT NOT NULL, " +
+                "item_code VARCHAR(100), description VARCHAR(500), quantity INT, unit VARCHAR(20), unit_price DECIMAL(15,2), " +
+                "subtotal DECIMAL(15,2), tax_amount DECIMAL(15,2), total DECIMAL(15,2), INDEX idx_invoice_items_invoice_id (invoice_id))");
+
+        List<Object[]> invoices = new ArrayList<>();
+        for (int i = 1; i <= INVOICES; i++) {
+            invoices.add(new Object[]{i, "FV", "INV-" + i, "APPROVED"});
+        }
+        jdbc.batchUpdate("INSERT INTO invoices (id, document_type, document_number, status) VALUES (?,?,?,?)", invoices);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= INVOICES; i++) {
+            for (int j = 0; j < ITEMS_PER_INVOICE; j++) {
+                items.add(new Object[]{i, "IT-" + j, j + 1, 10.0});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO invoice_items (invoice_id, item_code, quantity, unit_price) VALUES (?,?,?,?)", items);
+    }
+
+    @AfterAll
+    static void close() {
+        if (dataSource != null) dataSource.close();
+    }
+
+    @Test
+    void findApproved_batchedItemLoadingIssuesFewerQueries() {
+        Measurement perInvoice = measure(1);
+        Measurement batched = measure(InvoiceRepositoryAdapter.DEFAULT_ITEM_BATCH_SIZE);
+
+        log.info("findApproved batch=1 queries={} time={}ms | batch={} queries={} time={}ms",
+                perInvoice.queries, perInvoice.millis, InvoiceRepositoryAdapter.DEFAULT_ITEM_BATCH_SIZE,
+                batched.queries, batched.millis);
+
+        assertEquals(1 + INVOICES, perInvoice.queries);
+        assertEquals(2, batched.queries);
+        assertEquals(perInvoice.itemCount, batched.itemCount);
+        assertEquals(INVOICES * ITEMS_PER_INVOICE, batched.itemCount);
+    }
+
+    @Test
+    void findApproved_splitsIdsByConfiguredBatchSize() {
+        Measurement m = measure(100);
+        assertEquals(1 + INVOICES / 100, m.queries);
+        assertEquals(INVOICES * ITEMS_PER_INVOICE, m.itemCount);
+    }
+
+    @Test
+    void forEachApproved_streamsInIdOrderAndResumesFromCheckpoint() {
+        InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(new JdbcTemplate(dataSource), 50);
+
+        List<Invoice> firstPage = adapter.findApprovedAfter(0L, 120);
+        long checkpoint = firstPage.get(firstPage.size() - 1).getId();
+
+        List<Long> rest = new ArrayList<>();
+        adapter.forEachApproved(checkpoint, inv -> {
+            assertEquals(ITEMS_PER_INVOICE, inv.getItems().size());
+            rest.add(inv.getId());
+        });
+
+        assertEquals(120L, checkpoint);
+        assertEquals(INVOICES - 120, rest.size());
+        assertEquals(121L, rest.get(0));
+        assertEquals((long) INVOICES, rest.get(rest.size() - 1));
+    }
+
+    @Test
+    void forEachApproved_concurrentStreamsShareASmallPool() throws Exception {
+        int streams = 8;
+        try (HikariDataSource small = new HikariDataSource()) {
+            small.setJdbcUrl(MYSQL.getJdbcUrl());
+            small.setUsername(MYSQL.getUsername());
+            small.setPassword(MYSQL.getPassword());
+            small.setMaximumPoolSize(2);
+            small.setConnectionTimeout(5_000);
+            InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(new JdbcTemplate(small), 50);
+            // Every stream waits in its consumer until all of them are there, like slow clients would
+            CountDownLatch allStarted = new CountDownLatch(streams);
+
+            ExecutorService executor = Executors.newFixedThreadPool(streams);
+            try {
+                List<Future<Integer>> counts = new ArrayList<>();
+                for (int i = 0; i < streams; i++) {
+                    counts.add(executor.submit(() -> {
+                        AtomicInteger seen = new AtomicInteger();
+                        adapter.forEachApproved(inv -> {
+                            if (seen.getAndIncrement() == 0) {
+                                allStarted.countDown();
+                                try {
+                                    assertTrue(allStarted.await(10, TimeUnit.SECONDS), "streams did not run concurrently");
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            }
+                        });
+                        return seen.get();
+                    }));
+                }
+                for (Future<Integer> count : counts) {
+                    assertEquals(INVOICES, count.get(30, TimeUnit.SECONDS));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private record Measurement(int queries, long millis, int itemCount) {}
+
+    private static Measurement measure(int batchSize) {
+        AtomicInteger statements = new AtomicInteger();
+        InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(new JdbcTemplate(counting(dataSource, statements)), batchSize);
+        adapter.findApproved(); // warm-up
+        statements.set(0);
+
+        long t0 = System.nanoTime();
+        List<Invoice> out = adapter.findApproved();
+        long millis = (System.nanoTime() - t0) / 1_000_000;
+
+        int items = out.stream().mapToInt(i -> i.getItems().size()).sum();
+        return new Measurement(statements.get(), millis, items);
+    }
+
+    // Wraps the DataSource so every statement prepared or created is counted
+    private static DataSource counting(DataSource target, AtomicInteger counter) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Connection conn) {
+                        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                (p, m, a) -> {
+                                    if (m.getName().equals("prepareStatement") || m.getName().equals("createStatement")) {
+                                        counter.incrementAndGet();
+                                    }
+                                    return invoke(conn, m, a);
+                                });
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
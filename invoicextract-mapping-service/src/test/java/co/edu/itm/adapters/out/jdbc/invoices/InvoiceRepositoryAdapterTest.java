@@ -1,13 +1,22 @@
 package co.edu.itm.adapters.out.jdbc.invoices;
 
 import co.edu.itm.domain.model.Invoice;
-import co.edu.itm.domain.model.InvoiceItem;
 import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -16,7 +25,7 @@ import static org.mockito.Mockito.*;
 class InvoiceRepositoryAdapterTest {
 
     @Test
-    void findApproved_queriesInvoicesAndItems() {
+    void findApproved_queriesInvoicesAndItems() throws Exception {
         JdbcTemplate jdbc = mock(JdbcTemplate.class);
         InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(jdbc);
 
@@ -28,20 +37,22 @@ class InvoiceRepositoryAdapterTest {
                 .build();
         when(jdbc.query(contains("FROM invoices"), any(RowMapper.class))).thenReturn(List.of(inv));
 
-        InvoiceItem item = InvoiceItem.builder()
-                .id(100L)
-                .itemCode("A1")
-                .quantity(2)
-                .unitPrice(new BigDecimal("10.00"))
-                .total(new BigDecimal("20.00"))
-                .build();
-        when(jdbc.query(contains("FROM invoice_items"), any(RowMapper.class), eq(1L))).thenReturn(List.of(item));
+        ResultSet itemRs = mock(ResultSet.class);
+        when(itemRs.getLong("invoice_id")).thenReturn(1L);
+        when(itemRs.getLong("id")).thenReturn(100L);
+        when(itemRs.getString("item_code")).thenReturn("A1");
+        when(itemRs.getObject("quantity")).thenReturn(2);
+        when(itemRs.getBigDecimal("unit_price")).thenReturn(new BigDecimal("10.00"));
+        when(itemRs.getBigDecimal("total")).thenReturn(new BigDecimal("20.00"));
+        when(jdbc.query(contains("FROM invoice_items"), any(RowMapper.class), eq(1L)))
+                .thenAnswer(call -> List.of(((RowMapper<?>) call.getArgument(1)).mapRow(itemRs, 0)));
 
         List<Invoice> out = adapter.findApproved();
         assertEquals(1, out.size());
         assertEquals("INV-1", out.get(0).getDocumentNumber());
         assertEquals(1, out.get(0).getItems().size());
         assertEquals("A1", out.get(0).getItems().get(0).getItemCode());
+        assertEquals(2, out.get(0).getItems().get(0).getQuantity());
 
         verify(jdbc).query(contains("FROM invoices"), any(RowMapper.class));
         verify(jdbc).query(contains("FROM invoice_items"), any(RowMapper.class), eq(1L));
@@ -57,4 +68,145 @@ class InvoiceRepositoryAdapterTest {
         // items query should not be invoked when no invoices present
         verify(jdbc, times(1)).query(anyString(), any(RowMapper.class));
     }
+
+    @Test
+    void findApproved_loadsItemsInChunksOfConfiguredBatchSize() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(jdbc, 2);
+
+        List<Invoice> invoices = List.of(
+                Invoice.builder().id(1L).build(),
+                Invoice.builder().id(2L).build(),
+                Invoice.builder().id(3L).build());
+        when(jdbc.query(contains("FROM invoices"), any(RowMapper.class))).thenReturn(invoices);
+        when(jdbc.query(contains("FROM invoice_items"), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        List<Invoice> out = adapter.findApproved();
+
+        assertEquals(3, out.size());
+        out.forEach(i -> assertTrue(i.getItems().isEmpty()));
+        verify(jdbc).query(contains("IN (?,?)"), any(RowMapper.class), eq(1L), eq(2L));
+        verify(jdbc).query(contains("IN (?)"), any(RowMapper.class), eq(3L));
+    }
+
+    @Test
+    void forEachApproved_walksKeysetPagesWithItemsLoaded() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(jdbc, 2);
+        when(jdbc.query(contains("ORDER BY id LIMIT ?"), any(RowMapper.class), eq(0L), eq(2)))
+                .thenReturn(List.of(Invoice.builder().id(1L).build(), Invoice.builder().id(2L).build()));
+        when(jdbc.query(contains("ORDER BY id LIMIT ?"), any(RowMapper.class), eq(2L), eq(2)))
+                .thenReturn(List.of(Invoice.builder().id(3L).build()));
+        when(jdbc.query(contains("FROM invoice_items"), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        List<Long> seen = new ArrayList<>();
+        adapter.forEachApproved(inv -> {
+            assertNotNull(inv.getItems());
+            seen.add(inv.getId());
+        });
+
+        assertEquals(List.of(1L, 2L, 3L), seen);
+        verify(jdbc).query(contains("IN (?,?)"), any(RowMapper.class), eq(1L), eq(2L));
+        verify(jdbc).query(contains("IN (?)"), any(RowMapper.class), eq(3L));
+        // A short page is the last one
+        verify(jdbc, times(2)).query(contains("ORDER BY id LIMIT ?"), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void forEachApproved_resumesFromCheckpoint() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(jdbc, 10);
+        when(jdbc.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        adapter.forEachApproved(42L, inv -> fail("no rows expected"));
+
+        verify(jdbc).query(contains("AND id > ? ORDER BY id LIMIT ?"), any(RowMapper.class), eq(42L), eq(10));
+        verify(jdbc, never()).query(contains("FROM invoice_items"), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void forEachApproved_holdsNoConnectionWhileConsumerRuns() throws Exception {
+        // Pool of 2 connections; every stream blocks in its consumer until all of them are there
+        int streams = 6;
+        Semaphore pool = new Semaphore(2);
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(call -> {
+            if (!pool.tryAcquire(5, TimeUnit.SECONDS)) throw new CannotGetJdbcConnectionException("pool exhausted");
+            try {
+                String sql = call.getArgument(0);
+                if (sql.contains("FROM invoice_items")) return List.of();
+                long after = call.getArgument(2);
+                return after == 0L ? List.of(Invoice.builder().id(1L).build()) : List.of();
+            } finally {
+                pool.release();
+            }
+        });
+        InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(jdbc, 1);
+        CountDownLatch allInConsumer = new CountDownLatch(streams);
+
+        ExecutorService executor = Executors.newFixedThreadPool(streams);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < streams; i++) {
+                running.add(executor.submit(() -> adapter.forEachApproved(inv -> {
+                    allInConsumer.countDown();
+                    try {
+                        assertTrue(allInConsumer.await(5, TimeUnit.SECONDS), "streams did not run concurrently");
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })));
+            }
+            for (Future<?> f : running) f.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, pool.availablePermits());
+    }
+
+    @Test
+    void findApprovedAfter_usesKeysetLimitAndLoadsItems() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(jdbc);
+        when(jdbc.query(contains("ORDER BY id LIMIT ?"), any(RowMapper.class), eq(7L), eq(2)))
+                .thenReturn(List.of(Invoice.builder().id(8L).build(), Invoice.builder().id(9L).build()));
+        when(jdbc.query(contains("FROM invoice_items"), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        List<Invoice> page = adapter.findApprovedAfter(7L, 2);
+
+        assertEquals(2, page.size());
+        assertEquals(9L, page.get(1).getId());
+        verify(jdbc).query(contains("IN (?,?)"), any(RowMapper.class), eq(8L), eq(9L));
+    }
+
+    @Test
+    void findApprovedAfter_emptyPage_skipsItemsQuery() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(jdbc);
+        when(jdbc.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        assertTrue(adapter.findApprovedAfter(100L, 50).isEmpty());
+        verify(jdbc, never()).query(contains("FROM invoice_items"), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void forEachApprovedModifiedAfter_pagesAfterWatermark() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        InvoiceRepositoryAdapter adapter = new InvoiceRepositoryAdapter(jdbc, 2);
+        LocalDateTime since = LocalDateTime.of(2024, 3, 1, 10, 0);
+        LocalDateTime upTo = since.plusDays(1);
+        String pageSql = "modified_date <= ? AND (modified_date > ? OR (modified_date = ? AND id > ?)) ORDER BY modified_date, id LIMIT ?";
+        when(jdbc.query(contains(pageSql), any(RowMapper.class), eq(upTo), eq(since), eq(since), eq(5L), eq(2)))
+                .thenReturn(List.of(Invoice.builder().id(9L).modifiedDate(since.plusHours(1)).build(),
+                        Invoice.builder().id(3L).modifiedDate(since.plusHours(2)).build()));
+        when(jdbc.query(contains(pageSql), any(RowMapper.class), eq(upTo), eq(since.plusHours(2)), eq(since.plusHours(2)), eq(3L), eq(2)))
+                .thenReturn(List.of());
+        when(jdbc.query(contains("FROM invoice_items"), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        List<Long> seen = new ArrayList<>();
+        adapter.forEachApprovedModifiedAfter(since, 5L, upTo, inv -> seen.add(inv.getId()));
+
+        assertEquals(List.of(9L, 3L), seen);
+        verify(jdbc, times(2)).query(contains(pageSql), any(RowMapper.class), any(Object[].class));
+    }
 }
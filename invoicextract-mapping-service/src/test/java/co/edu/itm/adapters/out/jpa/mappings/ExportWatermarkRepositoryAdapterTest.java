@@ -0,0 +1,73 @@
+package co.edu.itm.adapters.out.jpa.mappings;
+
+import co.edu.itm.adapters.out.jpa.mappings.entity.ErpEntity;
+import co.edu.itm.adapters.out.jpa.mappings.entity.ExportWatermarkEntity;
+import co.edu.itm.adapters.out.jpa.mappings.repo.ErpJpaRepository;
+import co.edu.itm.adapters.out.jpa.mappings.repo.ExportWatermarkJpaRepository;
+import co.edu.itm.domain.model.ExportWatermark;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExportWatermarkRepositoryAdapterTest {
+
+    private ErpJpaRepository erpRepo;
+    private ExportWatermarkJpaRepository watermarkRepo;
+    private ExportWatermarkRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setup() {
+        erpRepo = mock(ErpJpaRepository.class);
+        watermarkRepo = mock(ExportWatermarkJpaRepository.class);
+        adapter = new ExportWatermarkRepositoryAdapter(erpRepo, watermarkRepo);
+        when(erpRepo.findByNameIgnoreCase("SAP")).thenReturn(Optional.of(ErpEntity.builder().id(3L).name("SAP").status("ACTIVE").build()));
+    }
+
+    @Test
+    void findByErpName_mapsStoredWatermark() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 1, 12, 0);
+        when(watermarkRepo.findByErpId(3L)).thenReturn(Optional.of(
+                ExportWatermarkEntity.builder().id(1L).erpId(3L).lastModifiedDate(at).lastInvoiceId(99L).build()));
+
+        ExportWatermark w = adapter.findByErpName("SAP").orElseThrow();
+
+        assertEquals(3L, w.getErpId());
+        assertEquals(at, w.getLastModifiedDate());
+        assertEquals(99L, w.getLastInvoiceId());
+    }
+
+    @Test
+    void save_createsWatermarkWhenMissing() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 2, 9, 30);
+        when(watermarkRepo.findByErpId(3L)).thenReturn(Optional.empty());
+
+        adapter.save("SAP", at, 120L);
+
+        ArgumentCaptor<ExportWatermarkEntity> captor = ArgumentCaptor.forClass(ExportWatermarkEntity.class);
+        verify(watermarkRepo).save(captor.capture());
+        assertEquals(3L, captor.getValue().getErpId());
+        assertEquals(at, captor.getValue().getLastModifiedDate());
+        assertEquals(120L, captor.getValue().getLastInvoiceId());
+        assertNotNull(captor.getValue().getUpdatedAt());
+    }
+
+    @Test
+    void save_updatesExistingWatermark() {
+        ExportWatermarkEntity existing = ExportWatermarkEntity.builder().id(1L).erpId(3L)
+                .lastModifiedDate(LocalDateTime.of(2024, 1, 1, 0, 0)).lastInvoiceId(1L).build();
+        when(watermarkRepo.findByErpId(3L)).thenReturn(Optional.of(existing));
+        LocalDateTime at = LocalDateTime.of(2024, 3, 2, 9, 30);
+
+        adapter.save("SAP", at, 7L);
+
+        verify(watermarkRepo).save(existing);
+        assertEquals(at, existing.getLastModifiedDate());
+        assertEquals(7L, existing.getLastInvoiceId());
+    }
+}
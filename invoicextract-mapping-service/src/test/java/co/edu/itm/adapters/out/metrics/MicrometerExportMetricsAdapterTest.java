@@ -0,0 +1,59 @@
+package co.edu.itm.adapters.out.metrics;
+
+import co.edu.itm.domain.ports.ExportMetricsPort.Recorder;
+import co.edu.itm.domain.ports.ExportMetricsPort.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicrometerExportMetricsAdapterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerExportMetricsAdapter adapter = new MicrometerExportMetricsAdapter(registry);
+
+    private Timer stage(String erp, String format, String stage) {
+        return registry.get(MicrometerExportMetricsAdapter.STAGE_TIMER)
+                .tags("erp", erp, "format", format, "stage", stage).timer();
+    }
+
+    @Test
+    void recordsStagesTaggedByErpFormatAndStage() {
+        Recorder sap = adapter.start("SAP", "csv");
+        sap.record(Stage.FETCH, 5_000_000);
+        sap.record(Stage.MAP, 1_000);
+        sap.record(Stage.MAP, 3_000);
+        adapter.start("ODOO", "json").record(Stage.MAP, 2_000);
+
+        assertEquals(1, stage("SAP", "csv", "fetch").count());
+        assertEquals(5.0, stage("SAP", "csv", "fetch").totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(2, stage("SAP", "csv", "map").count());
+        assertEquals(1, stage("ODOO", "json", "map").count());
+        assertEquals(0, stage("SAP", "csv", "write").count());
+    }
+
+    @Test
+    void stageTimersPublishPercentileHistogramsToPrometheus() {
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        new MicrometerExportMetricsAdapter(prometheus).start("SAP", "json").record(Stage.SERIALIZE, 1_000_000);
+
+        String scrape = prometheus.scrape();
+        assertTrue(scrape.contains("export_stage_seconds_bucket{erp=\"SAP\",format=\"json\",stage=\"serialize\","), scrape);
+    }
+
+    @Test
+    void finishCountsRowsAndRecordsDurationByOutcome() {
+        adapter.start("SAP", "json").finish(42);
+        adapter.start("SAP", "json").finish(8);
+        adapter.start("SAP", "json").fail();
+
+        assertEquals(50.0, registry.get(MicrometerExportMetricsAdapter.ROWS_COUNTER).tags("erp", "SAP", "format", "json").counter().count());
+        assertEquals(2, registry.get(MicrometerExportMetricsAdapter.DURATION_TIMER).tags("erp", "SAP", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(MicrometerExportMetricsAdapter.DURATION_TIMER).tags("erp", "SAP", "outcome", "error").timer().count());
+    }
+}
@@ -1,11 +1,16 @@
 package co.edu.itm.application.usecase;
 
+import co.edu.itm.domain.model.ExportWatermark;
 import co.edu.itm.domain.model.FieldMapping;
 import co.edu.itm.domain.model.Invoice;
 import co.edu.itm.domain.model.InvoiceItem;
+import co.edu.itm.domain.ports.ExportMetricsPort.Recorder;
+import co.edu.itm.domain.ports.ExportMetricsPort.Stage;
+import co.edu.itm.domain.ports.ExportWatermarkPort;
 import co.edu.itm.domain.ports.InvoiceRepositoryPort;
 import co.edu.itm.domain.ports.MappingRepositoryPort;
 import co.edu.itm.domain.service.DynamicMappingService;
+import co.edu.itm.domain.service.MappingPlan;
 import co.edu.itm.domain.service.TransformRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,11 +18,23 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ExportInvoicesUseCaseTest {
@@ -26,6 +43,8 @@ class ExportInvoicesUseCaseTest {
     private InvoiceRepositoryPort invoiceRepo;
     @Mock
     private MappingRepositoryPort mappingRepo;
+    @Mock
+    private ExportWatermarkPort watermarkRepo;
 
     private DynamicMappingService mappingService;
 
@@ -79,13 +98,22 @@ class ExportInvoicesUseCaseTest {
         );
     }
 
+    @Test
+    void columnsFor_shouldFollowRuleOrder() {
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
+
+        assertEquals(List.of("customer", "docType", "issuedOn", "gross"), useCase.columnsFor("SAP"));
+    }
+
     @Test
     void exportMapped_nestedItems_shouldMapFields() {
         Invoice inv = sampleInvoice();
         when(invoiceRepo.findApproved()).thenReturn(List.of(inv));
         when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
 
-        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService);
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
         List<Map<String, Object>> result = useCase.exportMapped("SAP");
 
         assertEquals(1, result.size());
@@ -110,7 +138,7 @@ class ExportInvoicesUseCaseTest {
         when(invoiceRepo.findApproved()).thenReturn(List.of(inv));
         when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
 
-        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService);
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
         List<Map<String, Object>> result = useCase.exportMapped("SAP", true);
 
         assertEquals(1, result.size());
@@ -125,4 +153,292 @@ class ExportInvoicesUseCaseTest {
         verify(invoiceRepo, times(1)).findApproved();
         verify(mappingRepo, times(1)).findActiveByErpName("SAP");
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportMapped_streaming_shouldHandRowsToSinkFromCursor() {
+        doAnswer(call -> {
+            ((Consumer<Invoice>) call.getArgument(0)).accept(sampleInvoice());
+            ((Consumer<Invoice>) call.getArgument(0)).accept(sampleInvoice());
+            return null;
+        }).when(invoiceRepo).forEachApproved(any());
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
+        List<Map<String, Object>> sink = new ArrayList<>();
+        long count = useCase.exportMapped("SAP", false, sink::add);
+
+        assertEquals(2, count);
+        assertEquals(2, sink.size());
+        assertEquals("example corp", sink.get(0).get("customer"));
+        verify(invoiceRepo, never()).findApproved();
+    }
+
+    private Invoice modifiedInvoice(long id, LocalDateTime modified) {
+        Invoice inv = sampleInvoice();
+        inv.setId(id);
+        inv.setModifiedDate(modified);
+        return inv;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportMapped_incremental_readsAfterWatermarkAndReturnsNewPosition() {
+        LocalDateTime since = LocalDateTime.of(2024, 3, 1, 10, 0);
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+        when(watermarkRepo.findByErpName("SAP")).thenReturn(Optional.of(
+                ExportWatermark.builder().lastModifiedDate(since).lastInvoiceId(7L).build()));
+        doAnswer(call -> {
+            Consumer<Invoice> c = call.getArgument(3);
+            c.accept(modifiedInvoice(5L, since.plusMinutes(1)));
+            c.accept(modifiedInvoice(9L, since.plusMinutes(1)));
+            return null;
+        }).when(invoiceRepo).forEachApprovedModifiedAfter(eq(since), eq(7L), any(), any());
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        ExportResult result = useCase.exportMapped("SAP", false, ExportMode.INCREMENTAL, rows::add);
+
+        assertEquals(2, rows.size());
+        assertEquals(2, result.getCount());
+        assertEquals(since.plusMinutes(1), result.getLastModifiedDate());
+        assertEquals(9L, result.getLastInvoiceId());
+        verify(invoiceRepo, never()).forEachApproved(any());
+        // The caller decides when the rows were delivered
+        verify(watermarkRepo, never()).save(any(), any(), anyLong());
+
+        useCase.advanceWatermark(result);
+
+        verify(watermarkRepo).save("SAP", since.plusMinutes(1), 9L);
+    }
+
+    @Test
+    void exportMapped_incremental_stopsSafetyLagBeforeNow() {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 12, 0);
+        LocalDateTime since = now.minusHours(1);
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+        when(watermarkRepo.findByErpName("SAP")).thenReturn(Optional.of(
+                ExportWatermark.builder().lastModifiedDate(since).lastInvoiceId(7L).build()));
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo,
+                ParallelMappingPipeline.sequential(), Duration.ofSeconds(30), Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        useCase.advanceWatermark(useCase.exportMapped("SAP", false, ExportMode.INCREMENTAL, row -> { }));
+
+        verify(invoiceRepo).forEachApprovedModifiedAfter(eq(since), eq(7L), eq(now.minusSeconds(30)), any());
+        verify(watermarkRepo, never()).save(any(), any(), anyLong());
+    }
+
+    @Test
+    void exportMapped_lateCommittedInvoice_isExportedByNextRun() {
+        // Invoice 2 is stamped before invoice 3 but its transaction commits after the first export
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 12, 0);
+        Invoice settled = modifiedInvoice(1L, now.minusMinutes(10));
+        Invoice late = modifiedInvoice(2L, now.minusSeconds(20));
+        Invoice fresh = modifiedInvoice(3L, now.minusSeconds(10));
+        settled.setDocumentNumber("INV-1");
+        late.setDocumentNumber("INV-2");
+        fresh.setDocumentNumber("INV-3");
+        List<Invoice> committed = new ArrayList<>(List.of(settled, fresh));
+        AtomicReference<ExportWatermark> watermark = new AtomicReference<>();
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(List.of(
+                FieldMapping.builder().sourceField("documentNumber").targetField("numero").transformFn("").build()));
+        when(watermarkRepo.findByErpName("SAP")).thenAnswer(call -> Optional.ofNullable(watermark.get()));
+        doAnswer(call -> {
+            watermark.set(ExportWatermark.builder().lastModifiedDate(call.getArgument(1)).lastInvoiceId(call.getArgument(2)).build());
+            return null;
+        }).when(watermarkRepo).save(eq("SAP"), any(), anyLong());
+        doAnswer(call -> {
+            committed.forEach(call.<Consumer<Invoice>>getArgument(0));
+            return null;
+        }).when(invoiceRepo).forEachApproved(any());
+        doAnswer(call -> {
+            LocalDateTime after = call.getArgument(0);
+            long afterId = call.getArgument(1);
+            LocalDateTime upTo = call.getArgument(2);
+            committed.stream()
+                    .filter(inv -> !inv.getModifiedDate().isAfter(upTo))
+                    .filter(inv -> inv.getModifiedDate().isAfter(after)
+                            || (inv.getModifiedDate().equals(after) && inv.getId() > afterId))
+                    .sorted((a, b) -> a.getModifiedDate().compareTo(b.getModifiedDate()))
+                    .forEach(call.<Consumer<Invoice>>getArgument(3));
+            return null;
+        }).when(invoiceRepo).forEachApprovedModifiedAfter(any(), anyLong(), any(), any());
+
+        ExportInvoicesUseCase first = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo,
+                ParallelMappingPipeline.sequential(), Duration.ofMinutes(1), Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        List<Map<String, Object>> firstRows = new ArrayList<>();
+        first.advanceWatermark(first.exportMapped("SAP", false, ExportMode.INCREMENTAL, firstRows::add));
+
+        assertEquals(List.of("INV-1", "INV-3"), firstRows.stream().map(r -> r.get("numero")).toList());
+        assertEquals(1L, watermark.get().getLastInvoiceId());
+
+        committed.add(late);
+        Clock later = Clock.fixed(now.plusMinutes(5).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        ExportInvoicesUseCase second = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo,
+                ParallelMappingPipeline.sequential(), Duration.ofMinutes(1), later);
+        List<Map<String, Object>> secondRows = new ArrayList<>();
+        second.advanceWatermark(second.exportMapped("SAP", false, ExportMode.INCREMENTAL, secondRows::add));
+
+        assertEquals(List.of("INV-2", "INV-3"), secondRows.stream().map(r -> r.get("numero")).toList());
+        assertEquals(fresh.getModifiedDate(), watermark.get().getLastModifiedDate());
+        assertEquals(3L, watermark.get().getLastInvoiceId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportMapped_incrementalWithoutWatermark_scansAllAndStoresHighestPosition() {
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+        when(watermarkRepo.findByErpName("SAP")).thenReturn(Optional.empty());
+        LocalDateTime later = LocalDateTime.of(2024, 3, 20, 8, 0);
+        doAnswer(call -> {
+            Consumer<Invoice> c = call.getArgument(0);
+            c.accept(modifiedInvoice(1L, later));
+            c.accept(modifiedInvoice(2L, later.minusDays(1)));
+            c.accept(modifiedInvoice(3L, null));
+            return null;
+        }).when(invoiceRepo).forEachApproved(any());
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
+        ExportResult result = useCase.exportMapped("SAP", false, ExportMode.INCREMENTAL, row -> { });
+        useCase.advanceWatermark(result);
+
+        assertEquals(3, result.getCount());
+        verify(watermarkRepo).save("SAP", later, 1L);
+    }
+
+    @Test
+    void exportMapped_resync_ignoresWatermarkButResetsIt() {
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+        LocalDateTime modified = LocalDateTime.of(2024, 3, 20, 8, 0);
+        doAnswer(call -> {
+            ((Consumer<Invoice>) call.getArgument(0)).accept(modifiedInvoice(4L, modified));
+            return null;
+        }).when(invoiceRepo).forEachApproved(any());
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
+        useCase.advanceWatermark(useCase.exportMapped("SAP", false, ExportMode.RESYNC, row -> { }));
+
+        verify(watermarkRepo, never()).findByErpName(any());
+        verify(watermarkRepo).save("SAP", modified, 4L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportMapped_full_doesNotTouchWatermark() {
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+        when(invoiceRepo.findApproved()).thenReturn(List.of(sampleInvoice()));
+        doAnswer(call -> {
+            ((Consumer<Invoice>) call.getArgument(0)).accept(modifiedInvoice(4L, LocalDateTime.of(2024, 3, 20, 8, 0)));
+            return null;
+        }).when(invoiceRepo).forEachApproved(any());
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
+        useCase.exportMapped("SAP", false);
+        ExportResult result = useCase.exportMapped("SAP", false, ExportMode.FULL, row -> { });
+        useCase.advanceWatermark(result);
+
+        assertFalse(result.movesWatermark());
+
+        verifyNoInteractions(watermarkRepo);
+    }
+
+    @Test
+    void exportMapped_parallelPipeline_keepsInvoiceOrder() {
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Invoice inv = sampleInvoice();
+            inv.setDocumentNumber("INV-" + i);
+            invoices.add(inv);
+        }
+        when(invoiceRepo.findApproved()).thenReturn(invoices);
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(List.of(
+                FieldMapping.builder().sourceField("documentNumber").targetField("numero").transformFn("").build()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo,
+                    new ParallelMappingPipeline(pool, 8));
+            List<Map<String, Object>> rows = useCase.exportMapped("SAP", false);
+
+            assertEquals(100, rows.size());
+            for (int i = 0; i < 100; i++) assertEquals("INV-" + i, rows.get(i).get("numero"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Keeps every recorded stage timing; MAP is recorded from pipeline threads
+    private static final class RecordingMetrics implements Recorder {
+        final List<Stage> stages = java.util.Collections.synchronizedList(new ArrayList<>());
+        final Map<Stage, Long> nanos = new java.util.concurrent.ConcurrentHashMap<>();
+
+        @Override
+        public void record(Stage stage, long n) {
+            stages.add(stage);
+            nanos.merge(stage, n, Long::sum);
+        }
+
+        @Override
+        public void finish(long rows) {
+        }
+
+        @Override
+        public void fail() {
+        }
+    }
+
+    @Test
+    void exportMapped_recordsFetchRulesAndMapPerInvoice() {
+        when(invoiceRepo.findApproved()).thenReturn(List.of(sampleInvoice(), sampleInvoice(), sampleInvoice()));
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+        RecordingMetrics metrics = new RecordingMetrics();
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
+        List<Map<String, Object>> rows = useCase.exportMapped("SAP", false, metrics);
+
+        assertEquals(3, rows.size());
+        assertEquals(List.of(Stage.FETCH, Stage.RULES, Stage.MAP, Stage.MAP, Stage.MAP), metrics.stages);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportMapped_streaming_fetchTimeExcludesTimeSpentInSink() {
+        doAnswer(call -> {
+            ((Consumer<Invoice>) call.getArgument(0)).accept(sampleInvoice());
+            ((Consumer<Invoice>) call.getArgument(0)).accept(sampleInvoice());
+            return null;
+        }).when(invoiceRepo).forEachApproved(any());
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+        RecordingMetrics metrics = new RecordingMetrics();
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
+        ExportResult result = useCase.exportMapped("SAP", false, ExportMode.FULL, row -> {
+            try {
+                Thread.sleep(40);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, metrics);
+
+        assertEquals(2, result.getCount());
+        assertEquals(2, metrics.stages.stream().filter(st -> st == Stage.MAP).count());
+        assertTrue(metrics.stages.containsAll(List.of(Stage.RULES, Stage.FETCH)));
+        assertTrue(metrics.nanos.get(Stage.FETCH) < 40_000_000L, "fetch includes sink time: " + metrics.nanos.get(Stage.FETCH));
+    }
+
+    @Test
+    void exportMapped_withPlan_recordsRulesOnce() {
+        when(invoiceRepo.findApproved()).thenReturn(List.of(sampleInvoice()));
+        when(mappingRepo.findActiveByErpName("SAP")).thenReturn(rules());
+        RecordingMetrics metrics = new RecordingMetrics();
+
+        ExportInvoicesUseCase useCase = new ExportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, watermarkRepo);
+        MappingPlan plan = useCase.planFor("SAP", metrics);
+        List<Map<String, Object>> rows = useCase.exportMapped("SAP", plan, false, metrics);
+
+        assertEquals(1, rows.size());
+        assertEquals(List.of("customer", "docType", "issuedOn", "gross"), plan.outputKeys());
+        assertEquals(List.of(Stage.RULES, Stage.FETCH, Stage.MAP), metrics.stages);
+        verify(mappingRepo, times(1)).findActiveByErpName("SAP");
+    }
 }
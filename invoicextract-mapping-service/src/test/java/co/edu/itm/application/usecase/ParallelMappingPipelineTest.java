@@ -0,0 +1,100 @@
+package co.edu.itm.application.usecase;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelMappingPipelineTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void open_preservesSubmissionOrderWithParallelMapping() {
+        ParallelMappingPipeline pipeline = new ParallelMappingPipeline(pool, 8);
+        List<Integer> out = new ArrayList<>();
+
+        ParallelMappingPipeline.Session<Integer> session = pipeline.open(i -> {
+            sleepQuietly(ThreadLocalRandom.current().nextInt(3));
+            return i * 10;
+        }, out::add);
+        for (int i = 0; i < 200; i++) session.accept(i);
+        session.finish();
+
+        assertEquals(200, out.size());
+        for (int i = 0; i < 200; i++) assertEquals(i * 10, out.get(i));
+    }
+
+    @Test
+    void open_boundsItemsInFlightToQueueDepth() {
+        ParallelMappingPipeline pipeline = new ParallelMappingPipeline(pool, 3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        ParallelMappingPipeline.Session<Integer> session = pipeline.open(i -> i, r -> inFlight.decrementAndGet());
+        for (int i = 0; i < 50; i++) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            session.accept(i);
+        }
+        session.finish();
+
+        assertEquals(0, inFlight.get());
+        assertTrue(maxInFlight.get() <= 4, "max in flight was " + maxInFlight.get());
+    }
+
+    @Test
+    void open_propagatesMappingFailureToCaller() {
+        ParallelMappingPipeline pipeline = new ParallelMappingPipeline(pool, 4);
+        List<Integer> out = new ArrayList<>();
+
+        ParallelMappingPipeline.Session<Integer> session = pipeline.open(i -> {
+            if (i == 5) throw new IllegalArgumentException("bad " + i);
+            return i;
+        }, out::add);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+            for (int i = 0; i < 20; i++) session.accept(i);
+            session.finish();
+        });
+        assertEquals("bad 5", ex.getMessage());
+        assertEquals(List.of(0, 1, 2, 3, 4), out);
+    }
+
+    @Test
+    void sequential_mapsInlineOnCallerThread() {
+        ParallelMappingPipeline pipeline = ParallelMappingPipeline.sequential();
+        Thread caller = Thread.currentThread();
+        List<String> out = new ArrayList<>();
+
+        ParallelMappingPipeline.Session<String> session = pipeline.open(s -> {
+            assertSame(caller, Thread.currentThread());
+            return s.toUpperCase();
+        }, out::add);
+        session.accept("a");
+        session.accept("b");
+        session.finish();
+
+        assertFalse(pipeline.isParallel());
+        assertEquals(List.of("A", "B"), out);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
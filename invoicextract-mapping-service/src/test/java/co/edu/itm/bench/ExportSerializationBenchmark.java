@@ -0,0 +1,89 @@
+package co.edu.itm.bench;
+
+import co.edu.itm.adapters.out.export.ExportServiceAdapter;
+import co.edu.itm.domain.ports.RowWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of already-mapped rows: the in-memory {@code toCsv}/{@code toJson}
+ * used by GET /api/export and the incremental writers used by /api/export/stream
+ * (written to a discarding stream).
+ * Run with: mvn -Pbench test -Djmh.args="ExportSerializationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private ExportServiceAdapter adapter;
+    private List<Map<String, Object>> data;
+
+    @Setup
+    public void setup() {
+        adapter = new ExportServiceAdapter();
+        data = mappedRows(rows);
+    }
+
+    @Benchmark
+    public byte[] toCsv() {
+        return adapter.toCsv(data);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return adapter.toJson(data);
+    }
+
+    @Benchmark
+    public void csvWriter() throws IOException {
+        try (RowWriter writer = adapter.csvWriter(OutputStream.nullOutputStream())) {
+            for (Map<String, Object> row : data) writer.write(row);
+        }
+    }
+
+    @Benchmark
+    public void jsonWriter() throws IOException {
+        try (RowWriter writer = adapter.jsonWriter(OutputStream.nullOutputStream())) {
+            for (Map<String, Object> row : data) writer.write(row);
+        }
+    }
+
+    // Rows shaped like a typical flat ERP mapping output
+    static List<Map<String, Object>> mappedRows(int count) {
+        List<Map<String, Object>> out = new ArrayList<>(count);
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("numero", "INV-" + i);
+            row.put("tipo", "FV");
+            row.put("nitProveedor", "800765432-1");
+            row.put("proveedor", "EXAMPLE CORP S.A.S");
+            row.put("fecha", base.plusDays(i % 365));
+            row.put("total", new BigDecimal("1250.75").add(BigDecimal.valueOf(i)));
+            row.put("cantidad", i % 17);
+            row.put("estado", "APPROVED");
+            out.add(row);
+        }
+        return out;
+    }
+}
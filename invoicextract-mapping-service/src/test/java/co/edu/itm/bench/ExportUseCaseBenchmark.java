@@ -0,0 +1,151 @@
+package co.edu.itm.bench;
+
+import co.edu.itm.adapters.out.export.ExportServiceAdapter;
+import co.edu.itm.application.usecase.ExportInvoicesUseCase;
+import co.edu.itm.application.usecase.ParallelMappingPipeline;
+import co.edu.itm.domain.model.ExportWatermark;
+import co.edu.itm.domain.model.FieldMapping;
+import co.edu.itm.domain.model.Invoice;
+import co.edu.itm.domain.ports.ExportWatermarkPort;
+import co.edu.itm.domain.ports.InvoiceRepositoryPort;
+import co.edu.itm.domain.ports.MappingRepositoryPort;
+import co.edu.itm.domain.ports.RowWriter;
+import co.edu.itm.domain.service.DynamicMappingService;
+import co.edu.itm.domain.service.TransformRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * End-to-end export (fetch, map, serialize) over in-memory ports, so the numbers cover
+ * the mapping service's own work without database or network time.
+ * Run with: mvn -Pbench test -Djmh.args="ExportUseCaseBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportUseCaseBenchmark {
+
+    @Param({"10000"})
+    public int invoices;
+
+    @Param({"flat", "wildcard"})
+    public String ruleSet;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private ExecutorService executor;
+    private ExportInvoicesUseCase useCase;
+    private ExportServiceAdapter exporter;
+
+    @Setup
+    public void setup() {
+        List<Invoice> data = new ArrayList<>(invoices);
+        for (int i = 0; i < invoices; i++) {
+            Invoice inv = SourceViewBenchmark.sampleInvoice(10);
+            inv.setId((long) i + 1);
+            data.add(inv);
+        }
+        ParallelMappingPipeline pipeline = ParallelMappingPipeline.sequential();
+        if (parallelism > 1) {
+            executor = Executors.newFixedThreadPool(parallelism);
+            pipeline = new ParallelMappingPipeline(executor, 256);
+        }
+        useCase = new ExportInvoicesUseCase(new InMemoryInvoices(data), new FixedRules(MappingPlanBenchmark.rulesFor(ruleSet)),
+                new DynamicMappingService(new TransformRegistry()), new NoWatermark(), pipeline);
+        exporter = new ExportServiceAdapter();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    @Benchmark
+    public String exportJson() {
+        return exporter.toJson(useCase.exportMapped("SAP", false));
+    }
+
+    @Benchmark
+    public long exportStreamCsv() throws IOException {
+        try (RowWriter writer = exporter.csvWriter(OutputStream.nullOutputStream())) {
+            return useCase.exportMapped("SAP", false, row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private record InMemoryInvoices(List<Invoice> invoices) implements InvoiceRepositoryPort {
+        @Override
+        public List<Invoice> findApproved() {
+            return invoices;
+        }
+
+        @Override
+        public List<Invoice> findApprovedAfter(long afterId, int limit) {
+            return invoices.stream().filter(i -> i.getId() > afterId).limit(limit).toList();
+        }
+
+        @Override
+        public void forEachApproved(long afterId, Consumer<Invoice> consumer) {
+            for (Invoice inv : invoices) {
+                if (inv.getId() > afterId) consumer.accept(inv);
+            }
+        }
+
+        @Override
+        public void forEachApprovedModifiedAfter(LocalDateTime modifiedDate, long afterId, LocalDateTime upTo, Consumer<Invoice> consumer) {
+            forEachApproved(afterId, consumer);
+        }
+    }
+
+    private record FixedRules(List<FieldMapping> rules) implements MappingRepositoryPort {
+        @Override
+        public List<FieldMapping> findActiveByErpName(String erpName) {
+            return rules;
+        }
+
+        @Override
+        public boolean existsActiveByErpAndSource(Long erpId, String sourceField) {
+            return true;
+        }
+
+        @Override
+        public void invalidateCacheForErp(String erpName) {
+        }
+    }
+
+    private static final class NoWatermark implements ExportWatermarkPort {
+        @Override
+        public Optional<ExportWatermark> findByErpName(String erpName) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void save(String erpName, LocalDateTime lastModifiedDate, long lastInvoiceId) {
+        }
+    }
+}
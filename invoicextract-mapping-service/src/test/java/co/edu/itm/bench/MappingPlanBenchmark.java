@@ -0,0 +1,120 @@
+package co.edu.itm.bench;
+
+import co.edu.itm.domain.model.FieldMapping;
+import co.edu.itm.domain.service.DynamicMappingService;
+import co.edu.itm.domain.service.MappingPlan;
+import co.edu.itm.domain.service.TransformRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares interpreting the rules on every call (parse paths and transform specs per
+ * invoice) against applying a pre-compiled {@link MappingPlan}, for flat, indexed
+ * ({@code items[3].x}) and wildcard ({@code items[].x}) rule sets.
+ * Run with: mvn -Pbench test -Djmh.args="MappingPlanBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingPlanBenchmark {
+
+    @Param({"flat", "indexed", "wildcard"})
+    public String ruleSet;
+
+    private DynamicMappingService service;
+    private List<FieldMapping> rules;
+    private MappingPlan plan;
+    private Map<String, Object> source;
+
+    @Setup
+    public void setup() {
+        service = new DynamicMappingService(new TransformRegistry());
+        rules = rulesFor(ruleSet);
+        plan = service.compile(rules);
+        source = sampleSource(10);
+    }
+
+    @Benchmark
+    public Map<String, Object> interpreted() {
+        return service.apply(rules, source);
+    }
+
+    @Benchmark
+    public Map<String, Object> compiled() {
+        return plan.apply(source);
+    }
+
+    static List<FieldMapping> rulesFor(String ruleSet) {
+        return switch (ruleSet) {
+            case "flat" -> flatRules();
+            case "indexed" -> indexedRules();
+            default -> wildcardRules();
+        };
+    }
+
+    static List<FieldMapping> flatRules() {
+        return List.of(
+                rule("documentNumber", "numero", "TRIM"),
+                rule("documentType", "tipo", "UPPER"),
+                rule("amount", "total", ""),
+                rule("id", "referencia", ""),
+                rule("missing", "vacio", "")
+        );
+    }
+
+    static List<FieldMapping> wildcardRules() {
+        return List.of(
+                rule("documentNumber", "numero", "TRIM"),
+                rule("items[].quantity", "cantidadTotal", "SUM"),
+                rule("items[].description", "descripciones", "JOIN:|"),
+                rule("items[].itemCode", "lineas[].codigo", ""),
+                rule("items[].unitPrice", "lineas[].precio", "")
+        );
+    }
+
+    static List<FieldMapping> indexedRules() {
+        return List.of(
+                rule("documentNumber", "numero", "TRIM"),
+                rule("items[3].quantity", "cantidad", ""),
+                rule("items[3].description", "descripcion", "UPPER"),
+                rule("items[3].itemCode", "linea[0].codigo", ""),
+                rule("items[3].unitPrice", "linea[0].precio", "")
+        );
+    }
+
+    static Map<String, Object> sampleSource(int itemCount) {
+        Map<String, Object> src = new LinkedHashMap<>();
+        src.put("id", 1L);
+        src.put("documentNumber", " INV-0001 ");
+        src.put("documentType", "FV");
+        src.put("amount", new BigDecimal("1250.00"));
+        List<Map<String, Object>> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            Map<String, Object> it = new LinkedHashMap<>();
+            it.put("itemCode", "IT-" + i);
+            it.put("description", "Item " + i);
+            it.put("quantity", i + 1);
+            it.put("unitPrice", new BigDecimal("12.50"));
+            items.add(it);
+        }
+        src.put("items", items);
+        return src;
+    }
+
+    private static FieldMapping rule(String source, String target, String transform) {
+        return FieldMapping.builder().sourceField(source).targetField(target).transformFn(transform).build();
+    }
+}
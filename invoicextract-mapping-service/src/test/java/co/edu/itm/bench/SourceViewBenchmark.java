@@ -0,0 +1,149 @@
+package co.edu.itm.bench;
+
+import co.edu.itm.domain.model.FieldMapping;
+import co.edu.itm.domain.model.Invoice;
+import co.edu.itm.domain.model.InvoiceItem;
+import co.edu.itm.domain.service.DynamicMappingService;
+import co.edu.itm.domain.service.InvoiceSourceView;
+import co.edu.itm.domain.service.MappingPlan;
+import co.edu.itm.domain.service.TransformRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation comparison between copying each invoice into a HashMap source (previous
+ * behaviour, reproduced in {@link #copyOf}) and the read-only {@link InvoiceSourceView}.
+ * Run with: mvn -Pbench test -Djmh.args="SourceViewBenchmark -prof gc"
+ * and compare gc.alloc.rate.norm (bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SourceViewBenchmark {
+
+    @Param({"false", "true"})
+    public boolean flatten;
+
+    @Param({"10"})
+    public int items;
+
+    private Invoice invoice;
+    private MappingPlan plan;
+
+    @Setup
+    public void setup() {
+        invoice = sampleInvoice(items);
+        plan = new DynamicMappingService(new TransformRegistry()).compile(List.of(
+                rule("documentNumber", "numero", "TRIM"),
+                rule("senderBusinessName", "proveedor", "UPPER"),
+                rule("amount", "total", ""),
+                rule("issueDate", "fecha", "DATE_FMT:yyyy-MM-dd"),
+                rule("items[3].quantity", "cantidad", ""),
+                rule("items[0].itemCode", "codigo", "")
+        ));
+    }
+
+    @Benchmark
+    public Map<String, Object> hashMapCopy() {
+        return plan.apply(copyOf(invoice, flatten));
+    }
+
+    @Benchmark
+    public Map<String, Object> sourceView() {
+        return plan.apply(InvoiceSourceView.of(invoice, flatten));
+    }
+
+    // Per-invoice source map as built by ExportInvoicesUseCase before InvoiceSourceView
+    static Map<String, Object> copyOf(Invoice inv, boolean flatten) {
+        Map<String, Object> src = new HashMap<>();
+        src.put("id", inv.getId());
+        src.put("documentType", inv.getDocumentType());
+        src.put("documentNumber", inv.getDocumentNumber());
+        src.put("receiverTaxId", inv.getReceiverTaxId());
+        src.put("receiverTaxIdWithoutCheckDigit", inv.getReceiverTaxIdWithoutCheckDigit());
+        src.put("receiverBusinessName", inv.getReceiverBusinessName());
+        src.put("senderTaxId", inv.getSenderTaxId());
+        src.put("senderTaxIdWithoutCheckDigit", inv.getSenderTaxIdWithoutCheckDigit());
+        src.put("senderBusinessName", inv.getSenderBusinessName());
+        src.put("relatedDocumentNumber", inv.getRelatedDocumentNumber());
+        src.put("amount", inv.getAmount());
+        src.put("issueDate", inv.getIssueDate());
+        src.put("dueDate", inv.getDueDate());
+        src.put("status", inv.getStatus());
+        src.put("createdDate", inv.getCreatedDate());
+        src.put("modifiedDate", inv.getModifiedDate());
+        src.put("createdBy", inv.getCreatedBy());
+        src.put("modifiedBy", inv.getModifiedBy());
+        if (flatten) {
+            List<InvoiceItem> items = inv.getItems();
+            for (int i = 0; i < items.size(); i++) {
+                InvoiceItem it = items.get(i);
+                String p = "items[" + i + "].";
+                src.put(p + "itemCode", it.getItemCode());
+                src.put(p + "description", it.getDescription());
+                src.put(p + "quantity", it.getQuantity());
+                src.put(p + "unit", it.getUnit());
+                src.put(p + "unitPrice", it.getUnitPrice());
+                src.put(p + "subtotal", it.getSubtotal());
+                src.put(p + "taxAmount", it.getTaxAmount());
+                src.put(p + "total", it.getTotal());
+            }
+        } else {
+            List<Map<String, Object>> itemsOut = new ArrayList<>();
+            for (InvoiceItem it : inv.getItems()) {
+                Map<String, Object> m = new HashMap<>();
+                m.put("itemCode", it.getItemCode());
+                m.put("description", it.getDescription());
+                m.put("quantity", it.getQuantity());
+                m.put("unit", it.getUnit());
+                m.put("unitPrice", it.getUnitPrice());
+                m.put("subtotal", it.getSubtotal());
+                m.put("taxAmount", it.getTaxAmount());
+                m.put("total", it.getTotal());
+                itemsOut.add(m);
+            }
+            src.put("items", itemsOut);
+        }
+        return src;
+    }
+
+    static Invoice sampleInvoice(int itemCount) {
+        List<InvoiceItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(InvoiceItem.builder()
+                    .id((long) i).itemCode("IT-" + i).description("Item " + i).quantity(i + 1).unit("EA")
+                    .unitPrice(new BigDecimal("12.50")).subtotal(new BigDecimal("12.50"))
+                    .taxAmount(new BigDecimal("2.38")).total(new BigDecimal("14.88"))
+                    .build());
+        }
+        return Invoice.builder()
+                .id(1L).documentType("FV").documentNumber(" INV-0001 ")
+                .receiverTaxId("900123456-7").receiverBusinessName("ACME S.A.")
+                .senderTaxId("800765432-1").senderBusinessName("example corp")
+                .amount(new BigDecimal("148.80"))
+                .issueDate(LocalDate.of(2024, 3, 15)).dueDate(LocalDate.of(2024, 4, 15))
+                .status("APPROVED")
+                .createdDate(LocalDateTime.of(2024, 3, 15, 9, 0)).modifiedDate(LocalDateTime.of(2024, 3, 16, 9, 0))
+                .items(items)
+                .build();
+    }
+
+    private static FieldMapping rule(String source, String target, String transform) {
+        return FieldMapping.builder().sourceField(source).targetField(target).transformFn(transform).build();
+    }
+}
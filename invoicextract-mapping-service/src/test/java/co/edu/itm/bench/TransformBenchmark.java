@@ -0,0 +1,71 @@
+package co.edu.itm.bench;
+
+import co.edu.itm.domain.service.CompiledTransform;
+import co.edu.itm.domain.service.TransformRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each built-in {@link TransformRegistry} function on a representative input,
+ * both through the spec string ({@code registry.apply}) and through the
+ * {@link CompiledTransform} the mapping plan holds.
+ * Run with: mvn -Pbench test -Djmh.args="TransformBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransformBenchmark {
+
+    @Param({"TRIM", "UPPER", "DATE_FMT:dd/MM/yyyy", "FIRST", "SUM", "JOIN:|", "TRIM|UPPER"})
+    public String spec;
+
+    private TransformRegistry registry;
+    private CompiledTransform compiled;
+    private Object input;
+
+    @Setup
+    public void setup() {
+        registry = new TransformRegistry();
+        compiled = registry.compile(spec);
+        input = inputFor(spec.split("[:|]")[0]);
+    }
+
+    @Benchmark
+    public Object registryApply() {
+        return registry.apply(spec, input);
+    }
+
+    @Benchmark
+    public Object compiled() {
+        return compiled.apply(input);
+    }
+
+    private static Object inputFor(String name) {
+        return switch (name) {
+            case "TRIM" -> "  Factura de venta 0001  ";
+            case "UPPER" -> "example corp s.a.s";
+            case "DATE_FMT" -> LocalDate.of(2024, 3, 15);
+            case "SUM" -> listOf(i -> new BigDecimal(i + ".50"));
+            case "JOIN" -> listOf(i -> "Item " + i);
+            default -> listOf(i -> "IT-" + i);
+        };
+    }
+
+    private static List<Object> listOf(java.util.function.IntFunction<Object> gen) {
+        List<Object> list = new ArrayList<>(10);
+        for (int i = 0; i < 10; i++) list.add(gen.apply(i));
+        return list;
+    }
+}
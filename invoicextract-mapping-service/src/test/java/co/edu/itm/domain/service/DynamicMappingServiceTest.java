@@ -82,4 +82,72 @@ class DynamicMappingServiceTest {
         assertEquals("A | B", out.get("descs"));
         assertEquals("A", out.get("primera"));
     }
+
+    @Test
+    void planFor_shouldReuseCachedPlanUntilRulesChange() {
+        DynamicMappingService service = new DynamicMappingService(new TransformRegistry());
+        List<FieldMapping> rules = List.of(
+                FieldMapping.builder().id(1L).version(1).sourceField("name").targetField("n").transformFn("TRIM").build()
+        );
+
+        MappingPlan first = service.planFor("SAP", rules);
+        List<FieldMapping> sameRules = List.of(
+                FieldMapping.builder().id(1L).version(1).sourceField("name").targetField("n").transformFn("TRIM").build()
+        );
+        assertSame(first, service.planFor("sap", sameRules));
+
+        List<FieldMapping> changed = List.of(
+                FieldMapping.builder().id(1L).version(1).sourceField("name").targetField("n").transformFn("UPPER").build()
+        );
+        MappingPlan second = service.planFor("SAP", changed);
+        assertNotSame(first, second);
+        assertEquals("ANA", second.apply(Map.of("name", "ana")).get("n"));
+
+        service.evictPlan("SAP");
+        assertNotSame(second, service.planFor("SAP", changed));
+    }
+
+    @Test
+    void apply_shouldReuseCompiledPlanForEqualRules() {
+        DynamicMappingService service = new DynamicMappingService(new TransformRegistry());
+        List<FieldMapping> rules = List.of(
+                FieldMapping.builder().sourceField("name").targetField("n").transformFn("TRIM").build()
+        );
+        List<FieldMapping> sameRules = List.of(
+                FieldMapping.builder().sourceField("name").targetField("n").transformFn("TRIM").build()
+        );
+        List<FieldMapping> otherRules = List.of(
+                FieldMapping.builder().sourceField("name").targetField("n").transformFn("UPPER").build()
+        );
+
+        MappingPlan plan = service.planOf(rules);
+
+        assertSame(plan, service.planOf(sameRules));
+        assertNotSame(plan, service.planOf(otherRules));
+        assertEquals("ANA", service.apply(otherRules, Map.of("name", "ana")).get("n"));
+    }
+
+    @Test
+    void planFor_shouldRecompileWhenTransformIsRegistered() {
+        TransformRegistry registry = new TransformRegistry();
+        DynamicMappingService service = new DynamicMappingService(registry);
+        List<FieldMapping> rules = List.of(
+                FieldMapping.builder().id(1L).version(1).sourceField("name").targetField("n").transformFn("UPPER").build()
+        );
+        MappingPlan before = service.planFor("SAP", rules);
+        assertEquals("ANA", before.apply(Map.of("name", "ana")).get("n"));
+
+        registry.register(new TransformFunction() {
+            public Object apply(Object v, String arg) {
+                return "custom";
+            }
+
+            public String name() {
+                return "UPPER";
+            }
+        });
+
+        assertEquals("custom", service.planFor("SAP", rules).apply(Map.of("name", "ana")).get("n"));
+        assertEquals("custom", service.apply(rules, Map.of("name", "ana")).get("n"));
+    }
 }
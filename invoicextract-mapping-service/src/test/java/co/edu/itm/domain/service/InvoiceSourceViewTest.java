@@ -0,0 +1,100 @@
+package co.edu.itm.domain.service;
+
+import co.edu.itm.domain.model.FieldMapping;
+import co.edu.itm.domain.model.Invoice;
+import co.edu.itm.domain.model.InvoiceItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvoiceSourceViewTest {
+
+    private Invoice sampleInvoice() {
+        InvoiceItem a = InvoiceItem.builder().itemCode("A1").quantity(2).unitPrice(new BigDecimal("10.00")).build();
+        InvoiceItem b = InvoiceItem.builder().itemCode("B2").quantity(3).build();
+        return Invoice.builder()
+                .id(7L)
+                .documentNumber("INV-7")
+                .amount(new BigDecimal("25.00"))
+                .issueDate(LocalDate.of(2024, 3, 15))
+                .items(List.of(a, b))
+                .build();
+    }
+
+    @Test
+    void nested_exposesTopLevelFieldsAndItemsList() {
+        InvoiceSourceView view = InvoiceSourceView.of(sampleInvoice(), false);
+
+        assertEquals(7L, view.get("id"));
+        assertEquals("INV-7", view.get("documentNumber"));
+        assertTrue(view.containsKey("relatedDocumentNumber"));
+        assertNull(view.get("relatedDocumentNumber"));
+        assertFalse(view.containsKey("items[0].itemCode"));
+        assertEquals(19, view.size());
+
+        List<?> items = (List<?>) view.get("items");
+        assertEquals(2, items.size());
+        Map<?, ?> first = (Map<?, ?>) items.get(0);
+        assertEquals("A1", first.get("itemCode"));
+        assertTrue(first.containsKey("total"));
+        assertEquals(8, first.size());
+    }
+
+    @Test
+    void flatten_exposesIndexedItemKeysAndNoItemsList() {
+        InvoiceSourceView view = InvoiceSourceView.of(sampleInvoice(), true);
+
+        assertEquals(3, view.get("items[1].quantity"));
+        assertTrue(view.containsKey("items[1].unitPrice"));
+        assertNull(view.get("items[1].unitPrice"));
+        assertFalse(view.containsKey("items[2].quantity"));
+        assertFalse(view.containsKey("items[01].quantity"));
+        assertFalse(view.containsKey("items[0].unknown"));
+        assertFalse(view.containsKey("items"));
+        assertEquals(18 + 16, view.size());
+    }
+
+    @Test
+    void entrySet_iteratesSameKeysAsSize() {
+        InvoiceSourceView flat = InvoiceSourceView.of(sampleInvoice(), true);
+        List<String> keys = new ArrayList<>(flat.keySet());
+
+        assertEquals(flat.size(), keys.size());
+        assertEquals("id", keys.get(0));
+        assertEquals("items[0].itemCode", keys.get(18));
+        assertEquals("items[1].total", keys.get(keys.size() - 1));
+        assertEquals(flat.get("items[0].quantity"), new HashMap<>(flat).get("items[0].quantity"));
+
+        InvoiceSourceView nested = InvoiceSourceView.of(Invoice.builder().id(1L).items(null).build(), false);
+        assertEquals(19, nested.entrySet().size());
+        assertEquals(List.of(), nested.get("items"));
+    }
+
+    @Test
+    void mappingPlan_resolvesPathsThroughView() {
+        MappingPlan plan = MappingPlan.compile(List.of(
+                rule("items[].quantity", "total", "SUM"),
+                rule("items[1].itemCode", "segundo", ""),
+                rule("documentNumber", "numero", "")
+        ), new TransformRegistry());
+
+        Map<String, Object> nested = plan.apply(InvoiceSourceView.of(sampleInvoice(), false));
+        Map<String, Object> flat = plan.apply(InvoiceSourceView.of(sampleInvoice(), true));
+
+        assertEquals(5.0, nested.get("total"));
+        assertEquals("B2", nested.get("segundo"));
+        assertEquals("B2", flat.get("segundo"));
+        assertEquals("INV-7", flat.get("numero"));
+    }
+
+    private static FieldMapping rule(String s, String t, String fn) {
+        return FieldMapping.builder().sourceField(s).targetField(t).transformFn(fn).build();
+    }
+}
@@ -0,0 +1,102 @@
+package co.edu.itm.domain.service;
+
+import co.edu.itm.domain.model.FieldMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappingPlanTest {
+
+    private final TransformRegistry registry = new TransformRegistry();
+
+    private static FieldMapping rule(String source, String target, String transform) {
+        return FieldMapping.builder().sourceField(source).targetField(target).transformFn(transform).build();
+    }
+
+    private static Map<String, Object> item(String code, int qty) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("itemCode", code);
+        m.put("quantity", qty);
+        return m;
+    }
+
+    @Test
+    void apply_shouldResolveIndexedAndWildcardPaths() {
+        MappingPlan plan = MappingPlan.compile(List.of(
+                rule("items[1].itemCode", "segundo", ""),
+                rule("items[].quantity", "total", "SUM"),
+                rule("items[5].itemCode", "fueraDeRango", "")
+        ), registry);
+
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("items", List.of(item("A", 2), item("B", 3)));
+
+        Map<String, Object> out = plan.apply(source);
+
+        assertEquals(3, plan.size());
+        assertEquals("B", out.get("segundo"));
+        assertEquals(5.0, out.get("total"));
+        assertTrue(out.containsKey("fueraDeRango"));
+        assertNull(out.get("fueraDeRango"));
+    }
+
+    @Test
+    void apply_shouldPreferExactFlattenedKeyOverNavigation() {
+        MappingPlan plan = MappingPlan.compile(List.of(rule("items[0].itemCode", "codigo", "")), registry);
+
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("items[0].itemCode", "FLAT");
+
+        assertEquals("FLAT", plan.apply(source).get("codigo"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void apply_shouldDistributeListValuesIntoWildcardTargets() {
+        MappingPlan plan = MappingPlan.compile(List.of(
+                rule("items[].itemCode", "lineas[].codigo", ""),
+                rule("items[].quantity", "lineas[].cantidad", ""),
+                rule("items[0].itemCode", "cabecera[].primerCodigo", "")
+        ), registry);
+
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("items", List.of(item("A", 2), item("B", 3)));
+
+        Map<String, Object> out = plan.apply(source);
+
+        List<Map<String, Object>> lineas = (List<Map<String, Object>>) out.get("lineas");
+        assertEquals(2, lineas.size());
+        assertEquals(Map.of("codigo", "A", "cantidad", 2), lineas.get(0));
+        assertEquals(Map.of("codigo", "B", "cantidad", 3), lineas.get(1));
+        assertEquals(List.of(Map.of("primerCodigo", "A")), out.get("cabecera"));
+    }
+
+    @Test
+    void apply_shouldIgnoreUnknownTransformsAndBlankTargets() {
+        MappingPlan plan = MappingPlan.compile(List.of(
+                rule("name", "nombre", "NOPE:x"),
+                rule("name", " ", "TRIM")
+        ), registry);
+
+        Map<String, Object> out = plan.apply(Map.of("name", " ana "));
+
+        assertEquals(Map.of("nombre", " ana "), out);
+    }
+
+    @Test
+    void outputKeys_shouldListTopLevelTargetsInRuleOrder() {
+        MappingPlan plan = MappingPlan.compile(List.of(
+                rule("documentNumber", "numero", ""),
+                rule("items[].itemCode", "lineas[].codigo", ""),
+                rule("items[].quantity", "lineas[].cantidad", ""),
+                rule("name", " ", ""),
+                rule("id", "cabecera.id", "")
+        ), registry);
+
+        assertEquals(List.of("numero", "lineas", "cabecera.id"), plan.outputKeys());
+    }
+}
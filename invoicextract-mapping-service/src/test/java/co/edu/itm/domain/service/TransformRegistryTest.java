@@ -4,9 +4,12 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class TransformRegistryTest {
 
@@ -62,4 +65,89 @@ class TransformRegistryTest {
         assertEquals("", registry.apply("JOIN:,", List.of()));
         assertEquals("x", registry.apply("JOIN:-", "x"));
     }
+
+    @Test
+    void pipeline_shouldApplyStepsLeftToRight() {
+        TransformRegistry registry = new TransformRegistry();
+        assertEquals("HELLO", registry.apply("TRIM|UPPER", "  hello "));
+        assertEquals("A|B", registry.apply("JOIN:|" + "|UPPER", List.of("a", "b")));
+        assertEquals("15/03/2024", registry.apply("TRIM|DATE_FMT:dd/MM/yyyy", " 2024-03-15 "));
+    }
+
+    @Test
+    void pipeline_pipeNotFollowedByFunction_isPartOfArgument() {
+        TransformRegistry registry = new TransformRegistry();
+        assertEquals("a | b", registry.apply("JOIN: | ", List.of("a", "b")));
+        assertEquals("a|x|b", registry.apply("JOIN:|x|", List.of("a", "b")));
+    }
+
+    @Test
+    void pipeline_unknownStep_isSkipped() {
+        TransformRegistry registry = new TransformRegistry();
+        assertEquals("ABC", registry.apply("NOPE|UPPER", "abc"));
+    }
+
+    @Test
+    void compile_shouldBindOnceAndReuse() {
+        TransformRegistry registry = new TransformRegistry();
+        CompiledTransform fmt = registry.compile("DATE_FMT:dd/MM/yyyy");
+        assertEquals("15/03/2024", fmt.apply(LocalDate.of(2024, 3, 15)));
+        assertEquals("01/01/2025", fmt.apply("2025-01-01"));
+        assertNull(fmt.apply(null));
+        assertSame(CompiledTransform.IDENTITY, registry.compile(" "));
+    }
+
+    @Test
+    void compile_invalidDatePattern_failsWhenApplied() {
+        TransformRegistry registry = new TransformRegistry();
+        CompiledTransform fmt = registry.compile("DATE_FMT:{");
+        assertThrows(IllegalArgumentException.class, () -> fmt.apply(LocalDate.of(2024, 3, 15)));
+    }
+
+    @Test
+    void register_shouldReplaceFunctionForLaterApplies() {
+        TransformRegistry registry = new TransformRegistry();
+        assertEquals("X", registry.apply("UPPER", "x"));
+        registry.register(new TransformFunction() {
+            public Object apply(Object v, String arg) {
+                return "custom";
+            }
+
+            public String name() {
+                return "UPPER";
+            }
+        });
+        assertEquals("custom", registry.apply("UPPER", "x"));
+    }
+
+    @Test
+    void apply_shouldDropCompiledSpecsOnceCacheIsFull() {
+        TransformRegistry registry = new TransformRegistry();
+        AtomicInteger binds = new AtomicInteger();
+        registry.register(new TransformFunction() {
+            public Object apply(Object v, String arg) {
+                return arg;
+            }
+
+            public CompiledTransform bind(String arg) {
+                binds.incrementAndGet();
+                return v -> arg;
+            }
+
+            public String name() {
+                return "ARG";
+            }
+        });
+
+        registry.apply("ARG:0", "x");
+        registry.apply("ARG:0", "x");
+        assertEquals(1, binds.get());
+        for (int i = 1; i < TransformRegistry.MAX_COMPILED_SPECS; i++) registry.apply("ARG:" + i, "x");
+        assertEquals(TransformRegistry.MAX_COMPILED_SPECS, binds.get());
+
+        // One spec more clears the cache, so earlier specs are compiled again
+        assertEquals(String.valueOf(TransformRegistry.MAX_COMPILED_SPECS), registry.apply("ARG:" + TransformRegistry.MAX_COMPILED_SPECS, "x"));
+        assertEquals("0", registry.apply("ARG:0", "x"));
+        assertEquals(TransformRegistry.MAX_COMPILED_SPECS + 2, binds.get());
+    }
 }
@@ -0,0 +1,55 @@
+package co.edu.itm.infra.config;
+
+import co.edu.itm.application.usecase.ParallelMappingPipeline;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExportPipelineConfigTest {
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<ExecutorService> provider(ExecutorService executor) {
+        ObjectProvider<ExecutorService> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(executor);
+        return provider;
+    }
+
+    @Test
+    void createsBoundedPoolAndParallelPipeline() {
+        ExportPipelineConfig cfg = new ExportPipelineConfig();
+        ExportPipelineProperties props = cfg.exportPipelineProperties();
+        props.setParallelism(3);
+        props.setQueueDepth(16);
+
+        ExecutorService executor = cfg.exportMappingExecutor(props);
+        try {
+            ThreadPoolExecutor tpe = (ThreadPoolExecutor) executor;
+            assertEquals(3, tpe.getMaximumPoolSize());
+            assertEquals(16, tpe.getQueue().remainingCapacity());
+            assertTrue(cfg.parallelMappingPipeline(props, provider(executor)).isParallel());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void parallelismOfOne_usesSequentialPipeline() {
+        ExportPipelineConfig cfg = new ExportPipelineConfig();
+        ExportPipelineProperties props = new ExportPipelineProperties();
+        props.setParallelism(1);
+
+        ObjectProvider<ExecutorService> executor = provider(null);
+
+        ParallelMappingPipeline pipeline = cfg.parallelMappingPipeline(props, executor);
+        assertFalse(pipeline.isParallel());
+        verify(executor, never()).getObject();
+    }
+}
@@ -0,0 +1,26 @@
+package co.edu.itm.infra.config;
+
+import co.edu.itm.adapters.out.metrics.MicrometerExportMetricsAdapter;
+import co.edu.itm.domain.ports.ExportMetricsPort.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsConfigTest {
+
+    @Test
+    void erpTagIsCappedForExportMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MetricsConfig().exportErpTagLimit(2));
+        MicrometerExportMetricsAdapter adapter = new MicrometerExportMetricsAdapter(registry);
+
+        for (String erp : new String[]{"SAP", "ODOO", "unknown-1", "unknown-2"}) {
+            adapter.start(erp, "json").record(Stage.MAP, 1_000);
+        }
+
+        assertEquals(2, registry.find(MicrometerExportMetricsAdapter.STAGE_TIMER).tagKeys("erp").timers().stream()
+                .map(t -> t.getId().getTag("erp")).distinct().count());
+        assertNull(registry.find(MicrometerExportMetricsAdapter.STAGE_TIMER).tag("erp", "unknown-1").timer());
+    }
+}
@@ -48,6 +48,16 @@ class SecurityAuthorizationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void prometheus_requires_admin_role() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/prometheus")
+                        .with(jwt().authorities(new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_FINANZAS"))))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void erps_requires_tecnico_role() throws Exception {
         when(erpJpaRepository.findAll()).thenReturn(java.util.List.of());
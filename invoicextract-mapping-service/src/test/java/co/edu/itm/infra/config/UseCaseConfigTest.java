@@ -1,12 +1,16 @@
 package co.edu.itm.infra.config;
 
 import co.edu.itm.application.usecase.ExportInvoicesUseCase;
+import co.edu.itm.application.usecase.ParallelMappingPipeline;
+import co.edu.itm.domain.ports.ExportWatermarkPort;
 import co.edu.itm.domain.ports.InvoiceRepositoryPort;
 import co.edu.itm.domain.ports.MappingRepositoryPort;
 import co.edu.itm.domain.service.DynamicMappingService;
 import co.edu.itm.domain.service.TransformRegistry;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
@@ -19,7 +23,8 @@ class UseCaseConfigTest {
         MappingRepositoryPort mappingRepo = mock(MappingRepositoryPort.class);
         DynamicMappingService mappingService = new DynamicMappingService(new TransformRegistry());
 
-        ExportInvoicesUseCase bean = cfg.exportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService);
+        ExportInvoicesUseCase bean = cfg.exportInvoicesUseCase(invoiceRepo, mappingRepo, mappingService, mock(ExportWatermarkPort.class),
+                ParallelMappingPipeline.sequential(), Duration.ofMinutes(1));
         assertNotNull(bean);
     }
 }